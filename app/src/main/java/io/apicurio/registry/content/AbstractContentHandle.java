@@ -20,6 +20,8 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.Arrays;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
 /**
  * @author Ales Justin
  */
@@ -27,12 +29,28 @@ abstract class AbstractContentHandle implements ContentHandle {
 
     protected byte[] bytes;
     protected String content;
+    protected volatile String sha256Hex;
 
     @Override
     public InputStream stream() {
         return new ByteArrayInputStream(bytes());
     }
 
+    @Override
+    public String sha256Hex() {
+        String hash = sha256Hex;
+        if (hash == null) {
+            hash = DigestUtils.sha256Hex(bytes());
+            sha256Hex = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String knownSha256Hex() {
+        return sha256Hex;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -27,6 +27,11 @@ class BytesContentHandle extends AbstractContentHandle {
         this.bytes = bytes;
     }
 
+    BytesContentHandle(byte[] bytes, String sha256Hex) {
+        this.bytes = bytes;
+        this.sha256Hex = sha256Hex;
+    }
+
     @Override
     public byte[] bytes() {
         return bytes;
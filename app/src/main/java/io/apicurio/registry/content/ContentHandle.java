@@ -32,6 +32,14 @@ public interface ContentHandle {
         return new BytesContentHandle(bytes);
     }
 
+    /**
+     * Creates a handle for content whose SHA-256 hash is already known, e.g. because it was stored along with
+     * the content.
+     */
+    static ContentHandle create(byte[] bytes, String sha256Hex) {
+        return new BytesContentHandle(bytes, sha256Hex);
+    }
+
     static ContentHandle create(String content) {
         return new StringContentHandle(content);
     }
@@ -41,4 +49,16 @@ public interface ContentHandle {
     byte[] bytes();
 
     String content();
+
+    /**
+     * Returns the (hex encoded) SHA-256 hash of the content.  Computed once and then remembered, so it is cheap
+     * to call repeatedly on cached content.
+     */
+    String sha256Hex();
+
+    /**
+     * Returns the (hex encoded) SHA-256 hash of the content if it is already known, otherwise null.  Unlike
+     * {@link #sha256Hex()} this never hashes the content.
+     */
+    String knownSha256Hex();
 }
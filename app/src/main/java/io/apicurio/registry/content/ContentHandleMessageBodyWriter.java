@@ -25,6 +25,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyWriter;
@@ -51,6 +53,12 @@ public class ContentHandleMessageBodyWriter implements MessageBodyWriter<Content
         MultivaluedMap<String, Object> httpHeaders,
         OutputStream entityStream
     ) throws IOException, WebApplicationException {
+        // Content is identified by its hash, so it can be sent with a strong entity tag.  Only done when the
+        // hash is already known (e.g. stored content), rather than hashing every response.
+        String hash = content.knownSha256Hex();
+        if (hash != null && !httpHeaders.containsKey(HttpHeaders.ETAG)) {
+            httpHeaders.putSingle(HttpHeaders.ETAG, new EntityTag(hash));
+        }
         try (InputStream stream = content.stream()) {
             IoUtil.copy(stream, entityStream);
         }
@@ -36,6 +36,8 @@ import io.apicurio.registry.storage.RuleAlreadyExistsException;
 import io.apicurio.registry.storage.RuleNotFoundException;
 import io.apicurio.registry.storage.VersionNotFoundException;
 import io.apicurio.registry.storage.decorator.RegistryStorageDecorator;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.GroupMetaDataDto;
@@ -126,6 +128,24 @@ public class EventSourcedRegistryStorage extends RegistryStorageDecorator {
         return meta;
     }
 
+    @Override
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        List<ArtifactBatchResultDto> results = delegate.createArtifacts(items);
+        for (int idx = 0; idx < items.size(); idx++) {
+            ArtifactBatchItemDto item = items.get(idx);
+            ArtifactMetaDataDto meta = results.get(idx).getMetaData();
+            if (meta == null) {
+                continue;
+            }
+            ArtifactId data = new ArtifactId();
+            data.setGroupId(item.getGroupId());
+            data.setArtifactId(item.getArtifactId());
+            data.setVersion(meta.getVersion());
+            fireEvent(item.isUpdate() ? RegistryEventType.ARTIFACT_UPDATED : RegistryEventType.ARTIFACT_CREATED, item.getArtifactId(), data, null);
+        }
+        return results;
+    }
+
     @Override
     public List<String> deleteArtifact(String groupId, String artifactId) throws ArtifactNotFoundException, RegistryStorageException {
         List<String> set = delegate.deleteArtifact(groupId, artifactId);
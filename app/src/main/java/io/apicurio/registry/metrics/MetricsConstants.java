@@ -35,4 +35,49 @@ public interface MetricsConstants {
     String STORAGE_METHOD_CALL_TAG_TENANT = "tenant_id";
     String STORAGE_METHOD_CALL_TAG_METHOD = "method";
     String STORAGE_METHOD_CALL_TAG_SUCCESS = "success";
+
+    // Storage cache
+
+    String STORAGE_CACHE_HITS = STORAGE_PREFIX + "cache.hits";
+    String STORAGE_CACHE_HITS_DESCRIPTION = "Number of storage reads served from the storage cache";
+    String STORAGE_CACHE_MISSES = STORAGE_PREFIX + "cache.misses";
+    String STORAGE_CACHE_MISSES_DESCRIPTION = "Number of storage reads that had to be loaded from the storage";
+
+    // Storage cache tags/labels
+
+    String STORAGE_CACHE_TAG_CACHE = "cache";
+
+    // Import
+
+    String IMPORT_PREFIX = "import.";
+    String IMPORT_ENTITIES = IMPORT_PREFIX + "entities";
+    String IMPORT_ENTITIES_DESCRIPTION = "Number of entities imported (and committed) by the registry imports";
+
+    // Import tags/labels
+
+    String IMPORT_ENTITIES_TAG_TYPE = "type";
+
+    // Content reaper
+
+    String CONTENT_REAPER_PREFIX = "content.reaper.";
+    String CONTENT_REAPER_DELETED = CONTENT_REAPER_PREFIX + "deleted";
+    String CONTENT_REAPER_DELETED_DESCRIPTION = "Number of orphaned content rows deleted by the content reaper";
+    String CONTENT_REAPER_RECLAIMED_BYTES = CONTENT_REAPER_PREFIX + "reclaimed.bytes";
+    String CONTENT_REAPER_RECLAIMED_BYTES_DESCRIPTION = "Size of the orphaned content deleted by the content reaper";
+
+    // KafkaSQL storage
+
+    String KAFKASQL_PREFIX = "kafkasql.";
+    String KAFKASQL_BOOTSTRAP = KAFKASQL_PREFIX + "bootstrap";
+    String KAFKASQL_BOOTSTRAP_DESCRIPTION = "Time until the KafkaSQL storage is ready, after consuming the journal topic";
+    String KAFKASQL_SNAPSHOT = KAFKASQL_PREFIX + "snapshot";
+    String KAFKASQL_SNAPSHOT_DESCRIPTION = "Time the KafkaSQL consumer spent paused to snapshot the store";
+    String KAFKASQL_REQUESTS_INFLIGHT = KAFKASQL_PREFIX + "requests.inflight";
+    String KAFKASQL_REQUESTS_INFLIGHT_DESCRIPTION = "Number of KafkaSQL writes waiting to be applied by the journal consumer";
+    String KAFKASQL_REQUESTS_TIMEOUTS = KAFKASQL_PREFIX + "requests.timeouts";
+    String KAFKASQL_REQUESTS_TIMEOUTS_DESCRIPTION = "Number of KafkaSQL writes that timed out waiting to be applied by the journal consumer";
+
+    // KafkaSQL storage tags/labels
+
+    String KAFKASQL_BOOTSTRAP_TAG_SNAPSHOT = "snapshot";
 }
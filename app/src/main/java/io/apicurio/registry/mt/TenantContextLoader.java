@@ -54,6 +54,14 @@ public class TenantContextLoader {
     @ConfigProperty(defaultValue = "60000", name = "registry.tenants.context.cache.check-period")
     Long cacheCheckPeriod;
 
+    @Inject
+    @ConfigProperty(defaultValue = "1000", name = "registry.tenants.context.cache.max-size")
+    Long cacheMaxSize;
+
+    @Inject
+    @ConfigProperty(defaultValue = "0", name = "registry.tenants.context.cache.negative-check-period")
+    Long cacheNegativeCheckPeriod;
+
     @Inject
     TenantMetadataService tenantMetadataService;
 
@@ -70,7 +78,12 @@ public class TenantContextLoader {
     boolean authEnabled;
 
     public void onStart(@Observes StartupEvent ev) {
-        contextsCache = new CheckPeriodCache<>(cacheCheckPeriod);
+        //no background refreshes, the tenant authorization is checked with the token of the request loading the context
+        contextsCache = CheckPeriodCache.<String, RegistryTenantContext>builder()
+                .checkPeriod(cacheCheckPeriod)
+                .maxSize(cacheMaxSize)
+                .negativeCheckPeriod(cacheNegativeCheckPeriod, e -> e instanceof TenantNotFoundException)
+                .build();
     }
 
     public RegistryTenantContext loadContext(String tenantId) {
@@ -16,6 +16,7 @@
 
 package io.apicurio.registry.mt.limits;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
@@ -32,6 +33,8 @@ import io.apicurio.registry.storage.RegistryStorage;
 import io.apicurio.registry.storage.RegistryStorageException;
 import io.apicurio.registry.storage.VersionNotFoundException;
 import io.apicurio.registry.storage.decorator.RegistryStorageDecorator;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
 import io.apicurio.registry.types.ArtifactType;
@@ -101,6 +104,32 @@ public class RegistryStorageLimitsEnforcer extends RegistryStorageDecorator {
         return dto;
     }
 
+    /**
+     * The items are created one at a time, so that each one is checked against the limits including the items
+     * before it.  A tenant with limits thus gives up the single write of the batch.
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createArtifacts(java.util.List)
+     */
+    @Override
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        List<ArtifactBatchResultDto> results = new ArrayList<>(items.size());
+        for (ArtifactBatchItemDto item : items) {
+            try {
+                ArtifactMetaDataDto dto;
+                if (item.isUpdate()) {
+                    dto = updateArtifactWithMetadata(item.getGroupId(), item.getArtifactId(), item.getVersion(),
+                            item.getArtifactType(), item.getContent(), item.getMetaData());
+                } else {
+                    dto = createArtifactWithMetadata(item.getGroupId(), item.getArtifactId(), item.getVersion(),
+                            item.getArtifactType(), item.getContent(), item.getMetaData());
+                }
+                results.add(ArtifactBatchResultDto.builder().metaData(dto).build());
+            } catch (ArtifactAlreadyExistsException | ArtifactNotFoundException | LimitExceededException e) {
+                results.add(ArtifactBatchResultDto.builder().error(e).build());
+            }
+        }
+        return results;
+    }
+
     /**
      * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifact(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle)
      */
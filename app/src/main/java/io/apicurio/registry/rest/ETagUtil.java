@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rest;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+import io.apicurio.registry.content.ContentHandle;
+
+/**
+ * Entity tag support for artifact content.  The entity tag of some content is the SHA-256 hash of its bytes,
+ * so it is a strong entity tag that stays the same across registry instances (and restarts).
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Returns the (strong) entity tag of the given content.
+     * @param content
+     */
+    public static EntityTag entityTag(ContentHandle content) {
+        return new EntityTag(content.sha256Hex());
+    }
+
+    /**
+     * Creates the response for the given content: a "304 Not Modified" if the request's If-None-Match header
+     * matches the content's entity tag (so the body is not transferred again), otherwise a "200 OK" with the
+     * content and its entity tag.
+     * @param request
+     * @param content
+     * @param contentType
+     */
+    public static Response.ResponseBuilder okOrNotModified(Request request, ContentHandle content, MediaType contentType) {
+        EntityTag tag = entityTag(content);
+        Response.ResponseBuilder builder = request.evaluatePreconditions(tag);
+        if (builder != null) {
+            return builder.tag(tag);
+        }
+        return Response.ok(content, contentType).tag(tag);
+    }
+
+}
@@ -19,6 +19,7 @@ package io.apicurio.registry.rest.v1;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.metrics.health.liveness.ResponseErrorLivenessCheck;
 import io.apicurio.registry.metrics.health.readiness.ResponseTimeoutReadinessCheck;
+import io.apicurio.registry.rest.ETagUtil;
 import io.apicurio.registry.rest.Headers;
 import io.apicurio.registry.rest.HeadersHack;
 import io.apicurio.registry.rest.v1.beans.ArtifactMetaData;
@@ -37,6 +38,7 @@ import javax.interceptor.Interceptors;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.util.function.Supplier;
 
@@ -56,6 +58,9 @@ public class IdsResourceImpl implements IdsResource, Headers {
     @Context
     HttpServletRequest request;
 
+    @Context
+    Request jaxrsRequest;
+
     public void checkIfDeprecated(Supplier<ArtifactState> stateSupplier, String artifactId, String version, Response.ResponseBuilder builder) {
         HeadersHack.checkIfDeprecated(stateSupplier, null, artifactId, version, builder);
     }
@@ -77,7 +82,7 @@ public class IdsResourceImpl implements IdsResource, Headers {
             contentType = ArtifactMediaTypes.PROTO;
         }
 
-        Response.ResponseBuilder builder = Response.ok(artifact.getContent(), contentType);
+        Response.ResponseBuilder builder = ETagUtil.okOrNotModified(jaxrsRequest, artifact.getContent(), contentType);
         checkIfDeprecated(metaData::getState, metaData.getId(), metaData.getVersion(), builder);
         return builder.build();
     }
@@ -231,10 +231,10 @@ public class AdminResourceImpl implements AdminResource {
     }
 
     /**
-     * @see io.apicurio.registry.rest.v2.AdminResource#exportData()
+     * @see io.apicurio.registry.rest.v2.AdminResource#exportData(java.lang.Long)
      */
     @Override
-    public Response exportData() {
+    public Response exportData(Long sinceGlobalId) {
         StreamingOutput stream = new StreamingOutput() {
             @Override
             public void write(OutputStream os) throws IOException, WebApplicationException {
@@ -242,7 +242,7 @@ public class AdminResourceImpl implements AdminResource {
                     ZipOutputStream zip = new ZipOutputStream(os, StandardCharsets.UTF_8);
                     EntityWriter writer = new EntityWriter(zip);
                     AtomicInteger errorCounter = new AtomicInteger(0);
-                    storage.exportData(entity -> {
+                    storage.exportData(sinceGlobalId == null ? -1 : sinceGlobalId, entity -> {
                         try {
                             writer.writeEntity(entity);
                         } catch (Exception e) {
@@ -19,11 +19,16 @@ package io.apicurio.registry.rest.v2;
 import io.apicurio.registry.auth.Authorized;
 import io.apicurio.registry.auth.AuthorizedStyle;
 import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.metrics.health.liveness.ResponseErrorLivenessCheck;
 import io.apicurio.registry.metrics.health.readiness.ResponseTimeoutReadinessCheck;
 import io.apicurio.registry.rest.HeadersHack;
 import io.apicurio.registry.rest.MissingRequiredParameterException;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatch;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResult;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
@@ -36,12 +41,15 @@ import io.apicurio.registry.rest.v2.beans.VersionMetaData;
 import io.apicurio.registry.rest.v2.beans.VersionSearchResults;
 import io.apicurio.registry.rules.RuleApplicationType;
 import io.apicurio.registry.rules.RulesService;
+import io.apicurio.registry.services.http.RegistryExceptionMapperService;
 import io.apicurio.registry.storage.ArtifactAlreadyExistsException;
 import io.apicurio.registry.storage.ArtifactNotFoundException;
 import io.apicurio.registry.storage.InvalidArtifactIdException;
 import io.apicurio.registry.storage.InvalidGroupIdException;
 import io.apicurio.registry.storage.RegistryStorage;
 import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -58,10 +66,18 @@ import io.apicurio.registry.types.ArtifactState;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.types.Current;
 import io.apicurio.registry.types.RuleType;
+import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
+import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
 import io.apicurio.registry.util.ArtifactIdGenerator;
 import io.apicurio.registry.util.ArtifactTypeUtil;
 import io.apicurio.registry.util.ContentTypeUtil;
 import io.apicurio.registry.utils.ArtifactIdValidator;
+import io.apicurio.registry.utils.ConcurrentUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -71,11 +87,22 @@ import javax.ws.rs.BadRequestException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * Implements the {@link GroupsResource} JAX-RS interface.
@@ -88,6 +115,12 @@ import java.util.function.Supplier;
 public class GroupsResourceImpl implements GroupsResource {
 
     private static final String EMPTY_CONTENT_ERROR_MESSAGE = "Empty content is not allowed.";
+    private static final String BATCH_MANIFEST = "batch.json";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Inject
+    Logger log;
 
     @Inject
     @Current
@@ -99,6 +132,23 @@ public class GroupsResourceImpl implements GroupsResource {
     @Inject
     ArtifactIdGenerator idGenerator;
 
+    @Inject
+    ArtifactTypeUtilProviderFactory factory;
+
+    @Inject
+    RegistryExceptionMapperService exceptionMapper;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @Inject
+    @ConfigProperty(name = "registry.batch.max-artifacts", defaultValue = "1000")
+    int maxBatchArtifacts;
+
+    @Inject
+    @ConfigProperty(name = "registry.batch.max-bytes", defaultValue = "52428800")
+    long maxBatchBytes;
+
     @Context
     HttpServletRequest request;
 
@@ -501,6 +551,107 @@ public class GroupsResourceImpl implements GroupsResource {
         }
     }
 
+    /**
+     * @see io.apicurio.registry.rest.v2.GroupsResource#createArtifacts(java.lang.String, java.io.InputStream)
+     */
+    @Override
+    public ArtifactBatchResults createArtifacts(String groupId, InputStream data) {
+        requireParameter("groupId", groupId);
+        if (!ArtifactIdValidator.isGroupIdAllowed(groupId)) {
+            throw new InvalidGroupIdException(ArtifactIdValidator.GROUP_ID_ERROR_MESSAGE);
+        }
+
+        ArtifactBatch batch = null;
+        Map<String, ContentHandle> contents = new HashMap<>();
+        long batchBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(data)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                byte[] bytes = readBatchEntry(zip, maxBatchBytes - batchBytes);
+                batchBytes += bytes.length;
+                if (BATCH_MANIFEST.equals(entry.getName())) {
+                    batch = mapper.readValue(bytes, ArtifactBatch.class);
+                } else if (contents.size() < maxBatchArtifacts) {
+                    contents.put(entry.getName(), ContentHandle.create(bytes));
+                } else {
+                    throw new BadRequestException("Too many artifacts, at most " + maxBatchArtifacts + " can be created at once.");
+                }
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid batch: " + e.getMessage());
+        }
+        if (batch == null || batch.getArtifacts() == null) {
+            throw new BadRequestException("Missing the " + BATCH_MANIFEST + " manifest of the batch.");
+        }
+        List<ArtifactBatchItem> items = batch.getArtifacts();
+        if (items.size() > maxBatchArtifacts) {
+            throw new BadRequestException("Too many artifacts, at most " + maxBatchArtifacts + " can be created at once.");
+        }
+
+        // Type detection, rules and hashing, for all of the items at once
+        Set<String> artifactIds = new HashSet<>();
+        List<CompletableFuture<BatchItem>> futures = new ArrayList<>(items.size());
+        for (ArtifactBatchItem item : items) {
+            if (item.getArtifactId() != null && !artifactIds.add(item.getArtifactId())) {
+                BadRequestException error = new BadRequestException("Artifact " + item.getArtifactId() + " appears more than once in the batch.");
+                futures.add(CompletableFuture.completedFuture(BatchItem.failed(item.getArtifactId(), error)));
+            } else {
+                futures.add(executor.supplyAsync(() -> prepareBatchItem(groupId, item, contents.get(item.getContent()))));
+            }
+        }
+        List<BatchItem> prepared = futures.stream().map(ConcurrentUtil::get).collect(Collectors.toList());
+
+        // Then the new artifacts and versions are written together
+        List<ArtifactBatchItemDto> writes = prepared.stream()
+                .filter(item -> item.write != null)
+                .map(item -> item.write)
+                .collect(Collectors.toList());
+        Iterator<ArtifactBatchResultDto> written = writes.isEmpty() ? Collections.emptyIterator() : storage.createArtifacts(writes).iterator();
+
+        ArtifactBatchResults results = new ArtifactBatchResults();
+        for (BatchItem item : prepared) {
+            ArtifactBatchResult result = new ArtifactBatchResult();
+            result.setArtifactId(item.artifactId);
+            result.setMetaData(item.metaData);
+            Throwable error = item.error;
+            if (item.write != null) {
+                ArtifactBatchResultDto dto = written.next();
+                if (dto.getError() != null) {
+                    error = dto.getError();
+                } else {
+                    result.setMetaData(V2ApiUtil.dtoToMetaData(gidOrNull(groupId), item.artifactId, item.write.getArtifactType(), dto.getMetaData()));
+                }
+            }
+            if (error != null) {
+                result.setError(exceptionMapper.mapException(error).getError());
+            }
+            results.getResults().add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Reads the current entry of a batch, failing as soon as it is larger than the given number of bytes (what
+     * is left of registry.batch.max-bytes), whatever size the zip claims the entry has.
+     * @param zip
+     * @param maxBytes
+     */
+    private byte[] readBatchEntry(ZipInputStream zip, long maxBytes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            if (output.size() + read > maxBytes) {
+                throw new BadRequestException("Batch too large, the (uncompressed) content of a batch can be at most " + maxBatchBytes + " bytes.");
+            }
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
     /**
      * @see io.apicurio.registry.rest.v2.GroupsResource#listArtifactVersions(java.lang.String, java.lang.String, java.lang.Integer, java.lang.Integer)
      */
@@ -679,6 +830,115 @@ public class GroupsResourceImpl implements GroupsResource {
         return V2ApiUtil.dtoToMetaData(gidOrNull(groupId), artifactId, artifactType, dto);
     }
 
+    /**
+     * Checks an item of a batch, the same way as {@link #createArtifact(String, ArtifactType, String, String, IfExists, Boolean, InputStream)}
+     * would, but without writing it.  Runs on the executor, one item per task.
+     */
+    private BatchItem prepareBatchItem(String groupId, ArtifactBatchItem item, ContentHandle content) {
+        String artifactId = item.getArtifactId();
+        try {
+            if (artifactId == null || artifactId.trim().isEmpty()) {
+                artifactId = idGenerator.generate();
+            } else if (!ArtifactIdValidator.isArtifactIdAllowed(artifactId)) {
+                throw new InvalidArtifactIdException(ArtifactIdValidator.ARTIFACT_ID_ERROR_MESSAGE);
+            }
+            if (content == null) {
+                throw new BadRequestException("Missing the content of the artifact, no entry named " + item.getContent() + " in the batch.");
+            }
+            if (content.bytes().length == 0) {
+                throw new BadRequestException(EMPTY_CONTENT_ERROR_MESSAGE);
+            }
+
+            ArtifactMetaDataDto existing;
+            try {
+                existing = storage.getArtifactMetaData(gidOrNull(groupId), artifactId);
+            } catch (ArtifactNotFoundException e) {
+                ArtifactType artifactType = determineArtifactType(content, item.getType(), null);
+                rulesService.applyRules(gidOrNull(groupId), artifactId, artifactType, content, RuleApplicationType.CREATE);
+                return BatchItem.write(artifactId, batchItemDto(groupId, artifactId, item.getVersion(), artifactType, content, false));
+            }
+
+            IfExists ifExists = item.getIfExists() == null ? IfExists.FAIL : item.getIfExists();
+            switch (ifExists) {
+                case RETURN:
+                    return BatchItem.done(artifactId, V2ApiUtil.dtoToMetaData(gidOrNull(groupId), artifactId, existing.getType(), existing));
+                case RETURN_OR_UPDATE:
+                    try {
+                        boolean canonical = item.getCanonical() == null ? Boolean.FALSE : item.getCanonical();
+                        ArtifactVersionMetaDataDto mdDto = storage.getArtifactVersionMetaData(gidOrNull(groupId), artifactId, canonical, content);
+                        return BatchItem.done(artifactId, V2ApiUtil.dtoToMetaData(gidOrNull(groupId), artifactId, null, mdDto));
+                    } catch (ArtifactNotFoundException nfe) {
+                        // This is OK - we'll update the artifact if there is no matching content already there.
+                    }
+                case UPDATE:
+                    rulesService.applyRules(gidOrNull(groupId), artifactId, existing.getType(), content, RuleApplicationType.UPDATE);
+                    return BatchItem.write(artifactId, batchItemDto(groupId, artifactId, item.getVersion(), existing.getType(), content, true));
+                default:
+                    throw new ArtifactAlreadyExistsException(groupId, artifactId);
+            }
+        } catch (Exception e) {
+            return BatchItem.failed(artifactId, e);
+        }
+    }
+
+    private ArtifactBatchItemDto batchItemDto(String groupId, String artifactId, String version, ArtifactType artifactType,
+            ContentHandle content, boolean update) {
+        return ArtifactBatchItemDto.builder()
+                .groupId(gidOrNull(groupId))
+                .artifactId(artifactId)
+                .version(version)
+                .artifactType(artifactType)
+                .content(content)
+                .contentHash(DigestUtils.sha256Hex(content.bytes()))
+                .canonicalHash(DigestUtils.sha256Hex(canonicalizeContent(artifactType, content).bytes()))
+                .update(update)
+                .build();
+    }
+
+    private ContentHandle canonicalizeContent(ArtifactType artifactType, ContentHandle content) {
+        try {
+            ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(artifactType);
+            ContentCanonicalizer canonicalizer = provider.getContentCanonicalizer();
+            return canonicalizer.canonicalize(content);
+        } catch (Exception e) {
+            log.debug("Failed to canonicalize content of type: {}", artifactType.name());
+            return content;
+        }
+    }
+
+    /**
+     * An item of a batch, once checked: either its result is already known (an error, or the metadata of an
+     * existing artifact), or it is to be written.
+     */
+    private static class BatchItem {
+
+        String artifactId;
+        ArtifactMetaData metaData;
+        Throwable error;
+        ArtifactBatchItemDto write;
+
+        static BatchItem done(String artifactId, ArtifactMetaData metaData) {
+            BatchItem item = new BatchItem();
+            item.artifactId = artifactId;
+            item.metaData = metaData;
+            return item;
+        }
+
+        static BatchItem failed(String artifactId, Throwable error) {
+            BatchItem item = new BatchItem();
+            item.artifactId = artifactId;
+            item.error = error;
+            return item;
+        }
+
+        static BatchItem write(String artifactId, ArtifactBatchItemDto write) {
+            BatchItem item = new BatchItem();
+            item.artifactId = artifactId;
+            item.write = write;
+            return item;
+        }
+    }
+
     private String gidOrNull(String groupId) {
         if ("default".equalsIgnoreCase(groupId)) {
             return null;
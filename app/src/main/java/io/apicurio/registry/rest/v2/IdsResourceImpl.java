@@ -20,8 +20,13 @@ import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.metrics.health.liveness.ResponseErrorLivenessCheck;
 import io.apicurio.registry.metrics.health.readiness.ResponseTimeoutReadinessCheck;
+import io.apicurio.registry.rest.ETagUtil;
 import io.apicurio.registry.rest.HeadersHack;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResult;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
 import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.NotFoundException;
 import io.apicurio.registry.storage.RegistryStorage;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.StoredArtifactDto;
@@ -29,12 +34,17 @@ import io.apicurio.registry.types.ArtifactMediaTypes;
 import io.apicurio.registry.types.ArtifactState;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.types.Current;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.interceptor.Interceptors;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -49,6 +59,13 @@ public class IdsResourceImpl implements IdsResource {
     @Current
     RegistryStorage storage;
 
+    @Inject
+    @ConfigProperty(name = "registry.ids.lookup.max-ids", defaultValue = "1000")
+    int maxLookupIds;
+
+    @Context
+    Request request;
+
     private void checkIfDeprecated(Supplier<ArtifactState> stateSupplier, String artifactId, String version, Response.ResponseBuilder builder) {
         HeadersHack.checkIfDeprecated(stateSupplier, null, artifactId, version, builder);
     }
@@ -59,7 +76,7 @@ public class IdsResourceImpl implements IdsResource {
     @Override
     public Response getContentById(int contentId) {
         ContentHandle content = storage.getArtifactByContentId(contentId);
-        Response.ResponseBuilder builder = Response.ok(content, ArtifactMediaTypes.BINARY);
+        Response.ResponseBuilder builder = ETagUtil.okOrNotModified(request, content, ArtifactMediaTypes.BINARY);
         return builder.build();
     }
 
@@ -84,7 +101,7 @@ public class IdsResourceImpl implements IdsResource {
             contentType = ArtifactMediaTypes.GRAPHQL;
         }
 
-        Response.ResponseBuilder builder = Response.ok(artifact.getContent(), contentType);
+        Response.ResponseBuilder builder = ETagUtil.okOrNotModified(request, artifact.getContent(), contentType);
         checkIfDeprecated(metaData::getState, metaData.getId(), metaData.getVersion(), builder);
         return builder.build();
     }
@@ -95,8 +112,54 @@ public class IdsResourceImpl implements IdsResource {
     @Override
     public Response getContentByHash(String contentHash) {
         ContentHandle content = storage.getArtifactByContentHash(contentHash);
-        Response.ResponseBuilder builder = Response.ok(content, ArtifactMediaTypes.BINARY);
+        Response.ResponseBuilder builder = ETagUtil.okOrNotModified(request, content, ArtifactMediaTypes.BINARY);
         return builder.build();
     }
 
+    /**
+     * @see io.apicurio.registry.rest.v2.IdsResource#lookupContent(io.apicurio.registry.rest.v2.beans.ContentLookupRequest)
+     */
+    @Override
+    public ContentLookupResults lookupContent(ContentLookupRequest data) {
+        List<Long> globalIds = data.getGlobalIds() == null ? List.of() : data.getGlobalIds();
+        List<Long> contentIds = data.getContentIds() == null ? List.of() : data.getContentIds();
+        if (globalIds.size() + contentIds.size() > maxLookupIds) {
+            throw new BadRequestException("Too many identifiers, at most " + maxLookupIds + " can be looked up at once.");
+        }
+
+        ContentLookupResults results = new ContentLookupResults();
+        for (Long globalId : globalIds) {
+            try {
+                ArtifactMetaDataDto metaData = storage.getArtifactMetaData(globalId);
+                if (ArtifactState.DISABLED.equals(metaData.getState())) {
+                    continue;
+                }
+                StoredArtifactDto artifact = storage.getArtifactVersion(globalId);
+                ContentLookupResult result = new ContentLookupResult();
+                result.setGlobalId(globalId);
+                result.setContentId(metaData.getContentId());
+                result.setGroupId(metaData.getGroupId());
+                result.setArtifactId(metaData.getId());
+                result.setVersion(metaData.getVersion());
+                result.setType(metaData.getType());
+                result.setContent(artifact.getContent().content());
+                results.getResults().add(result);
+            } catch (NotFoundException e) {
+                // left out of the results
+            }
+        }
+        for (Long contentId : contentIds) {
+            try {
+                ContentHandle content = storage.getArtifactByContentId(contentId);
+                ContentLookupResult result = new ContentLookupResult();
+                result.setContentId(contentId);
+                result.setContent(content.content());
+                results.getResults().add(result);
+            } catch (NotFoundException e) {
+                // left out of the results
+            }
+        }
+        return results;
+    }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rules;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.apicurio.registry.content.ContentHandle;
+
+/**
+ * A cache of parsed artifact content (e.g. Avro {@link org.apache.avro.Schema}s), shared by the compatibility
+ * checkers and content validators so that the content of existing versions is not parsed again for every
+ * rule execution.
+ *
+ * Entries are keyed by the type of the parsed model and the SHA-256 hash of the content, which is computed
+ * only once for content that comes from the storage's content cache.  The cache is bounded (see
+ * <code>registry.rules.parsed-content-cache.max-entries</code>, 0 disables it), and its values are softly
+ * referenced so that large models can be reclaimed under memory pressure.  Content that fails to parse is
+ * never cached.  Parsed models are shared between threads, so they must not be modified.
+ *
+ * A cache created outside of CDI (and so never initialized) is disabled: it simply parses the content.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class ParsedContentCache {
+
+    @ConfigProperty(name = "registry.rules.parsed-content-cache.max-entries", defaultValue = "1000")
+    long maxEntries;
+
+    private Cache<List<Object>, Object> cache;
+
+    @PostConstruct
+    void init() {
+        if (maxEntries > 0) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .softValues()
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the parsed form of the given content, parsing (and caching) it if needed.
+     * @param modelType the type of the parsed model, e.g. the Avro Schema class
+     * @param content
+     * @param parser parses the content into the model - any exception it throws is propagated
+     */
+    public <T> T get(Class<T> modelType, ContentHandle content, Function<ContentHandle, T> parser) {
+        if (cache == null) {
+            return parser.apply(content);
+        }
+        List<Object> key = Arrays.asList(modelType, content.sha256Hex());
+        return modelType.cast(cache.get(key, k -> parser.apply(content)));
+    }
+
+    /**
+     * Removes everything from the cache.
+     */
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+}
@@ -18,7 +18,11 @@
 package io.apicurio.registry.rules;
 
 import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.mt.TenantContext;
 import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.cache.RegistryStorageCache;
+import io.apicurio.registry.storage.cache.RegistryStorageCache.CacheKind;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
 import io.apicurio.registry.storage.dto.RuleConfigurationDto;
 import io.apicurio.registry.storage.dto.StoredArtifactDto;
 import io.apicurio.registry.types.ArtifactType;
@@ -27,10 +31,10 @@ import io.apicurio.registry.types.RuleType;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Implements the {@link RulesService} interface.
@@ -41,6 +45,9 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class RulesServiceImpl implements RulesService {
 
+    /** The key of the rules that apply to new artifacts (only the global rules) in the effective rules cache. */
+    private static final Object NEW_ARTIFACT_KEY = "__global__";
+
     @Inject
     @Current
     RegistryStorage storage;
@@ -51,51 +58,72 @@ public class RulesServiceImpl implements RulesService {
     @Inject
     RulesProperties rulesProperties;
 
+    @Inject
+    RegistryStorageCache cache;
+
+    @Inject
+    TenantContext tenantContext;
+
     /**
      * @see io.apicurio.registry.rules.RulesService#applyRules(java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle, io.apicurio.registry.rules.RuleApplicationType)
      */
     @Override
     public void applyRules(String groupId, String artifactId, ArtifactType artifactType, ContentHandle artifactContent,
                           RuleApplicationType ruleApplicationType) throws RuleViolationException {
-        @SuppressWarnings("unchecked")
-        List<RuleType> rules = Collections.EMPTY_LIST;
-        if (ruleApplicationType == RuleApplicationType.UPDATE) {
-            rules = storage.getArtifactRules(groupId, artifactId);
-        }
-        ContentHandle currentArtifactContent = null;
         if (ruleApplicationType == RuleApplicationType.UPDATE) {
             StoredArtifactDto currentArtifact = storage.getArtifact(groupId, artifactId);
-            currentArtifactContent = currentArtifact.getContent();
+            applyGlobalAndArtifactRules(groupId, artifactId, artifactType, currentArtifact.getContent(), artifactContent,
+                    getEffectiveRules(groupId, artifactId));
+        } else {
+            // A new artifact has no rules of its own yet, so only the global rules apply.
+            applyGlobalAndArtifactRules(groupId, artifactId, artifactType, null, artifactContent, getGlobalRules());
         }
-
-        applyGlobalAndArtifactRules(groupId, artifactId, artifactType, currentArtifactContent, artifactContent, rules);
     }
 
     private void applyGlobalAndArtifactRules(String groupId, String artifactId, ArtifactType artifactType,
             ContentHandle currentArtifactContent, ContentHandle updatedArtifactContent,
-            List<RuleType> artifactRules) {
-
-        Map<RuleType, RuleConfigurationDto> globalOrArtifactRulesMap = artifactRules.stream()
-            .collect(Collectors.toMap(ruleType -> ruleType, ruleType -> storage.getArtifactRule(groupId, artifactId, ruleType)));
+            Map<RuleType, RuleConfigurationDto> effectiveRules) {
+        for (Map.Entry<RuleType, RuleConfigurationDto> rule : effectiveRules.entrySet()) {
+            applyRule(groupId, artifactId, artifactType, currentArtifactContent, updatedArtifactContent, rule.getKey(), rule.getValue().getConfiguration());
+        }
+    }
 
-        if (globalOrArtifactRulesMap.isEmpty()) {
-            List<RuleType> globalRules = storage.getGlobalRules();
-            globalOrArtifactRulesMap = globalRules.stream()
-                .collect(Collectors.toMap(ruleType -> ruleType, storage::getGlobalRule));
+    /**
+     * Returns the rules that apply to the given artifact: the artifact's own rules if it has any, otherwise
+     * the global rules along with any default global rules (see {@link RulesProperties}) not overridden by them.
+     * The result is read from storage in a single round trip and then cached until the artifact's rules or
+     * the global rules change.
+     * @param groupId
+     * @param artifactId
+     */
+    private Map<RuleType, RuleConfigurationDto> getEffectiveRules(String groupId, String artifactId) {
+        return cache.get(tenantContext.tenantId(), CacheKind.EFFECTIVE_RULES, RegistryStorageCache.artifactKey(groupId, artifactId), () -> {
+            ArtifactAndGlobalRulesDto rules = storage.getArtifactAndGlobalRules(groupId, artifactId);
+            if (!rules.getArtifactRules().isEmpty()) {
+                return Collections.unmodifiableMap(new EnumMap<>(rules.getArtifactRules()));
+            }
+            return withDefaultGlobalRules(rules.getGlobalRules());
+        });
+    }
 
-            // Add any default global rules to the map (after filtering out any global rules from artifactStore)
-            Map<RuleType, RuleConfigurationDto>  filteredDefaultGlobalRulesMap = rulesProperties.getFilteredDefaultGlobalRules(globalRules).stream()
-                .collect(Collectors.toMap(ruleType -> ruleType, rulesProperties::getDefaultGlobalRuleConfiguration));
-            globalOrArtifactRulesMap.putAll(filteredDefaultGlobalRulesMap);
-        }
+    /**
+     * Returns the rules that apply to a new artifact: the global rules along with any default global rules
+     * not overridden by them.  Cached until the global rules change.
+     */
+    private Map<RuleType, RuleConfigurationDto> getGlobalRules() {
+        return cache.get(tenantContext.tenantId(), CacheKind.EFFECTIVE_RULES, NEW_ARTIFACT_KEY,
+                () -> withDefaultGlobalRules(storage.getGlobalRuleConfigurations()));
+    }
 
-        if (globalOrArtifactRulesMap.isEmpty()) {
-            return;
-        }
+    private Map<RuleType, RuleConfigurationDto> withDefaultGlobalRules(Map<RuleType, RuleConfigurationDto> globalRules) {
+        Map<RuleType, RuleConfigurationDto> effectiveRules = new EnumMap<>(RuleType.class);
+        effectiveRules.putAll(globalRules);
 
-        for (RuleType ruleType : globalOrArtifactRulesMap.keySet()) {
-            applyRule(groupId, artifactId, artifactType, currentArtifactContent, updatedArtifactContent, ruleType, globalOrArtifactRulesMap.get(ruleType).getConfiguration());
+        // Add any default global rules to the map (after filtering out any global rules from artifactStore)
+        for (RuleType ruleType : rulesProperties.getFilteredDefaultGlobalRules(new ArrayList<>(globalRules.keySet()))) {
+            effectiveRules.put(ruleType, rulesProperties.getDefaultGlobalRuleConfiguration(ruleType));
         }
+        return Collections.unmodifiableMap(effectiveRules);
     }
 
     /**
@@ -137,6 +165,7 @@ public class RulesServiceImpl implements RulesService {
     public void applyRules(String groupId, String artifactId, String artifactVersion, ArtifactType artifactType, ContentHandle updatedContent)
             throws RuleViolationException {
         StoredArtifactDto versionContent = storage.getArtifactVersion(groupId, artifactId, artifactVersion);
-        applyGlobalAndArtifactRules(groupId, artifactId, artifactType, versionContent.getContent(), updatedContent, storage.getArtifactRules(groupId, artifactId));
+        applyGlobalAndArtifactRules(groupId, artifactId, artifactType, versionContent.getContent(), updatedContent,
+                getEffectiveRules(groupId, artifactId));
     }
 }
@@ -17,6 +17,8 @@
 package io.apicurio.registry.rules.compatibility;
 
 import io.apicurio.registry.ccompat.rest.error.UnprocessableEntityException;
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.ParsedContentCache;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaParseException;
 import org.apache.avro.SchemaValidationException;
@@ -35,14 +37,43 @@ import static java.util.Objects.requireNonNull;
  */
 public class AvroCompatibilityChecker implements CompatibilityChecker {
 
+    private final ParsedContentCache parsedContentCache;
+
+    /**
+     * Constructor, for a checker that parses the content without caching it.
+     */
+    public AvroCompatibilityChecker() {
+        this(new ParsedContentCache());
+    }
+
+    /**
+     * Constructor.
+     * @param parsedContentCache
+     */
+    public AvroCompatibilityChecker(ParsedContentCache parsedContentCache) {
+        this.parsedContentCache = parsedContentCache;
+    }
+
     /**
      * @see CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, java.lang.String)
      */
     @Override
     public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<String> existingSchemaStrings, String proposedSchemaString) {
-        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
         requireNonNull(existingSchemaStrings, "existingSchemaStrings MUST NOT be null");
         requireNonNull(proposedSchemaString, "proposedSchemaString MUST NOT be null");
+        return testCompatibility(compatibilityLevel,
+            existingSchemaStrings.stream().map(ContentHandle::create).collect(Collectors.toList()),
+            ContentHandle.create(proposedSchemaString));
+    }
+
+    /**
+     * @see CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, io.apicurio.registry.content.ContentHandle)
+     */
+    @Override
+    public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<ContentHandle> existingArtifacts, ContentHandle proposedArtifact) {
+        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
+        requireNonNull(existingArtifacts, "existingArtifacts MUST NOT be null");
+        requireNonNull(proposedArtifact, "proposedArtifact MUST NOT be null");
 
         SchemaValidator schemaValidator = validatorFor(compatibilityLevel);
 
@@ -50,10 +81,10 @@ public class AvroCompatibilityChecker implements CompatibilityChecker {
             return CompatibilityExecutionResult.compatible();
         }
 
-        List<Schema> existingSchemas = existingSchemaStrings.stream().map(s -> new Schema.Parser().parse(s)).collect(Collectors.toList());
+        List<Schema> existingSchemas = existingArtifacts.stream().map(this::parse).collect(Collectors.toList());
         Collections.reverse(existingSchemas); // the most recent must come first, i.e. reverse-chronological.
         try {
-            Schema toValidate = new Schema.Parser().parse(proposedSchemaString);
+            Schema toValidate = parse(proposedArtifact);
             schemaValidator.validate(toValidate, existingSchemas);
             return CompatibilityExecutionResult.compatible();
         } catch (SchemaValidationException e) {
@@ -63,6 +94,10 @@ public class AvroCompatibilityChecker implements CompatibilityChecker {
         }
     }
 
+    private Schema parse(ContentHandle content) {
+        return parsedContentCache.get(Schema.class, content, c -> new Schema.Parser().parse(c.content()));
+    }
+
     private SchemaValidator validatorFor(CompatibilityLevel compatibilityLevel) {
         switch (compatibilityLevel) {
             case BACKWARD:
@@ -19,20 +19,33 @@ package io.apicurio.registry.rules.compatibility;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.rules.RuleContext;
 import io.apicurio.registry.rules.RuleExecutor;
 import io.apicurio.registry.rules.RuleViolation;
 import io.apicurio.registry.rules.RuleViolationException;
+import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.Current;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
@@ -42,6 +55,15 @@ import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
  * for ensuring that the updated content does not violate the configured compatibility
  * level.  Levels include e.g. Backward compatibility.
  *
+ * The transitive levels check the updated content against every existing version of the
+ * artifact (not only the current content), newest first, stopping at the first incompatible
+ * version.  Each (existing, updated) pair is checked at the corresponding non-transitive
+ * level.  Results are cached by the content hashes of the pair, and the parsed schemas are
+ * cached by the checkers (see {@link io.apicurio.registry.rules.ParsedContentCache}), so a
+ * version that was already checked (e.g. by a compatibility test before the same content is
+ * registered) is cheap to check again.  The content hashes of the versions are read from
+ * storage in one query, and the content of a version is only read when its pair is not cached.
+ *
  * @author eric.wittmann@gmail.com
  */
 @ApplicationScoped
@@ -51,6 +73,22 @@ public class CompatibilityRuleExecutor implements RuleExecutor {
     @Inject
     ArtifactTypeUtilProviderFactory factory;
 
+    @Inject
+    @Current
+    RegistryStorage storage;
+
+    @ConfigProperty(name = "registry.rules.compatibility.max-cached-results", defaultValue = "10000")
+    long maxCachedResults;
+
+    private Cache<List<Object>, CompatibilityExecutionResult> results;
+
+    @PostConstruct
+    void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(maxCachedResults)
+                .build();
+    }
+
     /**
      * @see io.apicurio.registry.rules.RuleExecutor#execute(io.apicurio.registry.rules.RuleContext)
      */
@@ -59,12 +97,15 @@ public class CompatibilityRuleExecutor implements RuleExecutor {
         CompatibilityLevel level = CompatibilityLevel.valueOf(context.getConfiguration());
         ArtifactTypeUtilProvider provider = factory.getArtifactTypeProvider(context.getArtifactType());
         CompatibilityChecker checker = provider.getCompatibilityChecker();
-        List<ContentHandle> existingArtifacts = context.getCurrentContent() != null
-            ? singletonList(context.getCurrentContent()) : emptyList();
-        CompatibilityExecutionResult compatibilityExecutionResult = checker.testCompatibility(
-             level,
-             existingArtifacts,
-             context.getUpdatedContent());
+        CompatibilityExecutionResult compatibilityExecutionResult;
+        if (context.getCurrentContent() == null) {
+            compatibilityExecutionResult = checker.testCompatibility(level, emptyList(), context.getUpdatedContent());
+        } else if (isTransitive(level)) {
+            compatibilityExecutionResult = testTransitively(context, checker, level);
+        } else {
+            compatibilityExecutionResult = testCompatibility(context.getArtifactType(), checker, level,
+                    context.getCurrentContent().sha256Hex(), context::getCurrentContent, context.getUpdatedContent());
+        }
         if (!compatibilityExecutionResult.isCompatible()) {
             throw new RuleViolationException(String.format("Incompatible artifact: %s [%s], num of incompatible diffs: {%s}",
                  context.getArtifactId(), context.getArtifactType(),
@@ -74,6 +115,88 @@ public class CompatibilityRuleExecutor implements RuleExecutor {
         }
     }
 
+    /**
+     * Checks the updated content against the current content and then against all other versions of the
+     * artifact, newest first.  Returns the result of the first incompatible version, if any.
+     * @param context
+     * @param checker
+     * @param level
+     */
+    private CompatibilityExecutionResult testTransitively(RuleContext context, CompatibilityChecker checker,
+            CompatibilityLevel level) {
+        CompatibilityLevel pairLevel = nonTransitive(level);
+        ContentHandle currentContent = context.getCurrentContent();
+        ContentHandle updatedContent = context.getUpdatedContent();
+
+        String currentHash = currentContent.sha256Hex();
+        CompatibilityExecutionResult result = testCompatibility(context.getArtifactType(), checker, pairLevel,
+                currentHash, () -> currentContent, updatedContent);
+        if (!result.isCompatible()) {
+            return result;
+        }
+
+        List<String> hashes;
+        try {
+            hashes = new ArrayList<>(storage.getArtifactVersionContentHashes(context.getGroupId(), context.getArtifactId()).values());
+        } catch (ArtifactNotFoundException e) {
+            // e.g. a rule that is tested without an existing artifact
+            return result;
+        }
+        Set<String> checked = new HashSet<>();
+        checked.add(currentHash);
+        for (int idx = hashes.size() - 1; idx >= 0; idx--) {
+            String existingHash = hashes.get(idx);
+            if (!checked.add(existingHash)) {
+                continue;
+            }
+            result = testCompatibility(context.getArtifactType(), checker, pairLevel, existingHash,
+                    () -> storage.getArtifactByContentHash(existingHash), updatedContent);
+            if (!result.isCompatible()) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks a single (existing, updated) pair, using the cached result if the same pair was checked before.
+     * The existing content is only loaded if the pair is not cached.
+     * @param artifactType
+     * @param checker
+     * @param level
+     * @param existingHash
+     * @param existingContent
+     * @param updatedContent
+     */
+    private CompatibilityExecutionResult testCompatibility(ArtifactType artifactType, CompatibilityChecker checker,
+            CompatibilityLevel level, String existingHash, Supplier<ContentHandle> existingContent, ContentHandle updatedContent) {
+        List<Object> key = Arrays.asList(artifactType, level, existingHash, updatedContent.sha256Hex());
+        CompatibilityExecutionResult result = results.getIfPresent(key);
+        if (result == null) {
+            // Computed outside of the cache, so that errors (e.g. unparseable content) are never cached.
+            result = checker.testCompatibility(level, singletonList(existingContent.get()), updatedContent);
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    private static boolean isTransitive(CompatibilityLevel level) {
+        return level != nonTransitive(level);
+    }
+
+    private static CompatibilityLevel nonTransitive(CompatibilityLevel level) {
+        switch (level) {
+            case BACKWARD_TRANSITIVE:
+                return CompatibilityLevel.BACKWARD;
+            case FORWARD_TRANSITIVE:
+                return CompatibilityLevel.FORWARD;
+            case FULL_TRANSITIVE:
+                return CompatibilityLevel.FULL;
+            default:
+                return level;
+        }
+    }
+
     /**
      * Convert the set of compatibility differences into a collection of rule violation causes
      * for return to the user.
@@ -17,8 +17,11 @@
 package io.apicurio.registry.rules.compatibility;
 
 import com.google.common.collect.ImmutableSet;
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.compatibility.jsonschema.JsonSchemaDiffLibrary;
 import io.apicurio.registry.rules.compatibility.jsonschema.diff.Difference;
+import org.everit.json.schema.Schema;
 
 import java.util.HashSet;
 import java.util.List;
@@ -36,21 +39,53 @@ import static java.util.Objects.requireNonNull;
  */
 public class JsonSchemaCompatibilityChecker implements CompatibilityChecker {
 
+    private final ParsedContentCache parsedContentCache;
+
+    /**
+     * Constructor, for a checker that parses the content without caching it.
+     */
+    public JsonSchemaCompatibilityChecker() {
+        this(new ParsedContentCache());
+    }
+
+    /**
+     * Constructor.
+     * @param parsedContentCache
+     */
+    public JsonSchemaCompatibilityChecker(ParsedContentCache parsedContentCache) {
+        this.parsedContentCache = parsedContentCache;
+    }
+
     /**
      * @see io.apicurio.registry.rules.compatibility.CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, java.lang.String)
      */
     @Override
     public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<String> existingSchemas, String proposedSchema) {
-        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
         requireNonNull(existingSchemas, "existingSchemas MUST NOT be null");
         requireNonNull(proposedSchema, "proposedSchema MUST NOT be null");
+        return testCompatibility(compatibilityLevel,
+            existingSchemas.stream().map(ContentHandle::create).collect(Collectors.toList()),
+            ContentHandle.create(proposedSchema));
+    }
 
-        if (existingSchemas.isEmpty()) {
+    /**
+     * @see io.apicurio.registry.rules.compatibility.CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, io.apicurio.registry.content.ContentHandle)
+     */
+    @Override
+    public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<ContentHandle> existingArtifacts, ContentHandle proposedArtifact) {
+        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
+        requireNonNull(existingArtifacts, "existingArtifacts MUST NOT be null");
+        requireNonNull(proposedArtifact, "proposedArtifact MUST NOT be null");
+
+        if (existingArtifacts.isEmpty()) {
             return CompatibilityExecutionResult.compatible();
         }
 
+        List<Schema> existingSchemas = existingArtifacts.stream().map(this::parse).collect(Collectors.toList());
+        Schema proposedSchema = parse(proposedArtifact);
+
         Set<Difference> incompatibleDiffs = new HashSet<>();
-        String lastExistingSchema = existingSchemas.get(existingSchemas.size() - 1);
+        Schema lastExistingSchema = existingSchemas.get(existingSchemas.size() - 1);
 
         switch (compatibilityLevel) {
             case BACKWARD:
@@ -88,14 +123,18 @@ public class JsonSchemaCompatibilityChecker implements CompatibilityChecker {
         return CompatibilityExecutionResult.incompatible(diffs);
     }
 
+    private Schema parse(ContentHandle content) {
+        return parsedContentCache.get(Schema.class, content, c -> JsonSchemaDiffLibrary.loadSchema(c.content()));
+    }
+
     /**
      * Given a proposed schema, walk the existing schemas in reverse order (i.e. newest to oldest),
      * and for each pair (existing, proposed) call the check function.
      *
      * @return The collected set of differences.
      */
-    private Set<Difference> transitively(List<String> existingSchemas, String proposedSchema,
-                                         BiFunction<String, String, Set<Difference>> checkExistingProposed) {
+    private Set<Difference> transitively(List<Schema> existingSchemas, Schema proposedSchema,
+                                         BiFunction<Schema, Schema, Set<Difference>> checkExistingProposed) {
         Set<Difference> result = new HashSet<>();
         for (int i = existingSchemas.size() - 1; i >= 0; i--) { // TODO This may become too slow, more wide refactoring needed.
             Set<Difference> current = checkExistingProposed.apply(existingSchemas.get(i), proposedSchema);
@@ -19,7 +19,10 @@ package io.apicurio.registry.rules.compatibility;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.compatibility.protobuf.ProtobufCompatibilityCheckerLibrary;
 import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
 
@@ -28,22 +31,51 @@ import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
  */
 public class ProtobufCompatibilityChecker implements CompatibilityChecker {
 
+    private final ParsedContentCache parsedContentCache;
+
+    /**
+     * Constructor, for a checker that parses the content without caching it.
+     */
+    public ProtobufCompatibilityChecker() {
+        this(new ParsedContentCache());
+    }
+
+    /**
+     * Constructor.
+     * @param parsedContentCache
+     */
+    public ProtobufCompatibilityChecker(ParsedContentCache parsedContentCache) {
+        this.parsedContentCache = parsedContentCache;
+    }
+
     /**
      * @see io.apicurio.registry.rules.compatibility.CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, java.lang.String)
      */
     @Override
     public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<String> existingSchemas, String proposedSchema) {
-        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
         requireNonNull(existingSchemas, "existingSchemas MUST NOT be null");
         requireNonNull(proposedSchema, "proposedSchema MUST NOT be null");
+        return testCompatibility(compatibilityLevel,
+            existingSchemas.stream().map(ContentHandle::create).collect(Collectors.toList()),
+            ContentHandle.create(proposedSchema));
+    }
 
-        if (existingSchemas.isEmpty()) {
+    /**
+     * @see io.apicurio.registry.rules.compatibility.CompatibilityChecker#testCompatibility(io.apicurio.registry.rules.compatibility.CompatibilityLevel, java.util.List, io.apicurio.registry.content.ContentHandle)
+     */
+    @Override
+    public CompatibilityExecutionResult testCompatibility(CompatibilityLevel compatibilityLevel, List<ContentHandle> existingArtifacts, ContentHandle proposedArtifact) {
+        requireNonNull(compatibilityLevel, "compatibilityLevel MUST NOT be null");
+        requireNonNull(existingArtifacts, "existingArtifacts MUST NOT be null");
+        requireNonNull(proposedArtifact, "proposedArtifact MUST NOT be null");
+
+        if (existingArtifacts.isEmpty()) {
             return CompatibilityExecutionResult.compatible();
         }
         switch (compatibilityLevel) {
             case BACKWARD: {
-                ProtobufFile fileBefore = new ProtobufFile(existingSchemas.get(existingSchemas.size() - 1));
-                ProtobufFile fileAfter = new ProtobufFile(proposedSchema);
+                ProtobufFile fileBefore = parse(existingArtifacts.get(existingArtifacts.size() - 1));
+                ProtobufFile fileAfter = parse(proposedArtifact);
                 ProtobufCompatibilityCheckerLibrary checker = new ProtobufCompatibilityCheckerLibrary(fileBefore, fileAfter);
                 if (checker.validate()) {
                     return CompatibilityExecutionResult.compatible();
@@ -52,13 +84,11 @@ public class ProtobufCompatibilityChecker implements CompatibilityChecker {
                 }
             }
             case BACKWARD_TRANSITIVE:
-                ProtobufFile fileAfter = new ProtobufFile(proposedSchema);
-                for (String existing : existingSchemas) {
-                    ProtobufFile fileBefore = new ProtobufFile(existing);
+                ProtobufFile fileAfter = parse(proposedArtifact);
+                for (ContentHandle existing : existingArtifacts) {
+                    ProtobufFile fileBefore = parse(existing);
                     ProtobufCompatibilityCheckerLibrary checker = new ProtobufCompatibilityCheckerLibrary(fileBefore, fileAfter);
-                    if (checker.validate()) {
-                        return CompatibilityExecutionResult.compatible();
-                    } else {
+                    if (!checker.validate()) {
                         return CompatibilityExecutionResult.incompatible("The new version of the protobuf artifact is not backward compatible.");
                     }
                 }
@@ -72,4 +102,8 @@ public class ProtobufCompatibilityChecker implements CompatibilityChecker {
                 return CompatibilityExecutionResult.compatible();
         }
     }
+
+    private ProtobufFile parse(ContentHandle content) {
+        return parsedContentCache.get(ProtobufFile.class, content, c -> new ProtobufFile(c.content()));
+    }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import javax.enterprise.context.ApplicationScoped;
 import org.apache.avro.Schema;
 
 import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.RuleViolationException;
 import io.apicurio.registry.types.RuleType;
 
@@ -31,10 +32,21 @@ import io.apicurio.registry.types.RuleType;
 @ApplicationScoped
 public class AvroContentValidator implements ContentValidator {
     
+    private final ParsedContentCache parsedContentCache;
+
     /**
-     * Constructor.
+     * Constructor, for a validator that parses the content without caching it.
      */
     public AvroContentValidator() {
+        this(new ParsedContentCache());
+    }
+
+    /**
+     * Constructor.
+     * @param parsedContentCache
+     */
+    public AvroContentValidator(ParsedContentCache parsedContentCache) {
+        this.parsedContentCache = parsedContentCache;
     }
     
     /**
@@ -44,8 +56,7 @@ public class AvroContentValidator implements ContentValidator {
     public void validate(ValidityLevel level, ContentHandle artifactContent) throws RuleViolationException {
         if (level == ValidityLevel.SYNTAX_ONLY || level == ValidityLevel.FULL) {
             try {
-                Schema.Parser parser = new Schema.Parser();
-                parser.parse(artifactContent.content());
+                parsedContentCache.get(Schema.class, artifactContent, c -> new Schema.Parser().parse(c.content()));
             } catch (Exception e) {
                 throw new RuleViolationException("Syntax violation for Avro artifact.", RuleType.VALIDITY, level.name(), e);
             }
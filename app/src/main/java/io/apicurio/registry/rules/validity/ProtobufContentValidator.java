@@ -19,6 +19,7 @@ package io.apicurio.registry.rules.validity;
 import javax.enterprise.context.ApplicationScoped;
 
 import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.RuleViolationException;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
@@ -30,10 +31,21 @@ import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
 @ApplicationScoped
 public class ProtobufContentValidator implements ContentValidator {
 
+    private final ParsedContentCache parsedContentCache;
+
     /**
-     * Constructor.
+     * Constructor, for a validator that parses the content without caching it.
      */
     public ProtobufContentValidator() {
+        this(new ParsedContentCache());
+    }
+
+    /**
+     * Constructor.
+     * @param parsedContentCache
+     */
+    public ProtobufContentValidator(ParsedContentCache parsedContentCache) {
+        this.parsedContentCache = parsedContentCache;
     }
 
     /**
@@ -43,7 +55,7 @@ public class ProtobufContentValidator implements ContentValidator {
     public void validate(ValidityLevel level, ContentHandle artifactContent) throws RuleViolationException {
         if (level == ValidityLevel.SYNTAX_ONLY || level == ValidityLevel.FULL) {
             try {
-                ProtobufFile.toProtoFileElement(artifactContent.content());
+                parsedContentCache.get(ProtobufFile.class, artifactContent, c -> new ProtobufFile(c.content()));
             } catch (Exception e) {
                 throw new RuleViolationException("Syntax violation for Protobuf artifact.", RuleType.VALIDITY, level.name(), e);
             }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.services;
+
+import static io.apicurio.registry.metrics.MetricsConstants.CONTENT_REAPER_DELETED;
+import static io.apicurio.registry.metrics.MetricsConstants.CONTENT_REAPER_DELETED_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.CONTENT_REAPER_RECLAIMED_BYTES;
+import static io.apicurio.registry.metrics.MetricsConstants.CONTENT_REAPER_RECLAIMED_BYTES_DESCRIPTION;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
+import io.apicurio.registry.types.Current;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+
+/**
+ * Periodically deletes the rows of the "content" table that are no longer referenced by any artifact version
+ * (deleting artifacts and versions leaves their content behind).
+ * <p>
+ * Each run scans at most max-per-run rows, in batches, continuing where the previous run stopped and starting
+ * over once all the content has been scanned.  Content is only deleted once it has been seen orphaned for the
+ * grace period, by an earlier pass: a version being created, or imported, may reference content that was stored
+ * just before it.  The storage checks again that the content is orphaned when deleting it, and (in SQL mode)
+ * locks the content that a version is being created with.  Failing to delete some content does not stop the run.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class ContentReaperService {
+
+    @Inject
+    Logger log;
+
+    @Inject
+    @Current
+    RegistryStorage storage;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "registry.content-reaper.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "registry.content-reaper.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "registry.content-reaper.max-per-run", defaultValue = "1000")
+    int maxPerRun;
+
+    @ConfigProperty(name = "registry.content-reaper.grace-period-seconds", defaultValue = "3600")
+    long gracePeriodSeconds;
+
+    // The scan position, and when the orphaned content was first seen (in this pass and in the previous one)
+    private long lastContentId = 0;
+    private Map<Long, Long> previousPass = new HashMap<>();
+    private Map<Long, Long> currentPass = new HashMap<>();
+
+    private Counter deletedCounter;
+    private Counter reclaimedBytesCounter;
+
+    @PostConstruct
+    void init() {
+        deletedCounter = Counter.builder(CONTENT_REAPER_DELETED)
+                .description(CONTENT_REAPER_DELETED_DESCRIPTION)
+                .register(meterRegistry);
+        reclaimedBytesCounter = Counter.builder(CONTENT_REAPER_RECLAIMED_BYTES)
+                .description(CONTENT_REAPER_RECLAIMED_BYTES_DESCRIPTION)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(concurrentExecution = ConcurrentExecution.SKIP, delayed = "{registry.content-reaper.delayed}", every = "{registry.content-reaper.every}")
+    public void reapOrphanedContent() {
+        if (!enabled || !storage.isAlive() || !storage.isReady()) {
+            return;
+        }
+        log.trace("Running periodic orphaned content reaper");
+        reap(System.currentTimeMillis());
+    }
+
+    /**
+     * Runs the reaper once.
+     * @param now the current time, in milliseconds
+     * @return the number of content rows deleted
+     */
+    synchronized int reap(long now) {
+        int scanned = 0;
+        int deleted = 0;
+        long reclaimed = 0;
+        while (scanned < maxPerRun) {
+            int limit = Math.min(batchSize, maxPerRun - scanned);
+            List<OrphanedContentDto> batch = storage.getOrphanedContent(lastContentId, limit);
+            for (OrphanedContentDto content : batch) {
+                lastContentId = content.getContentId();
+                Long firstSeen = previousPass.get(content.getContentId());
+                if (firstSeen != null && now - firstSeen >= gracePeriodSeconds * 1000) {
+                    // A failure (e.g. the content was referenced again meanwhile) only skips this content
+                    try {
+                        if (storage.deleteOrphanedContent(content)) {
+                            deleted++;
+                            reclaimed += content.getSize();
+                        }
+                    } catch (Exception e) {
+                        log.warn("Failed to delete orphaned content {}", content.getContentId(), e);
+                    }
+                } else {
+                    currentPass.put(content.getContentId(), firstSeen == null ? now : firstSeen);
+                }
+            }
+            scanned += batch.size();
+            if (batch.size() < limit) {
+                // All the content has been scanned, start over on the next run.  Content that is no longer
+                // orphaned is forgotten.
+                lastContentId = 0;
+                previousPass = currentPass;
+                currentPass = new HashMap<>();
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} orphaned content rows, reclaiming {} bytes", deleted, reclaimed);
+            deletedCounter.increment(deleted);
+            reclaimedBytesCounter.increment(reclaimed);
+        }
+        return deleted;
+    }
+
+}
@@ -18,11 +18,15 @@
 package io.apicurio.registry.storage;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.mt.TenantContext;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -31,6 +35,7 @@ import io.apicurio.registry.storage.dto.GroupMetaDataDto;
 import io.apicurio.registry.storage.dto.LogConfigurationDto;
 import io.apicurio.registry.storage.dto.OrderBy;
 import io.apicurio.registry.storage.dto.OrderDirection;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
 import io.apicurio.registry.storage.dto.RuleConfigurationDto;
 import io.apicurio.registry.storage.dto.SearchFilter;
 import io.apicurio.registry.storage.dto.StoredArtifactDto;
@@ -139,6 +144,16 @@ public interface RegistryStorage {
     public ArtifactMetaDataDto createArtifactWithMetadata(String groupId, String artifactId, String version,
             ArtifactType artifactType, ContentHandle content, EditableArtifactMetaDataDto metaData) throws ArtifactAlreadyExistsException, RegistryStorageException;
 
+    /**
+     * Creates several artifacts (or new versions of existing artifacts, for the items flagged as updates) at once,
+     * writing them together.  Returns the result of each item, in the order of the items: the meta-data of the
+     * artifact, or the error of the item (an ArtifactAlreadyExistsException or an ArtifactNotFoundException).
+     * Other errors fail the whole batch.
+     * @param items
+     * @throws RegistryStorageException
+     */
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException;
+
     /**
      * Deletes an artifact by its group and unique id. Returns list of artifact versions.
      * @param groupId (optional)
@@ -318,6 +333,16 @@ public interface RegistryStorage {
      */
     public void deleteArtifactRules(String groupId, String artifactId) throws ArtifactNotFoundException, RegistryStorageException;
 
+    /**
+     * Gets the configuration of all of the rules configured on the given artifact, as well as of all of the
+     * global rules, in a single read.  Does not check that the artifact exists.
+     * @param groupId (optional)
+     * @param artifactId
+     * @throws RegistryStorageException
+     */
+    public ArtifactAndGlobalRulesDto getArtifactAndGlobalRules(String groupId, String artifactId)
+            throws RegistryStorageException;
+
     /**
      * Gets all of the information for a single rule configured on a given artifact.
      * @param groupId (optional)
@@ -363,6 +388,15 @@ public interface RegistryStorage {
      */
     public List<String> getArtifactVersions(String groupId, String artifactId) throws ArtifactNotFoundException, RegistryStorageException;
 
+    /**
+     * Gets the content hash of every version of a given artifact, keyed by version, oldest first.
+     * @param groupId (optional)
+     * @param artifactId
+     * @throws ArtifactNotFoundException
+     * @throws RegistryStorageException
+     */
+    public Map<String, String> getArtifactVersionContentHashes(String groupId, String artifactId) throws ArtifactNotFoundException, RegistryStorageException;
+
     /**
      * Fetch the versions of the given artifact
      * @param groupId (optional)
@@ -448,6 +482,12 @@ public interface RegistryStorage {
      */
     public List<RuleType> getGlobalRules() throws RegistryStorageException;
 
+    /**
+     * Gets the configuration of all of the global rules, in a single read.
+     * @throws RegistryStorageException
+     */
+    public Map<RuleType, RuleConfigurationDto> getGlobalRuleConfigurations() throws RegistryStorageException;
+
     /**
      * Creates a single global rule.  Duplicates (by name) are not allowed.  Stores the rule name and configuration.
      * @param rule
@@ -560,6 +600,17 @@ public interface RegistryStorage {
      */
     public void exportData(Function<Entity, Void> handler) throws RegistryStorageException;
 
+    /**
+     * Called to export the artifact versions with a globalId greater than the given one, and their content (an
+     * incremental export).  Groups and rules are not exported.  The content may be streamed (see
+     * {@link io.apicurio.registry.utils.impexp.ContentEntity#contentStream}), so the handler must process
+     * each entity before returning.
+     * @param sinceGlobalId -1 to export all data, like {@link #exportData(Function)}
+     * @param handler
+     * @throws RegistryStorageException
+     */
+    public void exportData(long sinceGlobalId, Function<Entity, Void> handler) throws RegistryStorageException;
+
     /**
      * Called to import previously exported data into the registry.
      * @param entities
@@ -567,6 +618,23 @@ public interface RegistryStorage {
      */
     public void importData(EntityInputStream entities) throws RegistryStorageException;
 
+    /**
+     * Returns up to limit rows of content that are not referenced by any artifact version, in any tenant, with
+     * a contentId greater than the given one, ordered by contentId.  Used to reap orphaned content in batches.
+     * @param afterContentId
+     * @param limit
+     * @throws RegistryStorageException
+     */
+    public List<OrphanedContentDto> getOrphanedContent(long afterContentId, int limit) throws RegistryStorageException;
+
+    /**
+     * Deletes the given content, unless a version references it again.
+     * @param content
+     * @return true if the content was deleted
+     * @throws RegistryStorageException
+     */
+    public boolean deleteOrphanedContent(OrphanedContentDto content) throws RegistryStorageException;
+
     /**
      * Counts the total number of artifacts
      * @return artifacts count
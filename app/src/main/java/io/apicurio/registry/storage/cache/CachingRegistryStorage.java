@@ -0,0 +1,420 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.mt.TenantContext;
+import io.apicurio.registry.storage.ArtifactAlreadyExistsException;
+import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.GroupNotFoundException;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.RuleAlreadyExistsException;
+import io.apicurio.registry.storage.RuleNotFoundException;
+import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.cache.RegistryStorageCache.CacheKind;
+import io.apicurio.registry.storage.decorator.RegistryStorageDecorator;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
+import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
+import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.dto.RuleConfigurationDto;
+import io.apicurio.registry.storage.impexp.EntityInputStream;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RuleType;
+
+/**
+ * Decorator of {@link RegistryStorage} that serves the hottest reads (artifact and version meta-data, and
+ * rules) from the {@link RegistryStorageCache}, and invalidates the cache whenever the same data is written.
+ * Content is cached by the storage itself, in the {@link ContentCache}.  Enabled with
+ * <code>registry.storage.cache.enabled=true</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class CachingRegistryStorage extends RegistryStorageDecorator {
+
+    @Inject
+    RegistryStorageCache cache;
+
+    @Inject
+    TenantContext tenantContext;
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#isEnabled()
+     */
+    @Override
+    public boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#order()
+     */
+    @Override
+    public int order() {
+        return 20;
+    }
+
+    /* ******************************************************************************************
+     * Cached reads
+     * ****************************************************************************************** */
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#getArtifactMetaData(java.lang.String, java.lang.String)
+     */
+    @Override
+    public ArtifactMetaDataDto getArtifactMetaData(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        return cache.get(tenantContext.tenantId(), CacheKind.ARTIFACT_META_DATA, RegistryStorageCache.artifactKey(groupId, artifactId),
+                () -> super.getArtifactMetaData(groupId, artifactId));
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#getArtifactMetaData(long)
+     */
+    @Override
+    public ArtifactMetaDataDto getArtifactMetaData(long globalId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        return cache.get(tenantContext.tenantId(), CacheKind.VERSION_META_DATA, globalId,
+                () -> super.getArtifactMetaData(globalId));
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#getArtifactRules(java.lang.String, java.lang.String)
+     */
+    @Override
+    public List<RuleType> getArtifactRules(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        return cache.get(tenantContext.tenantId(), CacheKind.ARTIFACT_RULES, RegistryStorageCache.artifactKey(groupId, artifactId),
+                () -> Collections.unmodifiableList(super.getArtifactRules(groupId, artifactId)));
+    }
+
+    /* ******************************************************************************************
+     * Invalidating writes
+     * ****************************************************************************************** */
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactState(java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactState)
+     */
+    @Override
+    public void updateArtifactState(String groupId, String artifactId, ArtifactState state)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            super.updateArtifactState(groupId, artifactId, state);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactState(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactState)
+     */
+    @Override
+    public void updateArtifactState(String groupId, String artifactId, String version, ArtifactState state)
+            throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
+        try {
+            super.updateArtifactState(groupId, artifactId, version, state);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createArtifact(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle)
+     */
+    @Override
+    public ArtifactMetaDataDto createArtifact(String groupId, String artifactId, String version, ArtifactType artifactType,
+            ContentHandle content) throws ArtifactAlreadyExistsException, RegistryStorageException {
+        try {
+            return super.createArtifact(groupId, artifactId, version, artifactType, content);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createArtifactWithMetadata(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle, io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto)
+     */
+    @Override
+    public ArtifactMetaDataDto createArtifactWithMetadata(String groupId, String artifactId, String version,
+            ArtifactType artifactType, ContentHandle content, EditableArtifactMetaDataDto metaData)
+            throws ArtifactAlreadyExistsException, RegistryStorageException {
+        try {
+            return super.createArtifactWithMetadata(groupId, artifactId, version, artifactType, content, metaData);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createArtifacts(java.util.List)
+     */
+    @Override
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        try {
+            return super.createArtifacts(items);
+        } finally {
+            items.forEach(item -> invalidateArtifact(item.getGroupId(), item.getArtifactId()));
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifact(java.lang.String, java.lang.String)
+     */
+    @Override
+    public List<String> deleteArtifact(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            return super.deleteArtifact(groupId, artifactId);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+            cache.invalidateVersions(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifacts(java.lang.String)
+     */
+    @Override
+    public void deleteArtifacts(String groupId) throws RegistryStorageException {
+        try {
+            super.deleteArtifacts(groupId);
+        } finally {
+            cache.invalidateTenant(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifact(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle)
+     */
+    @Override
+    public ArtifactMetaDataDto updateArtifact(String groupId, String artifactId, String version, ArtifactType artifactType,
+            ContentHandle content) throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            return super.updateArtifact(groupId, artifactId, version, artifactType, content);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactWithMetadata(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle, io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto)
+     */
+    @Override
+    public ArtifactMetaDataDto updateArtifactWithMetadata(String groupId, String artifactId, String version,
+            ArtifactType artifactType, ContentHandle content, EditableArtifactMetaDataDto metaData)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            return super.updateArtifactWithMetadata(groupId, artifactId, version, artifactType, content, metaData);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactMetaData(java.lang.String, java.lang.String, io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto)
+     */
+    @Override
+    public void updateArtifactMetaData(String groupId, String artifactId, EditableArtifactMetaDataDto metaData)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            super.updateArtifactMetaData(groupId, artifactId, metaData);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createArtifactRule(java.lang.String, java.lang.String, io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
+     */
+    @Override
+    public void createArtifactRule(String groupId, String artifactId, RuleType rule, RuleConfigurationDto config)
+            throws ArtifactNotFoundException, RuleAlreadyExistsException, RegistryStorageException {
+        try {
+            super.createArtifactRule(groupId, artifactId, rule, config);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifactRules(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void deleteArtifactRules(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        try {
+            super.deleteArtifactRules(groupId, artifactId);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactRule(java.lang.String, java.lang.String, io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
+     */
+    @Override
+    public void updateArtifactRule(String groupId, String artifactId, RuleType rule, RuleConfigurationDto config)
+            throws ArtifactNotFoundException, RuleNotFoundException, RegistryStorageException {
+        try {
+            super.updateArtifactRule(groupId, artifactId, rule, config);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifactRule(java.lang.String, java.lang.String, io.apicurio.registry.types.RuleType)
+     */
+    @Override
+    public void deleteArtifactRule(String groupId, String artifactId, RuleType rule)
+            throws ArtifactNotFoundException, RuleNotFoundException, RegistryStorageException {
+        try {
+            super.deleteArtifactRule(groupId, artifactId, rule);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifactVersion(java.lang.String, java.lang.String, java.lang.String)
+     */
+    @Override
+    public void deleteArtifactVersion(String groupId, String artifactId, String version)
+            throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
+        try {
+            super.deleteArtifactVersion(groupId, artifactId, version);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+            cache.invalidateVersions(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateArtifactVersionMetaData(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto)
+     */
+    @Override
+    public void updateArtifactVersionMetaData(String groupId, String artifactId, String version,
+            EditableArtifactMetaDataDto metaData)
+            throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
+        try {
+            super.updateArtifactVersionMetaData(groupId, artifactId, version, metaData);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteArtifactVersionMetaData(java.lang.String, java.lang.String, java.lang.String)
+     */
+    @Override
+    public void deleteArtifactVersionMetaData(String groupId, String artifactId, String version)
+            throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
+        try {
+            super.deleteArtifactVersionMetaData(groupId, artifactId, version);
+        } finally {
+            invalidateArtifact(groupId, artifactId);
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#createGlobalRule(io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
+     */
+    @Override
+    public void createGlobalRule(RuleType rule, RuleConfigurationDto config)
+            throws RuleAlreadyExistsException, RegistryStorageException {
+        try {
+            super.createGlobalRule(rule, config);
+        } finally {
+            cache.invalidateGlobalRules(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteGlobalRules()
+     */
+    @Override
+    public void deleteGlobalRules() throws RegistryStorageException {
+        try {
+            super.deleteGlobalRules();
+        } finally {
+            cache.invalidateGlobalRules(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#updateGlobalRule(io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
+     */
+    @Override
+    public void updateGlobalRule(RuleType rule, RuleConfigurationDto config)
+            throws RuleNotFoundException, RegistryStorageException {
+        try {
+            super.updateGlobalRule(rule, config);
+        } finally {
+            cache.invalidateGlobalRules(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteGlobalRule(io.apicurio.registry.types.RuleType)
+     */
+    @Override
+    public void deleteGlobalRule(RuleType rule) throws RuleNotFoundException, RegistryStorageException {
+        try {
+            super.deleteGlobalRule(rule);
+        } finally {
+            cache.invalidateGlobalRules(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#deleteGroup(java.lang.String)
+     */
+    @Override
+    public void deleteGroup(String groupId) throws GroupNotFoundException, RegistryStorageException {
+        try {
+            super.deleteGroup(groupId);
+        } finally {
+            cache.invalidateTenant(tenantContext.tenantId());
+        }
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.decorator.RegistryStorageDecorator#importData(io.apicurio.registry.storage.impexp.EntityInputStream)
+     */
+    @Override
+    public void importData(EntityInputStream entities) throws RegistryStorageException {
+        try {
+            super.importData(entities);
+        } finally {
+            cache.invalidateTenant(tenantContext.tenantId());
+        }
+    }
+
+    private void invalidateArtifact(String groupId, String artifactId) {
+        cache.invalidateArtifact(tenantContext.tenantId(), groupId, artifactId);
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.cache;
+
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_HITS;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_HITS_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_MISSES;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_MISSES_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_TAG_CACHE;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A cache of artifact content, bounded by the total size (in bytes) of the cached content.  Rows in the
+ * content table are immutable once written (a contentId or content hash always refers to the same bytes).
+ *
+ * Content is cached per tenant, because a tenant may only read content referenced by its own versions.  The
+ * storage invalidates the tenant's content once the deletion of versions is committed.  Only this node's cache
+ * is invalidated, so the cache is disabled by default (<code>registry.storage.content-cache.max-bytes</code>)
+ * and enabled for the KafkaSQL storage, where every node applies every change to its own database.  With SQL
+ * storage shared by a cluster, other nodes may keep serving the content of deleted versions until it is evicted.
+ *
+ * The cached keys are indexed by tenant and by content, so that invalidations don't scan the whole cache.  An
+ * invalidation epoch protects against caching content that was loaded concurrently with an invalidation: a
+ * loaded value is only cached if no invalidation happened while it was being loaded.
+ *
+ * The cached {@link ContentHandle}s remember their SHA-256 hash, which makes them cheap to use as HTTP
+ * entity tags.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class ContentCache {
+
+    private static final String CACHE_NAME = "content";
+
+    @Inject
+    Logger log;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "registry.storage.content-cache.max-bytes", defaultValue = "0")
+    long maxBytes;
+
+    private Cache<List<Object>, ContentHandle> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    // The cached keys ([tenant, contentId or content hash]), by tenant and by contentId or content hash
+    private final ConcurrentMap<Object, Set<List<Object>>> keysByTenant = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, Set<List<Object>>> keysByContent = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        if (!isEnabled()) {
+            log.info("Content cache disabled.");
+            return;
+        }
+        log.info("Content cache enabled: up to {} bytes.", maxBytes);
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<List<Object>, ContentHandle>weigher((key, content) -> content.bytes().length)
+                // Called atomically with the eviction, unlike a removal listener
+                .evictionListener((key, content, cause) -> unindex(key))
+                .build();
+        hits = Counter.builder(STORAGE_CACHE_HITS)
+                .description(STORAGE_CACHE_HITS_DESCRIPTION)
+                .tag(STORAGE_CACHE_TAG_CACHE, CACHE_NAME)
+                .register(registry);
+        misses = Counter.builder(STORAGE_CACHE_MISSES)
+                .description(STORAGE_CACHE_MISSES_DESCRIPTION)
+                .tag(STORAGE_CACHE_TAG_CACHE, CACHE_NAME)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the content with the given contentId, loading (and caching) it if needed.
+     * @param tenantId
+     * @param contentId
+     * @param loader
+     */
+    public ContentHandle getByContentId(String tenantId, long contentId, Supplier<ContentHandle> loader) {
+        return get(Arrays.asList(String.valueOf(tenantId), contentId), loader);
+    }
+
+    /**
+     * Returns the content with the given content hash, loading (and caching) it if needed.
+     * @param tenantId
+     * @param contentHash
+     * @param loader
+     */
+    public ContentHandle getByContentHash(String tenantId, String contentHash, Supplier<ContentHandle> loader) {
+        return get(Arrays.asList(String.valueOf(tenantId), contentHash), loader);
+    }
+
+    /**
+     * Invalidates all content cached for the given tenant.
+     * @param tenantId
+     */
+    public void invalidateTenant(String tenantId) {
+        if (!isEnabled()) {
+            return;
+        }
+        epoch.incrementAndGet();
+        invalidate(keysByTenant.remove(String.valueOf(tenantId)));
+    }
+
+    /**
+     * Invalidates the given content, cached by contentId or by content hash, in every tenant.  Used when
+     * orphaned content is deleted.
+     * @param contentId
+     * @param contentHash
+     */
+    public void invalidateContent(long contentId, String contentHash) {
+        if (!isEnabled()) {
+            return;
+        }
+        epoch.incrementAndGet();
+        invalidate(keysByContent.remove(contentId));
+        invalidate(keysByContent.remove(contentHash));
+    }
+
+    /**
+     * Invalidates all cached content.
+     */
+    public void invalidateAll() {
+        if (!isEnabled()) {
+            return;
+        }
+        epoch.incrementAndGet();
+        keysByTenant.clear();
+        keysByContent.clear();
+        cache.invalidateAll();
+    }
+
+    private ContentHandle get(List<Object> key, Supplier<ContentHandle> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        ContentHandle content = cache.getIfPresent(key);
+        if (content != null) {
+            hits.increment();
+            return content;
+        }
+        misses.increment();
+        // Loaded outside of the cache, so that errors (e.g. "not found") are never cached.
+        final long loadEpoch = epoch.get();
+        ContentHandle loaded = loader.get();
+        cache.asMap().compute(key, (k, current) -> {
+            // Indexed before checking the epoch: an invalidation either prevents caching the value, or finds it
+            // in the index (and then waits for this computation to complete before removing it).
+            index(k);
+            if (epoch.get() == loadEpoch) {
+                return loaded;
+            }
+            if (current == null) {
+                unindex(k);
+            }
+            return current;
+        });
+        return loaded;
+    }
+
+    /**
+     * Removes the given keys from the indexes, then from the cache.
+     */
+    private void invalidate(Set<List<Object>> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (List<Object> key : keys) {
+            unindex(key);
+            cache.invalidate(key);
+        }
+    }
+
+    private void index(List<Object> key) {
+        index(keysByTenant, key.get(0), key);
+        index(keysByContent, key.get(1), key);
+    }
+
+    private void unindex(List<Object> key) {
+        unindex(keysByTenant, key.get(0), key);
+        unindex(keysByContent, key.get(1), key);
+    }
+
+    // Atomic with the removal of the value's keys (by an invalidation)
+    private static void index(ConcurrentMap<Object, Set<List<Object>>> index, Object value, List<Object> key) {
+        index.compute(value, (v, keys) -> {
+            Set<List<Object>> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private static void unindex(ConcurrentMap<Object, Set<List<Object>>> index, Object value, List<Object> key) {
+        index.computeIfPresent(value, (v, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+}
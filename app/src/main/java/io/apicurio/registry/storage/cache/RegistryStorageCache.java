@@ -0,0 +1,313 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.cache;
+
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_HITS;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_HITS_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_MISSES;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_MISSES_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_TAG_CACHE;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
+import io.apicurio.registry.storage.impl.sql.SqlUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded, per-tenant caches for the most frequently read (and rarely written) registry storage data.  Used
+ * by the {@link CachingRegistryStorage} decorator (and the rules service) to serve reads, and invalidated
+ * both by that decorator (for writes made through the local storage) and, in clustered storages such as
+ * KafkaSQL, by the component that applies the writes made by every node.
+ *
+ * Each tenant gets its own set of caches, each limited to a maximum number of entries.  Only small values
+ * are cached here: content (which can be large) is cached by the {@link ContentCache}, bounded by bytes.  A per-tenant write
+ * epoch protects against caching a value that was loaded concurrently with a write: a loaded value is only
+ * cached if no invalidation happened for the tenant while it was being loaded.  The cached version meta-data is
+ * indexed by artifact, so that invalidating an artifact does not scan the whole version cache.
+ *
+ * Note that the caches are local to each registry instance.  They must only be enabled when every write is
+ * seen by every instance (a single instance, or KafkaSQL), never for a cluster sharing a SQL database.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class RegistryStorageCache {
+
+    /**
+     * The kinds of data that are cached.
+     */
+    public enum CacheKind {
+        /** Artifact (latest version) meta-data, keyed by group and artifact id. */
+        ARTIFACT_META_DATA,
+        /** Artifact rules, keyed by group and artifact id. */
+        ARTIFACT_RULES,
+        /** The rules (and their configuration) that apply to an artifact, keyed by group and artifact id. */
+        EFFECTIVE_RULES,
+        /** Artifact version meta-data, keyed by globalId. */
+        VERSION_META_DATA
+    }
+
+    @Inject
+    Logger log;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "registry.storage.cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "registry.storage.cache.max-entries", defaultValue = "10000")
+    long maxEntries;
+
+    @ConfigProperty(name = "registry.storage.cache.max-tenants", defaultValue = "1000")
+    long maxTenants;
+
+    private Cache<String, TenantCache> tenants;
+    private final Map<CacheKind, Counter> hits = new EnumMap<>(CacheKind.class);
+    private final Map<CacheKind, Counter> misses = new EnumMap<>(CacheKind.class);
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Storage cache enabled: up to {} entries per cache for up to {} tenants.", maxEntries, maxTenants);
+        tenants = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build();
+        for (CacheKind kind : CacheKind.values()) {
+            String name = kind.name().toLowerCase();
+            hits.put(kind, Counter.builder(STORAGE_CACHE_HITS)
+                    .description(STORAGE_CACHE_HITS_DESCRIPTION)
+                    .tag(STORAGE_CACHE_TAG_CACHE, name)
+                    .register(registry));
+            misses.put(kind, Counter.builder(STORAGE_CACHE_MISSES)
+                    .description(STORAGE_CACHE_MISSES_DESCRIPTION)
+                    .tag(STORAGE_CACHE_TAG_CACHE, name)
+                    .register(registry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates the cache key for artifact scoped data.
+     * @param groupId
+     * @param artifactId
+     */
+    public static Object artifactKey(String groupId, String artifactId) {
+        return Arrays.asList(SqlUtil.normalizeGroupId(groupId), artifactId);
+    }
+
+    /**
+     * Returns the cached value, or loads (and caches) it if it is not in the cache.  Exceptions thrown by
+     * the loader (e.g. "not found") are propagated and never cached.
+     * @param tenantId
+     * @param kind
+     * @param key
+     * @param loader
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String tenantId, CacheKind kind, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        TenantCache tenant = tenants.get(String.valueOf(tenantId), t -> new TenantCache());
+        Cache<Object, Object> cache = tenant.caches.get(kind);
+        Object value = cache.getIfPresent(key);
+        if (value != null) {
+            hits.get(kind).increment();
+            return (T) value;
+        }
+        misses.get(kind).increment();
+
+        final long epoch = tenant.epoch.get();
+        T loaded = loader.get();
+        if (loaded != null) {
+            cache.asMap().compute(key, (k, current) -> {
+                // Indexed before checking the epoch: an invalidation either prevents caching the value, or finds
+                // it in the index (and then waits for this computation to complete before removing it).
+                tenant.index(kind, k, loaded);
+                if (tenant.epoch.get() == epoch) {
+                    return loaded;
+                }
+                if (current == null) {
+                    tenant.unindex(kind, k, loaded);
+                }
+                return current;
+            });
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidates everything cached for the given artifact: its meta-data and rules, as well as the
+     * meta-data of any of its versions.
+     * @param tenantId
+     * @param groupId
+     * @param artifactId
+     */
+    public void invalidateArtifact(String tenantId, String groupId, String artifactId) {
+        TenantCache tenant = tenant(tenantId);
+        if (tenant == null) {
+            return;
+        }
+        tenant.epoch.incrementAndGet();
+        Object key = artifactKey(groupId, artifactId);
+        tenant.caches.get(CacheKind.ARTIFACT_META_DATA).invalidate(key);
+        tenant.caches.get(CacheKind.ARTIFACT_RULES).invalidate(key);
+        tenant.caches.get(CacheKind.EFFECTIVE_RULES).invalidate(key);
+        Set<Object> versions = tenant.versionsByArtifact.remove(key);
+        if (versions != null) {
+            tenant.caches.get(CacheKind.VERSION_META_DATA).invalidateAll(versions);
+        }
+    }
+
+    /**
+     * Invalidates all version meta-data cached for the given tenant.  Needed when versions are deleted.
+     * @param tenantId
+     */
+    public void invalidateVersions(String tenantId) {
+        TenantCache tenant = tenant(tenantId);
+        if (tenant == null) {
+            return;
+        }
+        tenant.epoch.incrementAndGet();
+        tenant.versionsByArtifact.clear();
+        tenant.caches.get(CacheKind.VERSION_META_DATA).invalidateAll();
+    }
+
+    /**
+     * Invalidates the rules cached for the given tenant's artifacts, which (may) depend on the global rules.
+     * @param tenantId
+     */
+    public void invalidateGlobalRules(String tenantId) {
+        TenantCache tenant = tenant(tenantId);
+        if (tenant == null) {
+            return;
+        }
+        tenant.epoch.incrementAndGet();
+        tenant.caches.get(CacheKind.EFFECTIVE_RULES).invalidateAll();
+    }
+
+    /**
+     * Invalidates everything cached for the given tenant.
+     * @param tenantId
+     */
+    public void invalidateTenant(String tenantId) {
+        TenantCache tenant = tenant(tenantId);
+        if (tenant == null) {
+            return;
+        }
+        tenant.invalidateAll();
+    }
+
+    /**
+     * Invalidates everything cached for all tenants.
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        tenants.asMap().values().forEach(TenantCache::invalidateAll);
+    }
+
+    private TenantCache tenant(String tenantId) {
+        if (!enabled) {
+            return null;
+        }
+        return tenants.getIfPresent(String.valueOf(tenantId));
+    }
+
+    /**
+     * The caches of a single tenant.
+     */
+    private class TenantCache {
+
+        private final AtomicLong epoch = new AtomicLong();
+        private final Map<CacheKind, Cache<Object, Object>> caches = new EnumMap<>(CacheKind.class);
+        // The keys (globalIds) of the cached version meta-data, by artifact key
+        private final ConcurrentMap<Object, Set<Object>> versionsByArtifact = new ConcurrentHashMap<>();
+
+        TenantCache() {
+            for (CacheKind kind : CacheKind.values()) {
+                Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maxEntries);
+                if (kind == CacheKind.VERSION_META_DATA) {
+                    // Called atomically with the eviction, unlike a removal listener
+                    builder.evictionListener((key, value, cause) -> unindex(kind, key, value));
+                }
+                caches.put(kind, builder.build());
+            }
+        }
+
+        void invalidateAll() {
+            epoch.incrementAndGet();
+            versionsByArtifact.clear();
+            caches.values().forEach(Cache::invalidateAll);
+        }
+
+        // Atomic with the removal of the artifact's versions (by an invalidation)
+        void index(CacheKind kind, Object key, Object value) {
+            if (kind == CacheKind.VERSION_META_DATA && value instanceof ArtifactMetaDataDto) {
+                versionsByArtifact.compute(versionArtifactKey(value), (k, keys) -> {
+                    Set<Object> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                    indexed.add(key);
+                    return indexed;
+                });
+            }
+        }
+
+        void unindex(CacheKind kind, Object key, Object value) {
+            if (kind == CacheKind.VERSION_META_DATA && value instanceof ArtifactMetaDataDto) {
+                versionsByArtifact.computeIfPresent(versionArtifactKey(value), (k, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+
+        private Object versionArtifactKey(Object value) {
+            ArtifactMetaDataDto dto = (ArtifactMetaDataDto) value;
+            return artifactKey(dto.getGroupId(), dto.getId());
+        }
+
+    }
+
+}
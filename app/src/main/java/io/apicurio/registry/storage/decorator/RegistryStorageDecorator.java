@@ -17,6 +17,7 @@
 package io.apicurio.registry.storage.decorator;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -32,6 +33,9 @@ import io.apicurio.registry.storage.RegistryStorageException;
 import io.apicurio.registry.storage.RuleAlreadyExistsException;
 import io.apicurio.registry.storage.RuleNotFoundException;
 import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -40,6 +44,7 @@ import io.apicurio.registry.storage.dto.GroupMetaDataDto;
 import io.apicurio.registry.storage.dto.LogConfigurationDto;
 import io.apicurio.registry.storage.dto.OrderBy;
 import io.apicurio.registry.storage.dto.OrderDirection;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
 import io.apicurio.registry.storage.dto.RuleConfigurationDto;
 import io.apicurio.registry.storage.dto.SearchFilter;
 import io.apicurio.registry.storage.dto.StoredArtifactDto;
@@ -168,6 +173,17 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
                 metaData);
     }
 
+    /**
+     * @param items
+     * @return
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#createArtifacts(java.util.List)
+     */
+    @Override
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        return delegate.createArtifacts(items);
+    }
+
     /**
      * @param groupId
      * @param artifactId
@@ -377,6 +393,19 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
         return delegate.getArtifactRules(groupId, artifactId);
     }
 
+    /**
+     * @param groupId
+     * @param artifactId
+     * @return
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactAndGlobalRules(java.lang.String, java.lang.String)
+     */
+    @Override
+    public ArtifactAndGlobalRulesDto getArtifactAndGlobalRules(String groupId, String artifactId)
+            throws RegistryStorageException {
+        return delegate.getArtifactAndGlobalRules(groupId, artifactId);
+    }
+
     /**
      * @param groupId
      * @param artifactId
@@ -469,6 +498,20 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
         return delegate.getArtifactVersions(groupId, artifactId);
     }
 
+    /**
+     * @param groupId
+     * @param artifactId
+     * @return
+     * @throws ArtifactNotFoundException
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactVersionContentHashes(java.lang.String, java.lang.String)
+     */
+    @Override
+    public Map<String, String> getArtifactVersionContentHashes(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        return delegate.getArtifactVersionContentHashes(groupId, artifactId);
+    }
+
     /**
      * @param groupId
      * @param artifactId
@@ -588,6 +631,16 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
         return delegate.getGlobalRules();
     }
 
+    /**
+     * @return
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#getGlobalRuleConfigurations()
+     */
+    @Override
+    public Map<RuleType, RuleConfigurationDto> getGlobalRuleConfigurations() throws RegistryStorageException {
+        return delegate.getGlobalRuleConfigurations();
+    }
+
     /**
      * @param rule
      * @param config
@@ -761,6 +814,17 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
         delegate.exportData(handler);
     }
 
+    /**
+     * @param sinceGlobalId
+     * @param handler
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#exportData(long, java.util.function.Function)
+     */
+    @Override
+    public void exportData(long sinceGlobalId, Function<Entity, Void> handler) throws RegistryStorageException {
+        delegate.exportData(sinceGlobalId, handler);
+    }
+
     /**
      * @param entities
      * @throws RegistryStorageException
@@ -771,6 +835,29 @@ public abstract class RegistryStorageDecorator implements RegistryStorage {
         delegate.importData(entities);
     }
 
+    /**
+     * @param afterContentId
+     * @param limit
+     * @return
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#getOrphanedContent(long, int)
+     */
+    @Override
+    public List<OrphanedContentDto> getOrphanedContent(long afterContentId, int limit) throws RegistryStorageException {
+        return delegate.getOrphanedContent(afterContentId, limit);
+    }
+
+    /**
+     * @param content
+     * @return
+     * @throws RegistryStorageException
+     * @see io.apicurio.registry.storage.RegistryStorage#deleteOrphanedContent(io.apicurio.registry.storage.dto.OrphanedContentDto)
+     */
+    @Override
+    public boolean deleteOrphanedContent(OrphanedContentDto content) throws RegistryStorageException {
+        return delegate.deleteOrphanedContent(content);
+    }
+
     /**
      * @return
      * @throws RegistryStorageException
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.dto;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.types.ArtifactType;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * An artifact to create, or to add a version to, as part of a batch.
+ * @author eric.wittmann@gmail.com
+ */
+@Value
+@Builder
+public class ArtifactBatchItemDto {
+
+    private String groupId;
+
+    private String artifactId;
+
+    private String version;
+
+    private ArtifactType artifactType;
+
+    private ContentHandle content;
+
+    /**
+     * The SHA-256 hashes of the content and of its canonical form, computed by the storage when null.
+     */
+    private String contentHash;
+
+    private String canonicalHash;
+
+    /**
+     * Extracted from the content when null.
+     */
+    private EditableArtifactMetaDataDto metaData;
+
+    /**
+     * Whether a new version is added to an existing artifact, rather than a new artifact created.
+     */
+    private boolean update;
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A row of the content table that is not referenced by any artifact version (in any tenant).
+ * @author eric.wittmann@gmail.com
+ */
+@Value
+@Builder
+public class OrphanedContentDto {
+
+    private long contentId;
+
+    private String contentHash;
+
+    /**
+     * The size of the content, in bytes.
+     */
+    private long size;
+
+}
@@ -16,23 +16,38 @@
 
 package io.apicurio.registry.storage.impl.sql;
 
+import static io.apicurio.registry.metrics.MetricsConstants.IMPORT_ENTITIES;
+import static io.apicurio.registry.metrics.MetricsConstants.IMPORT_ENTITIES_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.IMPORT_ENTITIES_TAG_TYPE;
 import static io.apicurio.registry.storage.impl.sql.SqlUtil.denormalizeGroupId;
 import static io.apicurio.registry.storage.impl.sql.SqlUtil.normalizeGroupId;
 
+import java.io.File;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -57,6 +72,10 @@ import io.apicurio.registry.storage.RuleAlreadyExistsException;
 import io.apicurio.registry.storage.RuleNotFoundException;
 import io.apicurio.registry.storage.StorageException;
 import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.cache.ContentCache;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -65,6 +84,7 @@ import io.apicurio.registry.storage.dto.GroupMetaDataDto;
 import io.apicurio.registry.storage.dto.LogConfigurationDto;
 import io.apicurio.registry.storage.dto.OrderBy;
 import io.apicurio.registry.storage.dto.OrderDirection;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
 import io.apicurio.registry.storage.dto.RuleConfigurationDto;
 import io.apicurio.registry.storage.dto.SearchFilter;
 import io.apicurio.registry.storage.dto.SearchFilterType;
@@ -74,18 +94,14 @@ import io.apicurio.registry.storage.dto.StoredArtifactDto;
 import io.apicurio.registry.storage.dto.VersionSearchResultsDto;
 import io.apicurio.registry.storage.impexp.EntityInputStream;
 import io.apicurio.registry.storage.impl.AbstractRegistryStorage;
+import io.apicurio.registry.storage.impl.sql.jdb.Batch;
 import io.apicurio.registry.storage.impl.sql.jdb.Handle;
 import io.apicurio.registry.storage.impl.sql.jdb.Query;
 import io.apicurio.registry.storage.impl.sql.jdb.RowMapper;
 import io.apicurio.registry.storage.impl.sql.jdb.Update;
 import io.apicurio.registry.storage.impl.sql.mappers.ArtifactMetaDataDtoMapper;
-import io.apicurio.registry.storage.impl.sql.mappers.ArtifactRuleEntityMapper;
-import io.apicurio.registry.storage.impl.sql.mappers.ArtifactVersionEntityMapper;
 import io.apicurio.registry.storage.impl.sql.mappers.ArtifactVersionMetaDataDtoMapper;
-import io.apicurio.registry.storage.impl.sql.mappers.ContentEntityMapper;
 import io.apicurio.registry.storage.impl.sql.mappers.ContentMapper;
-import io.apicurio.registry.storage.impl.sql.mappers.GlobalRuleEntityMapper;
-import io.apicurio.registry.storage.impl.sql.mappers.GroupEntityMapper;
 import io.apicurio.registry.storage.impl.sql.mappers.GroupMetaDataDtoMapper;
 import io.apicurio.registry.storage.impl.sql.mappers.LogConfigurationMapper;
 import io.apicurio.registry.storage.impl.sql.mappers.RuleConfigurationDtoMapper;
@@ -102,9 +118,12 @@ import io.apicurio.registry.utils.impexp.ArtifactRuleEntity;
 import io.apicurio.registry.utils.impexp.ArtifactVersionEntity;
 import io.apicurio.registry.utils.impexp.ContentEntity;
 import io.apicurio.registry.utils.impexp.Entity;
+import io.apicurio.registry.utils.impexp.EntityType;
 import io.apicurio.registry.utils.impexp.GlobalRuleEntity;
 import io.apicurio.registry.utils.impexp.GroupEntity;
 import io.apicurio.registry.utils.impexp.ManifestEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.security.identity.SecurityIdentity;
 
 /**
@@ -116,6 +135,7 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
 
     private static int DB_VERSION = 1;
     private static final Object dbMutex = new Object();
+    private static final int CONTENT_UPSERT_ATTEMPTS = 3;
 
     @Inject
     Logger log;
@@ -144,6 +164,9 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
     @Inject
     HandleFactory handles;
 
+    @Inject
+    ContentCache contentCache;
+
     protected SqlStatements sqlStatements() {
         return sqlStatements;
     }
@@ -151,6 +174,35 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
     @ConfigProperty(name = "registry.sql.init", defaultValue = "true")
     boolean initDB;
 
+    @ConfigProperty(name = "registry.sql.search-index", defaultValue = "true")
+    boolean initSearchIndex;
+
+    @ConfigProperty(name = "registry.sql.search.count-limit", defaultValue = "0")
+    int searchCountLimit;
+
+    @ConfigProperty(name = "registry.export.fetch-size", defaultValue = "50")
+    int exportFetchSize;
+
+    @ConfigProperty(name = "registry.import.chunk-size", defaultValue = "1000")
+    int importChunkSize;
+
+    @ConfigProperty(name = "registry.import.content-threads", defaultValue = "4")
+    int importContentThreads;
+
+    @ConfigProperty(name = "registry.import.checkpoint-file")
+    Optional<File> importCheckpointFile;
+
+    @Inject
+    TransactionManager transactionManager;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<EntityType, Counter> importedEntities = new EnumMap<>(EntityType.class);
+
     /**
      * Constructor.
      */
@@ -162,6 +214,13 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
     protected void initialize() {
         log.debug("SqlRegistryStorage constructed successfully.");
 
+        for (EntityType type : EntityType.values()) {
+            importedEntities.put(type, Counter.builder(IMPORT_ENTITIES)
+                    .description(IMPORT_ENTITIES_DESCRIPTION)
+                    .tag(IMPORT_ENTITIES_TAG_TYPE, type.name())
+                    .register(meterRegistry));
+        }
+
         if (initDB) {
             // TODO create the JDBI handle once and pass it in to all these DB related methods
             synchronized (dbMutex) {
@@ -176,6 +235,13 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                     log.info("Old database version detected, upgrading.");
                     upgradeDatabase();
                 }
+
+                if (initSearchIndex) {
+                    // Not part of the (startup) transaction, see initializeSearchIndex()
+                    Thread thread = new Thread(this::initializeSearchIndex, "search-index-initializer");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
             }
         } else {
             if (!isDatabaseInitialized()) {
@@ -227,6 +293,32 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         log.debug("---");
     }
 
+    /**
+     * Creates the (optional) indexes used by the artifact search, see {@link SqlStatements#searchIndexInitialization()}.
+     * The indexes are built without blocking writes (e.g. CREATE INDEX CONCURRENTLY), which cannot be done in
+     * a transaction, so this runs on its own thread and each statement is committed on its own.  Stops at the
+     * first failure: the search still works without the indexes, only slower.
+     */
+    private void initializeSearchIndex() {
+        final List<String> statements = this.sqlStatements.searchIndexInitialization();
+        if (statements.isEmpty()) {
+            return;
+        }
+        log.info("Initializing the artifact search indexes.");
+        try {
+            handles.withHandleNoException( handle -> {
+                statements.forEach( statement -> {
+                    log.debug(statement);
+                    handle.createUpdate(statement).execute();
+                });
+                return null;
+            });
+            log.info("Artifact search indexes initialized.");
+        } catch (Exception e) {
+            log.warn("Failed to initialize the artifact search indexes, searches will not be indexed.", e);
+        }
+    }
+
     /**
      * Upgrades the database by executing a number of DDL statements found in DB-specific
      * DDL upgrade scripts.
@@ -316,6 +408,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
      */
     @Override
     public ContentHandle getArtifactByContentId(long contentId) throws ContentNotFoundException, RegistryStorageException {
+        return contentCache.getByContentId(tenantContext.tenantId(), contentId, () -> loadContentById(contentId));
+    }
+
+    private ContentHandle loadContentById(long contentId) throws ContentNotFoundException, RegistryStorageException {
         return handles.withHandleNoException( handle -> {
             String sql = sqlStatements().selectContentById();
             Optional<ContentHandle> res = handle.createQuery(sql)
@@ -332,6 +428,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
      */
     @Override
     public ContentHandle getArtifactByContentHash(String contentHash) throws ContentNotFoundException, RegistryStorageException {
+        return contentCache.getByContentHash(tenantContext.tenantId(), contentHash, () -> loadContentByHash(contentHash));
+    }
+
+    private ContentHandle loadContentByHash(String contentHash) throws ContentNotFoundException, RegistryStorageException {
         return handles.withHandleNoException( handle -> {
             String sql = sqlStatements().selectContentByContentHash();
             Optional<ContentHandle> res = handle.createQuery(sql)
@@ -509,27 +609,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         }
 
         // Insert labels into the "labels" table
-        if (labels != null && !labels.isEmpty()) {
-            labels.forEach(label -> {
-                String sqli = sqlStatements.insertLabel();
-                handle.createUpdate(sqli)
-                      .bind(0, globalId)
-                      .bind(1, limitStr(label.toLowerCase(), 256))
-                      .execute();
-            });
-        }
+        insertLabels(handle, globalId, labels);
 
         // Insert properties into the "properties" table
-        if (properties != null && !properties.isEmpty()) {
-            properties.forEach((k,v) -> {
-                String sqli = sqlStatements.insertProperty();
-                handle.createUpdate(sqli)
-                      .bind(0, globalId)
-                      .bind(1, limitStr(k.toLowerCase(), 256))
-                      .bind(2, limitStr(v.toLowerCase(), 1024))
-                      .execute();
-            });
-        }
+        insertProperties(handle, globalId, properties);
 
         // Update the "latest" column in the artifacts table with the globalId of the new version
         sql = sqlStatements.updateArtifactLatest();
@@ -557,57 +640,80 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
      * @param content
      */
     protected Long createOrUpdateContent(Handle handle, ArtifactType artifactType, ContentHandle content) {
+        return createOrUpdateContent(handle, artifactType, content, null, null);
+    }
+
+    /**
+     * Same as above, with the hashes of the content and of its canonical form, when already known.
+     * @param handle
+     * @param artifactType
+     * @param content
+     * @param contentHash (optional)
+     * @param canonicalContentHash (optional)
+     */
+    protected Long createOrUpdateContent(Handle handle, ArtifactType artifactType, ContentHandle content,
+            String contentHash, String canonicalContentHash) {
         byte[] contentBytes = content.bytes();
-        String contentHash = DigestUtils.sha256Hex(contentBytes);
-        ContentHandle canonicalContent = this.canonicalizeContent(artifactType, content);
-        byte[] canonicalContentBytes = canonicalContent.bytes();
-        String canonicalContentHash = DigestUtils.sha256Hex(canonicalContentBytes);
+        if (contentHash == null) {
+            contentHash = DigestUtils.sha256Hex(contentBytes);
+        }
+        if (canonicalContentHash == null) {
+            ContentHandle canonicalContent = this.canonicalizeContent(artifactType, content);
+            byte[] canonicalContentBytes = canonicalContent.bytes();
+            canonicalContentHash = DigestUtils.sha256Hex(canonicalContentBytes);
+        }
 
         // Upsert a row in the "content" table.  This will insert a row for the content
         // iff a row doesn't already exist.  We use the canonical hash to determine whether
         // a row for this content already exists.  If we find a row we return its globalId.
         // If we don't find a row, we insert one and then return its globalId.
+        // The row is locked until the end of the transaction, so that it is not reaped (as
+        // orphaned content) before the version referencing it is inserted.  If it was reaped
+        // between the upsert and the lock, the upsert is simply attempted again.
         String sql;
-        Long contentId;
-        if ("postgresql".equals(sqlStatements.dbType())) {
-            sql = sqlStatements.upsertContent();
-            handle.createUpdate(sql)
-                    .bind(0, nextContentId(handle))
-                    .bind(1, canonicalContentHash)
-                    .bind(2, contentHash)
-                    .bind(3, contentBytes)
-                    .execute();
-            sql = sqlStatements.selectContentIdByHash();
-            contentId = handle.createQuery(sql)
-                    .bind(0, contentHash)
-                    .mapTo(Long.class)
-                    .one();
-        } else if ("h2".equals(sqlStatements.dbType())) {
-            sql = sqlStatements.selectContentIdByHash();
-            Optional<Long> contentIdOptional = handle.createQuery(sql)
-                    .bind(0, contentHash)
-                    .mapTo(Long.class)
-                    .findOne();
-            if (contentIdOptional.isPresent()) {
-                contentId = contentIdOptional.get();
-            } else {
+        Optional<Long> contentId = Optional.empty();
+        for (int attempt = 0; contentId.isEmpty() && attempt < CONTENT_UPSERT_ATTEMPTS; attempt++) {
+            if ("postgresql".equals(sqlStatements.dbType())) {
                 sql = sqlStatements.upsertContent();
                 handle.createUpdate(sql)
-                    .bind(0, nextContentId(handle))
-                    .bind(1, canonicalContentHash)
-                    .bind(2, contentHash)
-                    .bind(3, contentBytes)
-                    .execute();
-                sql = sqlStatements.selectContentIdByHash();
+                        .bind(0, nextContentId(handle))
+                        .bind(1, canonicalContentHash)
+                        .bind(2, contentHash)
+                        .bind(3, contentBytes)
+                        .execute();
+                sql = sqlStatements.selectContentIdByHashForUpdate();
                 contentId = handle.createQuery(sql)
                         .bind(0, contentHash)
                         .mapTo(Long.class)
-                        .one();
+                        .findOne();
+            } else if ("h2".equals(sqlStatements.dbType())) {
+                sql = sqlStatements.selectContentIdByHashForUpdate();
+                contentId = handle.createQuery(sql)
+                        .bind(0, contentHash)
+                        .mapTo(Long.class)
+                        .findOne();
+                if (contentId.isEmpty()) {
+                    sql = sqlStatements.upsertContent();
+                    handle.createUpdate(sql)
+                        .bind(0, nextContentId(handle))
+                        .bind(1, canonicalContentHash)
+                        .bind(2, contentHash)
+                        .bind(3, contentBytes)
+                        .execute();
+                    sql = sqlStatements.selectContentIdByHashForUpdate();
+                    contentId = handle.createQuery(sql)
+                            .bind(0, contentHash)
+                            .mapTo(Long.class)
+                            .findOne();
+                }
+            } else {
+                throw new UnsupportedOperationException("Unsupported database type: " + sqlStatements.dbType());
             }
-        } else {
-            throw new UnsupportedOperationException("Unsupported database type: " + sqlStatements.dbType());
         }
-        return contentId;
+        if (contentId.isEmpty()) {
+            throw new RegistryStorageException("Content was deleted while being stored: " + contentHash);
+        }
+        return contentId.get();
     }
 
     /**
@@ -679,6 +785,53 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         }
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#createArtifacts(java.util.List)
+     */
+    @Override @Transactional
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        log.debug("Creating a batch of {} artifacts", items.size());
+        String createdBy = securityIdentity.getPrincipal().getName();
+        Date createdOn = new Date();
+
+        List<ArtifactBatchResultDto> results = new ArrayList<>(items.size());
+        for (ArtifactBatchItemDto item : items) {
+            String groupId = item.getGroupId();
+            String artifactId = item.getArtifactId();
+
+            // Checked up front: a failed insert would abort the whole transaction (on PostgreSQL)
+            boolean exists = isArtifactExists(groupId, artifactId);
+            if (exists && !item.isUpdate()) {
+                results.add(ArtifactBatchResultDto.builder().error(new ArtifactAlreadyExistsException(groupId, artifactId)).build());
+                continue;
+            }
+            if (!exists && item.isUpdate()) {
+                results.add(ArtifactBatchResultDto.builder().error(new ArtifactNotFoundException(groupId, artifactId)).build());
+                continue;
+            }
+
+            long contentId = handles.withHandleNoException(handle -> {
+                return createOrUpdateContent(handle, item.getArtifactType(), item.getContent(), item.getContentHash(),
+                        item.getCanonicalHash());
+            });
+            EditableArtifactMetaDataDto metaData = item.getMetaData();
+            if (metaData == null) {
+                metaData = extractMetaData(item.getArtifactType(), item.getContent());
+            }
+
+            ArtifactMetaDataDto dto;
+            if (item.isUpdate()) {
+                dto = updateArtifactWithMetadata(groupId, artifactId, item.getVersion(), item.getArtifactType(), contentId,
+                        createdBy, createdOn, metaData, null);
+            } else {
+                dto = createArtifactWithMetadata(groupId, artifactId, item.getVersion(), item.getArtifactType(), contentId,
+                        createdBy, createdOn, metaData, null);
+            }
+            results.add(ArtifactBatchResultDto.builder().metaData(dto).build());
+        }
+        return results;
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#deleteArtifact(java.lang.String, java.lang.String)
      */
@@ -722,8 +875,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                     .bind(1, normalizeGroupId(groupId))
                     .bind(2, artifactId)
                     .execute();
+                String tenantId = tenantContext.tenantId();
+                afterCommit(() -> contentCache.invalidateTenant(tenantId));
 
-                // TODO reap orphaned rows in the "content" table?
+                // Orphaned rows in the "content" table are reaped by the ContentReaperService
 
                 // Delete artifact rules
                 sql = sqlStatements.deleteArtifactRules();
@@ -783,8 +938,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                     .bind(0, tenantContext.tenantId())
                     .bind(1, normalizeGroupId(groupId))
                     .execute();
+                String tenantId = tenantContext.tenantId();
+                afterCommit(() -> contentCache.invalidateTenant(tenantId));
 
-                // TODO reap orphaned rows in the "content" table?
+                // Orphaned rows in the "content" table are reaped by the ContentReaperService
 
                 // Delete artifact rules
                 sql = sqlStatements.deleteArtifactRulesByGroupId();
@@ -1079,18 +1236,11 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
             // Query for the artifacts
             String artifactsQuerySql = select.toString() + where.toString() + orderByQuery.toString() + limitOffset.toString();
             Query artifactsQuery = handle.createQuery(artifactsQuerySql);
-            // Query for the total row count
-            String countSelect = "SELECT count(a.artifactId) FROM artifacts a JOIN versions v ON a.latest = v.globalId ";
-            if (joinContentTable) {
-                countSelect += "JOIN content c ON v.contentId = c.contentId ";
-            }
-            Query countQuery = handle.createQuery(countSelect + where.toString());
 
             // Bind all query parameters
             int idx = 0;
             for (SqlStatementVariableBinder binder : binders) {
                 binder.bind(artifactsQuery, idx);
-                binder.bind(countQuery, idx);
                 idx++;
             }
             artifactsQuery.bind(idx++, limit);
@@ -1098,8 +1248,36 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
 
             // Execute artifact query
             List<SearchedArtifactDto> artifacts = artifactsQuery.map(SearchedArtifactMapper.instance).list();
-            // Execute count query
-            Integer count = countQuery.mapTo(Integer.class).one();
+
+            Integer count;
+            if (artifacts.size() < limit && (offset == 0 || !artifacts.isEmpty())) {
+                // This is the last page, so the count is known without querying for it
+                count = offset + artifacts.size();
+            } else {
+                // Query for the total row count, up to the configured limit (if any)
+                String countFrom = "FROM artifacts a JOIN versions v ON a.latest = v.globalId ";
+                if (joinContentTable) {
+                    countFrom += "JOIN content c ON v.contentId = c.contentId ";
+                }
+                String countQuerySql;
+                if (searchCountLimit > 0) {
+                    countQuerySql = "SELECT count(*) FROM (SELECT a.artifactId " + countFrom + where.toString() + " LIMIT ?) counted";
+                } else {
+                    countQuerySql = "SELECT count(a.artifactId) " + countFrom + where.toString();
+                }
+                Query countQuery = handle.createQuery(countQuerySql);
+                idx = 0;
+                for (SqlStatementVariableBinder binder : binders) {
+                    binder.bind(countQuery, idx);
+                    idx++;
+                }
+                if (searchCountLimit > 0) {
+                    countQuery.bind(idx, searchCountLimit);
+                }
+
+                // Execute count query
+                count = countQuery.mapTo(Integer.class).one();
+            }
 
             ArtifactSearchResultsDto results = new ArtifactSearchResultsDto();
             results.setArtifacts(artifacts);
@@ -1251,6 +1429,35 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         }
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactAndGlobalRules(java.lang.String, java.lang.String)
+     */
+    @Override @Transactional
+    public ArtifactAndGlobalRulesDto getArtifactAndGlobalRules(String groupId, String artifactId)
+            throws RegistryStorageException {
+        log.debug("Getting the artifact and global rules for: {} {}", groupId, artifactId);
+        return this.handles.withHandleNoException( handle -> {
+            Map<RuleType, RuleConfigurationDto> artifactRules = new EnumMap<>(RuleType.class);
+            Map<RuleType, RuleConfigurationDto> globalRules = new EnumMap<>(RuleType.class);
+            String sql = sqlStatements.selectArtifactAndGlobalRules();
+            handle.createQuery(sql)
+                    .bind(0, tenantContext.tenantId())
+                    .bind(1, normalizeGroupId(groupId))
+                    .bind(2, artifactId)
+                    .bind(3, tenantContext.tenantId())
+                    .map(new RowMapper<Void>() {
+                        @Override
+                        public Void map(ResultSet rs) throws SQLException {
+                            Map<RuleType, RuleConfigurationDto> rules = rs.getInt("artifactRule") == 1 ? artifactRules : globalRules;
+                            rules.put(RuleType.fromValue(rs.getString("type")), new RuleConfigurationDto(rs.getString("configuration")));
+                            return null;
+                        }
+                    })
+                    .list();
+            return ArtifactAndGlobalRulesDto.builder().artifactRules(artifactRules).globalRules(globalRules).build();
+        });
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#createArtifactRule(java.lang.String, java.lang.String, io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
      */
@@ -1435,6 +1642,34 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         }
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactVersionContentHashes(java.lang.String, java.lang.String)
+     */
+    @Override @Transactional
+    public Map<String, String> getArtifactVersionContentHashes(String groupId, String artifactId)
+            throws ArtifactNotFoundException, RegistryStorageException {
+        log.debug("Getting the content hashes of the versions of artifact: {} {}", groupId, artifactId);
+        return handles.withHandleNoException( handle -> {
+            String sql = sqlStatements.selectArtifactVersionContentHashes();
+            Map<String, String> hashes = new LinkedHashMap<>();
+            handle.createQuery(sql)
+                    .bind(0, tenantContext.tenantId())
+                    .bind(1, normalizeGroupId(groupId))
+                    .bind(2, artifactId)
+                    .map(new RowMapper<String>() {
+                        @Override
+                        public String map(ResultSet rs) throws SQLException {
+                            return hashes.put(rs.getString(1), rs.getString(2));
+                        }
+                    })
+                    .list();
+            if (hashes.isEmpty()) {
+                throw new ArtifactNotFoundException(groupId, artifactId);
+            }
+            return hashes;
+        });
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#searchVersions(java.lang.String, java.lang.String, int, int)
      */
@@ -1480,6 +1715,25 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
             throws ArtifactNotFoundException, RegistryStorageException {
         log.debug("Selecting a single artifact version by globalId: {}", globalId);
         try {
+            if (contentCache.isEnabled()) {
+                // Select just the version row - the (immutable) content is then most likely in the cache.
+                StoredArtifactDto stored = this.handles.withHandle( handle -> {
+                    String sql = sqlStatements.selectArtifactVersionByGlobalId();
+                    Optional<StoredArtifactDto> res = handle.createQuery(sql)
+                            .bind(0, tenantContext.tenantId())
+                            .bind(1, globalId)
+                            .map(StoredArtifactMapper.withoutContent)
+                            .findOne();
+                    return res.orElseThrow(() -> new ArtifactNotFoundException(null, "gid-" + globalId));
+                });
+                return StoredArtifactDto.builder()
+                        .globalId(stored.getGlobalId())
+                        .version(stored.getVersion())
+                        .versionId(stored.getVersionId())
+                        .contentId(stored.getContentId())
+                        .content(getArtifactByContentId(stored.getContentId()))
+                        .build();
+            }
             return this.handles.withHandle( handle -> {
                 String sql = sqlStatements.selectArtifactVersionContentByGlobalId();
                 Optional<StoredArtifactDto> res = handle.createQuery(sql)
@@ -1585,8 +1839,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                     .bind(2, artifactId)
                     .bind(3, version)
                     .execute();
+                String tenantId = tenantContext.tenantId();
+                afterCommit(() -> contentCache.invalidateTenant(tenantId));
 
-                // TODO reap orphaned rows in the "content" table?
+                // Orphaned rows in the "content" table are reaped by the ContentReaperService
 
                 // If the row was deleted, update the "latest" column to the globalId of the highest remaining version
                 if (rows == 1) {
@@ -1702,29 +1958,10 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                     .execute();
 
                 // Insert new labels into the "labels" table
-                List<String> labels = metaData.getLabels();
-                if (labels != null && !labels.isEmpty()) {
-                    labels.forEach(label -> {
-                        String sqli = sqlStatements.insertLabel();
-                        handle.createUpdate(sqli)
-                              .bind(0, globalId)
-                              .bind(1, limitStr(label.toLowerCase(), 256))
-                              .execute();
-                    });
-                }
+                insertLabels(handle, globalId, metaData.getLabels());
 
                 // Insert new properties into the "properties" table
-                Map<String, String> properties = metaData.getProperties();
-                if (properties != null && !properties.isEmpty()) {
-                    properties.forEach((k,v) -> {
-                        String sqli = sqlStatements.insertProperty();
-                        handle.createUpdate(sqli)
-                              .bind(0, globalId)
-                              .bind(1, limitStr(k.toLowerCase(), 256))
-                              .bind(2, limitStr(v.toLowerCase(), 1024))
-                              .execute();
-                    });
-                }
+                insertProperties(handle, globalId, metaData.getProperties());
 
                 return null;
             });
@@ -1806,6 +2043,28 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         });
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getGlobalRuleConfigurations()
+     */
+    @Override @Transactional
+    public Map<RuleType, RuleConfigurationDto> getGlobalRuleConfigurations() throws RegistryStorageException {
+        return handles.withHandleNoException( handle -> {
+            Map<RuleType, RuleConfigurationDto> globalRules = new EnumMap<>(RuleType.class);
+            String sql = sqlStatements.selectGlobalRuleConfigurations();
+            handle.createQuery(sql)
+                    .bind(0, tenantContext.tenantId())
+                    .map(new RowMapper<Void>() {
+                        @Override
+                        public Void map(ResultSet rs) throws SQLException {
+                            globalRules.put(RuleType.fromValue(rs.getString("type")), new RuleConfigurationDto(rs.getString("configuration")));
+                            return null;
+                        }
+                    })
+                    .list();
+            return globalRules;
+        });
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#createGlobalRule(io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
      */
@@ -2114,140 +2373,123 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
      * @see io.apicurio.registry.storage.RegistryStorage#exportData(java.util.function.Function)
      */
     @Override
-    @Transactional
     public void exportData(Function<Entity, Void> handler) throws RegistryStorageException {
-        try {
-            // Export a simple manifest file
-            /////////////////////////////////
-            ManifestEntity manifest = new ManifestEntity();
-            if (securityIdentity != null && securityIdentity.getPrincipal() != null) {
-                manifest.exportedBy = securityIdentity.getPrincipal().getName();
-            }
-            manifest.systemName = system.getName();
-            manifest.systemDescription = system.getDescription();
-            manifest.systemVersion = system.getVersion();
-            handler.apply(manifest);
-
-            // Export all content
-            /////////////////////////////////
-            this.handles.withHandle(handle -> {
-                String sql = sqlStatements.exportContent();
-                Stream<ContentEntity> stream = handle.createQuery(sql)
-                        .bind(0, tenantContext().tenantId())
-                        .setFetchSize(50)
-                        .map(ContentEntityMapper.instance)
-                        .stream();
-                // Process and then close the stream.
-                try (stream) {
-                    stream.forEach(entity -> {
-                        handler.apply(entity);
-                    });
-                }
-                return null;
-            });
-
-            // Export all groups
-            /////////////////////////////////
-            this.handles.withHandle(handle -> {
-                String sql = sqlStatements.exportGroups();
-                Stream<GroupEntity> stream = handle.createQuery(sql)
-                        .bind(0, tenantContext().tenantId())
-                        .setFetchSize(50)
-                        .map(GroupEntityMapper.instance)
-                        .stream();
-                // Process and then close the stream.
-                try (stream) {
-                    stream.forEach(entity -> {
-                        handler.apply(entity);
-                    });
-                }
-                return null;
-            });
-
-            // Export all artifact versions
-            /////////////////////////////////
-            this.handles.withHandle(handle -> {
-                String sql = sqlStatements.exportArtifactVersions();
-                Stream<ArtifactVersionEntity> stream = handle.createQuery(sql)
-                        .bind(0, tenantContext().tenantId())
-                        .setFetchSize(50)
-                        .map(ArtifactVersionEntityMapper.instance)
-                        .stream();
-                // Process and then close the stream.
-                try (stream) {
-                    stream.forEach(entity -> {
-                        handler.apply(entity);
-                    });
-                }
-                return null;
-            });
-
-            // Export all artifact rules
-            /////////////////////////////////
-            this.handles.withHandle(handle -> {
-                String sql = sqlStatements.exportArtifactRules();
-                Stream<ArtifactRuleEntity> stream = handle.createQuery(sql)
-                        .bind(0, tenantContext().tenantId())
-                        .setFetchSize(50)
-                        .map(ArtifactRuleEntityMapper.instance)
-                        .stream();
-                // Process and then close the stream.
-                try (stream) {
-                    stream.forEach(entity -> {
-                        handler.apply(entity);
-                    });
-                }
-                return null;
-            });
-
-            // Export all global rules
-            /////////////////////////////////
-            this.handles.withHandle(handle -> {
-                String sql = sqlStatements.exportGlobalRules();
-                Stream<GlobalRuleEntity> stream = handle.createQuery(sql)
-                        .bind(0, tenantContext().tenantId())
-                        .setFetchSize(50)
-                        .map(GlobalRuleEntityMapper.instance)
-                        .stream();
-                // Process and then close the stream.
-                try (stream) {
-                    stream.forEach(entity -> {
-                        handler.apply(entity);
-                    });
-                }
-                return null;
-            });
-
+        exportData(-1, handler);
+    }
 
-        } catch (Exception e) {
-            throw new RegistryStorageException(e);
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#exportData(long, java.util.function.Function)
+     */
+    @Override
+    public void exportData(long sinceGlobalId, Function<Entity, Void> handler) throws RegistryStorageException {
+        // Export a simple manifest file
+        /////////////////////////////////
+        ManifestEntity manifest = new ManifestEntity();
+        if (securityIdentity != null && securityIdentity.getPrincipal() != null) {
+            manifest.exportedBy = securityIdentity.getPrincipal().getName();
         }
+        manifest.systemName = system.getName();
+        manifest.systemDescription = system.getDescription();
+        manifest.systemVersion = system.getVersion();
+        handler.apply(manifest);
+
+        // Export the content, groups, artifact versions and rules, see SqlExporter
+        /////////////////////////////////
+        SqlExporter exporter = new SqlExporter(handles, sqlStatements, tenantContext().tenantId(), exportFetchSize, sinceGlobalId);
+        exporter.exportData(handler);
     }
 
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#importData(io.apicurio.registry.storage.impexp.EntityInputStream)
      */
     @Override
-    @Transactional
     public void importData(EntityInputStream entities) throws RegistryStorageException {
-        handles.withHandleNoException( handle -> {
-            Entity entity = null;
-            while ( (entity = entities.nextEntity()) != null ) {
-                if (entity != null) {
-                    importEntity(handle, entity);
-                }
-            }
+        // Each chunk of entities is committed in its own transaction, see SqlImporter.
+        SqlImporter importer = new SqlImporter(this::importChunk, importChunkSize, importContentThreads,
+                importCheckpointFile.map(File::toPath).orElse(null));
+        importer.importData(entities);
 
+        inTransaction(handle -> {
             // Make sure the contentId sequence is set high enough
             resetContentId(handle);
 
             // Make sure the globalId sequence is set high enough
             resetGlobalId(handle);
+        });
+    }
 
-            return null;
+    /**
+     * Imports the given entities, in a new transaction.  Each run of content or artifact version entities is
+     * inserted in batches, see {@link #importContents(Handle, List)} and {@link #importArtifactVersions(Handle, List)}.
+     * @param chunk
+     */
+    protected void importChunk(List<Entity> chunk) {
+        inTransaction(handle -> {
+            List<Entity> run = new ArrayList<>();
+            for (Entity entity : chunk) {
+                if (!run.isEmpty() && run.get(0).getEntityType() != entity.getEntityType()) {
+                    importEntities(handle, run);
+                    run = new ArrayList<>();
+                }
+                run.add(entity);
+            }
+            importEntities(handle, run);
+        });
+        chunk.stream()
+                .collect(Collectors.groupingBy(Entity::getEntityType, Collectors.counting()))
+                .forEach((type, count) -> importedEntities.get(type).increment(count));
+    }
+
+    /**
+     * Runs the given action once the current transaction (if any) is committed.  Used to invalidate the content
+     * cache: invalidated earlier, it could be filled again with the content being deleted before the commit.
+     * @param action
+     */
+    private void afterCommit(Runnable action) {
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
         });
     }
 
+    /**
+     * Runs the given callback in a new transaction, committed before returning.
+     * @param callback
+     */
+    private void inTransaction(Consumer<Handle> callback) {
+        try {
+            transactionManager.begin();
+            try {
+                handles.withHandleNoException(handle -> {
+                    callback.accept(handle);
+                    return null;
+                });
+                transactionManager.commit();
+            } catch (Exception e) {
+                if (transactionManager.getTransaction() != null) {
+                    transactionManager.rollback();
+                }
+                throw e;
+            }
+        } catch (RegistryStorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RegistryStorageException(e);
+        }
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#countArtifacts()
      */
@@ -2299,6 +2541,97 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         });
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getOrphanedContent(long, int)
+     */
+    @Override
+    public List<OrphanedContentDto> getOrphanedContent(long afterContentId, int limit) throws RegistryStorageException {
+        return handles.withHandleNoException(handle -> {
+            String sql = sqlStatements.selectOrphanedContent();
+            return handle.createQuery(sql)
+                    .bind(0, afterContentId)
+                    .bind(1, limit)
+                    .map(new RowMapper<OrphanedContentDto>() {
+                        @Override
+                        public OrphanedContentDto map(ResultSet rs) throws SQLException {
+                            return OrphanedContentDto.builder()
+                                    .contentId(rs.getLong(1))
+                                    .contentHash(rs.getString(2))
+                                    .size(rs.getLong(3))
+                                    .build();
+                        }
+                    })
+                    .list();
+        });
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#deleteOrphanedContent(io.apicurio.registry.storage.dto.OrphanedContentDto)
+     */
+    @Override @Transactional
+    public boolean deleteOrphanedContent(OrphanedContentDto content) throws RegistryStorageException {
+        log.debug("Deleting orphaned content {} ({} bytes)", content.getContentId(), content.getSize());
+        int rows = handles.withHandleNoException(handle -> {
+            String sql = sqlStatements.deleteOrphanedContent();
+            return handle.createUpdate(sql)
+                    .bind(0, content.getContentId())
+                    .execute();
+        });
+        if (rows == 0) {
+            return false;
+        }
+        // The content could still be cached, in any tenant.
+        afterCommit(() -> contentCache.invalidateContent(content.getContentId(), content.getContentHash()));
+        return true;
+    }
+
+    /**
+     * Inserts the rows of the "labels" table for the given version, in a single batch.
+     */
+    protected void insertLabels(Handle handle, long globalId, List<String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return;
+        }
+        Batch batch = handle.createBatch(sqlStatements.insertLabel());
+        addLabels(batch, globalId, labels);
+        batch.execute();
+    }
+
+    /**
+     * Inserts the rows of the "properties" table for the given version, in a single batch.
+     */
+    protected void insertProperties(Handle handle, long globalId, Map<String, String> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return;
+        }
+        Batch batch = handle.createBatch(sqlStatements.insertProperty());
+        addProperties(batch, globalId, properties);
+        batch.execute();
+    }
+
+    private static void addLabels(Batch batch, long globalId, List<String> labels) {
+        if (labels == null) {
+            return;
+        }
+        labels.forEach(label -> {
+            batch.bind(0, globalId)
+                 .bind(1, limitStr(label.toLowerCase(), 256))
+                 .add();
+        });
+    }
+
+    private static void addProperties(Batch batch, long globalId, Map<String, String> properties) {
+        if (properties == null) {
+            return;
+        }
+        properties.forEach((k,v) -> {
+            batch.bind(0, globalId)
+                 .bind(1, limitStr(k.toLowerCase(), 256))
+                 .bind(2, limitStr(v.toLowerCase(), 1024))
+                 .add();
+        });
+    }
+
     protected void resetGlobalId(Handle handle) {
         String sql = sqlStatements.selectMaxGlobalId();
         Optional<Long> maxGlobalId = handle.createQuery(sql)
@@ -2335,6 +2668,30 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
                 .executeNoUpdate();
             log.info("Successfully reset contentId to {}", id);
         }
+
+        // Content ids may have been (re)assigned by an import.
+        afterCommit(contentCache::invalidateAll);
+    }
+
+    /**
+     * Imports a run of entities of the same type.
+     */
+    @SuppressWarnings("unchecked")
+    private void importEntities(Handle handle, List<Entity> entities) throws RegistryStorageException {
+        if (entities.isEmpty()) {
+            return;
+        }
+        switch (entities.get(0).getEntityType()) {
+            case ArtifactVersion:
+                importArtifactVersions(handle, (List<ArtifactVersionEntity>) (List<?>) entities);
+                break;
+            case Content:
+                importContents(handle, (List<ContentEntity>) (List<?>) entities);
+                break;
+            default:
+                entities.forEach(entity -> importEntity(handle, entity));
+                break;
+        }
     }
 
     protected void importEntity(Handle handle, Entity entity) throws RegistryStorageException {
@@ -2388,97 +2745,99 @@ public abstract class AbstractSqlRegistryStorage extends AbstractRegistryStorage
         }
     }
     protected void importArtifactVersion(Handle handle, ArtifactVersionEntity entity) {
-        if (!isArtifactExists(entity.groupId, entity.artifactId)) {
-            String sql = sqlStatements.insertArtifact();
-            handle.createUpdate(sql)
-                .bind(0, tenantContext.tenantId())
-                .bind(1, normalizeGroupId(entity.groupId))
-                .bind(2, entity.artifactId)
-                .bind(3, entity.artifactType.name())
-                .bind(4, entity.createdBy)
-                .bind(5, new Date(entity.createdOn))
-                .execute();
-            log.info("Artifact created successfully.");
-        }
+        importArtifactVersions(handle, Collections.singletonList(entity));
+    }
 
-        if (!isGlobalIdExists(entity.globalId)) {
-            try {
-                String sql = sqlStatements.importArtifactVersion();
-                handle.createUpdate(sql)
-                    .bind(0, entity.globalId)
+    /**
+     * Imports the given artifact versions, with one batch of inserts (or updates) per table.  The versions that
+     * already exist (by globalId) are skipped, and the artifacts are only created once.
+     */
+    protected void importArtifactVersions(Handle handle, List<ArtifactVersionEntity> entities) {
+        Batch artifacts = handle.createBatch(sqlStatements.insertArtifact());
+        Batch versions = handle.createBatch(sqlStatements.importArtifactVersion());
+        Batch labels = handle.createBatch(sqlStatements.insertLabel());
+        Batch properties = handle.createBatch(sqlStatements.insertProperty());
+        Batch latest = handle.createBatch(sqlStatements.updateArtifactLatest());
+        Set<List<String>> newArtifacts = new HashSet<>();
+        Set<Long> globalIds = new HashSet<>();
+        for (ArtifactVersionEntity entity : entities) {
+            List<String> artifactKey = Arrays.asList(normalizeGroupId(entity.groupId), entity.artifactId);
+            if (!newArtifacts.contains(artifactKey) && !isArtifactExists(entity.groupId, entity.artifactId)) {
+                artifacts.bind(0, tenantContext.tenantId())
+                    .bind(1, normalizeGroupId(entity.groupId))
+                    .bind(2, entity.artifactId)
+                    .bind(3, entity.artifactType.name())
+                    .bind(4, entity.createdBy)
+                    .bind(5, new Date(entity.createdOn))
+                    .add();
+                newArtifacts.add(artifactKey);
+            }
+
+            if (!globalIds.add(entity.globalId) || isGlobalIdExists(entity.globalId)) {
+                log.info("Duplicate globalId detected, skipping import of artifact version.");
+                continue;
+            }
+            versions.bind(0, entity.globalId)
+                .bind(1, tenantContext.tenantId())
+                .bind(2, normalizeGroupId(entity.groupId))
+                .bind(3, entity.artifactId)
+                .bind(4, entity.version)
+                .bind(5, entity.versionId)
+                .bind(6, entity.state)
+                .bind(7, entity.name)
+                .bind(8, entity.description)
+                .bind(9, entity.createdBy)
+                .bind(10, new Date(entity.createdOn))
+                .bind(11, SqlUtil.serializeLabels(entity.labels))
+                .bind(12, SqlUtil.serializeProperties(entity.properties))
+                .bind(13, entity.contentId)
+                .add();
+
+            // Rows of the "labels" and "properties" tables
+            addLabels(labels, entity.globalId, entity.labels);
+            addProperties(properties, entity.globalId, entity.properties);
+
+            if (entity.isLatest) {
+                // The "latest" column in the artifacts table
+                latest.bind(0, entity.globalId)
                     .bind(1, tenantContext.tenantId())
                     .bind(2, normalizeGroupId(entity.groupId))
                     .bind(3, entity.artifactId)
-                    .bind(4, entity.version)
-                    .bind(5, entity.versionId)
-                    .bind(6, entity.state)
-                    .bind(7, entity.name)
-                    .bind(8, entity.description)
-                    .bind(9, entity.createdBy)
-                    .bind(10, new Date(entity.createdOn))
-                    .bind(11, SqlUtil.serializeLabels(entity.labels))
-                    .bind(12, SqlUtil.serializeProperties(entity.properties))
-                    .bind(13, entity.contentId)
-                    .execute();
-                log.info("Content entity imported successfully.");
-
-                // Insert labels into the "labels" table
-                if (entity.labels != null && !entity.labels.isEmpty()) {
-                    entity.labels.forEach(label -> {
-                        String sqli = sqlStatements.insertLabel();
-                        handle.createUpdate(sqli)
-                              .bind(0, entity.globalId)
-                              .bind(1, label.toLowerCase())
-                              .execute();
-                    });
-                }
-
-                // Insert properties into the "properties" table
-                if (entity.properties != null && !entity.properties.isEmpty()) {
-                    entity.properties.forEach((k,v) -> {
-                        String sqli = sqlStatements.insertProperty();
-                        handle.createUpdate(sqli)
-                              .bind(0, entity.globalId)
-                              .bind(1, k.toLowerCase())
-                              .bind(2, v.toLowerCase())
-                              .execute();
-                    });
-                }
-
-                if (entity.isLatest) {
-                    // Update the "latest" column in the artifacts table with the globalId of the new version
-                    sql = sqlStatements.updateArtifactLatest();
-                    handle.createUpdate(sql)
-                          .bind(0, entity.globalId)
-                          .bind(1, tenantContext.tenantId())
-                          .bind(2, normalizeGroupId(entity.groupId))
-                          .bind(3, entity.artifactId)
-                          .execute();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to import content entity.", e);
+                    .add();
             }
-        } else {
-            log.info("Duplicate globalId detected, skipping import of artifact version.");
         }
+        int created = artifacts.execute();
+        int imported = versions.execute();
+        labels.execute();
+        properties.execute();
+        latest.execute();
+        log.info("{} artifact versions (and {} new artifacts) imported successfully.", imported, created);
     }
+
     protected void importContent(Handle handle, ContentEntity entity) {
-        try {
-            if (!isContentExists(entity.contentId)) {
-                String sql = sqlStatements.importContent();
-                handle.createUpdate(sql)
-                    .bind(0, entity.contentId)
-                    .bind(1, entity.canonicalHash)
-                    .bind(2, entity.contentHash)
-                    .bind(3, entity.contentBytes)
-                    .execute();
-                log.info("Content entity imported successfully.");
-            } else {
+        importContents(handle, Collections.singletonList(entity));
+    }
+
+    /**
+     * Imports the given content, in a single batch of inserts.  The content that already exists (by contentId)
+     * is skipped.
+     */
+    protected void importContents(Handle handle, List<ContentEntity> entities) {
+        Batch batch = handle.createBatch(sqlStatements.importContent());
+        Set<Long> contentIds = new HashSet<>();
+        for (ContentEntity entity : entities) {
+            if (!contentIds.add(entity.contentId) || isContentExists(entity.contentId)) {
                 log.info("Duplicate content entity already exists, skipped.");
+                continue;
             }
-        } catch (Exception e) {
-            log.warn("Failed to import content entity.", e);
+            batch.bind(0, entity.contentId)
+                .bind(1, entity.canonicalHash)
+                .bind(2, entity.contentHash)
+                .bind(3, entity.contentBytes)
+                .add();
         }
+        int imported = batch.execute();
+        log.info("{} content entities imported successfully.", imported);
     }
     protected void importGlobalRule(Handle handle, GlobalRuleEntity entity) {
         try {
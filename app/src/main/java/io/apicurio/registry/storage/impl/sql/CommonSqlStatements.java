@@ -19,6 +19,7 @@ package io.apicurio.registry.storage.impl.sql;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -76,6 +77,22 @@ public abstract class CommonSqlStatements implements SqlStatements {
         return statements;
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#searchIndexInitialization()
+     */
+    @Override
+    public List<String> searchIndexInitialization() {
+        DdlParser parser = new DdlParser();
+        try (InputStream input = getClass().getResourceAsStream(dbType() + "-search.ddl")) {
+            if (input == null) {
+                return Collections.emptyList();
+            }
+            return parser.parse(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#getDatabaseVersion()
      */
@@ -100,6 +117,14 @@ public abstract class CommonSqlStatements implements SqlStatements {
         return "SELECT r.type FROM globalrules r WHERE r.tenantId = ?";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectGlobalRuleConfigurations()
+     */
+    @Override
+    public String selectGlobalRuleConfigurations() {
+        return "SELECT r.type, r.configuration FROM globalrules r WHERE r.tenantId = ?";
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectGlobalRuleByType()
      */
@@ -194,7 +219,18 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectArtifactVersions() {
-        return "SELECT version FROM versions WHERE tenantId = ? AND groupId = ? AND artifactId = ?";
+        return "SELECT version FROM versions WHERE tenantId = ? AND groupId = ? AND artifactId = ? ORDER BY versionId ASC";
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectArtifactVersionContentHashes()
+     */
+    @Override
+    public String selectArtifactVersionContentHashes() {
+        return "SELECT v.version, c.contentHash "
+                + "FROM versions v "
+                + "JOIN content c ON v.contentId = c.contentId "
+                + "WHERE v.tenantId = ? AND v.groupId = ? AND v.artifactId = ? ORDER BY v.versionId ASC";
     }
 
     /**
@@ -243,7 +279,15 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectArtifactVersionContentByGlobalId() {
-        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.content FROM versions v JOIN content c ON v.contentId = c.contentId WHERE v.tenantId = ? AND v.globalId = ?";
+        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.contentHash, c.content FROM versions v JOIN content c ON v.contentId = c.contentId WHERE v.tenantId = ? AND v.globalId = ?";
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectArtifactVersionByGlobalId()
+     */
+    @Override
+    public String selectArtifactVersionByGlobalId() {
+        return "SELECT v.globalId, v.version, v.versionId, v.contentId FROM versions v WHERE v.tenantId = ? AND v.globalId = ?";
     }
 
     /**
@@ -251,7 +295,7 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectArtifactVersionContent() {
-        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.content FROM versions v "
+        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.contentHash, c.content FROM versions v "
                 + "JOIN content c ON v.contentId = c.contentId "
                 + "WHERE v.tenantId = ? AND v.groupId = ? AND v.artifactId = ? AND v.version = ?";
     }
@@ -261,7 +305,7 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectLatestArtifactContent() {
-        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.content FROM artifacts a "
+        return "SELECT v.globalId, v.version, v.versionId, c.contentId, c.contentHash, c.content FROM artifacts a "
                 + "JOIN versions v ON a.tenantId = v.tenantId AND a.latest = v.globalId "
                 + "JOIN content c ON v.contentId = c.contentId "
                 + "WHERE a.tenantId = ? AND a.groupId = ? AND a.artifactId = ?";
@@ -310,6 +354,16 @@ public abstract class CommonSqlStatements implements SqlStatements {
         return "SELECT r.* FROM rules r WHERE r.tenantId = ? AND r.groupId = ? AND r.artifactId = ? AND r.type = ?";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectArtifactAndGlobalRules()
+     */
+    @Override
+    public String selectArtifactAndGlobalRules() {
+        return "SELECT r.type, r.configuration, 1 AS artifactRule FROM rules r WHERE r.tenantId = ? AND r.groupId = ? AND r.artifactId = ? "
+                + "UNION ALL "
+                + "SELECT g.type, g.configuration, 0 AS artifactRule FROM globalrules g WHERE g.tenantId = ?";
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#updateArtifactRule()
      */
@@ -559,7 +613,7 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectContentById() {
-        return "SELECT c.content FROM content c "
+        return "SELECT c.contentHash, c.content FROM content c "
                 + "JOIN versions v ON v.contentId = c.contentId "
                 + "WHERE v.tenantId = ? AND c.contentId = ?";
     }
@@ -569,7 +623,7 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String selectContentByContentHash() {
-        return "SELECT c.content FROM content c "
+        return "SELECT c.contentHash, c.content FROM content c "
                 + "JOIN versions v ON v.contentId = c.contentId "
                 + "WHERE v.tenantId = ? AND c.contentHash = ?";
     }
@@ -645,7 +699,8 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String exportArtifactRules() {
-        return "SELECT * FROM rules r WHERE r.tenantId = ?";
+        return "SELECT r.* FROM rules r WHERE r.tenantId = ? "
+                + "AND EXISTS (SELECT 1 FROM versions v WHERE v.tenantId = r.tenantId AND v.groupId = r.groupId AND v.artifactId = r.artifactId AND v.globalId <= ?)";
     }
 
     /**
@@ -653,7 +708,7 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String exportArtifactVersions() {
-        return "SELECT v.*, a.type, a.latest FROM versions v JOIN artifacts a ON v.tenantId = a.tenantId AND v.groupId = a.groupId AND v.artifactId = a.artifactId WHERE v.tenantId = ?";
+        return "SELECT v.*, a.type, a.latest FROM versions v JOIN artifacts a ON v.tenantId = a.tenantId AND v.groupId = a.groupId AND v.artifactId = a.artifactId WHERE v.tenantId = ? AND v.globalId > ? AND v.globalId <= ?";
     }
 
     /**
@@ -661,9 +716,9 @@ public abstract class CommonSqlStatements implements SqlStatements {
      */
     @Override
     public String exportContent() {
-        return "SELECT DISTINCT(c.contentId), c.canonicalHash, c.contentHash, c.content FROM content c "
-                + "JOIN versions v ON v.contentId = c.contentId "
-                + "WHERE v.tenantId = ?";
+        return "SELECT c.contentId, c.canonicalHash, c.contentHash, c.content FROM content c "
+                + "WHERE EXISTS (SELECT 1 FROM versions v WHERE v.contentId = c.contentId AND v.tenantId = ? AND v.globalId > ? AND v.globalId <= ?) "
+                + "AND c.contentId <= ?";
     }
 
     /**
@@ -756,4 +811,23 @@ public abstract class CommonSqlStatements implements SqlStatements {
         return "SELECT COUNT(globalId) FROM versions WHERE globalId = ?";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectOrphanedContent()
+     */
+    @Override
+    public String selectOrphanedContent() {
+        return "SELECT c.contentId, c.contentHash, LENGTH(c.content) FROM content c "
+                + "WHERE c.contentId > ? AND NOT EXISTS (SELECT 1 FROM versions v WHERE v.contentId = c.contentId) "
+                + "ORDER BY c.contentId ASC LIMIT ?";
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#deleteOrphanedContent()
+     */
+    @Override
+    public String deleteOrphanedContent() {
+        return "DELETE FROM content WHERE contentId = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM versions v WHERE v.contentId = content.contentId)";
+    }
+
 }
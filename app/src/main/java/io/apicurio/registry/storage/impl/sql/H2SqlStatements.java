@@ -70,6 +70,14 @@ public class H2SqlStatements extends CommonSqlStatements {
         return "INSERT INTO content (contentId, canonicalHash, contentHash, content) VALUES (?, ?, ?, ?)";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectContentIdByHashForUpdate()
+     */
+    @Override
+    public String selectContentIdByHashForUpdate() {
+        return "SELECT c.contentId FROM content c WHERE c.contentHash = ? FOR UPDATE";
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#upsertLogConfiguration()
      */
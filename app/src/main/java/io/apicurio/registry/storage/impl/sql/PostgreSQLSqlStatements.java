@@ -70,6 +70,14 @@ public class PostgreSQLSqlStatements extends CommonSqlStatements {
         return "INSERT INTO content (contentId, canonicalHash, contentHash, content) VALUES (?, ?, ?, ?) ON CONFLICT (contentHash) DO NOTHING";
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.SqlStatements#selectContentIdByHashForUpdate()
+     */
+    @Override
+    public String selectContentIdByHashForUpdate() {
+        return "SELECT c.contentId FROM content c WHERE c.contentHash = ? FOR KEY SHARE";
+    }
+
     /**
      * @see io.apicurio.registry.storage.impl.sql.SqlStatements#upsertLogConfiguration()
      */
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.apicurio.registry.storage.impl.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.impl.sql.jdb.Handle;
+import io.apicurio.registry.storage.impl.sql.jdb.Query;
+import io.apicurio.registry.storage.impl.sql.jdb.RowMapper;
+import io.apicurio.registry.storage.impl.sql.mappers.ArtifactRuleEntityMapper;
+import io.apicurio.registry.storage.impl.sql.mappers.ArtifactVersionEntityMapper;
+import io.apicurio.registry.storage.impl.sql.mappers.ContentEntityMapper;
+import io.apicurio.registry.storage.impl.sql.mappers.GlobalRuleEntityMapper;
+import io.apicurio.registry.storage.impl.sql.mappers.GroupEntityMapper;
+import io.apicurio.registry.utils.impexp.Entity;
+import io.apicurio.registry.utils.impexp.EntityType;
+
+/**
+ * Exports the entities of a tenant, in the order they must be imported: content, groups, versions, artifact
+ * rules and global rules.
+ * <p>
+ * The content is exported on the calling thread, and streamed from the database (the handler gets the
+ * content as a {@link io.apicurio.registry.utils.impexp.ContentEntity#contentStream}).  Meanwhile the other
+ * entity types are read on their own connections, each into a bounded queue, and handled once the previous
+ * types are done.
+ * <p>
+ * An incremental export (since a given globalId) only exports the versions with a greater globalId, and the
+ * content they reference.
+ * <p>
+ * The readers don't share a transaction, so each of them is bounded by the max globalId and contentId read when
+ * the export starts: versions (and their content) created while the export runs are left out of it, and so are
+ * the rules of artifacts without any exported version.  That way a version is never exported without its
+ * content, which would fail the import.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class SqlExporter {
+
+    private static final Entity END = new Entity() {
+        @Override
+        public EntityType getEntityType() {
+            return null;
+        }
+    };
+
+    private final HandleFactory handles;
+    private final SqlStatements sqlStatements;
+    private final String tenantId;
+    private final int fetchSize;
+    private final long sinceGlobalId;
+
+    /**
+     * Constructor.
+     * @param handles
+     * @param sqlStatements
+     * @param tenantId
+     * @param fetchSize number of rows fetched at once, and max number of entities read ahead (per type)
+     * @param sinceGlobalId only export the versions with a greater globalId (-1 to export everything)
+     */
+    public SqlExporter(HandleFactory handles, SqlStatements sqlStatements, String tenantId, int fetchSize, long sinceGlobalId) {
+        this.handles = handles;
+        this.sqlStatements = sqlStatements;
+        this.tenantId = tenantId;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.sinceGlobalId = sinceGlobalId;
+    }
+
+    /**
+     * Exports the entities to the given handler.
+     * @param handler
+     */
+    public void exportData(Function<Entity, Void> handler) throws RegistryStorageException {
+        boolean incremental = sinceGlobalId >= 0;
+        long maxGlobalId = handles.withHandleNoException(handle -> maxId(handle, sqlStatements.selectMaxGlobalId()));
+        long maxContentId = handles.withHandleNoException(handle -> maxId(handle, sqlStatements.selectMaxContentId()));
+        ExecutorService executor = Executors.newFixedThreadPool(incremental ? 1 : 4);
+        try {
+            // Start reading the other entity types, in the order they must be handled.
+            List<BlockingQueue<Entity>> queues = new ArrayList<>();
+            List<Future<?>> readers = new ArrayList<>();
+            if (!incremental) {
+                read(executor, sqlStatements.exportGroups(), GroupEntityMapper.instance, queues, readers);
+            }
+            read(executor, sqlStatements.exportArtifactVersions(), ArtifactVersionEntityMapper.instance, queues, readers,
+                    sinceGlobalId, maxGlobalId);
+            if (!incremental) {
+                read(executor, sqlStatements.exportArtifactRules(), ArtifactRuleEntityMapper.instance, queues, readers,
+                        maxGlobalId);
+                read(executor, sqlStatements.exportGlobalRules(), GlobalRuleEntityMapper.instance, queues, readers);
+            }
+
+            // Stream the content, on this thread
+            handles.withHandleNoException(handle -> {
+                try (Stream<? extends Entity> stream = query(handle, sqlStatements.exportContent(), sinceGlobalId, maxGlobalId, maxContentId)
+                        .map(ContentEntityMapper.streamingInstance)
+                        .stream()) {
+                    stream.forEach(handler::apply);
+                }
+                return null;
+            });
+
+            for (int idx = 0; idx < queues.size(); idx++) {
+                Entity entity;
+                while ((entity = queues.get(idx).take()) != END) {
+                    handler.apply(entity);
+                }
+                readers.get(idx).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryStorageException(e);
+        } catch (ExecutionException e) {
+            throw new RegistryStorageException(e.getCause());
+        } catch (RegistryStorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RegistryStorageException(e);
+        } finally {
+            // Stops the readers (blocked on their queue) if the export failed
+            executor.shutdownNow();
+        }
+    }
+
+    private <T extends Entity> void read(ExecutorService executor, String sql, RowMapper<T> mapper,
+            List<BlockingQueue<Entity>> queues, List<Future<?>> readers, long... bounds) {
+        BlockingQueue<Entity> queue = new ArrayBlockingQueue<>(fetchSize);
+        queues.add(queue);
+        readers.add(executor.submit(() -> {
+            try {
+                handles.withHandleNoException(handle -> {
+                    try (Stream<T> stream = query(handle, sql, bounds).map(mapper).stream()) {
+                        for (T entity : (Iterable<T>) stream::iterator) {
+                            queue.put(entity);
+                        }
+                    }
+                    return null;
+                });
+            } finally {
+                queue.put(END);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Creates the query for the given statement, binding the tenantId and then the given values.
+     */
+    private Query query(Handle handle, String sql, long... values) {
+        Query query = handle.createQuery(sql)
+                .bind(0, tenantId)
+                .setFetchSize(fetchSize);
+        for (int idx = 0; idx < values.length; idx++) {
+            query.bind(idx + 1, values[idx]);
+        }
+        return query;
+    }
+
+    private static long maxId(Handle handle, String sql) {
+        return handle.createQuery(sql)
+                .mapTo(Long.class)
+                .findOne()
+                .orElse(0L);
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.apicurio.registry.storage.impl.sql;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.impexp.EntityInputStream;
+import io.apicurio.registry.utils.impexp.Entity;
+import io.apicurio.registry.utils.impexp.EntityType;
+import io.apicurio.registry.utils.impexp.ManifestEntity;
+
+/**
+ * Imports a stream of entities in chunks, each chunk being applied (and committed) on its own.
+ * <p>
+ * The entities are decoded on a separate thread, ahead of the chunks being applied.  Chunks of content
+ * entities are independent of each other (content is addressed by its contentId), so they are applied in
+ * parallel.  Any other chunk (groups, versions, rules) waits for the previous chunks to be committed, and is
+ * applied in the order of the stream, since the versions reference the content and the rules reference the
+ * versions' artifacts.
+ * <p>
+ * When a checkpoint file is configured, the number of entities committed so far (every entity of the stream
+ * before that point) is written to it after each chunk, along with the identity of the export (the time of
+ * its manifest) and the chunk size.  An interrupted import of the same data can then be resumed: the entities
+ * before the checkpoint are skipped.  The import fails instead if the checkpoint was written for another
+ * export, or with another chunk size.  The file is deleted once the import completes.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class SqlImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlImporter.class);
+
+    private static final List<Entity> END = Collections.emptyList();
+
+    private static final String CHECKPOINT_EXPORT = "export";
+    private static final String CHECKPOINT_CHUNK_SIZE = "chunkSize";
+    private static final String CHECKPOINT_ENTITIES = "entities";
+    private static final String NO_MANIFEST = "none";
+
+    /**
+     * Applies, and commits, a chunk of entities.
+     */
+    @FunctionalInterface
+    public interface ChunkApplier {
+        void apply(List<Entity> chunk) throws Exception;
+    }
+
+    private final ChunkApplier applier;
+    private final int chunkSize;
+    private final int contentThreads;
+    private final Path checkpointFile;
+
+    // chunk start -> chunk size, of the committed chunks past the checkpoint
+    private final TreeMap<Long, Integer> committed = new TreeMap<>();
+    private long checkpoint;
+    private String export;
+
+    private volatile Exception readError;
+
+    /**
+     * Constructor.
+     * @param applier
+     * @param chunkSize max number of entities committed at once
+     * @param contentThreads number of threads applying the content entities
+     * @param checkpointFile optional (null)
+     */
+    public SqlImporter(ChunkApplier applier, int chunkSize, int contentThreads, Path checkpointFile) {
+        this.applier = applier;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.contentThreads = Math.max(1, contentThreads);
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Imports the given entities, and returns the number of entities applied (skipping those before the
+     * checkpoint).
+     * @param entities
+     */
+    public long importData(EntityInputStream entities) throws RegistryStorageException {
+        Properties resumed = readCheckpoint();
+        checkpoint = resumed == null ? 0 : Long.parseLong(resumed.getProperty(CHECKPOINT_ENTITIES));
+        if (resumed != null && Integer.parseInt(resumed.getProperty(CHECKPOINT_CHUNK_SIZE)) != chunkSize) {
+            throw new RegistryStorageException("The import checkpoint " + checkpointFile + " was written with a chunk size of "
+                    + resumed.getProperty(CHECKPOINT_CHUNK_SIZE) + " entities, not " + chunkSize
+                    + ".  Delete it to import from the start.");
+        }
+
+        BlockingQueue<List<Entity>> chunks = new ArrayBlockingQueue<>(Math.max(2, contentThreads * 2));
+        Thread reader = new Thread(() -> read(entities, chunks), "registry-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(contentThreads);
+        Semaphore inflight = new Semaphore(contentThreads * 2);
+        List<Future<?>> pending = new LinkedList<>();
+        long position = 0;
+        long applied = 0;
+        try {
+            List<Entity> chunk;
+            while ((chunk = chunks.take()) != END) {
+                if (position == 0) {
+                    export = exportOf(chunk.get(0));
+                    if (resumed != null) {
+                        if (!export.equals(resumed.getProperty(CHECKPOINT_EXPORT))) {
+                            throw new RegistryStorageException("The import checkpoint " + checkpointFile
+                                    + " was written for another export.  Delete it to import from the start.");
+                        }
+                        log.info("Resuming the import after {} entities.", checkpoint);
+                    }
+                }
+                final long start = position;
+                final List<Entity> toApply = chunk;
+                position += chunk.size();
+                if (start + chunk.size() <= checkpoint) {
+                    continue;
+                }
+                applied += chunk.size();
+
+                if (isContentOnly(chunk)) {
+                    inflight.acquire();
+                    pending.add(executor.submit(() -> {
+                        try {
+                            apply(start, toApply);
+                            return null;
+                        } finally {
+                            inflight.release();
+                        }
+                    }));
+                    pending.removeIf(Future::isDone);
+                } else {
+                    awaitAll(pending);
+                    apply(start, chunk);
+                }
+            }
+            awaitAll(pending);
+            if (readError != null) {
+                throw new RegistryStorageException("Failed to read the entities being imported.", readError);
+            }
+            deleteCheckpoint();
+            log.info("Imported {} entities.", applied);
+            return applied;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryStorageException(e);
+        } catch (RegistryStorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RegistryStorageException(e);
+        } finally {
+            executor.shutdownNow();
+            reader.interrupt();
+        }
+    }
+
+    /**
+     * The decoding stage: reads the entities, in chunks, until the end of the stream.
+     */
+    private void read(EntityInputStream entities, BlockingQueue<List<Entity>> chunks) {
+        try {
+            try {
+                List<Entity> chunk = new ArrayList<>(chunkSize);
+                Entity entity;
+                while ((entity = entities.nextEntity()) != null) {
+                    chunk.add(entity);
+                    if (chunk.size() == chunkSize) {
+                        chunks.put(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    chunks.put(chunk);
+                }
+            } catch (IOException | RuntimeException e) {
+                readError = e;
+            }
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // the import failed
+        }
+    }
+
+    private void apply(long start, List<Entity> chunk) throws Exception {
+        applier.apply(chunk);
+        commit(start, chunk.size());
+    }
+
+    /**
+     * Identifies the export being imported, by the time of its manifest (the first entity of an export).
+     */
+    private static String exportOf(Entity first) {
+        if (first.getEntityType() == EntityType.Manifest && ((ManifestEntity) first).exportedOn != null) {
+            return String.valueOf(((ManifestEntity) first).exportedOn.getTime());
+        }
+        return NO_MANIFEST;
+    }
+
+    private static boolean isContentOnly(List<Entity> chunk) {
+        return chunk.stream().allMatch(entity -> entity.getEntityType() == EntityType.Content);
+    }
+
+    private static void awaitAll(List<Future<?>> pending) throws Exception {
+        try {
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Marks the given chunk as committed, and moves the checkpoint past the committed chunks that directly
+     * follow it.
+     */
+    private synchronized void commit(long start, int size) throws IOException {
+        committed.put(start, size);
+        long previous = checkpoint;
+        while (!committed.isEmpty() && committed.firstKey() <= checkpoint) {
+            Long first = committed.firstKey();
+            checkpoint = Math.max(checkpoint, first + committed.remove(first));
+        }
+        if (checkpoint > previous) {
+            log.debug("Import checkpoint: {} entities.", checkpoint);
+            writeCheckpoint(checkpoint);
+        }
+    }
+
+    /**
+     * Reads the checkpoint of a previous import, or returns null if there is none.
+     */
+    private Properties readCheckpoint() {
+        if (checkpointFile == null) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.US_ASCII)) {
+            properties.load(reader);
+            Long.parseLong(properties.getProperty(CHECKPOINT_ENTITIES));
+            Integer.parseInt(properties.getProperty(CHECKPOINT_CHUNK_SIZE));
+            if (properties.getProperty(CHECKPOINT_EXPORT) == null) {
+                throw new IllegalArgumentException("Missing " + CHECKPOINT_EXPORT);
+            }
+            return properties;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RegistryStorageException("Invalid import checkpoint file " + checkpointFile, e);
+        }
+    }
+
+    private void writeCheckpoint(long value) throws IOException {
+        if (checkpointFile == null) {
+            return;
+        }
+        String content = CHECKPOINT_EXPORT + "=" + export + "\n"
+                + CHECKPOINT_CHUNK_SIZE + "=" + chunkSize + "\n"
+                + CHECKPOINT_ENTITIES + "=" + value + "\n";
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(tmp, content.getBytes(StandardCharsets.US_ASCII));
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteCheckpoint() throws IOException {
+        if (checkpointFile != null) {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+}
@@ -60,6 +60,13 @@ public interface SqlStatements {
      */
     public List<String> databaseUpgrade(int fromVersion, int toVersion);
 
+    /**
+     * A sequence of (idempotent) statements creating the indexes used by the artifact search, if the
+     * database supports them.  Executed in the background on startup, after the database is initialized or
+     * upgraded, outside of any transaction (each statement is committed on its own).
+     */
+    public List<String> searchIndexInitialization();
+
     /**
      * A statement that returns the current DB version (pulled from the "apicurio" attribute table).
      */
@@ -75,6 +82,11 @@ public interface SqlStatements {
      */
     public String selectGlobalRules();
 
+    /**
+     * A statement used to select the type and configuration of all global rules.
+     */
+    public String selectGlobalRuleConfigurations();
+
     /**
      * A statement used to select a single global rule by its type/id.
      */
@@ -147,10 +159,20 @@ public interface SqlStatements {
     public String selectArtifactVersionContentByGlobalId();
 
     /**
-     * A statement used to select all version #s for a given artifactId.
+     * A statement to select a single artifact version (without its content) from the versions table by globalId.
+     */
+    public String selectArtifactVersionByGlobalId();
+
+    /**
+     * A statement used to select all version #s for a given artifactId, oldest first.
      */
     public String selectArtifactVersions();
 
+    /**
+     * A statement used to select all version #s for a given artifactId, with the hash of their content, oldest first.
+     */
+    public String selectArtifactVersionContentHashes();
+
     /**
      * A statement used to select all versions for a given artifactId.
      */
@@ -201,6 +223,12 @@ public interface SqlStatements {
      */
     public String selectContentIdByHash();
 
+    /**
+     * A statement to select the contentId of a row in the content table by hash value, locking the row (until
+     * the end of the transaction) so that it cannot be deleted as orphaned content.
+     */
+    public String selectContentIdByHashForUpdate();
+
     /**
      * A statement used to select artifact rules by artifactId.
      */
@@ -211,6 +239,12 @@ public interface SqlStatements {
      */
     public String insertArtifactRule();
 
+    /**
+     * A statement to select the type and configuration of all artifact rules for a given artifact, together
+     * with all of the global rules (the "artifactRule" column tells them apart).
+     */
+    public String selectArtifactAndGlobalRules();
+
     /**
      * A statement to get a single artifact rule from the 'rules' table by artifactId and rule type.
      */
@@ -412,7 +446,10 @@ public interface SqlStatements {
     public String selectNextGlobalId();
 
     /*
-     * The next few statements support exporting data from the DB.
+     * The next few statements support exporting data from the DB.  The content and versions statements only
+     * export the versions (and their content) with a globalId greater than the given one, and every statement
+     * but the groups and global rules is bounded by the max globalId (and contentId) read when the export
+     * started, so that the entities of the export are consistent with each other.
      */
 
     public String exportContent();
@@ -450,4 +487,13 @@ public interface SqlStatements {
 
     public String selectGlobalIdExists();
 
+
+    /*
+     * The next few statements support reaping orphaned content (content no longer referenced by any version).
+     */
+
+    public String selectOrphanedContent();
+
+    public String deleteOrphanedContent();
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.apicurio.registry.storage.impl.sql.jdb;
+
+/**
+ * An update statement executed for many rows, using JDBC batching.  Bind the parameters of a row, then call
+ * {@link #add()}, for each row.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public interface Batch extends Sql<Batch> {
+
+    /**
+     * Adds the currently bound parameters as a row of the batch.
+     */
+    public Batch add();
+
+    /**
+     * Executes the batch, and returns the number of rows updated.
+     */
+    public int execute();
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.apicurio.registry.storage.impl.sql.jdb;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+public class BatchImpl extends SqlImpl<Batch> implements Batch {
+
+    /**
+     * The max number of rows sent to the database at once.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final List<List<SqlParam>> rows = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param connection
+     * @param sql
+     */
+    public BatchImpl(Connection connection, String sql) {
+        super(connection, sql);
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.jdb.Batch#add()
+     */
+    @Override
+    public Batch add() {
+        rows.add(new LinkedList<>(parameters));
+        parameters.clear();
+        return this;
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.jdb.Batch#execute()
+     */
+    @Override
+    public int execute() {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int count = 0;
+            for (int idx = 0; idx < rows.size(); idx++) {
+                rows.get(idx).forEach(param -> {
+                    param.bindTo(statement);
+                });
+                statement.addBatch();
+                if ((idx + 1) % MAX_BATCH_SIZE == 0 || idx == rows.size() - 1) {
+                    count += count(statement.executeBatch());
+                }
+            }
+            rows.clear();
+            return count;
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    private static int count(int[] results) {
+        int count = 0;
+        for (int result : results) {
+            // Some drivers (e.g. PostgreSQL with reWriteBatchedInserts) don't report the count of each row.
+            count += result == Statement.SUCCESS_NO_INFO ? 1 : result;
+        }
+        return count;
+    }
+
+}
@@ -65,4 +65,13 @@ public class HandleImpl implements Handle {
         return update;
     }
 
+    /**
+     * @see io.apicurio.registry.storage.impl.sql.jdb.Handle#createBatch(java.lang.String)
+     */
+    @Override
+    public Batch createBatch(String sql) {
+        BatchImpl batch = new BatchImpl(connection, sql);
+        return batch;
+    }
+
 }
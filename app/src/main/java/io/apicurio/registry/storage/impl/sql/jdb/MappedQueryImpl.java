@@ -17,6 +17,7 @@
 package io.apicurio.registry.storage.impl.sql.jdb;
 
 import java.io.Closeable;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -37,6 +38,7 @@ public class MappedQueryImpl<T> implements MappedQuery<T>, Closeable {
     final PreparedStatement statement;
     final RowMapper<T> mapper;
     final ResultSet resultSet;
+    final boolean restoreAutoCommit;
 
     /**
      * Constructor.
@@ -45,8 +47,20 @@ public class MappedQueryImpl<T> implements MappedQuery<T>, Closeable {
      * @throws SQLException
      */
     public MappedQueryImpl(PreparedStatement statement, RowMapper<T> mapper) throws SQLException {
+        this(statement, mapper, false);
+    }
+
+    /**
+     * Constructor.
+     * @param statement
+     * @param mapper
+     * @param restoreAutoCommit whether to turn the auto-commit of the connection back on when closed
+     * @throws SQLException
+     */
+    public MappedQueryImpl(PreparedStatement statement, RowMapper<T> mapper, boolean restoreAutoCommit) throws SQLException {
         this.statement = statement;
         this.mapper = mapper;
+        this.restoreAutoCommit = restoreAutoCommit;
         this.resultSet = statement.executeQuery();
     }
 
@@ -184,7 +198,11 @@ public class MappedQueryImpl<T> implements MappedQuery<T>, Closeable {
     @Override
     public void close() {
         try {
+            Connection connection = this.statement.getConnection();
             this.statement.close();
+            if (this.restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             throw new RuntimeSqlException(e);
         }
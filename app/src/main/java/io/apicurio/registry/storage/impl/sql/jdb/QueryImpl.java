@@ -54,15 +54,47 @@ public class QueryImpl extends SqlImpl<Query> implements Query {
      */
     @Override
     public <T> MappedQuery<T> map(RowMapper<T> mapper) {
+        boolean restoreAutoCommit = false;
+        PreparedStatement statement = null;
         try {
-            PreparedStatement statement = this.connection.prepareStatement(sql);
+            if (this.fetchSize != -1 && this.connection.getAutoCommit()) {
+                // Some drivers (e.g. PostgreSQL) only fetch the rows in batches within a transaction.
+                this.connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement = this.connection.prepareStatement(sql);
             this.bindParametersTo(statement);
             if (this.fetchSize != -1) {
                 statement.setFetchSize(fetchSize);
             }
-            return new MappedQueryImpl<T>(statement, mapper);
+            return new MappedQueryImpl<T>(statement, mapper, restoreAutoCommit);
+        } catch (SQLException | RuntimeException e) {
+            // The mapped query (which would have done it when closed) was not created
+            cleanUp(statement, restoreAutoCommit, e);
+            if (e instanceof SQLException) {
+                throw new RuntimeSqlException((SQLException) e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Closes the statement and turns the auto-commit of the connection back on (if needed), after a failure.
+     */
+    private void cleanUp(PreparedStatement statement, boolean restoreAutoCommit, Exception failure) {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            if (restoreAutoCommit) {
+                this.connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
-            throw new RuntimeSqlException(e);
+            failure.addSuppressed(e);
         }
     }
 
@@ -27,12 +27,19 @@ import io.apicurio.registry.utils.impexp.ContentEntity;
  */
 public class ContentEntityMapper implements RowMapper<ContentEntity> {
 
-    public static final ContentEntityMapper instance = new ContentEntityMapper();
+    public static final ContentEntityMapper instance = new ContentEntityMapper(false);
+    /**
+     * Maps the content as a stream (see {@link ContentEntity#contentStream}), readable until the next row.
+     */
+    public static final ContentEntityMapper streamingInstance = new ContentEntityMapper(true);
+
+    private final boolean streaming;
 
     /**
      * Constructor.
      */
-    private ContentEntityMapper() {
+    private ContentEntityMapper(boolean streaming) {
+        this.streaming = streaming;
     }
 
     /**
@@ -44,7 +51,11 @@ public class ContentEntityMapper implements RowMapper<ContentEntity> {
         entity.contentId = rs.getLong("contentId");
         entity.canonicalHash = rs.getString("canonicalHash");
         entity.contentHash = rs.getString("contentHash");
-        entity.contentBytes = rs.getBytes("content");
+        if (streaming) {
+            entity.contentStream = rs.getBinaryStream("content");
+        } else {
+            entity.contentBytes = rs.getBytes("content");
+        }
         return entity;
     }
 
@@ -41,7 +41,7 @@ public class ContentMapper implements RowMapper<ContentHandle> {
     @Override
     public ContentHandle map(ResultSet rs) throws SQLException {
         byte[] contentBytes = rs.getBytes("content");
-        ContentHandle content = ContentHandle.create(contentBytes);
+        ContentHandle content = ContentHandle.create(contentBytes, rs.getString("contentHash"));
         return content;
     }
 
@@ -28,12 +28,17 @@ import io.apicurio.registry.storage.impl.sql.jdb.RowMapper;
  */
 public class StoredArtifactMapper implements RowMapper<StoredArtifactDto> {
 
-    public static final StoredArtifactMapper instance = new StoredArtifactMapper();
+    public static final StoredArtifactMapper instance = new StoredArtifactMapper(true);
+    /** Maps rows selected without the content column - the content of the resulting DTO is null. */
+    public static final StoredArtifactMapper withoutContent = new StoredArtifactMapper(false);
+
+    private final boolean withContent;
 
     /**
      * Constructor.
      */
-    private StoredArtifactMapper() {
+    private StoredArtifactMapper(boolean withContent) {
+        this.withContent = withContent;
     }
 
     /**
@@ -45,8 +50,11 @@ public class StoredArtifactMapper implements RowMapper<StoredArtifactDto> {
         String version = rs.getString("version");
         int versionId = rs.getInt("versionId");
         Long contentId = rs.getLong("contentId");
-        byte[] contentBytes = rs.getBytes("content");
-        ContentHandle content = ContentHandle.create(contentBytes);
+        ContentHandle content = null;
+        if (withContent) {
+            byte[] contentBytes = rs.getBytes("content");
+            content = ContentHandle.create(contentBytes, rs.getString("contentHash"));
+        }
 
         return StoredArtifactDto.builder().content(content).contentId(contentId).globalId(globalId).version(version).versionId(versionId).build();
     }
@@ -54,6 +54,10 @@ public class StorageMetricsStore {
     @ConfigProperty(defaultValue = "30000", name = "registry.storage.metrics.cache.check-period")
     Long limitsCheckPeriod;
 
+    @Inject
+    @ConfigProperty(defaultValue = "1000", name = "registry.storage.metrics.cache.max-size")
+    Long cacheMaxSize;
+
     @Inject
     TenantContext tenantContext;
 
@@ -74,9 +78,10 @@ public class StorageMetricsStore {
     }
 
     public void onStart(@Observes StartupEvent ev) {
-        totalSchemasCounters = new CheckPeriodCache<>(limitsCheckPeriod);
-        artifactsCounters = new CheckPeriodCache<>(limitsCheckPeriod);
-        artifactVersionsCounters = new CheckPeriodCache<>(limitsCheckPeriod);
+        //no background refreshes, the counters are loaded from the storage of the tenant of the current request
+        totalSchemasCounters = CheckPeriodCache.<String, AtomicLong>builder().checkPeriod(limitsCheckPeriod).maxSize(cacheMaxSize).build();
+        artifactsCounters = CheckPeriodCache.<String, AtomicLong>builder().checkPeriod(limitsCheckPeriod).maxSize(cacheMaxSize).build();
+        artifactVersionsCounters = CheckPeriodCache.<ArtifactVersionKey, AtomicLong>builder().checkPeriod(limitsCheckPeriod).maxSize(cacheMaxSize).build();
     }
 
     public long getOrInitializeTotalSchemasCounter() {
@@ -24,6 +24,7 @@ import io.apicurio.registry.content.canon.ContentCanonicalizer;
 import io.apicurio.registry.content.extract.AvroContentExtractor;
 import io.apicurio.registry.content.extract.ContentExtractor;
 import io.apicurio.registry.logging.Logged;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.compatibility.AvroCompatibilityChecker;
 import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
 import io.apicurio.registry.rules.validity.AvroContentValidator;
@@ -37,6 +38,9 @@ import io.apicurio.registry.types.ArtifactType;
 @Logged
 public class AvroArtifactTypeUtilProvider extends AbstractArtifactTypeUtilProvider {
 
+    @Inject
+    ParsedContentCache parsedContentCache;
+
     @Inject
     AvroContentExtractor extractor;
 
@@ -47,7 +51,7 @@ public class AvroArtifactTypeUtilProvider extends AbstractArtifactTypeUtilProvid
 
     @Override
     protected CompatibilityChecker createCompatibilityChecker() {
-        return new AvroCompatibilityChecker();
+        return new AvroCompatibilityChecker(parsedContentCache);
     }
 
     @Override
@@ -57,7 +61,7 @@ public class AvroArtifactTypeUtilProvider extends AbstractArtifactTypeUtilProvid
 
     @Override
     protected ContentValidator createContentValidator() {
-        return new AvroContentValidator();
+        return new AvroContentValidator(parsedContentCache);
     }
 
     @Override
@@ -24,6 +24,7 @@ import io.apicurio.registry.content.canon.JsonContentCanonicalizer;
 import io.apicurio.registry.content.extract.ContentExtractor;
 import io.apicurio.registry.content.extract.JsonContentExtractor;
 import io.apicurio.registry.logging.Logged;
+import io.apicurio.registry.rules.ParsedContentCache;
 import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
 import io.apicurio.registry.rules.compatibility.JsonSchemaCompatibilityChecker;
 import io.apicurio.registry.rules.validity.ContentValidator;
@@ -37,6 +38,9 @@ import io.apicurio.registry.types.ArtifactType;
 @Logged
 public class JsonArtifactTypeUtilProvider extends AbstractArtifactTypeUtilProvider {
 
+    @Inject
+    ParsedContentCache parsedContentCache;
+
     @Inject
     JsonContentExtractor extractor;
 
@@ -47,7 +51,7 @@ public class JsonArtifactTypeUtilProvider extends AbstractArtifactTypeUtilProvid
 
     @Override
     protected CompatibilityChecker createCompatibilityChecker() {
-        return new JsonSchemaCompatibilityChecker();
+        return new JsonSchemaCompatibilityChecker(parsedContentCache);
     }
 
     @Override
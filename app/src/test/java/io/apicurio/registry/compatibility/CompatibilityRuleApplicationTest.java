@@ -97,6 +97,31 @@ public class CompatibilityRuleApplicationTest extends AbstractResourceTestBase {
         });
     }
 
+    @Test
+    public void testAvroTransitiveCompatibility() throws Exception {
+        String groupId = "testAvroTransitiveCompatibility";
+        String artifactId = "Transitive";
+        String v1Schema = "{\"type\":\"record\",\"name\":\"Test\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"}]}";
+        String v2Schema = "{\"type\":\"record\",\"name\":\"Test\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"},{\"name\":\"b\",\"type\":\"int\",\"default\":0}]}";
+        // Can read v2 data, but not v1 data (no value for "b").
+        String v3Schema = "{\"type\":\"record\",\"name\":\"Test\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"},{\"name\":\"b\",\"type\":\"int\"}]}";
+
+        createArtifact(groupId, artifactId, ArtifactType.AVRO, v1Schema);
+        createArtifactVersion(groupId, artifactId, ArtifactType.AVRO, v2Schema);
+
+        TestUtils.retry(() -> {
+            RuleContext context = new RuleContext(groupId, artifactId, ArtifactType.AVRO, "BACKWARD", ContentHandle.create(v2Schema), ContentHandle.create(v3Schema));
+            compatibility.execute(context);
+        });
+
+        for (int idx = 0; idx < 2; idx++) { // the second time from the cached results
+            Assertions.assertThrows(RuleViolationException.class, () -> {
+                RuleContext context = new RuleContext(groupId, artifactId, ArtifactType.AVRO, "BACKWARD_TRANSITIVE", ContentHandle.create(v2Schema), ContentHandle.create(v3Schema));
+                compatibility.execute(context);
+            });
+        }
+    }
+
     @Test
     public void testJsonSchemaCompatibility() {
         String v1Schema = JsonSchemas.jsonSchema;
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.apicurio.registry.rest.client.config.ClientConfig;
+import io.apicurio.registry.rest.client.exception.ArtifactNotFoundException;
+import io.apicurio.registry.rest.client.request.provider.IdRequestsProvider;
+import io.apicurio.registry.utils.IoUtil;
+
+/**
+ * Checks the compression and async support of the {@link JdkHttpClient}, against a stand-in HTTP server.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class JdkHttpClientTest {
+
+    private static final String CONTENT = "{\"type\":\"record\",\"name\":\"Value\",\"fields\":[]}";
+    private static final String NOT_FOUND = "{\"error_code\":404,\"name\":\"ArtifactNotFoundException\",\"message\":\"No artifact with ID 2\"}";
+
+    private HttpServer server;
+    private final AtomicInteger gzipResponses = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/apis/registry/v2/ids/globalIds/", exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("/1")) {
+                respond(exchange, 200, CONTENT);
+            } else {
+                respond(exchange, 404, NOT_FOUND);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testCompression() {
+        JdkHttpClient client = client(null);
+        Assertions.assertEquals(CONTENT, IoUtil.toString(client.sendRequest(IdRequestsProvider.getContentByGlobalId(1))));
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> client.sendRequest(IdRequestsProvider.getContentByGlobalId(2)));
+        Assertions.assertEquals(2, gzipResponses.get());
+
+        JdkHttpClient uncompressed = client(false);
+        Assertions.assertEquals(CONTENT, IoUtil.toString(uncompressed.sendRequest(IdRequestsProvider.getContentByGlobalId(1))));
+        Assertions.assertEquals(2, gzipResponses.get());
+    }
+
+    @Test
+    public void testSendRequestAsync() throws Exception {
+        JdkHttpClient client = client(null);
+        CompletableFuture<String> content = client.sendRequestAsync(IdRequestsProvider.getContentByGlobalId(1))
+                .thenApply(IoUtil::toString);
+        Assertions.assertEquals(CONTENT, content.get(10, TimeUnit.SECONDS));
+
+        CompletableFuture<?> missing = client.sendRequestAsync(IdRequestsProvider.getContentByGlobalId(2))
+                .thenApply(IoUtil::toString);
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(error.getCause() instanceof ArtifactNotFoundException, String.valueOf(error.getCause()));
+    }
+
+    private JdkHttpClient client(Boolean compressionEnabled) {
+        Map<String, Object> configs = new HashMap<>();
+        if (compressionEnabled != null) {
+            configs.put(ClientConfig.REGISTRY_CLIENT_COMPRESSION_ENABLED, compressionEnabled);
+        }
+        return new JdkHttpClient("http://localhost:" + server.getAddress().getPort(), configs, null);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = IoUtil.toBytes(body);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            gzipResponses.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
@@ -27,12 +27,16 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
@@ -297,6 +301,78 @@ public class GroupsResourceTest extends AbstractResourceTestBase {
 
     }
 
+    @Test
+    public void testCreateArtifacts() throws Exception {
+        String artifactContent = resourceToString("openapi-empty.json");
+        createArtifact(GROUP, "testCreateArtifacts/Existing", ArtifactType.OPENAPI, artifactContent);
+
+        // A batch of two new artifacts and one that already exists
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(data)) {
+            zip.putNextEntry(new ZipEntry("content/api.json"));
+            zip.write(artifactContent.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("batch.json"));
+            zip.write(("{\"artifacts\": ["
+                    + "{\"artifactId\": \"testCreateArtifacts-New-1\", \"type\": \"OPENAPI\", \"content\": \"content/api.json\"},"
+                    + "{\"artifactId\": \"testCreateArtifacts-New-2\", \"content\": \"content/api.json\"},"
+                    + "{\"artifactId\": \"testCreateArtifacts/Existing\", \"content\": \"content/api.json\"}"
+                    + "]}").getBytes(StandardCharsets.UTF_8));
+        }
+
+        given()
+            .when()
+                .contentType("application/zip")
+                .pathParam("groupId", GROUP)
+                .body(data.toByteArray())
+                .post("/registry/v2/groups/{groupId}/batch")
+            .then()
+                .statusCode(200)
+                .body("results.size()", equalTo(3))
+                .body("results[0].metaData.id", equalTo("testCreateArtifacts-New-1"))
+                .body("results[0].metaData.version", equalTo("1"))
+                .body("results[1].metaData.type", equalTo(ArtifactType.OPENAPI.name()))
+                .body("results[2].metaData", nullValue())
+                .body("results[2].error.error_code", equalTo(409));
+
+        // Both new artifacts are there
+        given()
+            .when()
+                .pathParam("groupId", GROUP)
+                .pathParam("artifactId", "testCreateArtifacts-New-2")
+                .get("/registry/v2/groups/{groupId}/artifacts/{artifactId}/meta")
+            .then()
+                .statusCode(200)
+                .body("version", equalTo("1"));
+
+        // A batch without a manifest (should fail)
+        given()
+            .when()
+                .contentType("application/zip")
+                .pathParam("groupId", GROUP)
+                .body(new ByteArrayOutputStream().toByteArray())
+                .post("/registry/v2/groups/{groupId}/batch")
+            .then()
+                .statusCode(400);
+
+        // A small upload whose content is larger than registry.batch.max-bytes once uncompressed (should fail)
+        data = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(data)) {
+            zip.putNextEntry(new ZipEntry("content/large.json"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int idx = 0; idx <= 50; idx++) {
+                zip.write(zeros);
+            }
+        }
+        given()
+            .when()
+                .contentType("application/zip")
+                .pathParam("groupId", GROUP)
+                .body(data.toByteArray())
+                .post("/registry/v2/groups/{groupId}/batch")
+            .then()
+                .statusCode(400);
+    }
+
     @Test
     public void testGetArtifact() throws Exception {
         String artifactContent = resourceToString("openapi-empty.json");
@@ -19,8 +19,12 @@ package io.apicurio.registry.rest.v2;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.List;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Assertions;
@@ -28,6 +32,7 @@ import org.junit.jupiter.api.Test;
 
 import io.apicurio.registry.AbstractResourceTestBase;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
 import io.apicurio.registry.types.ArtifactType;
 import io.apicurio.registry.utils.tests.TestUtils;
 import io.quarkus.test.junit.QuarkusTest;
@@ -296,4 +301,114 @@ public class IdsResourceTest extends AbstractResourceTestBase {
                 .statusCode(404);
     }
 
+    @Test
+    public void testContentETags() throws Exception {
+        String title = "Test Content ETags API";
+        String artifactContent = resourceToString("openapi-empty.json").replaceAll("Empty API", title);
+        String etag = "\"" + DigestUtils.sha256Hex(artifactContent) + "\"";
+
+        String artifactId = "testContentETags/Empty";
+
+        // Create the artifact.
+        ArtifactMetaData amd = given()
+                .when()
+                    .contentType(CT_JSON)
+                    .pathParam("groupId", GROUP)
+                    .header("X-Registry-ArtifactId", artifactId)
+                    .header("X-Registry-ArtifactType", ArtifactType.OPENAPI.name())
+                    .body(artifactContent)
+                .post("/registry/v2/groups/{groupId}/artifacts")
+                .then()
+                    .statusCode(200)
+                .extract()
+                    .as(ArtifactMetaData.class);
+        waitForArtifact(GROUP, artifactId);
+
+        // Get by contentId - returns the entity tag
+        given()
+            .when()
+                .pathParam("contentId", amd.getContentId())
+                .get("/registry/v2/ids/contentIds/{contentId}")
+            .then()
+                .statusCode(200)
+                .header("ETag", equalTo(etag))
+                .body("info.title", equalTo(title));
+
+        // Get by contentId (not modified)
+        given()
+            .when()
+                .pathParam("contentId", amd.getContentId())
+                .header("If-None-Match", etag)
+                .get("/registry/v2/ids/contentIds/{contentId}")
+            .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        // Get by globalId (not modified)
+        given()
+            .when()
+                .pathParam("globalId", amd.getGlobalId())
+                .header("If-None-Match", etag)
+                .get("/registry/v2/ids/globalIds/{globalId}")
+            .then()
+                .statusCode(304);
+
+        // Get by globalId (stale entity tag)
+        given()
+            .when()
+                .pathParam("globalId", amd.getGlobalId())
+                .header("If-None-Match", "\"stale\"")
+                .get("/registry/v2/ids/globalIds/{globalId}")
+            .then()
+                .statusCode(200)
+                .header("ETag", equalTo(etag))
+                .body("info.title", equalTo(title));
+    }
+
+    @Test
+    public void testLookupContent() throws Exception {
+        String title = "Test Lookup Content API";
+        String artifactContent = resourceToString("openapi-empty.json").replaceAll("Empty API", title);
+
+        String artifactId = "testLookupContent/Empty";
+
+        ArtifactMetaData amd = given()
+                .when()
+                    .contentType(CT_JSON)
+                    .pathParam("groupId", GROUP)
+                    .header("X-Registry-ArtifactId", artifactId)
+                    .header("X-Registry-ArtifactType", ArtifactType.OPENAPI.name())
+                    .body(artifactContent)
+                .post("/registry/v2/groups/{groupId}/artifacts")
+                .then()
+                    .statusCode(200)
+                .extract()
+                    .as(ArtifactMetaData.class);
+        this.waitForGlobalId(amd.getGlobalId());
+
+        ContentLookupRequest lookup = new ContentLookupRequest();
+        lookup.setGlobalIds(List.of(amd.getGlobalId(), Long.MAX_VALUE));
+        lookup.setContentIds(List.of(amd.getContentId()));
+
+        // Unknown ids are left out
+        given()
+            .when()
+                .contentType(CT_JSON)
+                .body(lookup)
+                .post("/registry/v2/ids/lookup")
+            .then()
+                .statusCode(200)
+                .body("results", hasSize(2))
+                .body("results[0].globalId", equalTo(amd.getGlobalId().intValue()))
+                .body("results[0].contentId", equalTo(amd.getContentId().intValue()))
+                .body("results[0].groupId", equalTo(GROUP))
+                .body("results[0].artifactId", equalTo(artifactId))
+                .body("results[0].version", equalTo(amd.getVersion()))
+                .body("results[0].type", equalTo("OPENAPI"))
+                .body("results[0].content", equalTo(artifactContent))
+                .body("results[1].globalId", nullValue())
+                .body("results[1].contentId", equalTo(amd.getContentId().intValue()))
+                .body("results[1].content", equalTo(artifactContent));
+    }
+
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.rules.compatibility.AvroCompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.compatibility.ProtobufCompatibilityChecker;
+
+/**
+ * Checks that compatibility checks give the same results with and without the {@link ParsedContentCache},
+ * and measures the per-check cost for large Avro and Protobuf schemas when the existing versions have to be
+ * parsed (cold) or are already cached (warm).  The measurement is only run with
+ * <code>-DParsedContentCachePerformanceTest=enabled</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class ParsedContentCachePerformanceTest {
+
+    private static final int NUM_FIELDS = 500;
+    private static final int NUM_VERSIONS = 10;
+    private static final int NUM_ITERATIONS = 200;
+
+    private ParsedContentCache cache;
+
+    @BeforeEach
+    public void createCache() {
+        cache = new ParsedContentCache();
+        cache.maxEntries = 1000;
+        cache.init();
+    }
+
+    private boolean isTestEnabled() {
+        return "enabled".equals(System.getProperty(ParsedContentCachePerformanceTest.class.getSimpleName()));
+    }
+
+    @Test
+    public void testCachedResults() {
+        AvroCompatibilityChecker checker = new AvroCompatibilityChecker(cache);
+        List<ContentHandle> existing = avroVersions(2);
+        ContentHandle compatible = ContentHandle.create(avroSchema(3, 3));
+        ContentHandle incompatible = ContentHandle.create(avroSchema(3, 3).replace(",\"default\":0", ""));
+
+        for (int idx = 0; idx < 2; idx++) {
+            cache.clear();
+            Assertions.assertTrue(checker.testCompatibility(CompatibilityLevel.BACKWARD, existing, compatible).isCompatible());
+            Assertions.assertFalse(checker.testCompatibility(CompatibilityLevel.BACKWARD, existing, incompatible).isCompatible());
+            // Same results from the cached models.
+            Assertions.assertTrue(checker.testCompatibility(CompatibilityLevel.BACKWARD, existing, compatible).isCompatible());
+            Assertions.assertFalse(checker.testCompatibility(CompatibilityLevel.BACKWARD, existing, incompatible).isCompatible());
+        }
+    }
+
+    @Test
+    public void testCompatibilityPerformance() {
+        if (!isTestEnabled()) {
+            return;
+        }
+
+        List<ContentHandle> avroVersions = avroVersions(NUM_VERSIONS);
+        List<ContentHandle> protobufVersions = protobufVersions(NUM_VERSIONS);
+
+        // Warm up the code paths before measuring.
+        measure(new AvroCompatibilityChecker(cache), CompatibilityLevel.BACKWARD_TRANSITIVE, avroVersions, NUM_ITERATIONS, false);
+        measure(new AvroCompatibilityChecker(cache), CompatibilityLevel.BACKWARD_TRANSITIVE, avroVersions, NUM_ITERATIONS, true);
+        measure(new ProtobufCompatibilityChecker(cache), CompatibilityLevel.BACKWARD, protobufVersions, NUM_ITERATIONS, false);
+        measure(new ProtobufCompatibilityChecker(cache), CompatibilityLevel.BACKWARD, protobufVersions, NUM_ITERATIONS, true);
+
+        long avroCold = measure(new AvroCompatibilityChecker(cache), CompatibilityLevel.BACKWARD_TRANSITIVE, avroVersions, NUM_ITERATIONS, false);
+        long avroWarm = measure(new AvroCompatibilityChecker(cache), CompatibilityLevel.BACKWARD_TRANSITIVE, avroVersions, NUM_ITERATIONS, true);
+        long protobufCold = measure(new ProtobufCompatibilityChecker(cache), CompatibilityLevel.BACKWARD, protobufVersions, NUM_ITERATIONS, false);
+        long protobufWarm = measure(new ProtobufCompatibilityChecker(cache), CompatibilityLevel.BACKWARD, protobufVersions, NUM_ITERATIONS, true);
+
+        System.out.println("========================================================================");
+        System.out.println("= Parsed Content Cache Performance Results                             =");
+        System.out.println("=----------------------------------------------------------------------=");
+        System.out.println("| Iterations: " + NUM_ITERATIONS + ", " + NUM_FIELDS + " fields per schema");
+        System.out.println("| ");
+        System.out.println("| Avro BACKWARD_TRANSITIVE (" + NUM_VERSIONS + " versions): cold " + avroCold + " us/check, cached " + avroWarm + " us/check");
+        System.out.println("| Protobuf BACKWARD (1 version):              cold " + protobufCold + " us/check, cached " + protobufWarm + " us/check");
+        System.out.println("========================================================================");
+    }
+
+    /**
+     * Returns the average time (in microseconds) to check a new version against the given versions.  The
+     * proposed version is always new content (as it would be in practice), only the existing versions can
+     * come from the cache.
+     */
+    private long measure(CompatibilityChecker checker, CompatibilityLevel level, List<ContentHandle> versions,
+            int iterations, boolean cached) {
+        cache.clear();
+        long total = 0;
+        for (int idx = 0; idx < iterations; idx++) {
+            if (!cached) {
+                cache.clear();
+            }
+            // Fresh handles, as if the existing versions were just read from the storage.
+            List<ContentHandle> existing = new ArrayList<>();
+            versions.forEach(version -> existing.add(ContentHandle.create(version.bytes())));
+            ContentHandle proposed = ContentHandle.create(versions.get(versions.size() - 1).content() + whitespace(idx));
+
+            long start = System.nanoTime();
+            Assertions.assertTrue(checker.testCompatibility(level, existing, proposed).isCompatible());
+            total += System.nanoTime() - start;
+        }
+        return total / iterations / 1000;
+    }
+
+    /**
+     * Unique (trailing) whitespace for the given number, to make the content of the proposed versions unique.
+     */
+    private static String whitespace(int number) {
+        StringBuilder builder = new StringBuilder("\n");
+        for (int n = number; n > 0; n >>= 1) {
+            builder.append((n & 1) == 1 ? '\t' : ' ');
+        }
+        return builder.toString();
+    }
+
+    private static List<ContentHandle> avroVersions(int count) {
+        List<ContentHandle> versions = new ArrayList<>();
+        for (int version = 0; version < count; version++) {
+            versions.add(ContentHandle.create(avroSchema(version, version)));
+        }
+        return versions;
+    }
+
+    /**
+     * A record with NUM_FIELDS fields, plus "extra" optional fields (so every version can read the previous ones).
+     */
+    private static String avroSchema(int version, int extra) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"type\":\"record\",\"name\":\"Large\",\"namespace\":\"io.apicurio.perf\",\"doc\":\"v")
+            .append(version).append("\",\"fields\":[");
+        for (int idx = 0; idx < NUM_FIELDS; idx++) {
+            builder.append("{\"name\":\"field").append(idx).append("\",\"type\":\"string\"},");
+        }
+        for (int idx = 0; idx < extra; idx++) {
+            builder.append("{\"name\":\"extra").append(idx).append("\",\"type\":\"int\",\"default\":0},");
+        }
+        builder.setLength(builder.length() - 1);
+        return builder.append("]}").toString();
+    }
+
+    private static List<ContentHandle> protobufVersions(int count) {
+        List<ContentHandle> versions = new ArrayList<>();
+        for (int version = 0; version < count; version++) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("syntax = \"proto3\";\npackage io.apicurio.perf;\n// v").append(version).append("\nmessage Large {\n");
+            for (int idx = 1; idx <= NUM_FIELDS + version; idx++) {
+                builder.append("  string field").append(idx).append(" = ").append(idx).append(";\n");
+            }
+            versions.add(ContentHandle.create(builder.append("}\n").toString()));
+        }
+        return versions;
+    }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.rest.client.RegistryClient;
+import io.apicurio.registry.serde.avro.AvroDatumProvider;
+import io.apicurio.registry.serde.avro.AvroKafkaDeserializer;
+import io.apicurio.registry.serde.avro.AvroKafkaSerdeConfig;
+import io.apicurio.registry.serde.avro.AvroKafkaSerializer;
+import io.apicurio.registry.serde.avro.DefaultAvroDatumProvider;
+import io.apicurio.registry.serde.avro.ReflectAvroDatumProvider;
+import io.apicurio.registry.serde.strategy.ArtifactReference;
+import io.apicurio.registry.serde.strategy.ArtifactResolverStrategy;
+import io.apicurio.registry.support.Tester;
+
+/**
+ * Measures the throughput (records/sec) and the allocations per record of the Avro serde for generic,
+ * specific and reflect data, with the (caching) datum providers and with providers that create a new
+ * datum writer/reader for every record.  The schema resolution is stubbed out, so only the data path is
+ * measured.  The measurement is only run with <code>-DAvroSerdePerformanceTest=enabled</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class AvroSerdePerformanceTest {
+
+    private static final int NUM_RECORDS = 200000;
+    private static final String TOPIC = "perf";
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"PerfRecord\","
+            + "\"namespace\":\"io.apicurio.registry.serde.AvroSerdePerformanceTest$\",\"fields\":["
+            + "{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"count\",\"type\":\"int\"},"
+            + "{\"name\":\"value\",\"type\":\"double\"}]}");
+
+    private boolean isTestEnabled() {
+        return "enabled".equals(System.getProperty(AvroSerdePerformanceTest.class.getSimpleName()));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Assertions.assertEquals(genericRecord(3).toString(),
+                roundTrip(DefaultAvroDatumProvider.class, this::genericRecord).toString());
+        Assertions.assertEquals(specificRecord(3).toString(),
+                roundTrip(SpecificDatumProvider.class, this::specificRecord).toString());
+        Assertions.assertEquals(new Tester("tester-3"), roundTrip(ReflectAvroDatumProvider.class, this::tester));
+    }
+
+    @Test
+    public void testCachedDatumWriters() {
+        DefaultAvroDatumProvider<Object> provider = new DefaultAvroDatumProvider<>(true);
+        Assertions.assertSame(provider.createDatumWriter(genericRecord(1), SCHEMA), provider.createDatumWriter(genericRecord(2), SCHEMA));
+        Assertions.assertSame(provider.createDatumReader(SCHEMA), provider.createDatumReader(SCHEMA));
+        Assertions.assertTrue(provider.createDatumWriter(specificRecord(1), SCHEMA) instanceof SpecificDatumWriter);
+        Assertions.assertTrue(provider.createDatumReader(SCHEMA) instanceof SpecificDatumReader);
+    }
+
+    @Test
+    public void testSerdePerformance() {
+        if (!isTestEnabled()) {
+            return;
+        }
+
+        // Warm up the code paths before measuring.
+        for (int idx = 0; idx < 2; idx++) {
+            measure(DefaultAvroDatumProvider.class, this::genericRecord);
+            measure(UncachedDatumProvider.class, this::genericRecord);
+            measure(SpecificDatumProvider.class, this::specificRecord);
+            measure(UncachedSpecificDatumProvider.class, this::specificRecord);
+            measure(ReflectAvroDatumProvider.class, this::tester);
+            measure(UncachedReflectDatumProvider.class, this::tester);
+        }
+
+        System.out.println("========================================================================");
+        System.out.println("= Avro Serde Performance Results                                       =");
+        System.out.println("=----------------------------------------------------------------------=");
+        System.out.println("| Records: " + NUM_RECORDS + " (serialize + deserialize)");
+        System.out.println("| ");
+        System.out.println("| Generic  (cached):   " + measure(DefaultAvroDatumProvider.class, this::genericRecord));
+        System.out.println("| Generic  (uncached): " + measure(UncachedDatumProvider.class, this::genericRecord));
+        System.out.println("| Specific (cached):   " + measure(SpecificDatumProvider.class, this::specificRecord));
+        System.out.println("| Specific (uncached): " + measure(UncachedSpecificDatumProvider.class, this::specificRecord));
+        System.out.println("| Reflect  (cached):   " + measure(ReflectAvroDatumProvider.class, this::tester));
+        System.out.println("| Reflect  (uncached): " + measure(UncachedReflectDatumProvider.class, this::tester));
+        System.out.println("========================================================================");
+    }
+
+    /**
+     * Serializes and deserializes NUM_RECORDS records, and returns the records/sec and bytes allocated
+     * per record.
+     */
+    @SuppressWarnings("rawtypes")
+    private <U> String measure(Class<? extends AvroDatumProvider> datumProvider, IntFunction<U> records) {
+        FixedSchemaResolver<U> resolver = new FixedSchemaResolver<>();
+        try (AvroKafkaSerializer<U> serializer = serializer(datumProvider, resolver);
+             AvroKafkaDeserializer<U> deserializer = deserializer(datumProvider, resolver)) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            for (int idx = 0; idx < NUM_RECORDS; idx++) {
+                byte[] bytes = serializer.serialize(TOPIC, records.apply(idx));
+                Assertions.assertNotNull(deserializer.deserialize(TOPIC, bytes));
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+            return String.format("%,10d records/sec, %,6d bytes/record", NUM_RECORDS * 1000000000L / elapsed,
+                    allocated / NUM_RECORDS);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private <U> U roundTrip(Class<? extends AvroDatumProvider> datumProvider, IntFunction<U> records) {
+        FixedSchemaResolver<U> resolver = new FixedSchemaResolver<>();
+        try (AvroKafkaSerializer<U> serializer = serializer(datumProvider, resolver);
+             AvroKafkaDeserializer<U> deserializer = deserializer(datumProvider, resolver)) {
+            U result = null;
+            for (int idx = 0; idx < 3; idx++) { // the same writers, readers, encoders and decoders are reused
+                result = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, records.apply(idx + 1)));
+            }
+            return result;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private <U> AvroKafkaSerializer<U> serializer(Class<? extends AvroDatumProvider> datumProvider,
+            SchemaResolver<Schema, U> resolver) {
+        AvroKafkaSerializer<U> serializer = new AvroKafkaSerializer<>();
+        serializer.setSchemaResolver(resolver);
+        serializer.configure(config(datumProvider), false);
+        return serializer;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private <U> AvroKafkaDeserializer<U> deserializer(Class<? extends AvroDatumProvider> datumProvider,
+            SchemaResolver<Schema, U> resolver) {
+        AvroKafkaDeserializer<U> deserializer = new AvroKafkaDeserializer<>();
+        deserializer.setSchemaResolver(resolver);
+        deserializer.configure(config(datumProvider), false);
+        return deserializer;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Map<String, Object> config(Class<? extends AvroDatumProvider> datumProvider) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroKafkaSerdeConfig.AVRO_DATUM_PROVIDER, datumProvider.getName());
+        return config;
+    }
+
+    private GenericData.Record genericRecord(int idx) {
+        GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("name", "record-" + idx);
+        record.put("count", idx);
+        record.put("value", idx / 2.0);
+        return record;
+    }
+
+    private PerfRecord specificRecord(int idx) {
+        PerfRecord record = new PerfRecord();
+        record.put(0, "record-" + idx);
+        record.put(1, idx);
+        record.put(2, idx / 2.0);
+        return record;
+    }
+
+    private Tester tester(int idx) {
+        return new Tester("tester-" + idx);
+    }
+
+    /**
+     * A schema resolver (shared by a serializer and a deserializer) that resolves the schema of the data,
+     * without a registry.
+     */
+    static class FixedSchemaResolver<U> implements SchemaResolver<Schema, U> {
+
+        // Only one schema per type of data in this test.
+        private final Map<Class<?>, SchemaLookupResult<Schema>> results = new HashMap<>();
+
+        @Override
+        public void setClient(RegistryClient client) {
+        }
+
+        @Override
+        public void setArtifactResolverStrategy(ArtifactResolverStrategy<Schema> artifactResolverStrategy) {
+        }
+
+        @Override
+        public SchemaLookupResult<Schema> resolveSchema(String topic, Headers headers, U data, ParsedSchema<Schema> parsedSchema) {
+            return results.computeIfAbsent(data.getClass(), type -> SchemaLookupResult.<Schema>builder()
+                    .schema(parsedSchema.getParsedSchema())
+                    .rawSchema(parsedSchema.getRawSchema())
+                    .globalId(results.size() + 1)
+                    .build());
+        }
+
+        @Override
+        public SchemaLookupResult<Schema> resolveSchemaByArtifactReference(ArtifactReference reference) {
+            return results.values().stream()
+                    .filter(result -> reference.getGlobalId() == result.getGlobalId())
+                    .findFirst()
+                    .orElseThrow(IllegalStateException::new);
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+
+    public static class SpecificDatumProvider<T> extends DefaultAvroDatumProvider<T> {
+        public SpecificDatumProvider() {
+            super(true);
+        }
+    }
+
+    /**
+     * Creates a new datum writer/reader for every record (as the providers used to).
+     */
+    public static class UncachedDatumProvider<T> extends DefaultAvroDatumProvider<T> {
+        @Override
+        public DatumWriter<T> createDatumWriter(T data, Schema schema) {
+            return data instanceof SpecificRecord ? new SpecificDatumWriter<>(schema) : new GenericDatumWriter<>(schema);
+        }
+
+        @Override
+        public DatumReader<T> createDatumReader(Schema schema) {
+            return new GenericDatumReader<>(schema);
+        }
+    }
+
+    public static class UncachedSpecificDatumProvider<T> extends UncachedDatumProvider<T> {
+        @Override
+        public DatumReader<T> createDatumReader(Schema schema) {
+            return new SpecificDatumReader<>(schema, PerfRecord.SCHEMA$);
+        }
+    }
+
+    public static class UncachedReflectDatumProvider<T> extends ReflectAvroDatumProvider<T> {
+        @Override
+        public DatumWriter<T> createDatumWriter(T data, Schema schema) {
+            return new ReflectDatumWriter<>(schema);
+        }
+
+        @Override
+        public DatumReader<T> createDatumReader(Schema schema) {
+            return new ReflectDatumReader<>(schema);
+        }
+    }
+
+    /**
+     * A (hand written) specific record for the test schema.
+     */
+    public static class PerfRecord extends SpecificRecordBase {
+        public static final Schema SCHEMA$ = SCHEMA;
+
+        private CharSequence name;
+        private int count;
+        private double value;
+
+        @Override
+        public Schema getSchema() {
+            return SCHEMA$;
+        }
+
+        @Override
+        public Object get(int field) {
+            switch (field) {
+                case 0: return name;
+                case 1: return count;
+                case 2: return value;
+                default: throw new IndexOutOfBoundsException("Invalid index: " + field);
+            }
+        }
+
+        @Override
+        public void put(int field, Object fieldValue) {
+            switch (field) {
+                case 0: name = (CharSequence) fieldValue; break;
+                case 1: count = (Integer) fieldValue; break;
+                case 2: value = (Double) fieldValue; break;
+                default: throw new IndexOutOfBoundsException("Invalid index: " + field);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.worldturner.medeia.schema.validation.SchemaValidator;
+
+import io.apicurio.registry.rest.client.RegistryClient;
+import io.apicurio.registry.serde.jsonschema.JsonSchemaKafkaDeserializer;
+import io.apicurio.registry.serde.jsonschema.JsonSchemaKafkaSerializer;
+import io.apicurio.registry.serde.strategy.ArtifactReference;
+import io.apicurio.registry.serde.strategy.ArtifactResolverStrategy;
+import io.apicurio.registry.support.Person;
+import io.apicurio.registry.utils.IoUtil;
+
+/**
+ * Checks the JSON Schema deserializer's cached (per schema and per message type) readers, without a registry.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class JsonSchemaDeserializerCacheTest {
+
+    private static final String TOPIC = "cache";
+
+    @Test
+    public void testCachedReaders() throws Exception {
+        for (boolean headersEnabled : new boolean[] { false, true }) {
+            try (JsonSchemaKafkaSerializer<Person> serializer = new JsonSchemaKafkaSerializer<>();
+                 JsonSchemaKafkaDeserializer<Object> deserializer = new JsonSchemaKafkaDeserializer<>()) {
+                configure(serializer, deserializer, headersEnabled);
+
+                for (int idx = 0; idx < 3; idx++) {
+                    Headers headers = new RecordHeaders();
+                    Person person = new Person("first" + idx, "last" + idx, idx);
+                    byte[] bytes = serializer.serialize(TOPIC, headers, person);
+
+                    Object result = deserializer.deserialize(TOPIC, headersEnabled ? headers : null, bytes);
+                    assertPerson(person, result);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        try (JsonSchemaKafkaSerializer<Person> serializer = new JsonSchemaKafkaSerializer<>();
+             JsonSchemaKafkaDeserializer<Object> deserializer = new JsonSchemaKafkaDeserializer<>()) {
+            configure(serializer, deserializer, false);
+
+            byte[] bytes = serializer.serialize(TOPIC, new Person("first", "last", 1));
+            // Make the age invalid (negative) after the serializer validated it.
+            byte[] invalid = IoUtil.toBytes(IoUtil.toString(bytes).replace("\"age\":1", "\"age\":-1"));
+            Assertions.assertThrows(Exception.class, () -> deserializer.deserialize(TOPIC, invalid));
+            assertPerson(new Person("first", "last", 1), deserializer.deserialize(TOPIC, bytes));
+        }
+    }
+
+    private void assertPerson(Person expected, Object actual) {
+        Assertions.assertTrue(actual instanceof Person);
+        Person person = (Person) actual;
+        Assertions.assertEquals(expected.getFirstName(), person.getFirstName());
+        Assertions.assertEquals(expected.getLastName(), person.getLastName());
+        Assertions.assertEquals(expected.getAge(), person.getAge());
+    }
+
+    private void configure(JsonSchemaKafkaSerializer<Person> serializer, JsonSchemaKafkaDeserializer<Object> deserializer,
+            boolean headersEnabled) throws Exception {
+        byte[] rawSchema;
+        try (InputStream jsonSchema = getClass().getResourceAsStream("/io/apicurio/registry/util/json-schema-with-java-type.json")) {
+            rawSchema = IoUtil.toBytes(jsonSchema);
+        }
+        SchemaLookupResult<SchemaValidator> result = SchemaLookupResult.<SchemaValidator>builder()
+                .rawSchema(rawSchema)
+                .schema(deserializer.parseSchema(rawSchema))
+                .globalId(1)
+                .build();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(SerdeConfig.ENABLE_HEADERS, String.valueOf(headersEnabled));
+        config.put(SerdeConfig.VALIDATION_ENABLED, "true");
+
+        serializer.setSchemaResolver(new FixedSchemaResolver<>(result));
+        serializer.configure(config, false);
+        deserializer.setSchemaResolver(new FixedSchemaResolver<>(result));
+        deserializer.configure(config, false);
+    }
+
+    private static class FixedSchemaResolver<U> implements SchemaResolver<SchemaValidator, U> {
+
+        private final SchemaLookupResult<SchemaValidator> result;
+
+        FixedSchemaResolver(SchemaLookupResult<SchemaValidator> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void setClient(RegistryClient client) {
+        }
+
+        @Override
+        public void setArtifactResolverStrategy(ArtifactResolverStrategy<SchemaValidator> artifactResolverStrategy) {
+        }
+
+        @Override
+        public SchemaLookupResult<SchemaValidator> resolveSchema(String topic, Headers headers, U data,
+                ParsedSchema<SchemaValidator> parsedSchema) {
+            return result;
+        }
+
+        @Override
+        public SchemaLookupResult<SchemaValidator> resolveSchemaByArtifactReference(ArtifactReference reference) {
+            return result;
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.rest.client.RegistryClient;
+import io.apicurio.registry.serde.strategy.ArtifactReference;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.IoUtil;
+
+/**
+ * Checks the on-disk schema cache of the {@link DefaultSchemaResolver}, against a stand-in registry that can be
+ * taken down.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class PersistentSchemaCacheTest {
+
+    private static final String REGISTRY_URL = "http://localhost:8080/apis/registry/v2";
+
+    private Path directory;
+    private final AtomicInteger registryCalls = new AtomicInteger();
+    private volatile boolean registryDown;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("schema-cache");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testRestartAndOutage() {
+        DefaultSchemaResolver<String, Object> resolver = resolver();
+        Assertions.assertEquals("global-1", resolver.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(1L)).getSchema());
+        Assertions.assertEquals("content-5", resolver.resolveSchemaByArtifactReference(ArtifactReference.builder().contentId(5L).build()).getSchema());
+        Assertions.assertEquals(2, registryCalls.get());
+
+        // A new process, while the registry is down.
+        registryDown = true;
+        DefaultSchemaResolver<String, Object> restarted = resolver();
+        Assertions.assertEquals("global-1", restarted.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(1L)).getSchema());
+        Assertions.assertEquals("content-5", restarted.resolveSchemaByArtifactReference(ArtifactReference.builder().contentId(5L).build()).getSchema());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> restarted.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(2L)));
+        Assertions.assertEquals(2, registryCalls.get());
+    }
+
+    @Test
+    public void testCorruptedEntry() throws IOException {
+        resolver().resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(1L));
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(file -> file.getParent().getFileName().toString().equals("content")).collect(Collectors.toList())) {
+                Files.write(file, IoUtil.toBytes("corrupted"));
+            }
+        }
+
+        Assertions.assertEquals("global-1", resolver().resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(1L)).getSchema());
+        Assertions.assertEquals(2, registryCalls.get());
+    }
+
+    @Test
+    public void testSharedDirectory() throws Exception {
+        // Several processes writing (and reading) the same entries.
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int idx = 0; idx < 4; idx++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    PersistentSchemaCache cache = new PersistentSchemaCache(directory, REGISTRY_URL, null);
+                    for (long id = 0; id < 50; id++) {
+                        cache.putByGlobalId(id, IoUtil.toBytes("global-" + id));
+                        Assertions.assertEquals("global-" + id, IoUtil.toString(cache.getByGlobalId(id)));
+                    }
+                } catch (Throwable t) {
+                    synchronized (failures) {
+                        failures.add(t);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        Assertions.assertEquals(new ArrayList<>(), failures);
+        try (Stream<Path> files = Files.walk(directory)) {
+            Assertions.assertFalse(files.anyMatch(file -> file.getFileName().toString().startsWith(".tmp-")));
+        }
+        Assertions.assertNull(new PersistentSchemaCache(directory, REGISTRY_URL, null).getByContentId(1));
+    }
+
+    @Test
+    public void testSeparateRegistries() {
+        PersistentSchemaCache cache = new PersistentSchemaCache(directory, REGISTRY_URL, null);
+        cache.putByGlobalId(1, IoUtil.toBytes("global-1"));
+        Assertions.assertEquals("global-1", IoUtil.toString(new PersistentSchemaCache(directory, REGISTRY_URL + "/", null).getByGlobalId(1)));
+
+        // Same ids, other registry or tenant.
+        Assertions.assertNull(new PersistentSchemaCache(directory, "http://other:8080/apis/registry/v2", null).getByGlobalId(1));
+        Assertions.assertNull(new PersistentSchemaCache(directory, REGISTRY_URL, "tenant").getByGlobalId(1));
+    }
+
+    private DefaultSchemaResolver<String, Object> resolver() {
+        DefaultSchemaResolver<String, Object> resolver = new DefaultSchemaResolver<>();
+        resolver.setClient(registry());
+        Map<String, Object> config = new HashMap<>();
+        config.put(SerdeConfig.REGISTRY_URL, REGISTRY_URL);
+        config.put(SerdeConfig.SCHEMA_CACHE_DIRECTORY, directory.toString());
+        resolver.configure(config, false, new SchemaParser<String>() {
+            @Override
+            public ArtifactType artifactType() {
+                return ArtifactType.AVRO;
+            }
+
+            @Override
+            public String parseSchema(byte[] rawSchema) {
+                return IoUtil.toString(rawSchema);
+            }
+        });
+        return resolver;
+    }
+
+    private RegistryClient registry() {
+        return (RegistryClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { RegistryClient.class },
+                (proxy, method, args) -> {
+                    if (registryDown) {
+                        throw new IllegalStateException("Registry down");
+                    }
+                    switch (method.getName()) {
+                        case "getContentByGlobalId":
+                            registryCalls.incrementAndGet();
+                            return IoUtil.toStream("global-" + args[0]);
+                        case "getContentById":
+                            registryCalls.incrementAndGet();
+                            return IoUtil.toStream("content-" + args[0]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+
+import io.apicurio.registry.rest.client.RegistryClient;
+import io.apicurio.registry.serde.protobuf.ProtobufKafkaDeserializer;
+import io.apicurio.registry.serde.protobuf.ProtobufKafkaDeserializerConfig;
+import io.apicurio.registry.serde.protobuf.ProtobufKafkaSerializer;
+import io.apicurio.registry.serde.protobuf.ProtobufSchemaParser;
+import io.apicurio.registry.serde.protobuf.ref.RefOuterClass;
+import io.apicurio.registry.serde.strategy.ArtifactReference;
+import io.apicurio.registry.serde.strategy.ArtifactResolverStrategy;
+import io.apicurio.registry.support.TestCmmn;
+import io.apicurio.registry.utils.protobuf.schema.ProtobufSchema;
+
+/**
+ * Checks the Protobuf serde's cached descriptors, parse methods and validation verdicts, without a registry.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class ProtobufSerdeCacheTest {
+
+    private static final String TOPIC = "cache";
+
+    @Test
+    public void testCachedParseMethods() {
+        Map<String, Object> specific = new HashMap<>();
+        specific.put(SerdeConfig.DESERIALIZER_SPECIFIC_VALUE_RETURN_CLASS, TestCmmn.UUID.class.getName());
+        Map<String, Object> dynamic = new HashMap<>();
+        dynamic.put(SerdeConfig.DESERIALIZER_SPECIFIC_VALUE_RETURN_CLASS, DynamicMessage.class.getName());
+
+        for (boolean headersEnabled : new boolean[] { false, true }) {
+            Assertions.assertEquals(TestCmmn.UUID.class, roundTrip(this::uuid, specific, headersEnabled));
+            Assertions.assertEquals(DynamicMessage.class, roundTrip(this::uuid, dynamic, headersEnabled));
+        }
+        // The message class from the headers, no message class without them.
+        Assertions.assertEquals(TestCmmn.UUID.class, roundTrip(this::uuid, new HashMap<>(), true));
+        Assertions.assertEquals(DynamicMessage.class, roundTrip(this::uuid, new HashMap<>(), false));
+    }
+
+    @Test
+    public void testCachedDerivedClass() {
+        Map<String, Object> derive = new HashMap<>();
+        derive.put(ProtobufKafkaDeserializerConfig.DERIVE_CLASS_FROM_SCHEMA, "true");
+
+        // The class can not be derived without java_outer_classname (or java_multiple_files).
+        Assertions.assertEquals(DynamicMessage.class, roundTrip(this::ref, derive, false));
+        Assertions.assertEquals(DynamicMessage.class, roundTrip(this::ref, derive, true));
+    }
+
+    @Test
+    public void testCachedValidation() {
+        // A schema without the UUID message type.
+        SchemaLookupResult<ProtobufSchema> other = lookupResult(RefOuterClass.getDescriptor());
+        try (ProtobufKafkaSerializer<TestCmmn.UUID> serializer = new ProtobufKafkaSerializer<>()) {
+            serializer.setSchemaResolver(new FixedSchemaResolver<>(other));
+            serializer.configure(config(new HashMap<>(), false), false);
+
+            for (int idx = 0; idx < 2; idx++) {
+                SerializationException e = Assertions.assertThrows(SerializationException.class,
+                        () -> serializer.serialize(TOPIC, uuid(1)));
+                Assertions.assertTrue(e.getMessage().startsWith("Missing message type"));
+            }
+        }
+    }
+
+    /**
+     * Serializes and deserializes a few records, and returns the class of the deserialized records.
+     */
+    private Class<?> roundTrip(IntFunction<Message> records, Map<String, Object> deserializerConfig, boolean headersEnabled) {
+        SchemaLookupResult<ProtobufSchema> result = lookupResult(records.apply(0).getDescriptorForType().getFile());
+        try (ProtobufKafkaSerializer<Message> serializer = new ProtobufKafkaSerializer<>();
+             ProtobufKafkaDeserializer<Message> deserializer = new ProtobufKafkaDeserializer<>()) {
+            serializer.setSchemaResolver(new FixedSchemaResolver<>(result));
+            serializer.configure(config(new HashMap<>(), headersEnabled), false);
+            deserializer.setSchemaResolver(new FixedSchemaResolver<>(result));
+            deserializer.configure(config(deserializerConfig, headersEnabled), false);
+
+            Class<?> type = null;
+            for (int idx = 0; idx < 3; idx++) {
+                Headers headers = new RecordHeaders();
+                Message record = records.apply(idx);
+                byte[] bytes = serializer.serialize(TOPIC, headers, record);
+                Message message = deserializer.deserialize(TOPIC, headersEnabled ? headers : null, bytes);
+
+                Assertions.assertEquals(record.toByteString(), message.toByteString());
+                Assertions.assertTrue(type == null || type == message.getClass());
+                type = message.getClass();
+            }
+            return type;
+        }
+    }
+
+    private Map<String, Object> config(Map<String, Object> config, boolean headersEnabled) {
+        Map<String, Object> result = new HashMap<>(config);
+        result.put(SerdeConfig.ENABLE_HEADERS, String.valueOf(headersEnabled));
+        return result;
+    }
+
+    private TestCmmn.UUID uuid(int idx) {
+        return TestCmmn.UUID.newBuilder().setMsb(idx).setLsb(idx * 2).build();
+    }
+
+    private RefOuterClass.Ref ref(int idx) {
+        return RefOuterClass.Ref.newBuilder().setName("ref" + idx).build();
+    }
+
+    private SchemaLookupResult<ProtobufSchema> lookupResult(FileDescriptor fileDescriptor) {
+        ProtobufSchema schema = new ProtobufSchema(fileDescriptor, new ProtobufSchemaParser().toProtoFileElement(fileDescriptor));
+        return SchemaLookupResult.<ProtobufSchema>builder()
+                .schema(schema)
+                .rawSchema(new byte[0])
+                .globalId(1)
+                .build();
+    }
+
+    private static class FixedSchemaResolver<U> implements SchemaResolver<ProtobufSchema, U> {
+
+        private final SchemaLookupResult<ProtobufSchema> result;
+
+        FixedSchemaResolver(SchemaLookupResult<ProtobufSchema> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void setClient(RegistryClient client) {
+        }
+
+        @Override
+        public void setArtifactResolverStrategy(ArtifactResolverStrategy<ProtobufSchema> artifactResolverStrategy) {
+        }
+
+        @Override
+        public SchemaLookupResult<ProtobufSchema> resolveSchema(String topic, Headers headers, U data,
+                ParsedSchema<ProtobufSchema> parsedSchema) {
+            return result;
+        }
+
+        @Override
+        public SchemaLookupResult<ProtobufSchema> resolveSchemaByArtifactReference(ArtifactReference reference) {
+            return result;
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+
+}
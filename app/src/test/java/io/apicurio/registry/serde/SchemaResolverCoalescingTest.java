@@ -0,0 +1,316 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.rest.client.RegistryClient;
+import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResult;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
+import io.apicurio.registry.serde.strategy.ArtifactReference;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.IoUtil;
+
+/**
+ * Checks that the {@link DefaultSchemaResolver} coalesces concurrent identical lookups, serves stale schemas while
+ * they are refreshed and prefetches schemas, against a stub registry client.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class SchemaResolverCoalescingTest {
+
+    private static final ArtifactReference REFERENCE = ArtifactReference.builder().groupId("group").artifactId("artifact").build();
+
+    @Test
+    public void testCoalescedLookups() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, null, true);
+        registry.block();
+
+        List<Thread> threads = new ArrayList<>();
+        List<SchemaLookupResult<String>> results = new ArrayList<>();
+        for (int idx = 0; idx < 8; idx++) {
+            Thread thread = new Thread(() -> {
+                SchemaLookupResult<String> result = resolver.resolveSchemaByArtifactReference(REFERENCE);
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // One thread is in the registry, the others wait for its result.
+        Assertions.assertTrue(registry.entered.await(10, TimeUnit.SECONDS));
+        waitUntil(() -> threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count() >= threads.size() - 1);
+        registry.release();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        Assertions.assertEquals(threads.size(), results.size());
+        results.forEach(result -> Assertions.assertSame(results.get(0), result));
+        Assertions.assertEquals(1, registry.metadataLookups.get());
+        Assertions.assertEquals(1, registry.contentLookups.get());
+        Assertions.assertTrue(resolver.lookupsInFlight.isEmpty());
+    }
+
+    @Test
+    public void testCoalescedAutoRegister() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        Map<String, Object> config = new HashMap<>();
+        config.put(SerdeConfig.AUTO_REGISTER_ARTIFACT, true);
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, config);
+        ParsedSchema<String> schema = new ParsedSchemaImpl<String>().setParsedSchema("schema").setRawSchema(IoUtil.toBytes("schema"));
+        registry.block();
+
+        List<Thread> threads = new ArrayList<>();
+        List<SchemaLookupResult<String>> results = new ArrayList<>();
+        for (int idx = 0; idx < 8; idx++) {
+            Thread thread = new Thread(() -> {
+                SchemaLookupResult<String> result = resolver.resolveSchema("topic", null, "data", schema);
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // One thread registers the schema, the others wait for its result (without holding a cache lock).
+        Assertions.assertTrue(registry.entered.await(10, TimeUnit.SECONDS));
+        waitUntil(() -> threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count() >= threads.size() - 1);
+        Assertions.assertEquals(1, resolver.lookupsInFlight.size());
+        registry.release();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        Assertions.assertEquals(threads.size(), results.size());
+        results.forEach(result -> Assertions.assertSame(results.get(0), result));
+        Assertions.assertEquals(1, registry.metadataLookups.get());
+        Assertions.assertTrue(resolver.lookupsInFlight.isEmpty());
+
+        // Cached from now on.
+        Assertions.assertSame(results.get(0), resolver.resolveSchema("topic", null, "data", schema));
+        Assertions.assertEquals(1, registry.metadataLookups.get());
+    }
+
+    @Test
+    public void testServeStale() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, 1L, true);
+        SchemaLookupResult<String> result = resolver.resolveSchemaByArtifactReference(REFERENCE);
+        Thread.sleep(10);
+
+        // The expired schema is served (without blocking) while it's refreshed.
+        registry.block();
+        Assertions.assertSame(result, resolver.resolveSchemaByArtifactReference(REFERENCE));
+        Assertions.assertSame(result, resolver.resolveSchemaByArtifactReference(REFERENCE));
+        Assertions.assertTrue(registry.entered.await(10, TimeUnit.SECONDS));
+        registry.release();
+        waitUntil(resolver.lookupsInFlight::isEmpty);
+
+        Assertions.assertEquals(2, registry.metadataLookups.get());
+        // Same globalId, so the content is not looked up again.
+        Assertions.assertEquals(1, registry.contentLookups.get());
+    }
+
+    @Test
+    public void testNoStale() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, 1L, false);
+        resolver.resolveSchemaByArtifactReference(REFERENCE);
+        Thread.sleep(10);
+
+        resolver.resolveSchemaByArtifactReference(REFERENCE);
+        Assertions.assertEquals(2, registry.metadataLookups.get());
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, null, true);
+
+        List<ArtifactReference> references = Arrays.asList(REFERENCE, ArtifactReference.fromGlobalId(7L),
+                ArtifactReference.fromGlobalId(8L));
+        CompletableFuture<Void> prefetch = resolver.prefetch(references);
+        prefetch.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(3, registry.contentLookups.get());
+
+        Assertions.assertEquals("schema-7", resolver.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(7L)).getSchema());
+        Assertions.assertEquals("schema-8", resolver.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(8L)).getSchema());
+        Assertions.assertEquals(3, registry.contentLookups.get());
+    }
+
+    @Test
+    public void testBatchedPrefetch() throws Exception {
+        StubRegistry registry = new StubRegistry();
+        registry.batchLookups = new AtomicInteger();
+        DefaultSchemaResolver<String, Object> resolver = resolver(registry, null, true);
+
+        // globalId 9 is not returned by the batch lookup
+        List<ArtifactReference> references = Arrays.asList(ArtifactReference.fromGlobalId(7L), ArtifactReference.fromGlobalId(8L),
+                ArtifactReference.fromGlobalId(9L), ArtifactReference.builder().contentId(3L).build());
+        resolver.prefetch(references).get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, registry.batchLookups.get());
+        Assertions.assertEquals(1, registry.contentLookups.get());
+
+        SchemaLookupResult<String> result = resolver.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(7L));
+        Assertions.assertEquals("schema-7", result.getSchema());
+        Assertions.assertEquals("group", result.getGroupId());
+        Assertions.assertEquals("artifact-7", result.getArtifactId());
+        Assertions.assertEquals("1", result.getVersion());
+        Assertions.assertEquals("schema-9", resolver.resolveSchemaByArtifactReference(ArtifactReference.fromGlobalId(9L)).getSchema());
+        Assertions.assertEquals("content-3", resolver.resolveSchemaByArtifactReference(ArtifactReference.builder().contentId(3L).build()).getSchema());
+        Assertions.assertEquals(1, registry.batchLookups.get());
+        Assertions.assertEquals(1, registry.contentLookups.get());
+    }
+
+    private DefaultSchemaResolver<String, Object> resolver(StubRegistry registry, Long checkPeriod, boolean serveStale) {
+        Map<String, Object> config = new HashMap<>();
+        if (checkPeriod != null) {
+            config.put(SerdeConfig.CHECK_PERIOD_MS, checkPeriod);
+        }
+        config.put(SerdeConfig.CHECK_PERIOD_SERVE_STALE, serveStale);
+        return resolver(registry, config);
+    }
+
+    private DefaultSchemaResolver<String, Object> resolver(StubRegistry registry, Map<String, Object> config) {
+        DefaultSchemaResolver<String, Object> resolver = new DefaultSchemaResolver<>();
+        resolver.setClient(registry.client());
+        resolver.configure(config, false, new SchemaParser<String>() {
+            @Override
+            public ArtifactType artifactType() {
+                return ArtifactType.AVRO;
+            }
+
+            @Override
+            public String parseSchema(byte[] rawSchema) {
+                return IoUtil.toString(rawSchema);
+            }
+        });
+        return resolver;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Counts the registry lookups, and optionally holds the metadata lookups until released.  Batch lookups are
+     * only supported when {@link #batchLookups} is set.
+     */
+    private static class StubRegistry {
+
+        final AtomicInteger metadataLookups = new AtomicInteger();
+        final AtomicInteger contentLookups = new AtomicInteger();
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        AtomicInteger batchLookups;
+
+        void block() {
+            entered = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        RegistryClient client() {
+            return (RegistryClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { RegistryClient.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getArtifactMetaData":
+                                metadataLookups.incrementAndGet();
+                                entered.countDown();
+                                gate.await(10, TimeUnit.SECONDS);
+                                ArtifactMetaData metadata = new ArtifactMetaData();
+                                metadata.setGroupId((String) args[0]);
+                                metadata.setId((String) args[1]);
+                                metadata.setVersion("1");
+                                metadata.setGlobalId(1L);
+                                metadata.setContentId(1L);
+                                return metadata;
+                            case "createArtifact":
+                                metadataLookups.incrementAndGet();
+                                entered.countDown();
+                                gate.await(10, TimeUnit.SECONDS);
+                                ArtifactMetaData created = new ArtifactMetaData();
+                                created.setGroupId((String) args[0]);
+                                created.setId((String) args[1]);
+                                created.setVersion("1");
+                                created.setGlobalId(2L);
+                                created.setContentId(2L);
+                                return created;
+                            case "getContentByGlobalId":
+                                contentLookups.incrementAndGet();
+                                return IoUtil.toStream("schema-" + args[0]);
+                            case "lookupContent":
+                                if (batchLookups == null) {
+                                    throw new UnsupportedOperationException(method.getName());
+                                }
+                                batchLookups.incrementAndGet();
+                                return lookupContent((List<Long>) args[0], (List<Long>) args[1]);
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private static ContentLookupResults lookupContent(List<Long> globalIds, List<Long> contentIds) {
+            ContentLookupResults results = new ContentLookupResults();
+            globalIds.stream().filter(globalId -> globalId != 9L).forEach(globalId -> {
+                ContentLookupResult result = new ContentLookupResult();
+                result.setGlobalId(globalId);
+                result.setContentId(globalId);
+                result.setGroupId("group");
+                result.setArtifactId("artifact-" + globalId);
+                result.setVersion("1");
+                result.setContent("schema-" + globalId);
+                results.getResults().add(result);
+            });
+            contentIds.forEach(contentId -> {
+                ContentLookupResult result = new ContentLookupResult();
+                result.setContentId(contentId);
+                result.setContent("content-" + contentId);
+                results.getResults().add(result);
+            });
+            return results;
+        }
+    }
+
+}
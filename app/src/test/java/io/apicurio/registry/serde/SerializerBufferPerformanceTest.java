@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.serde.avro.AvroKafkaDeserializer;
+import io.apicurio.registry.serde.avro.AvroKafkaSerdeConfig;
+import io.apicurio.registry.serde.avro.AvroKafkaSerializer;
+import io.apicurio.registry.serde.avro.DefaultAvroDatumProvider;
+
+/**
+ * Measures the throughput, allocation rate and GC activity of {@link AbstractKafkaSerializer#serialize(String, Object)}
+ * with and without the reusable (per thread) buffer, for small, medium and large records.  The measurement is
+ * only run with <code>-DSerializerBufferPerformanceTest=enabled</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class SerializerBufferPerformanceTest {
+
+    private static final int NUM_RECORDS = 200000;
+    private static final String TOPIC = "perf";
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"BufferRecord\","
+            + "\"fields\":[{\"name\":\"id\",\"type\":\"long\"},{\"name\":\"payload\",\"type\":\"bytes\"}]}");
+
+    private boolean isTestEnabled() {
+        return "enabled".equals(System.getProperty(SerializerBufferPerformanceTest.class.getSimpleName()));
+    }
+
+    @Test
+    public void testReusedBuffer() {
+        AvroSerdePerformanceTest.FixedSchemaResolver<GenericData.Record> resolver = new AvroSerdePerformanceTest.FixedSchemaResolver<>();
+        try (AvroKafkaSerializer<GenericData.Record> serializer = serializer(resolver, true, 2048);
+             AvroKafkaDeserializer<GenericData.Record> deserializer = new AvroKafkaDeserializer<>()) {
+            deserializer.setSchemaResolver(resolver);
+            deserializer.configure(config(false, 0), false);
+
+            // Shrinking and growing records (past the max size of the kept buffer) must not leak into each other.
+            int[] sizes = { 1000, 10, 5000, 10, 1000 };
+            for (int idx = 0; idx < sizes.length; idx++) {
+                byte[] bytes = serializer.serialize(TOPIC, record(idx, sizes[idx]));
+                GenericData.Record result = deserializer.deserialize(TOPIC, bytes);
+                Assertions.assertEquals((long) idx, result.get("id"));
+                Assertions.assertEquals(sizes[idx], ((ByteBuffer) result.get("payload")).remaining());
+            }
+        }
+    }
+
+    @Test
+    public void testSerializerBufferPerformance() {
+        if (!isTestEnabled()) {
+            return;
+        }
+
+        int[] payloadSizes = { 100, 10 * 1024, 100 * 1024 };
+
+        // Warm up the code paths before measuring.
+        for (int payloadSize : payloadSizes) {
+            measure(true, payloadSize, NUM_RECORDS / 10);
+            measure(false, payloadSize, NUM_RECORDS / 10);
+        }
+
+        System.out.println("========================================================================");
+        System.out.println("= Serializer Buffer Performance Results                                =");
+        System.out.println("=----------------------------------------------------------------------=");
+        for (int payloadSize : payloadSizes) {
+            int records = payloadSize > 10 * 1024 ? NUM_RECORDS / 10 : NUM_RECORDS;
+            System.out.println("| Payload " + payloadSize + " bytes, " + records + " records");
+            System.out.println("|   reused buffer: " + measure(true, payloadSize, records));
+            System.out.println("|   new buffer:    " + measure(false, payloadSize, records));
+        }
+        System.out.println("========================================================================");
+    }
+
+    /**
+     * Serializes the given number of records, and returns the records/sec, the bytes allocated per record and
+     * the number of (and time spent in) garbage collections.
+     */
+    private String measure(boolean reuseBuffer, int payloadSize, int records) {
+        AvroSerdePerformanceTest.FixedSchemaResolver<GenericData.Record> resolver = new AvroSerdePerformanceTest.FixedSchemaResolver<>();
+        try (AvroKafkaSerializer<GenericData.Record> serializer = serializer(resolver, reuseBuffer,
+                SerdeConfig.SERIALIZER_REUSE_BUFFER_MAX_SIZE_DEFAULT)) {
+            GenericData.Record record = record(0, payloadSize);
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTime();
+            long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            long total = 0;
+            for (int idx = 0; idx < records; idx++) {
+                total += serializer.serialize(TOPIC, record).length;
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+            Assertions.assertTrue(total > (long) payloadSize * records);
+            return String.format("%,10d records/sec, %,8d bytes/record, %4d GCs (%d ms)",
+                    records * 1000000000L / elapsed, allocated / records, gcCount() - gcCountBefore,
+                    gcTime() - gcTimeBefore);
+        }
+    }
+
+    private AvroKafkaSerializer<GenericData.Record> serializer(SchemaResolver<Schema, GenericData.Record> resolver,
+            boolean reuseBuffer, int reuseBufferMaxSize) {
+        AvroKafkaSerializer<GenericData.Record> serializer = new AvroKafkaSerializer<>();
+        serializer.setSchemaResolver(resolver);
+        serializer.configure(config(reuseBuffer, reuseBufferMaxSize), false);
+        return serializer;
+    }
+
+    private Map<String, Object> config(boolean reuseBuffer, int reuseBufferMaxSize) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroKafkaSerdeConfig.AVRO_DATUM_PROVIDER, DefaultAvroDatumProvider.class.getName());
+        config.put(SerdeConfig.ENABLE_HEADERS, "false");
+        config.put(SerdeConfig.SERIALIZER_REUSE_BUFFER, String.valueOf(reuseBuffer));
+        config.put(SerdeConfig.SERIALIZER_REUSE_BUFFER_MAX_SIZE, String.valueOf(reuseBufferMaxSize));
+        return config;
+    }
+
+    private GenericData.Record record(long id, int payloadSize) {
+        GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("id", id);
+        record.put("payload", ByteBuffer.wrap(new byte[payloadSize]));
+        return record;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.services;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.metrics.MetricsConstants;
+import io.apicurio.registry.storage.RegistryStorage;
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks the batching and the grace period of the {@link ContentReaperService}, against a stand-in storage.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class ContentReaperServiceTest {
+
+    private static final long GRACE = 60 * 1000;
+
+    // The orphaned content, by contentId
+    private final TreeMap<Long, OrphanedContentDto> orphans = new TreeMap<>();
+    private final List<Long> deleted = new ArrayList<>();
+    private final Set<Long> failing = new HashSet<>();
+    private ContentReaperService reaper;
+
+    @BeforeEach
+    public void createReaper() {
+        for (long id = 1; id <= 25; id++) {
+            orphans.put(id, OrphanedContentDto.builder().contentId(id).contentHash("hash-" + id).size(10).build());
+        }
+        reaper = new ContentReaperService();
+        reaper.log = LoggerFactory.getLogger(ContentReaperService.class);
+        reaper.storage = storage();
+        reaper.meterRegistry = new SimpleMeterRegistry();
+        reaper.batchSize = 10;
+        reaper.maxPerRun = 20;
+        reaper.gracePeriodSeconds = GRACE / 1000;
+        reaper.init();
+    }
+
+    @Test
+    public void testGracePeriod() {
+        // The first pass takes two runs (20 + 5 rows), nothing is deleted
+        Assertions.assertEquals(0, reaper.reap(0));
+        Assertions.assertEquals(0, reaper.reap(1000));
+
+        // Referenced again meanwhile
+        orphans.remove(3L);
+
+        // Still within the grace period
+        Assertions.assertEquals(0, reaper.reap(GRACE - 1));
+        Assertions.assertEquals(0, reaper.reap(GRACE));
+
+        Assertions.assertEquals(20, reaper.reap(2 * GRACE));
+        Assertions.assertEquals(4, reaper.reap(2 * GRACE + 1000));
+        Assertions.assertEquals(24, deleted.size());
+        Assertions.assertFalse(deleted.contains(3L));
+
+        Assertions.assertEquals(24, reaper.meterRegistry.get(MetricsConstants.CONTENT_REAPER_DELETED).counter().count());
+        Assertions.assertEquals(240, reaper.meterRegistry.get(MetricsConstants.CONTENT_REAPER_RECLAIMED_BYTES).counter().count());
+    }
+
+    @Test
+    public void testNewOrphans() {
+        Assertions.assertEquals(0, reaper.reap(0));
+        Assertions.assertEquals(0, reaper.reap(1000));
+
+        // Seen for the first time during the second pass, so only deleted by the third one
+        orphans.put(30L, OrphanedContentDto.builder().contentId(30).contentHash("hash-30").size(10).build());
+        Assertions.assertEquals(20, reaper.reap(GRACE + 1000));
+        Assertions.assertEquals(5, reaper.reap(GRACE + 2000));
+        Assertions.assertEquals(List.of(30L), new ArrayList<>(orphans.keySet()));
+
+        Assertions.assertEquals(1, reaper.reap(2 * GRACE + 2000) + reaper.reap(2 * GRACE + 3000));
+        Assertions.assertTrue(orphans.isEmpty());
+    }
+
+    @Test
+    public void testDeleteFailure() {
+        Assertions.assertEquals(0, reaper.reap(0));
+        Assertions.assertEquals(0, reaper.reap(1000));
+
+        // Deleting this one fails, the others are still deleted
+        failing.add(5L);
+        Assertions.assertEquals(19, reaper.reap(GRACE + 1000));
+        Assertions.assertEquals(5, reaper.reap(GRACE + 2000));
+        Assertions.assertEquals(List.of(5L), new ArrayList<>(orphans.keySet()));
+        Assertions.assertEquals(24, reaper.meterRegistry.get(MetricsConstants.CONTENT_REAPER_DELETED).counter().count());
+    }
+
+    private RegistryStorage storage() {
+        return (RegistryStorage) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { RegistryStorage.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOrphanedContent":
+                            return orphans.tailMap((Long) args[0], false).values().stream()
+                                    .limit((Integer) args[1])
+                                    .collect(Collectors.toList());
+                        case "deleteOrphanedContent":
+                            OrphanedContentDto content = (OrphanedContentDto) args[0];
+                            if (failing.contains(content.getContentId())) {
+                                throw new RegistryStorageException("Referenced by a version");
+                            }
+                            if (orphans.remove(content.getContentId()) == null) {
+                                return false;
+                            }
+                            deleted.add(content.getContentId());
+                            return true;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
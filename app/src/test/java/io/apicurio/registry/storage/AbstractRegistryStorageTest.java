@@ -35,6 +35,7 @@ import io.apicurio.registry.AbstractResourceTestBase;
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.mt.RegistryTenantContext;
 import io.apicurio.registry.mt.TenantContext;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -848,6 +849,44 @@ public abstract class AbstractRegistryStorageTest extends AbstractResourceTestBa
         Assertions.assertTrue(globalRules.isEmpty());
     }
 
+    @Test
+    public void testArtifactAndGlobalRules() {
+        String artifactId = "testArtifactAndGlobalRules-1";
+        ContentHandle content = ContentHandle.create(OPENAPI_CONTENT);
+        storage().createArtifact(GROUP_ID, artifactId, null, ArtifactType.OPENAPI, content);
+
+        storage().createGlobalRule(RuleType.COMPATIBILITY, new RuleConfigurationDto("FULL"));
+        try {
+            ArtifactAndGlobalRulesDto rules = storage().getArtifactAndGlobalRules(GROUP_ID, artifactId);
+            Assertions.assertTrue(rules.getArtifactRules().isEmpty());
+            Assertions.assertEquals("FULL", rules.getGlobalRules().get(RuleType.COMPATIBILITY).getConfiguration());
+
+            storage().createArtifactRule(GROUP_ID, artifactId, RuleType.VALIDITY, new RuleConfigurationDto("SYNTAX_ONLY"));
+            rules = storage().getArtifactAndGlobalRules(GROUP_ID, artifactId);
+            Assertions.assertEquals(1, rules.getArtifactRules().size());
+            Assertions.assertEquals("SYNTAX_ONLY", rules.getArtifactRules().get(RuleType.VALIDITY).getConfiguration());
+            Assertions.assertEquals(1, rules.getGlobalRules().size());
+        } finally {
+            storage().deleteGlobalRules();
+        }
+    }
+
+    @Test
+    public void testGlobalRuleConfigurations() {
+        Assertions.assertTrue(storage().getGlobalRuleConfigurations().isEmpty());
+
+        storage().createGlobalRule(RuleType.COMPATIBILITY, new RuleConfigurationDto("FULL"));
+        storage().createGlobalRule(RuleType.VALIDITY, new RuleConfigurationDto("SYNTAX_ONLY"));
+        try {
+            Map<RuleType, RuleConfigurationDto> rules = storage().getGlobalRuleConfigurations();
+            Assertions.assertEquals(2, rules.size());
+            Assertions.assertEquals("FULL", rules.get(RuleType.COMPATIBILITY).getConfiguration());
+            Assertions.assertEquals("SYNTAX_ONLY", rules.get(RuleType.VALIDITY).getConfiguration());
+        } finally {
+            storage().deleteGlobalRules();
+        }
+    }
+
     @Test
     public void testSearchArtifacts() throws Exception {
         String artifactIdPrefix = "testSearchArtifacts-";
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 
@@ -49,8 +50,9 @@ public class RegistryStoragePerformanceTest {
 
     private static final String GROUP_ID = RegistryStoragePerformanceTest.class.getSimpleName();
 
-    private static final int NUM_ARTIFACTS = 50000;
-//    private static final int NUM_VERSIONS = 5;
+    // e.g. -DRegistryStoragePerformanceTest.artifacts=200000 -DRegistryStoragePerformanceTest.versions=5 for 1M versions
+    private static final int NUM_ARTIFACTS = Integer.getInteger(RegistryStoragePerformanceTest.class.getSimpleName() + ".artifacts", 50000);
+    private static final int NUM_VERSIONS = Integer.getInteger(RegistryStoragePerformanceTest.class.getSimpleName() + ".versions", 1);
 
     private static final String OPENAPI_CONTENT_TEMPLATE = "{" +
             "    \"openapi\": \"3.0.2\"," +
@@ -104,9 +106,19 @@ public class RegistryStoragePerformanceTest {
             EditableArtifactMetaDataDto metaData = new EditableArtifactMetaDataDto(title, description, labels,
                     properties);
             storage.createArtifactWithMetadata(GROUP_ID, artifactId, null, ArtifactType.OPENAPI, content, metaData);
+            for (int version = 2; version <= NUM_VERSIONS; version++) {
+                ContentHandle versionContent = ContentHandle.create(
+                        OPENAPI_CONTENT_TEMPLATE
+                            .replaceAll("TITLE", title)
+                            .replaceAll("DESCRIPTION", description)
+                            .replaceAll("VERSION", idx + "." + version));
+                storage.updateArtifactWithMetadata(GROUP_ID, artifactId, null, ArtifactType.OPENAPI, versionContent, metaData);
+            }
 
-            System.out.print(".");
             if (idx % 100 == 0) {
+                System.out.print(".");
+            }
+            if (idx % 10000 == 0) {
                 System.out.println(" " + idx);
             }
         }
@@ -134,7 +146,9 @@ public class RegistryStoragePerformanceTest {
         results = storage.searchArtifacts(filters, OrderBy.name, OrderDirection.asc, 0, 10);
         long endNameSearch = System.currentTimeMillis();
         Assertions.assertNotNull(results);
-        Assertions.assertEquals(1, results.getCount());
+        // 9999, and 99990 to 99999 etc. with more artifacts
+        Assertions.assertEquals(IntStream.rangeClosed(1, NUM_ARTIFACTS).filter(idx -> String.valueOf(idx).startsWith("9999")).count(),
+                (long) results.getCount());
 
         long startAllNameSearch = System.currentTimeMillis();
         filters = Collections.singleton(new SearchFilter(SearchFilterType.name, "testStoragePerformance"));
@@ -165,10 +179,24 @@ public class RegistryStoragePerformanceTest {
         Assertions.assertNotNull(results);
         Assertions.assertEquals(NUM_ARTIFACTS, results.getCount());
 
+        long startSingleEverythingSearch = System.currentTimeMillis();
+        filters = Collections.singleton(new SearchFilter(SearchFilterType.everything, "Number 777 all time"));
+        results = storage.searchArtifacts(filters, OrderBy.name, OrderDirection.asc, 0, 10);
+        long endSingleEverythingSearch = System.currentTimeMillis();
+        Assertions.assertNotNull(results);
+        Assertions.assertEquals(1, results.getCount());
+
+        long startDescriptionSearch = System.currentTimeMillis();
+        filters = Collections.singleton(new SearchFilter(SearchFilterType.description, "top APIs"));
+        results = storage.searchArtifacts(filters, OrderBy.createdOn, OrderDirection.desc, 20, 20);
+        long endDescriptionSearch = System.currentTimeMillis();
+        Assertions.assertNotNull(results);
+        Assertions.assertEquals(NUM_ARTIFACTS, results.getCount());
+
         System.out.println("========================================================================");
         System.out.println("= Storage Performance Results                                          =");
         System.out.println("=----------------------------------------------------------------------=");
-        System.out.println("| Time to create " + NUM_ARTIFACTS + " artifacts: " + (endCreate - startCreate) + "ms");
+        System.out.println("| Time to create " + NUM_ARTIFACTS + " artifacts (" + NUM_ARTIFACTS * NUM_VERSIONS + " versions): " + (endCreate - startCreate) + "ms");
         System.out.println("| ");
         System.out.println("| Get Artifact Content:   " + (endGetArtifact - startGetArtifact) + "ms");
         System.out.println("| Get Artifact Meta-Data: " + (endGetArtifactMetaData - startGetArtifactMetaData) + "ms");
@@ -179,6 +207,8 @@ public class RegistryStoragePerformanceTest {
         System.out.println("| Label Search:           " + (endLabelSearch - startLabelSearch) + "ms");
         System.out.println("| All Label Search:       " + (endAllLabelSearch - startAllLabelSearch) + "ms");
         System.out.println("| Everything Search:      " + (endEverythingSearch - startEverythingSearch) + "ms");
+        System.out.println("| Single Everything Search: " + (endSingleEverythingSearch - startSingleEverythingSearch) + "ms");
+        System.out.println("| Description Search (page 2): " + (endDescriptionSearch - startDescriptionSearch) + "ms");
         System.out.println("========================================================================");
     }
 
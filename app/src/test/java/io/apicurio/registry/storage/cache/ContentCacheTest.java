@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.storage.ContentNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+public class ContentCacheTest {
+
+    private ContentCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ContentCache();
+        cache.log = LoggerFactory.getLogger(ContentCache.class);
+        cache.registry = new SimpleMeterRegistry();
+        cache.maxBytes = 1024;
+        cache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testReadThrough() {
+        ContentHandle content = cache.getByContentId("t1", 1, () -> load("{}"));
+        Assertions.assertSame(content, cache.getByContentId("t1", 1, () -> load("other")));
+        Assertions.assertEquals(DigestUtils.sha256Hex("{}"), content.sha256Hex());
+        Assertions.assertEquals(1, loads.get());
+
+        // Lookups by hash, or by another tenant, are separate entries.
+        cache.getByContentHash("t1", content.sha256Hex(), () -> load("{}"));
+        cache.getByContentId("t2", 1, () -> load("{}"));
+        Assertions.assertEquals(3, loads.get());
+
+        Assertions.assertThrows(ContentNotFoundException.class, () -> cache.getByContentId("t1", 2, () -> {
+            throw new ContentNotFoundException("contentId-2");
+        }));
+    }
+
+    @Test
+    public void testInvalidateTenant() {
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentId("t2", 1, () -> load("{}"));
+
+        cache.invalidateTenant("t1");
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentId("t2", 1, () -> load("{}"));
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testInvalidateContent() {
+        String hash = DigestUtils.sha256Hex("{}");
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentHash("t2", hash, () -> load("{}"));
+        cache.getByContentId("t1", 2, () -> load("[]"));
+
+        cache.invalidateContent(1, hash);
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentHash("t2", hash, () -> load("{}"));
+        cache.getByContentId("t1", 2, () -> load("[]"));
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void testInvalidatedWhileLoading() {
+        cache.getByContentId("t1", 1, () -> {
+            cache.invalidateTenant("t1");
+            return load("{}");
+        });
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDisabled() {
+        cache = new ContentCache();
+        cache.maxBytes = 0;
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.getByContentId("t1", 1, () -> load("{}"));
+        cache.invalidateAll();
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private ContentHandle load(String content) {
+        loads.incrementAndGet();
+        return ContentHandle.create(content);
+    }
+
+}
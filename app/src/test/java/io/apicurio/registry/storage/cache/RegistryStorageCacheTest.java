@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.cache;
+
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_HITS;
+import static io.apicurio.registry.metrics.MetricsConstants.STORAGE_CACHE_MISSES;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.cache.RegistryStorageCache.CacheKind;
+import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+public class RegistryStorageCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private RegistryStorageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new RegistryStorageCache();
+        cache.log = LoggerFactory.getLogger(RegistryStorageCache.class);
+        cache.registry = registry;
+        cache.enabled = true;
+        cache.maxEntries = 100;
+        cache.maxTenants = 10;
+        cache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testReadThrough() {
+        Assertions.assertEquals("v1", cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> load("v1")));
+        Assertions.assertEquals("v1", cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> load("other")));
+        Assertions.assertEquals(1, loads.get());
+
+        // Tenants don't share entries.
+        Assertions.assertEquals("v2", cache.get("t2", CacheKind.VERSION_META_DATA, 1L, () -> load("v2")));
+        Assertions.assertEquals(2, loads.get());
+
+        Assertions.assertEquals(1, registry.get(STORAGE_CACHE_HITS).tag("cache", "version_meta_data").counter().count());
+        Assertions.assertEquals(2, registry.get(STORAGE_CACHE_MISSES).tag("cache", "version_meta_data").counter().count());
+    }
+
+    @Test
+    public void testErrorsNotCached() {
+        Assertions.assertThrows(ArtifactNotFoundException.class, () -> cache.get("t1", CacheKind.ARTIFACT_META_DATA,
+                RegistryStorageCache.artifactKey("g", "a"), () -> {
+                    throw new ArtifactNotFoundException("g", "a");
+                }));
+        Assertions.assertEquals("meta", cache.get("t1", CacheKind.ARTIFACT_META_DATA, RegistryStorageCache.artifactKey("g", "a"),
+                () -> load("meta")));
+    }
+
+    @Test
+    public void testInvalidateArtifact() {
+        ArtifactMetaDataDto dto = new ArtifactMetaDataDto();
+        dto.setGroupId(null);
+        dto.setId("a");
+        ArtifactMetaDataDto other = new ArtifactMetaDataDto();
+        other.setGroupId(null);
+        other.setId("b");
+        cache.get("t1", CacheKind.ARTIFACT_META_DATA, RegistryStorageCache.artifactKey(null, "a"), () -> load(dto));
+        cache.get("t1", CacheKind.VERSION_META_DATA, 7L, () -> load(dto));
+        cache.get("t1", CacheKind.VERSION_META_DATA, 3L, () -> load(other));
+
+        cache.invalidateArtifact("t1", null, "a");
+
+        cache.get("t1", CacheKind.ARTIFACT_META_DATA, RegistryStorageCache.artifactKey(null, "a"), () -> load(dto));
+        cache.get("t1", CacheKind.VERSION_META_DATA, 7L, () -> load(dto));
+        cache.get("t1", CacheKind.VERSION_META_DATA, 3L, () -> load(other));
+        Assertions.assertEquals(5, loads.get());
+
+        cache.invalidateVersions("t1");
+        cache.get("t1", CacheKind.VERSION_META_DATA, 3L, () -> load(other));
+        Assertions.assertEquals(6, loads.get());
+    }
+
+    @Test
+    public void testConcurrentInvalidation() {
+        // A value loaded while a write happens must not be cached.
+        Object value = cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> {
+            cache.invalidateTenant("t1");
+            return load("stale");
+        });
+        Assertions.assertEquals("stale", value);
+        Assertions.assertEquals("fresh", cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> load("fresh")));
+    }
+
+    @Test
+    public void testDisabled() {
+        cache = new RegistryStorageCache();
+        cache.enabled = false;
+        cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> load("v1"));
+        cache.get("t1", CacheKind.VERSION_META_DATA, 1L, () -> load("v1"));
+        cache.invalidateAll();
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private <T> T load(T value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.sql;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.storage.impl.sql.jdb.Handle;
+import io.apicurio.registry.storage.impl.sql.jdb.HandleCallback;
+import io.apicurio.registry.storage.impl.sql.jdb.HandleImpl;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RuleType;
+import io.apicurio.registry.utils.impexp.ArtifactRuleEntity;
+import io.apicurio.registry.utils.impexp.ArtifactVersionEntity;
+import io.apicurio.registry.utils.impexp.ContentEntity;
+import io.apicurio.registry.utils.impexp.Entity;
+
+/**
+ * Checks that the {@link SqlExporter} exports a consistent set of entities while the registry is being written
+ * to, by re-importing the export into another (in-memory H2) database, with its foreign keys.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class SqlExporterTest {
+
+    private static final String TENANT = "export-tenant";
+    private static final String GROUP = "export-group";
+
+    private final SqlStatements sqlStatements = new H2SqlStatements();
+    private final H2HandleFactory source = new H2HandleFactory("jdbc:h2:mem:export-source;DB_CLOSE_DELAY=-1");
+    private final H2HandleFactory target = new H2HandleFactory("jdbc:h2:mem:export-target;DB_CLOSE_DELAY=-1");
+
+    @BeforeEach
+    public void createDatabases() {
+        for (HandleFactory handles : new HandleFactory[] { source, target }) {
+            handles.withHandleNoException(handle -> {
+                sqlStatements.databaseInitialization().forEach(statement -> handle.createUpdate(statement).execute());
+                return null;
+            });
+        }
+    }
+
+    @AfterEach
+    public void dropDatabases() {
+        for (HandleFactory handles : new HandleFactory[] { source, target }) {
+            handles.withHandleNoException(handle -> {
+                handle.createUpdate("DROP ALL OBJECTS").executeNoUpdate();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    public void testExportWhileWriting() {
+        source.withHandleNoException(handle -> {
+            insertArtifact(handle, "api");
+            insertArtifactRule(handle, "api");
+            for (long id = 1; id <= 3; id++) {
+                insertContent(handle, id);
+                insertVersion(handle, id, "api", "v" + id, id);
+            }
+            return null;
+        });
+
+        // A new artifact (with a rule) and version are created once the export has started (it read the
+        // max globalId and contentId), but before its readers run their queries
+        AtomicInteger handles = new AtomicInteger();
+        source.beforeHandle = handle -> {
+            if (handles.incrementAndGet() == 3) {
+                insertContent(handle, 100);
+                insertArtifact(handle, "late");
+                insertArtifactRule(handle, "late");
+                insertVersion(handle, 100, "late", "v1", 100);
+            }
+        };
+
+        List<Entity> exported = new ArrayList<>();
+        new SqlExporter(source, sqlStatements, TENANT, 1, -1).exportData(entity -> {
+            if (entity instanceof ContentEntity) {
+                ContentEntity content = (ContentEntity) entity;
+                try {
+                    content.contentBytes = content.contentStream.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                content.contentStream = null;
+            }
+            exported.add(entity);
+            return null;
+        });
+
+        // The export can be imported (each version's content and each rule's artifact was exported)
+        target.withHandleNoException(handle -> {
+            for (Entity entity : exported) {
+                if (entity instanceof ContentEntity) {
+                    ContentEntity content = (ContentEntity) entity;
+                    handle.createUpdate(sqlStatements.importContent())
+                        .bind(0, content.contentId)
+                        .bind(1, content.canonicalHash)
+                        .bind(2, content.contentHash)
+                        .bind(3, content.contentBytes)
+                        .execute();
+                } else if (entity instanceof ArtifactVersionEntity) {
+                    ArtifactVersionEntity version = (ArtifactVersionEntity) entity;
+                    if (version.versionId == 1) {
+                        insertArtifact(handle, version.artifactId);
+                    }
+                    insertVersion(handle, version.globalId, version.artifactId, version.version, version.contentId);
+                } else if (entity instanceof ArtifactRuleEntity) {
+                    insertArtifactRule(handle, ((ArtifactRuleEntity) entity).artifactId);
+                }
+            }
+            return null;
+        });
+
+        Assertions.assertEquals(3, exported.stream().filter(entity -> entity instanceof ContentEntity).count());
+        Assertions.assertEquals(3, exported.stream().filter(entity -> entity instanceof ArtifactVersionEntity).count());
+        Assertions.assertEquals(1, exported.stream().filter(entity -> entity instanceof ArtifactRuleEntity).count());
+    }
+
+    private void insertContent(Handle handle, long contentId) {
+        handle.createUpdate(sqlStatements.importContent())
+            .bind(0, contentId)
+            .bind(1, "canonical-" + contentId)
+            .bind(2, "hash-" + contentId)
+            .bind(3, ("{\"id\": " + contentId + "}").getBytes())
+            .execute();
+    }
+
+    private void insertArtifact(Handle handle, String artifactId) {
+        handle.createUpdate(sqlStatements.insertArtifact())
+            .bind(0, TENANT)
+            .bind(1, GROUP)
+            .bind(2, artifactId)
+            .bind(3, ArtifactType.JSON.name())
+            .bind(4, "user")
+            .bind(5, new Date())
+            .execute();
+    }
+
+    private void insertArtifactRule(Handle handle, String artifactId) {
+        handle.createUpdate(sqlStatements.importArtifactRule())
+            .bind(0, TENANT)
+            .bind(1, GROUP)
+            .bind(2, artifactId)
+            .bind(3, RuleType.VALIDITY.name())
+            .bind(4, "FULL")
+            .execute();
+    }
+
+    private void insertVersion(Handle handle, long globalId, String artifactId, String version, long contentId) {
+        handle.createUpdate(sqlStatements.importArtifactVersion())
+            .bind(0, globalId)
+            .bind(1, TENANT)
+            .bind(2, GROUP)
+            .bind(3, artifactId)
+            .bind(4, version)
+            .bind(5, Integer.valueOf(version.substring(1)))
+            .bind(6, ArtifactState.ENABLED)
+            .bind(7, (String) null)
+            .bind(8, (String) null)
+            .bind(9, "user")
+            .bind(10, new Date())
+            .bind(11, (String) null)
+            .bind(12, (String) null)
+            .bind(13, contentId)
+            .execute();
+    }
+
+    /**
+     * Hands out connections to an H2 database, instead of the (injected) data source.
+     */
+    private static class H2HandleFactory extends HandleFactory {
+
+        private final String url;
+        volatile Consumer<Handle> beforeHandle = handle -> { };
+
+        H2HandleFactory(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public <R, X extends Exception> R withHandle(HandleCallback<R, X> callback) throws X {
+            try (Connection connection = DriverManager.getConnection(url)) {
+                Handle handle = new HandleImpl(connection);
+                beforeHandle.accept(handle);
+                return callback.withHandle(handle);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.apicurio.registry.storage.impl.sql;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.impexp.EntityInputStream;
+import io.apicurio.registry.utils.impexp.ArtifactVersionEntity;
+import io.apicurio.registry.utils.impexp.ContentEntity;
+import io.apicurio.registry.utils.impexp.Entity;
+import io.apicurio.registry.utils.impexp.EntityType;
+import io.apicurio.registry.utils.impexp.ManifestEntity;
+
+/**
+ * Checks the chunking, ordering and checkpoints of the {@link SqlImporter}, with a stand-in chunk applier.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+class SqlImporterTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("import");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        Files.deleteIfExists(directory.resolve("checkpoint"));
+        Files.delete(directory);
+    }
+
+    @Test
+    void testOrdering() {
+        AtomicInteger contentApplied = new AtomicInteger();
+        List<Long> versions = Collections.synchronizedList(new ArrayList<>());
+        SqlImporter importer = new SqlImporter(chunk -> {
+            Thread.sleep(5);
+            for (Entity entity : chunk) {
+                if (entity.getEntityType() == EntityType.Content) {
+                    contentApplied.incrementAndGet();
+                } else {
+                    // all the content is applied before the versions
+                    Assertions.assertEquals(20, contentApplied.get());
+                    versions.add(((ArtifactVersionEntity) entity).globalId);
+                }
+            }
+        }, 3, 4, null);
+
+        Assertions.assertEquals(30, importer.importData(stream(entities(20, 10))));
+        Assertions.assertEquals(20, contentApplied.get());
+        List<Long> expected = new ArrayList<>();
+        for (long id = 0; id < 10; id++) {
+            expected.add(id);
+        }
+        Assertions.assertEquals(expected, versions);
+    }
+
+    @Test
+    void testResume() throws IOException {
+        Path checkpoint = directory.resolve("checkpoint");
+        AtomicInteger versionChunks = new AtomicInteger();
+        SqlImporter failing = new SqlImporter(chunk -> {
+            if (chunk.get(0).getEntityType() == EntityType.ArtifactVersion && versionChunks.incrementAndGet() == 3) {
+                throw new IllegalStateException("database down");
+            }
+        }, 4, 2, checkpoint);
+        Assertions.assertThrows(RegistryStorageException.class, () -> failing.importData(stream(entities(1000, 7, 20))));
+        // the manifest and content chunks, then two chunks of versions
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpoint)) {
+            properties.load(reader);
+        }
+        Assertions.assertEquals("16", properties.getProperty("entities"));
+        Assertions.assertEquals("1000", properties.getProperty("export"));
+        Assertions.assertEquals("4", properties.getProperty("chunkSize"));
+
+        List<Entity> applied = Collections.synchronizedList(new ArrayList<>());
+        SqlImporter resumed = new SqlImporter(applied::addAll, 4, 2, checkpoint);
+        Assertions.assertEquals(12, resumed.importData(stream(entities(1000, 7, 20))));
+        Assertions.assertEquals(8L, ((ArtifactVersionEntity) applied.get(0)).globalId);
+        Assertions.assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void testResumeMismatch() throws IOException {
+        Path checkpoint = directory.resolve("checkpoint");
+        SqlImporter failing = new SqlImporter(chunk -> {
+            if (chunk.get(0).getEntityType() == EntityType.ArtifactVersion) {
+                throw new IllegalStateException("database down");
+            }
+        }, 4, 2, checkpoint);
+        Assertions.assertThrows(RegistryStorageException.class, () -> failing.importData(stream(entities(1000, 7, 20))));
+
+        List<Entity> applied = Collections.synchronizedList(new ArrayList<>());
+        // another export
+        SqlImporter other = new SqlImporter(applied::addAll, 4, 2, checkpoint);
+        Assertions.assertThrows(RegistryStorageException.class, () -> other.importData(stream(entities(2000, 7, 20))));
+        // another chunk size
+        SqlImporter resized = new SqlImporter(applied::addAll, 5, 2, checkpoint);
+        Assertions.assertThrows(RegistryStorageException.class, () -> resized.importData(stream(entities(1000, 7, 20))));
+        Assertions.assertTrue(applied.isEmpty());
+        Assertions.assertTrue(Files.exists(checkpoint));
+    }
+
+    private static List<Entity> entities(int contents, int versions) {
+        return entities(-1, contents, versions);
+    }
+
+    private static List<Entity> entities(long exportedOn, int contents, int versions) {
+        List<Entity> entities = new ArrayList<>();
+        if (exportedOn >= 0) {
+            ManifestEntity manifest = new ManifestEntity();
+            manifest.exportedOn = new Date(exportedOn);
+            entities.add(manifest);
+        }
+        for (int idx = 0; idx < contents; idx++) {
+            ContentEntity content = new ContentEntity();
+            content.contentId = idx;
+            entities.add(content);
+        }
+        for (int idx = 0; idx < versions; idx++) {
+            ArtifactVersionEntity version = new ArtifactVersionEntity();
+            version.globalId = idx;
+            entities.add(version);
+        }
+        return entities;
+    }
+
+    private static EntityInputStream stream(List<Entity> entities) {
+        Iterator<Entity> iterator = entities.iterator();
+        return new EntityInputStream() {
+            @Override
+            public Entity nextEntity() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+}
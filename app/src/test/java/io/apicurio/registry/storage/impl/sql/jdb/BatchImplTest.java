@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.sql.jdb;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the flushing and the update counts of the {@link BatchImpl}, against an in-memory H2 database.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class BatchImplTest {
+
+    private Connection connection;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    public void connect() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:batch");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE labels (globalId BIGINT NOT NULL, label VARCHAR(256) NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    public void disconnect() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE labels");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testFlushBoundary() throws SQLException {
+        Assertions.assertEquals(0, insert(0));
+        Assertions.assertEquals(0, executions.get());
+
+        Assertions.assertEquals(BatchImpl.MAX_BATCH_SIZE, insert(BatchImpl.MAX_BATCH_SIZE));
+        Assertions.assertEquals(1, executions.get());
+
+        executions.set(0);
+        Assertions.assertEquals(2 * BatchImpl.MAX_BATCH_SIZE + 1, insert(2 * BatchImpl.MAX_BATCH_SIZE + 1));
+        Assertions.assertEquals(3, executions.get());
+        Assertions.assertEquals(3 * BatchImpl.MAX_BATCH_SIZE + 1, countRows());
+    }
+
+    @Test
+    public void testUpdateCounts() {
+        insert(10);
+        Batch batch = new BatchImpl(countingConnection(), "UPDATE labels SET label = ? WHERE globalId = ?");
+        batch.bind(0, "updated").bind(1, 3L).add();
+        batch.bind(0, "updated").bind(1, 100L).add();
+        batch.bind(0, "updated").bind(1, 7L).add();
+        Assertions.assertEquals(2, batch.execute());
+
+        // The rows are cleared once executed.
+        Assertions.assertEquals(0, batch.execute());
+    }
+
+    private int insert(int rows) {
+        Batch batch = new BatchImpl(countingConnection(), "INSERT INTO labels (globalId, label) VALUES (?, ?)");
+        for (long idx = 0; idx < rows; idx++) {
+            batch.bind(0, idx).bind(1, "label-" + idx).add();
+        }
+        return batch.execute();
+    }
+
+    private int countRows() throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM labels")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Wraps the connection, to count the batches sent to the database.
+     */
+    private Connection countingConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement) {
+                        PreparedStatement statement = (PreparedStatement) result;
+                        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                                (p, m, a) -> {
+                                    if (m.getName().equals("executeBatch")) {
+                                        executions.incrementAndGet();
+                                    }
+                                    return invoke(statement, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
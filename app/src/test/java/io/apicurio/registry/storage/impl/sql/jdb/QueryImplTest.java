@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.sql.jdb;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a {@link QueryImpl} with a fetch size always turns the auto-commit of the connection back on,
+ * against an in-memory H2 database.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class QueryImplTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void connect() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:query");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE labels (globalId BIGINT NOT NULL, label VARCHAR(256) NOT NULL)");
+            statement.execute("INSERT INTO labels (globalId, label) VALUES (1, 'label-1')");
+        }
+    }
+
+    @AfterEach
+    public void disconnect() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE labels");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testAutoCommitRestoredWhenClosed() throws SQLException {
+        List<String> labels = new QueryImpl(connection, "SELECT label FROM labels WHERE globalId = ?")
+                .bind(0, 1L)
+                .setFetchSize(10)
+                .mapTo(String.class)
+                .list();
+        Assertions.assertEquals(List.of("label-1"), labels);
+        Assertions.assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    public void testAutoCommitRestoredOnFailure() throws SQLException {
+        Assertions.assertThrows(RuntimeSqlException.class, () -> new QueryImpl(connection, "SELECT label FROM missing")
+                .setFetchSize(10)
+                .mapTo(String.class));
+        Assertions.assertTrue(connection.getAutoCommit());
+
+        // Binding an index out of range fails after the statement was prepared
+        Assertions.assertThrows(RuntimeSqlException.class, () -> new QueryImpl(connection, "SELECT label FROM labels")
+                .bind(0, 1L)
+                .setFetchSize(10)
+                .mapTo(String.class));
+        Assertions.assertTrue(connection.getAutoCommit());
+    }
+
+}
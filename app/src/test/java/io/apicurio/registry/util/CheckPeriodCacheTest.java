@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.utils.CheckPeriodCache;
+
+/**
+ * Checks the expiry, refresh, negative caching and eviction of the {@link CheckPeriodCache}, with a fake clock.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class CheckPeriodCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String key) {
+        return key + "-" + loads.incrementAndGet();
+    }
+
+    private CheckPeriodCache.Builder<String, String> builder() {
+        // background loads run right away, on the calling thread
+        return CheckPeriodCache.<String, String>builder().clock(now::get).executor(Runnable::run);
+    }
+
+    @Test
+    public void testCheckPeriod() {
+        CheckPeriodCache<String, String> cache = builder().checkPeriod(100).build();
+
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        now.addAndGet(100);
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        Assertions.assertEquals("a-1", cache.get("a"));
+        now.addAndGet(1);
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals("a-1", cache.getStale("a"));
+        Assertions.assertEquals("a-2", cache.compute("a", this::load));
+
+        CheckPeriodCache.Stats stats = cache.stats();
+        Assertions.assertEquals(2, stats.getHitCount());
+        Assertions.assertEquals(3, stats.getMissCount());
+        Assertions.assertEquals(2, stats.getLoadSuccessCount());
+    }
+
+    @Test
+    public void testRefreshAhead() {
+        CheckPeriodCache<String, String> cache = builder().checkPeriod(100).refreshPeriod(50).build();
+
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        now.addAndGet(60);
+        // served, and reloaded in the background
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        Assertions.assertEquals("a-2", cache.compute("a", this::load));
+        Assertions.assertEquals(0, cache.stats().getStaleHitCount());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        CheckPeriodCache<String, String> cache = builder().checkPeriod(100).staleWhileRevalidate(100).build();
+
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        now.addAndGet(150);
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        Assertions.assertEquals("a-2", cache.compute("a", this::load));
+        Assertions.assertEquals(1, cache.stats().getStaleHitCount());
+
+        // too stale
+        now.addAndGet(250);
+        Assertions.assertEquals("a-3", cache.compute("a", this::load));
+    }
+
+    @Test
+    public void testFailedRefresh() {
+        CheckPeriodCache<String, String> cache = builder().checkPeriod(100).staleWhileRevalidate(100).build();
+
+        Assertions.assertEquals("a-1", cache.compute("a", this::load));
+        now.addAndGet(150);
+        Assertions.assertEquals("a-1", cache.compute("a", k -> {
+            throw new IllegalStateException("registry down");
+        }));
+        // still the stale value
+        Assertions.assertEquals("a-1", cache.compute("a", k -> {
+            throw new IllegalStateException("registry down");
+        }));
+        Assertions.assertEquals(2, cache.stats().getLoadFailureCount());
+        now.addAndGet(100);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.compute("a", k -> {
+            throw new IllegalStateException("registry down");
+        }));
+    }
+
+    @Test
+    public void testNegativeCaching() {
+        CheckPeriodCache<String, String> cache = builder()
+                .checkPeriod(100)
+                .negativeCheckPeriod(10, e -> e instanceof IllegalArgumentException)
+                .build();
+
+        AtomicInteger failures = new AtomicInteger();
+        for (int idx = 0; idx < 3; idx++) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> cache.compute("missing", k -> {
+                failures.incrementAndGet();
+                throw new IllegalArgumentException("not found");
+            }));
+        }
+        Assertions.assertEquals(1, failures.get());
+        Assertions.assertNull(cache.get("missing"));
+
+        now.addAndGet(11);
+        Assertions.assertEquals("missing-1", cache.compute("missing", this::load));
+
+        // other failures are not cached
+        for (int idx = 0; idx < 2; idx++) {
+            Assertions.assertThrows(IllegalStateException.class, () -> cache.compute("other", k -> {
+                failures.incrementAndGet();
+                throw new IllegalStateException("registry down");
+            }));
+        }
+        Assertions.assertEquals(3, failures.get());
+
+        // null values
+        Assertions.assertNull(cache.compute("null", k -> null));
+        Assertions.assertNull(cache.compute("null", this::load));
+        now.addAndGet(11);
+        Assertions.assertEquals("null-2", cache.compute("null", this::load));
+    }
+
+    @Test
+    public void testMaxSize() {
+        CheckPeriodCache<String, String> cache = builder().checkPeriod(1000).maxSize(10).build();
+
+        for (int idx = 0; idx < 10; idx++) {
+            cache.compute("key" + idx, this::load);
+        }
+        // the first key is the most recently used one
+        cache.compute("key0", this::load);
+        cache.compute("key10", this::load);
+
+        Assertions.assertTrue(cache.size() <= 10);
+        Assertions.assertEquals(2, cache.stats().getEvictionCount());
+        Assertions.assertNotNull(cache.get("key0"));
+        Assertions.assertNotNull(cache.get("key10"));
+        Assertions.assertNull(cache.get("key1"));
+        Assertions.assertNull(cache.get("key2"));
+        Assertions.assertNotNull(cache.get("key3"));
+    }
+
+    @Test
+    public void testSingleLoad() throws Exception {
+        CheckPeriodCache<String, String> cache = new CheckPeriodCache<>(1000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int idx = 0; idx < 4; idx++) {
+            Thread thread = new Thread(() -> {
+                String value = cache.compute("a", k -> {
+                    entered.countDown();
+                    try {
+                        gate.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return load(k);
+                });
+                synchronized (values) {
+                    values.add(value);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS));
+        // other keys are not blocked by the running load
+        Assertions.assertEquals("b-1", cache.compute("b", this::load));
+        long deadline = System.currentTimeMillis() + 10000;
+        // one thread runs the load, the others wait for it
+        while (threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count() < threads.size() - 1) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        gate.countDown();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        Assertions.assertEquals(threads.size(), values.size());
+        values.forEach(value -> Assertions.assertEquals("a-2", value));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.cli;
+
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.IfExists;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.IoUtil;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates several artifacts of a group in a single request.  The artifactId of each artifact is the name of its
+ * file, without the extension.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@CommandLine.Command(name = "batch-create", description = "Create several artifacts of a group at once")
+public class BatchCreateCommand extends GroupCommand {
+    @CommandLine.Option(names = {"-t", "--artifactType"}, description = "Artifact type (of all the artifacts)")
+    ArtifactType artifactType;
+
+    @CommandLine.Option(names = {"-e", "--ifExists"}, description = "What to do with the artifacts that already exist")
+    IfExists ifExists;
+
+    @CommandLine.Parameters(arity = "1..*", description = "Artifact files")
+    List<File> files;
+
+    @Override
+    public void run() {
+        List<ArtifactBatchItem> items = new ArrayList<>();
+        List<InputStream> contents = new ArrayList<>();
+        try {
+            for (File file : files) {
+                String name = file.getName();
+                ArtifactBatchItem item = new ArtifactBatchItem();
+                item.setArtifactId(name.lastIndexOf('.') > 0 ? name.substring(0, name.lastIndexOf('.')) : name);
+                item.setType(artifactType);
+                item.setIfExists(ifExists);
+                items.add(item);
+                contents.add(new FileInputStream(file));
+            }
+            String result = mapper.writeValueAsString(getClient().createArtifacts(groupId, items, contents));
+            println(String.format("Response [%s]: %s", spec.name(), result));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            contents.forEach(IoUtil::closeIgnore);
+        }
+    }
+}
@@ -40,6 +40,7 @@ import io.quarkus.runtime.annotations.QuarkusMain;
                 CommandLine.HelpCommand.class,
                 ListCommand.class,
                 CreateCommand.class,
+                BatchCreateCommand.class,
                 UpdateCommand.class,
                 VersionsCommand.class,
                 GetCommand.class,
@@ -35,6 +35,9 @@ public class ExportCommand extends AbstractCommand {
     @CommandLine.Option(names = {"-f", "--file"}, description = "file to write the registry exported data ", defaultValue = "registry-export.zip")
     File file;
 
+    @CommandLine.Option(names = {"--since-global-id"}, description = "only export the artifact versions with a greater globalId, and their content (incremental export)")
+    Long sinceGlobalId;
+
     /**
      * @see java.lang.Runnable#run()
      */
@@ -46,7 +49,7 @@ public class ExportCommand extends AbstractCommand {
 
             println("Exporting registry data to " + output.getName());
 
-            InputStream export = getClient().exportData();
+            InputStream export = sinceGlobalId == null ? getClient().exportData() : getClient().exportData(sinceGlobalId);
 
             IoUtil.copy(export, fos);
         } catch (IOException e) {
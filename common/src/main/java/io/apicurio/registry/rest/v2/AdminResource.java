@@ -14,6 +14,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 /**
@@ -149,7 +150,7 @@ public interface AdminResource {
   @Path("/export")
   @GET
   @Produces("application/zip")
-  Response exportData();
+  Response exportData(@QueryParam("sinceGlobalId") Long sinceGlobalId);
 
   /**
    * Imports registry data that was previously exported using the `/admin/export` operation.
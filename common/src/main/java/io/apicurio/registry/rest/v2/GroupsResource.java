@@ -15,6 +15,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
@@ -115,6 +116,30 @@ public interface GroupsResource {
   @DELETE
   void deleteArtifactsInGroup(@PathParam("groupId") String groupId);
 
+  /**
+   * Creates several artifacts in the group in a single request.  The body of the request is a ZIP file
+   * with a `batch.json` manifest listing the artifacts, and one entry for the content of each
+   * artifact (named by the `content` property of the artifact in the manifest).  Each artifact of
+   * the manifest supports the options of the `createArtifact` operation (`artifactId`, `version`,
+   * `type`, `ifExists` and `canonical`).
+   *
+   * The artifacts are all written together: in a single database transaction, or as a single
+   * batch of journal messages for the `kafkasql` storage.  The response holds the result of each
+   * artifact, in the order of the manifest: its metadata, or the error that prevented its creation
+   * (for example a `409` error when it already exists or when its content violates a rule).
+   *
+   * This operation may fail for one of the following reasons:
+   *
+   * * The ZIP file or its manifest is invalid, or has too many artifacts (HTTP error `400`)
+   * * A server error occurred (HTTP error `500`)
+   *
+   */
+  @Path("/{groupId}/batch")
+  @POST
+  @Produces("application/json")
+  @Consumes("application/zip")
+  ArtifactBatchResults createArtifacts(@PathParam("groupId") String groupId, InputStream data);
+
   /**
    * Returns the latest version of the artifact in its raw form.  The `Content-Type` of the
    * response depends on the artifact type.  In most cases, this is `application/json`, but
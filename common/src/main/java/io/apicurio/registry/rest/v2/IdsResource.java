@@ -1,6 +1,10 @@
 package io.apicurio.registry.rest.v2;
 
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -57,4 +61,22 @@ public interface IdsResource {
   @GET
   @Produces("*/*")
   Response getContentByHash(@PathParam("contentHash") String contentHash);
+
+  /**
+   * Gets the content of several artifact versions (by `globalId`) and/or contents (by `contentId`)
+   * in a single request, along with the minimal metadata needed to use them (`groupId`, `artifactId`
+   * and `version` for artifact versions).  Identifiers that do not exist (and disabled artifact versions)
+   * are left out of the results.
+   *
+   * This operation may fail for one of the following reasons:
+   *
+   * * Too many identifiers were requested (HTTP error `400`)
+   * * A server error occurred (HTTP error `500`)
+   *
+   */
+  @Path("/lookup")
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  ContentLookupResults lookupContent(ContentLookupRequest data);
 }
@@ -0,0 +1,51 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+
+/**
+ * The manifest (`batch.json`) of a batch of artifacts to create.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "artifacts"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ArtifactBatch {
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("artifacts")
+    @JsonPropertyDescription("")
+    private List<ArtifactBatchItem> artifacts = new ArrayList<ArtifactBatchItem>();
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("artifacts")
+    public List<ArtifactBatchItem> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("artifacts")
+    public void setArtifacts(List<ArtifactBatchItem> artifacts) {
+        this.artifacts = artifacts;
+    }
+
+}
@@ -0,0 +1,181 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.apicurio.registry.types.ArtifactType;
+
+
+/**
+ * An artifact of a batch.  Its properties have the meaning of the headers and query parameters of
+ * the `createArtifact` operation.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "artifactId",
+    "version",
+    "type",
+    "ifExists",
+    "canonical",
+    "content"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ArtifactBatchItem {
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    @JsonPropertyDescription("")
+    private String artifactId;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    @JsonPropertyDescription("")
+    private String version;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    @JsonPropertyDescription("")
+    private ArtifactType type;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("ifExists")
+    @JsonPropertyDescription("")
+    private IfExists ifExists;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("canonical")
+    @JsonPropertyDescription("")
+    private Boolean canonical;
+    /**
+     * The name of the ZIP entry with the content of the artifact.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    @JsonPropertyDescription("The name of the ZIP entry with the content of the artifact.")
+    private String content;
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    public ArtifactType getType() {
+        return type;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    public void setType(ArtifactType type) {
+        this.type = type;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("ifExists")
+    public IfExists getIfExists() {
+        return ifExists;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("ifExists")
+    public void setIfExists(IfExists ifExists) {
+        this.ifExists = ifExists;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("canonical")
+    public Boolean getCanonical() {
+        return canonical;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("canonical")
+    public void setCanonical(Boolean canonical) {
+        this.canonical = canonical;
+    }
+
+    /**
+     * The name of the ZIP entry with the content of the artifact.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * The name of the ZIP entry with the content of the artifact.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+}
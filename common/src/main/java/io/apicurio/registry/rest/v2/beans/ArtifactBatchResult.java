@@ -0,0 +1,98 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+
+/**
+ * The result of an artifact of a batch: its metadata, or the error that prevented its creation.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "artifactId",
+    "metaData",
+    "error"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ArtifactBatchResult {
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    @JsonPropertyDescription("")
+    private String artifactId;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("metaData")
+    @JsonPropertyDescription("")
+    private ArtifactMetaData metaData;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("error")
+    @JsonPropertyDescription("")
+    private Error error;
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("metaData")
+    public ArtifactMetaData getMetaData() {
+        return metaData;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("metaData")
+    public void setMetaData(ArtifactMetaData metaData) {
+        this.metaData = metaData;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("error")
+    public Error getError() {
+        return error;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("error")
+    public void setError(Error error) {
+        this.error = error;
+    }
+
+}
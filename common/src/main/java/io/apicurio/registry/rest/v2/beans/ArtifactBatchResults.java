@@ -0,0 +1,51 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+
+/**
+ * The results of a batch of artifacts, in the order of the manifest.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "results"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ArtifactBatchResults {
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    @JsonPropertyDescription("")
+    private List<ArtifactBatchResult> results = new ArrayList<ArtifactBatchResult>();
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    public List<ArtifactBatchResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    public void setResults(List<ArtifactBatchResult> results) {
+        this.results = results;
+    }
+
+}
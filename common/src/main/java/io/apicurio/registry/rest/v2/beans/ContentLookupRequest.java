@@ -0,0 +1,74 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+
+/**
+ * The identifiers of the artifact versions and contents to look up.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "globalIds",
+    "contentIds"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ContentLookupRequest {
+
+    /**
+     * Global identifiers of artifact versions.
+     * 
+     */
+    @JsonProperty("globalIds")
+    @JsonPropertyDescription("Global identifiers of artifact versions.")
+    private List<Long> globalIds = new ArrayList<Long>();
+    /**
+     * Identifiers of artifact contents.
+     * 
+     */
+    @JsonProperty("contentIds")
+    @JsonPropertyDescription("Identifiers of artifact contents.")
+    private List<Long> contentIds = new ArrayList<Long>();
+
+    /**
+     * Global identifiers of artifact versions.
+     * 
+     */
+    @JsonProperty("globalIds")
+    public List<Long> getGlobalIds() {
+        return globalIds;
+    }
+
+    /**
+     * Global identifiers of artifact versions.
+     * 
+     */
+    @JsonProperty("globalIds")
+    public void setGlobalIds(List<Long> globalIds) {
+        this.globalIds = globalIds;
+    }
+
+    /**
+     * Identifiers of artifact contents.
+     * 
+     */
+    @JsonProperty("contentIds")
+    public List<Long> getContentIds() {
+        return contentIds;
+    }
+
+    /**
+     * Identifiers of artifact contents.
+     * 
+     */
+    @JsonProperty("contentIds")
+    public void setContentIds(List<Long> contentIds) {
+        this.contentIds = contentIds;
+    }
+
+}
@@ -0,0 +1,207 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.apicurio.registry.types.ArtifactType;
+
+
+/**
+ * The content of an artifact version (looked up by `globalId`) or of a content (looked up by `contentId`).
+ * The artifact version metadata is only set for the former.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "globalId",
+    "contentId",
+    "groupId",
+    "artifactId",
+    "version",
+    "type",
+    "content"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ContentLookupResult {
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("globalId")
+    @JsonPropertyDescription("")
+    private Long globalId;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("contentId")
+    @JsonPropertyDescription("")
+    private Long contentId;
+    /**
+     * An ID of a single artifact group.
+     * 
+     */
+    @JsonProperty("groupId")
+    @JsonPropertyDescription("An ID of a single artifact group.")
+    private String groupId;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    @JsonPropertyDescription("")
+    private String artifactId;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    @JsonPropertyDescription("")
+    private String version;
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    @JsonPropertyDescription("")
+    private ArtifactType type;
+    /**
+     * The content of the artifact version.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    @JsonPropertyDescription("The content of the artifact version.")
+    private String content;
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("globalId")
+    public Long getGlobalId() {
+        return globalId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("globalId")
+    public void setGlobalId(Long globalId) {
+        this.globalId = globalId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("contentId")
+    public Long getContentId() {
+        return contentId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("contentId")
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    /**
+     * An ID of a single artifact group.
+     * 
+     */
+    @JsonProperty("groupId")
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * An ID of a single artifact group.
+     * 
+     */
+    @JsonProperty("groupId")
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("artifactId")
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("version")
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    public ArtifactType getType() {
+        return type;
+    }
+
+    /**
+     * 
+     * 
+     */
+    @JsonProperty("type")
+    public void setType(ArtifactType type) {
+        this.type = type;
+    }
+
+    /**
+     * The content of the artifact version.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * The content of the artifact version.
+     * (Required)
+     * 
+     */
+    @JsonProperty("content")
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+}
@@ -0,0 +1,51 @@
+package io.apicurio.registry.rest.v2.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+
+/**
+ * The artifact versions and contents found by a content lookup.
+ * 
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "results"
+})
+@io.quarkus.runtime.annotations.RegisterForReflection
+public class ContentLookupResults {
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    @JsonPropertyDescription("")
+    private List<ContentLookupResult> results = new ArrayList<ContentLookupResult>();
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    public List<ContentLookupResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 
+     * (Required)
+     * 
+     */
+    @JsonProperty("results")
+    public void setResults(List<ContentLookupResult> results) {
+        this.results = results;
+    }
+
+}
@@ -16,78 +16,441 @@
 
 package io.apicurio.registry.utils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 /**
+ * A cache whose values are loaded again once their check period has passed.
+ * <p>
+ * On top of that, and only when configured with {@link #builder()}:
+ * <ul>
+ * <li>a max size, beyond which the least recently used entries are evicted</li>
+ * <li>refresh-ahead: values older than the refresh period (but still fresh) are reloaded in the background</li>
+ * <li>stale-while-revalidate: for a while after their check period, values are still served while they are reloaded in the background</li>
+ * <li>negative caching: a "not found" failure (like a null value) is kept for the negative check period, rather than loaded again on every call</li>
+ * </ul>
+ * Loads are never run under a map lock, and concurrent loads of the same key share a single call to the loader.
+ *
  * @author Fabian Martinez
  */
 public class CheckPeriodCache<K, V> {
 
-    private Map<K, CheckValue<V>> cache = new ConcurrentHashMap<>();
-    private long checkPeriodMillis = 0;
+    private final Map<K, CheckValue<V>> cache = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<CheckValue<V>>> loading = new ConcurrentHashMap<>();
+
+    private final long checkPeriodMillis;
+    private final long refreshPeriodMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long negativeCheckPeriodMillis;
+    private final Predicate<Throwable> notFound;
+    private final long maxSize;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong accessTicks = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
 
     public CheckPeriodCache(long checkPeriodMillis) {
-        this.checkPeriodMillis = checkPeriodMillis;
+        this(CheckPeriodCache.<K, V>builder().checkPeriod(checkPeriodMillis));
+    }
+
+    private CheckPeriodCache(Builder<K, V> builder) {
+        this.checkPeriodMillis = builder.checkPeriodMillis;
+        this.refreshPeriodMillis = builder.refreshPeriodMillis < 0 ? builder.checkPeriodMillis : builder.refreshPeriodMillis;
+        this.staleWhileRevalidateMillis = builder.staleWhileRevalidateMillis;
+        this.negativeCheckPeriodMillis = builder.negativeCheckPeriodMillis < 0 ? builder.checkPeriodMillis : builder.negativeCheckPeriodMillis;
+        this.notFound = builder.notFound;
+        this.maxSize = builder.maxSize;
+        this.executor = builder.executor;
+        this.clock = builder.clock;
     }
 
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns the cached value, or loads it when there is none (or it expired).  May return a value being
+     * reloaded in the background (refresh-ahead, stale-while-revalidate), and null for a (cached) null value.
+     * @param k
+     * @param remappingFunction the loader
+     */
     public V compute(K k, Function<K, V> remappingFunction) {
-        CheckValue<V> returnValue = cache.compute(k, (key, checkedValue) -> {
-            long now = System.currentTimeMillis();
-            if (checkedValue == null) {
-                V value = remappingFunction.apply(key);
-                return new CheckValue<>(now, value);
-            } else {
-                if (checkedValue.lastUpdate + checkPeriodMillis < now) {
-                    V value = remappingFunction.apply(key);
-                    checkedValue.lastUpdate = now;
-                    checkedValue.value = value;
+        CheckValue<V> checkedValue = cache.get(k);
+        if (checkedValue != null) {
+            long age = clock.getAsLong() - checkedValue.lastUpdate;
+            if (age <= checkedValue.checkPeriod) {
+                hitCount.increment();
+                touch(checkedValue);
+                if (!checkedValue.isNegative() && age > refreshPeriodMillis) {
+                    load(k, remappingFunction, executor);
                 }
-                return checkedValue;
+                return checkedValue.get();
+            }
+            if (!checkedValue.isNegative() && age <= checkPeriodMillis + staleWhileRevalidateMillis) {
+                staleHitCount.increment();
+                touch(checkedValue);
+                load(k, remappingFunction, executor);
+                return checkedValue.value;
+            }
+        }
+        missCount.increment();
+        try {
+            return load(k, remappingFunction, Runnable::run).join().get();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
             }
-        });
-        return returnValue.value;
+            throw e;
+        }
     }
 
     public void put(K k, V v) {
-        cache.put(k, new CheckValue<>(System.currentTimeMillis(), v));
+        cache.put(k, new CheckValue<>(clock.getAsLong(), checkPeriodMillis, v, null));
+        evictIfNeeded();
     }
 
+    /**
+     * Returns the cached value, or null if there is none or its check period has passed.  Expired values are
+     * left in place (to be replaced by the next {@link #compute(Object, Function)} or {@link #put(Object, Object)}),
+     * so reads never lock the map.
+     */
     public V get(K k) {
-        CheckValue<V> value = cache.compute(k, (key, checkedValue) -> {
-            if (checkedValue == null) {
-                return null;
-            } else {
-                long now = System.currentTimeMillis();
-                if (checkedValue.lastUpdate + checkPeriodMillis < now) {
-                    //value expired
-                    return null;
-                } else {
-                    return checkedValue;
-                }
-            }
-        });
-        return value == null ? null : value.value;
+        CheckValue<V> checkedValue = cache.get(k);
+        if (checkedValue == null || checkedValue.isNegative() || checkedValue.lastUpdate + checkedValue.checkPeriod < clock.getAsLong()) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        touch(checkedValue);
+        return checkedValue.value;
+    }
+
+    /**
+     * Returns the cached value even if its check period has passed, or null if there is none.  Meant for
+     * serving a stale value while it is being refreshed.
+     */
+    public V getStale(K k) {
+        CheckValue<V> checkedValue = cache.get(k);
+        return checkedValue == null ? null : checkedValue.value;
     }
 
     public void remove(K k) {
+        loading.remove(k);
         cache.remove(k);
     }
 
     public void clear() {
+        loading.clear();
         cache.clear();
     }
 
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * A snapshot of the statistics of this cache.
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), staleHitCount.sum(), missCount.sum(), loadSuccessCount.sum(),
+                loadFailureCount.sum(), totalLoadTimeNanos.sum(), evictionCount.sum());
+    }
+
+    /**
+     * Loads the value of the given key on the given executor, unless it's already being loaded.
+     */
+    private CompletableFuture<CheckValue<V>> load(K k, Function<K, V> loader, Executor executor) {
+        CompletableFuture<CheckValue<V>> result = new CompletableFuture<>();
+        CompletableFuture<CheckValue<V>> inFlight = loading.putIfAbsent(k, result);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                CheckValue<V> checkedValue = null;
+                RuntimeException failure = null;
+                try {
+                    V value = loader.apply(k);
+                    loadSuccessCount.increment();
+                    checkedValue = new CheckValue<>(clock.getAsLong(), value == null ? negativeCheckPeriodMillis : checkPeriodMillis, value, null);
+                } catch (RuntimeException e) {
+                    loadFailureCount.increment();
+                    if (negativeCheckPeriodMillis > 0 && notFound.test(e)) {
+                        checkedValue = new CheckValue<>(clock.getAsLong(), negativeCheckPeriodMillis, null, e);
+                    } else {
+                        failure = e;
+                    }
+                } catch (Error e) {
+                    loadFailureCount.increment();
+                    loading.remove(k, result);
+                    result.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    totalLoadTimeNanos.add(System.nanoTime() - start);
+                }
+                // unless the key was removed meanwhile
+                if (loading.get(k) == result) {
+                    if (checkedValue != null && !(checkedValue.isNegative() && negativeCheckPeriodMillis <= 0)) {
+                        cache.put(k, checkedValue);
+                        evictIfNeeded();
+                    } else if (checkedValue != null) {
+                        // nothing to keep, not even a negative entry
+                        cache.remove(k);
+                    }
+                }
+                loading.remove(k, result);
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(checkedValue);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(k, result);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void touch(CheckValue<V> checkedValue) {
+        if (maxSize > 0) {
+            checkedValue.lastAccess = accessTicks.incrementAndGet();
+        }
+    }
+
+    /**
+     * Once over the max size, evicts the least recently used entries, a tenth of the max size at a time (so that
+     * the entries are not sorted on every insert).  Runs on a single thread at a time, the others don't wait.
+     */
+    private void evictIfNeeded() {
+        if (maxSize <= 0 || cache.size() <= maxSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long excess = cache.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<K, CheckValue<V>>> entries = new ArrayList<>(cache.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            long toEvict = Math.min(entries.size(), excess + maxSize / 10);
+            for (int idx = 0; idx < toEvict; idx++) {
+                Map.Entry<K, CheckValue<V>> entry = entries.get(idx);
+                if (cache.remove(entry.getKey(), entry.getValue())) {
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
     private static class CheckValue<V> {
 
-        CheckValue(long ts, V value) {
+        CheckValue(long ts, long checkPeriod, V value, RuntimeException notFound) {
             this.lastUpdate = ts;
+            this.checkPeriod = checkPeriod;
             this.value = value;
+            this.notFound = notFound;
+        }
+
+        final long lastUpdate;
+        final long checkPeriod;
+        final V value;
+        final RuntimeException notFound;
+        volatile long lastAccess;
+
+        boolean isNegative() {
+            return value == null;
+        }
+
+        V get() {
+            if (notFound != null) {
+                throw notFound;
+            }
+            return value;
+        }
+    }
+
+    public static class Builder<K, V> {
+
+        private long checkPeriodMillis = 0;
+        private long refreshPeriodMillis = -1;
+        private long staleWhileRevalidateMillis = 0;
+        private long negativeCheckPeriodMillis = -1;
+        private Predicate<Throwable> notFound = e -> false;
+        private long maxSize = 0;
+        private Executor executor = ForkJoinPool.commonPool();
+        private LongSupplier clock = System::currentTimeMillis;
+
+        Builder() {
+        }
+
+        /**
+         * How long a value is served before it's loaded again.
+         */
+        public Builder<K, V> checkPeriod(long checkPeriodMillis) {
+            this.checkPeriodMillis = checkPeriodMillis;
+            return Builder.this;
+        }
+
+        /**
+         * How old a (still fresh) value can get before it's reloaded in the background.  Defaults to the check
+         * period, i.e. no refresh-ahead.
+         */
+        public Builder<K, V> refreshPeriod(long refreshPeriodMillis) {
+            this.refreshPeriodMillis = refreshPeriodMillis;
+            return Builder.this;
+        }
+
+        /**
+         * How long after its check period a value is still served, while it's reloaded in the background.
+         */
+        public Builder<K, V> staleWhileRevalidate(long staleWhileRevalidateMillis) {
+            this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+            return Builder.this;
+        }
+
+        /**
+         * How long a null value, or a failure matching the given predicate, is cached.  By default null values
+         * are cached for the check period, and failures are not cached.
+         */
+        public Builder<K, V> negativeCheckPeriod(long negativeCheckPeriodMillis, Predicate<Throwable> notFound) {
+            this.negativeCheckPeriodMillis = negativeCheckPeriodMillis;
+            this.notFound = notFound;
+            return Builder.this;
+        }
+
+        /**
+         * The max number of entries, 0 (the default) for no limit.
+         */
+        public Builder<K, V> maxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return Builder.this;
+        }
+
+        /**
+         * Runs the background reloads, the common pool by default.
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = executor;
+            return Builder.this;
+        }
+
+        /**
+         * The time source, in milliseconds.
+         */
+        public Builder<K, V> clock(LongSupplier clock) {
+            this.clock = clock;
+            return Builder.this;
+        }
+
+        public CheckPeriodCache<K, V> build() {
+            return new CheckPeriodCache<>(Builder.this);
+        }
+    }
+
+    /**
+     * Hit, miss, load and eviction counts of a {@link CheckPeriodCache}.
+     */
+    public static class Stats {
+
+        private final long hitCount;
+        private final long staleHitCount;
+        private final long missCount;
+        private final long loadSuccessCount;
+        private final long loadFailureCount;
+        private final long totalLoadTimeNanos;
+        private final long evictionCount;
+
+        Stats(long hitCount, long staleHitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+                long totalLoadTimeNanos, long evictionCount) {
+            this.hitCount = hitCount;
+            this.staleHitCount = staleHitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTimeNanos = totalLoadTimeNanos;
+            this.evictionCount = evictionCount;
+        }
+
+        /**
+         * Fresh values served.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Expired values served while they were reloaded.
+         */
+        public long getStaleHitCount() {
+            return staleHitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getLoadSuccessCount() {
+            return loadSuccessCount;
         }
 
-        long lastUpdate;
-        V value;
+        public long getLoadFailureCount() {
+            return loadFailureCount;
+        }
+
+        public long getTotalLoadTimeNanos() {
+            return totalLoadTimeNanos;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public double hitRate() {
+            long requests = hitCount + staleHitCount + missCount;
+            return requests == 0 ? 1.0 : (double) (hitCount + staleHitCount) / requests;
+        }
+
+        public double averageLoadPenaltyNanos() {
+            long loads = loadSuccessCount + loadFailureCount;
+            return loads == 0 ? 0.0 : (double) totalLoadTimeNanos / loads;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats [hitCount=" + hitCount + ", staleHitCount=" + staleHitCount + ", missCount=" + missCount
+                    + ", loadSuccessCount=" + loadSuccessCount + ", loadFailureCount=" + loadFailureCount
+                    + ", totalLoadTimeNanos=" + totalLoadTimeNanos + ", evictionCount=" + evictionCount + "]";
+        }
     }
 
 }
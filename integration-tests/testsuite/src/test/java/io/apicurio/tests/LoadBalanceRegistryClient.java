@@ -24,8 +24,12 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import io.apicurio.registry.rest.client.RegistryClient;
 import io.apicurio.registry.rest.client.RegistryClientFactory;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
 import io.apicurio.registry.rest.v2.beans.IfExists;
 import io.apicurio.registry.rest.v2.beans.LogConfiguration;
@@ -443,6 +447,18 @@ public class LoadBalanceRegistryClient implements RegistryClient {
         getTarget().deleteArtifactsInGroup(groupId);
     }
 
+    /**
+     * @param groupId
+     * @param items
+     * @param contents
+     * @return
+     * @see io.apicurio.registry.rest.client.RegistryClient#createArtifacts(java.lang.String, java.util.List, java.util.List)
+     */
+    @Override
+    public ArtifactBatchResults createArtifacts(String groupId, List<ArtifactBatchItem> items, List<InputStream> contents) {
+        return getTarget().createArtifacts(groupId, items, contents);
+    }
+
     /**
      * @param contentId
      * @return
@@ -484,6 +500,16 @@ public class LoadBalanceRegistryClient implements RegistryClient {
         return getTarget().getContentByHash(contentHash);
     }
 
+    /**
+     * @param request
+     * @return
+     * @see io.apicurio.registry.rest.client.RegistryClient#lookupContent(io.apicurio.registry.rest.v2.beans.ContentLookupRequest)
+     */
+    @Override
+    public ContentLookupResults lookupContent(ContentLookupRequest request) {
+        return getTarget().lookupContent(request);
+    }
+
     /**
      * @param group
      * @param name
@@ -643,6 +669,14 @@ public class LoadBalanceRegistryClient implements RegistryClient {
         return getTarget().exportData();
     }
 
+    /**
+     * @see io.apicurio.registry.rest.client.RegistryClient#exportData(long)
+     */
+    @Override
+    public InputStream exportData(long sinceGlobalId) {
+        return getTarget().exportData(sinceGlobalId);
+    }
+
     /**
      * @see io.apicurio.registry.rest.client.RegistryClient#importData(java.io.InputStream)
      */
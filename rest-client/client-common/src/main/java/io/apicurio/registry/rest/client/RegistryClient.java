@@ -17,8 +17,12 @@
 package io.apicurio.registry.rest.client;
 
 
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
 import io.apicurio.registry.rest.v2.beans.IfExists;
 import io.apicurio.registry.rest.v2.beans.LogConfiguration;
@@ -114,6 +118,12 @@ public interface RegistryClient {
 
 	void deleteArtifactsInGroup(String groupId);
 
+    /**
+     * Creates several artifacts of a group in a single request.  The content of each item is the content at the same
+     * index (the content property of the items is ignored), the results are in the order of the items.
+     */
+    ArtifactBatchResults createArtifacts(String groupId, List<ArtifactBatchItem> items, List<InputStream> contents);
+
 	InputStream getContentById(long contentId);
 
 	InputStream getContentByGlobalId(long globalId);
@@ -124,6 +134,19 @@ public interface RegistryClient {
         return getContentByHash(contentHash, null);
     };
 
+    /**
+     * Gets the content (and minimal metadata) of several artifact versions and/or contents in a single request.
+     * Identifiers that do not exist are left out of the results.
+     */
+    ContentLookupResults lookupContent(ContentLookupRequest request);
+
+    default ContentLookupResults lookupContent(List<Long> globalIds, List<Long> contentIds) {
+        ContentLookupRequest request = new ContentLookupRequest();
+        request.setGlobalIds(globalIds);
+        request.setContentIds(contentIds);
+        return lookupContent(request);
+    }
+
 	ArtifactSearchResults searchArtifacts(String group, String name, String description, List<String> labels,
 	        List<String> properties, SortBy orderBy, SortOrder order, Integer offset, Integer limit);
 
@@ -151,6 +174,11 @@ public interface RegistryClient {
 
 	InputStream exportData();
 
+	/**
+	 * Exports the artifact versions with a globalId greater than the given one, and their content.
+	 */
+	InputStream exportData(long sinceGlobalId);
+
 	void importData(InputStream data);
 
 	void setNextRequestHeaders(Map<String, String> requestHeaders);
@@ -28,4 +28,7 @@ public class ClientConfig {
     public static final String REGISTRY_REQUEST_KEYSTORE_PASSWORD = REGISTRY_REQUEST_KEYSTORE_PREFIX + ".password";
     public static final String REGISTRY_REQUEST_KEY_PASSWORD = "apicurio.registry.request.ssl.key.password";
     public static final String REGISTRY_CLIENT_DISABLE_AUTO_BASE_PATH_APPEND = "apicurio.registry.client.disable-auto-basepath-append";
+    public static final String REGISTRY_CLIENT_HTTP_VERSION = "apicurio.registry.client.http-version";
+    public static final String REGISTRY_CLIENT_HTTP_VERSION_DEFAULT = "HTTP_1_1";
+    public static final String REGISTRY_CLIENT_COMPRESSION_ENABLED = "apicurio.registry.client.compression.enabled";
 }
@@ -27,8 +27,12 @@ import io.apicurio.registry.rest.client.request.provider.AdminRequestsProvider;
 import io.apicurio.registry.rest.client.request.provider.GroupRequestsProvider;
 import io.apicurio.registry.rest.client.request.provider.IdRequestsProvider;
 import io.apicurio.registry.rest.client.request.provider.SearchRequestsProvider;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
 import io.apicurio.registry.rest.v2.beans.Error;
 import io.apicurio.registry.rest.v2.beans.IfExists;
@@ -233,6 +237,20 @@ public class RegistryClientImpl implements RegistryClient {
         registryHttpClient.sendRequest(GroupRequestsProvider.deleteArtifactsInGroup(normalizeGid(groupId)));
     }
 
+    @Override
+    public ArtifactBatchResults createArtifacts(String groupId, List<ArtifactBatchItem> items, List<InputStream> contents) {
+        for (ArtifactBatchItem item : items) {
+            if (item.getArtifactId() != null && !ArtifactIdValidator.isArtifactIdAllowed(item.getArtifactId())) {
+                throw new InvalidArtifactIdException();
+            }
+        }
+        try {
+            return registryHttpClient.sendRequest(GroupRequestsProvider.createArtifacts(normalizeGid(groupId), items, contents));
+        } catch (JsonProcessingException e) {
+            throw parseSerializationError(e);
+        }
+    }
+
     @Override
     public InputStream getContentById(long contentId) {
         return registryHttpClient.sendRequest(IdRequestsProvider.getContentById(contentId));
@@ -249,6 +267,15 @@ public class RegistryClientImpl implements RegistryClient {
         return registryHttpClient.sendRequest(IdRequestsProvider.getContentByHash(contentHash, canonical, queryParams));
     }
 
+    @Override
+    public ContentLookupResults lookupContent(ContentLookupRequest request) {
+        try {
+            return registryHttpClient.sendRequest(IdRequestsProvider.lookupContent(request));
+        } catch (JsonProcessingException e) {
+            throw parseSerializationError(e);
+        }
+    }
+
     @Override
     public ArtifactSearchResults searchArtifacts(String group, String name, String
             description, List<String> labels, List<String> properties, SortBy orderBy, SortOrder order, Integer offset, Integer limit) {
@@ -349,6 +376,13 @@ public class RegistryClientImpl implements RegistryClient {
         return registryHttpClient.sendRequest(AdminRequestsProvider.exportData());
     }
 
+    @Override
+    public InputStream exportData(long sinceGlobalId) {
+        Map<String, List<String>> queryParams = new HashMap<>();
+        queryParams.put("sinceGlobalId", Collections.singletonList(String.valueOf(sinceGlobalId)));
+        return registryHttpClient.sendRequest(AdminRequestsProvider.exportData(queryParams));
+    }
+
     @Override
     public void importData(InputStream data) {
         registryHttpClient.sendRequest(AdminRequestsProvider.importData(data));
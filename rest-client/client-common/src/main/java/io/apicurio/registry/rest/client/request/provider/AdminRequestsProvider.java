@@ -27,6 +27,7 @@ import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.utils.IoUtil;
 
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -149,9 +150,14 @@ public class AdminRequestsProvider {
     }
 
     public static Request<InputStream> exportData() {
+        return exportData(Collections.emptyMap());
+    }
+
+    public static Request<InputStream> exportData(Map<String, List<String>> queryParams) {
         return new Request.RequestBuilder<InputStream>()
                 .operation(GET)
                 .path(EXPORT_PATH)
+                .queryParams(queryParams)
                 .responseType(new TypeReference<InputStream>() {
                 })
                 .headers(new HashMap<>(Map.of(Request.ACCEPT, "application/zip")))
@@ -20,6 +20,9 @@ import io.apicurio.registry.rest.client.request.Request;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatch;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResults;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.ArtifactSearchResults;
 import io.apicurio.registry.rest.v2.beans.EditableMetaData;
@@ -30,9 +33,15 @@ import io.apicurio.registry.rest.v2.beans.VersionSearchResults;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.utils.IoUtil;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * @author Carles Arnal 'carnalca@redhat.com'
@@ -40,6 +49,7 @@ import java.util.Map;
 public class GroupRequestsProvider {
 
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String BATCH_MANIFEST = "batch.json";
 
     public static Request<Void> deleteArtifactsInGroup(String groupId) {
         return new Request.RequestBuilder<Void>()
@@ -64,6 +74,48 @@ public class GroupRequestsProvider {
                 .build();
     }
 
+    /**
+     * The batch is sent as a ZIP file, with an entry for the content of each item and the batch.json manifest.
+     */
+    public static Request<ArtifactBatchResults> createArtifacts(String groupId, List<ArtifactBatchItem> items, List<InputStream> contents) throws JsonProcessingException {
+        ArtifactBatch batch = new ArtifactBatch();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(data)) {
+            for (int idx = 0; idx < items.size(); idx++) {
+                ArtifactBatchItem item = items.get(idx);
+                ArtifactBatchItem entry = new ArtifactBatchItem();
+                entry.setArtifactId(item.getArtifactId());
+                entry.setVersion(item.getVersion());
+                entry.setType(item.getType());
+                entry.setIfExists(item.getIfExists());
+                entry.setCanonical(item.getCanonical());
+                entry.setContent("content/" + idx);
+                batch.getArtifacts().add(entry);
+
+                zip.putNextEntry(new ZipEntry(entry.getContent()));
+                IoUtil.copy(contents.get(idx), zip);
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry(BATCH_MANIFEST));
+            zip.write(mapper.writeValueAsBytes(batch));
+            zip.closeEntry();
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Request.RequestBuilder<ArtifactBatchResults>()
+                .operation(Operation.POST)
+                .path(Routes.GROUP_BATCH_PATH)
+                .headers(new HashMap<>(Map.of(Request.CONTENT_TYPE, "application/zip")))
+                .pathParams(List.of(groupId))
+                .responseType(new TypeReference<ArtifactBatchResults>() {
+                })
+                .data(IoUtil.toStream(data.toByteArray()))
+                .build();
+    }
+
     public static Request<ArtifactSearchResults> listArtifactsInGroup(String groupId, Map<String, List<String>> queryParams) {
         return new Request.RequestBuilder<ArtifactSearchResults>()
                 .operation(Operation.GET)
@@ -17,22 +17,31 @@
 package io.apicurio.registry.rest.client.request.provider;
 
 import io.apicurio.registry.rest.client.request.Request;
+import io.apicurio.registry.rest.v2.beans.ContentLookupRequest;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
+import io.apicurio.registry.utils.IoUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import static io.apicurio.registry.rest.client.request.provider.Operation.GET;
+import static io.apicurio.registry.rest.client.request.provider.Operation.POST;
 import static io.apicurio.registry.rest.client.request.provider.Routes.IDS_CONTENT_HASH;
 import static io.apicurio.registry.rest.client.request.provider.Routes.IDS_CONTENT_ID;
 import static io.apicurio.registry.rest.client.request.provider.Routes.IDS_GLOBAL_ID;
+import static io.apicurio.registry.rest.client.request.provider.Routes.IDS_LOOKUP;
 
 /**
  * @author Carles Arnal 'carnalca@redhat.com'
  */
 public class IdRequestsProvider {
 
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     public static Request<InputStream> getContentByHash(String contentHash, Boolean canonical, Map<String, List<String>> queryParams) {
         return new Request.RequestBuilder<InputStream>()
                 .operation(GET)
@@ -60,4 +69,13 @@ public class IdRequestsProvider {
                 .responseType(new TypeReference<InputStream>(){})
                 .build();
     }
+
+    public static Request<ContentLookupResults> lookupContent(ContentLookupRequest data) throws JsonProcessingException {
+        return new Request.RequestBuilder<ContentLookupResults>()
+                .operation(POST)
+                .path(IDS_LOOKUP)
+                .responseType(new TypeReference<ContentLookupResults>(){})
+                .data(IoUtil.toStream(mapper.writeValueAsBytes(data)))
+                .build();
+    }
 }
@@ -23,6 +23,7 @@ public class Routes {
 
     protected static final String GROUP_BASE_PATH = "groups/%s/artifacts";
     protected static final String ARTIFACT_BASE_PATH = GROUP_BASE_PATH + "/%s";
+    protected static final String GROUP_BATCH_PATH = "groups/%s/batch";
     protected static final String IDS_BASE_PATH = "ids";
     protected static final String ADMIN_BASE_PATH = "admin";
     protected static final String SEARCH_BASE_PATH = "search";
@@ -43,6 +44,7 @@ public class Routes {
     protected static final String IDS_CONTENT_ID = IDS_BASE_PATH + "/contentIds/%s";
     protected static final String IDS_CONTENT_HASH = IDS_BASE_PATH + "/contentHashes/%s";
     protected static final String IDS_GLOBAL_ID = IDS_BASE_PATH + "/globalIds/%s";
+    protected static final String IDS_LOOKUP = IDS_BASE_PATH + "/lookup";
 
     protected static final String RULES_BASE_PATH = ADMIN_BASE_PATH + "/rules";
     protected static final String RULE_PATH = RULES_BASE_PATH + "/%s";
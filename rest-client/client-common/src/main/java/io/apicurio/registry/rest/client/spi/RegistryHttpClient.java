@@ -19,6 +19,7 @@ package io.apicurio.registry.rest.client.spi;
 import io.apicurio.registry.rest.client.request.Request;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Common interface for registry http client implementations
@@ -32,6 +33,21 @@ public interface RegistryHttpClient {
      */
     <T> T sendRequest(Request<T> request);
 
+    /**
+     * Executes the request without blocking the calling thread, when supported by the implementation.  The default
+     * implementation executes it synchronously.
+     * @param request The request to be executed
+     * @param <T> The type of the param to be returned
+     * @return The response from the client, completed exceptionally if the request fails
+     */
+    default <T> CompletableFuture<T> sendRequestAsync(Request<T> request) {
+        try {
+            return CompletableFuture.completedFuture(sendRequest(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * @param headers the request headers to be used in the next request
      */
@@ -23,15 +23,18 @@ import io.apicurio.registry.rest.client.impl.ErrorHandler;
 import io.apicurio.registry.rest.client.request.Request;
 import io.apicurio.registry.rest.client.response.ResponseHandler;
 import io.apicurio.registry.rest.client.spi.RegistryHttpClient;
+import io.apicurio.registry.utils.BooleanUtil;
 import io.apicurio.registry.utils.ConcurrentUtil;
 import io.apicurio.registry.utils.IoUtil;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URIBuilder;
 import org.keycloak.authorization.client.util.HttpResponseException;
@@ -66,12 +69,23 @@ public class VertxHttpClient implements RegistryHttpClient {
         if (!basePath.endsWith("/")) {
             basePath += "/";
         }
-        this.webClient = WebClient.create(vertx);
+        this.webClient = WebClient.create(vertx, webClientOptions(options));
         this.auth = auth;
         this.basePath = basePath;
         addHeaders(options);
     }
 
+    private static WebClientOptions webClientOptions(Map<String, Object> configs) {
+        WebClientOptions options = new WebClientOptions();
+        Object compressionEnabled = configs.get(ClientConfig.REGISTRY_CLIENT_COMPRESSION_ENABLED);
+        options.setTryUseCompression(compressionEnabled == null || BooleanUtil.toBoolean(compressionEnabled));
+        String version = String.valueOf(configs.getOrDefault(ClientConfig.REGISTRY_CLIENT_HTTP_VERSION, ClientConfig.REGISTRY_CLIENT_HTTP_VERSION_DEFAULT));
+        if ("HTTP_2".equals(version)) {
+            options.setProtocolVersion(HttpVersion.HTTP_2);
+        }
+        return options;
+    }
+
     private static void addHeaders(Map<String, Object> configs) {
 
         Map<String, String> requestHeaders = configs.entrySet().stream()
@@ -91,57 +105,73 @@ public class VertxHttpClient implements RegistryHttpClient {
         }
 
         try {
-            final URI uri = buildURI(basePath + request.getRequestPath(), request.getPathParams());
-            final RequestOptions requestOptions = new RequestOptions();
-
-            requestOptions.setHost(uri.getHost());
-            requestOptions.setURI(uri.getPath());
-            requestOptions.setPort(uri.getPort());
-
-            DEFAULT_HEADERS.forEach(requestOptions::addHeader);
-
-            //Add current request headers
-            requestHeaders.get().forEach(requestOptions::addHeader);
-            requestHeaders.remove();
-
-            Map<String, String> headers = request.getHeaders();
-            if (this.auth != null) {
-                //make headers mutable...
-                headers = new HashMap<>(headers);
-                this.auth.apply(headers);
-            }
-            headers.forEach(requestOptions::addHeader);
-
-            CompletableFuture<T> resultHolder;
-
-            switch (request.getOperation()) {
-                case GET:
-                    resultHolder = executeGet(request, requestOptions);
-                    break;
-                case PUT:
-                    resultHolder = executePut(request, requestOptions);
-                    break;
-                case POST:
-                    resultHolder = executePost(request, requestOptions);
-                    break;
-                case DELETE:
-                    resultHolder = executeDelete(request, requestOptions);
-                    break;
-                default:
-                    throw new IllegalStateException("Operation not allowed");
-            }
-
-            return ConcurrentUtil.result(resultHolder);
+            return ConcurrentUtil.result(send(request));
+        } catch (URISyntaxException | HttpResponseException e) {
+            throw parseError(e);
+        }
+    }
 
+    @Override
+    public <T> CompletableFuture<T> sendRequestAsync(Request<T> request) {
+        try {
+            return send(request);
         } catch (URISyntaxException | HttpResponseException e) {
-            if (e.getCause() != null && e.getCause() instanceof RestClientException) {
-                throw (RestClientException) e.getCause();
-            } else {
-                throw ErrorHandler.parseError(e);
-            }
+            return CompletableFuture.failedFuture(parseError(e));
+        }
+    }
+
+    private static RestClientException parseError(Exception e) {
+        if (e.getCause() != null && e.getCause() instanceof RestClientException) {
+            return (RestClientException) e.getCause();
+        } else {
+            return ErrorHandler.parseError(e);
         }
     }
 
+    private <T> CompletableFuture<T> send(Request<T> request) throws URISyntaxException, HttpResponseException {
+        final URI uri = buildURI(basePath + request.getRequestPath(), request.getPathParams());
+        final RequestOptions requestOptions = new RequestOptions();
+
+        requestOptions.setHost(uri.getHost());
+        requestOptions.setURI(uri.getPath());
+        requestOptions.setPort(uri.getPort());
+
+        DEFAULT_HEADERS.forEach(requestOptions::addHeader);
+
+        //Add current request headers
+        requestHeaders.get().forEach(requestOptions::addHeader);
+        requestHeaders.remove();
+
+        Map<String, String> headers = request.getHeaders();
+        if (this.auth != null) {
+            //make headers mutable...
+            headers = new HashMap<>(headers);
+            this.auth.apply(headers);
+        }
+        headers.forEach(requestOptions::addHeader);
+
+        CompletableFuture<T> resultHolder;
+
+        switch (request.getOperation()) {
+            case GET:
+                resultHolder = executeGet(request, requestOptions);
+                break;
+            case PUT:
+                resultHolder = executePut(request, requestOptions);
+                break;
+            case POST:
+                resultHolder = executePost(request, requestOptions);
+                break;
+            case DELETE:
+                resultHolder = executeDelete(request, requestOptions);
+                break;
+            default:
+                throw new IllegalStateException("Operation not allowed");
+        }
+
+        return resultHolder;
+    }
+
     private <T> CompletableFuture<T> executeGet(Request<T> request, RequestOptions requestOptions) {
         return sendRequestWithoutPayload(HttpMethod.GET, request, requestOptions);
     }
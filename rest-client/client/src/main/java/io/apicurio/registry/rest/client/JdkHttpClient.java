@@ -58,6 +58,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -69,6 +71,7 @@ public class JdkHttpClient implements RegistryHttpClient {
 
     private final HttpClient client;
     private final String endpoint;
+    private final boolean compressionEnabled;
     private Auth auth;
     private static final Map<String, String> DEFAULT_HEADERS = new HashMap<>();
     private static final ThreadLocal<Map<String, String>> requestHeaders = ThreadLocal.withInitial(Collections::emptyMap);
@@ -88,11 +91,16 @@ public class JdkHttpClient implements RegistryHttpClient {
         this.endpoint = endpoint;
         this.auth = auth;
         this.client = httpClientBuilder.build();
+        Object compressionEnabled = configs.get(ClientConfig.REGISTRY_CLIENT_COMPRESSION_ENABLED);
+        this.compressionEnabled = compressionEnabled == null || BooleanUtil.toBoolean(compressionEnabled);
     }
 
     private static HttpClient.Builder handleConfiguration(Map<String, Object> configs) {
         HttpClient.Builder clientBuilder = HttpClient.newBuilder();
-        clientBuilder.version(Version.HTTP_1_1);
+        // HTTP_2 multiplexes concurrent (async) requests over a single connection, and falls back to HTTP_1_1
+        // when the server doesn't support it
+        String version = String.valueOf(configs.getOrDefault(ClientConfig.REGISTRY_CLIENT_HTTP_VERSION, ClientConfig.REGISTRY_CLIENT_HTTP_VERSION_DEFAULT));
+        clientBuilder.version(Version.valueOf(version));
         addHeaders(configs);
         clientBuilder = addSSL(clientBuilder, configs);
         return clientBuilder;
@@ -168,41 +176,7 @@ public class JdkHttpClient implements RegistryHttpClient {
     @Override
     public <T> T sendRequest(Request<T> request) {
         try {
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(buildURI(endpoint + request.getRequestPath(), request.getQueryParams(), request.getPathParams()));
-
-            DEFAULT_HEADERS.forEach(requestBuilder::header);
-
-            //Add current request headers
-            requestHeaders.get().forEach(requestBuilder::header);
-            requestHeaders.remove();
-
-            Map<String, String> headers = request.getHeaders();
-            if (this.auth != null) {
-                //make headers mutable...
-                headers = new HashMap<>(headers);
-                this.auth.apply(headers);
-            }
-            headers.forEach(requestBuilder::header);
-
-            switch (request.getOperation()) {
-                case GET:
-                    requestBuilder.GET();
-                    break;
-                case PUT:
-                    requestBuilder.PUT(HttpRequest.BodyPublishers.ofByteArray(request.getData().readAllBytes()));
-                    break;
-                case POST:
-                    requestBuilder.POST(HttpRequest.BodyPublishers.ofByteArray(request.getData().readAllBytes()));
-                    break;
-                case DELETE:
-                    requestBuilder.DELETE();
-                    break;
-                default:
-                    throw new IllegalStateException("Operation not allowed");
-            }
-
-            return client.send(requestBuilder.build(), new BodyHandler<>(request.getResponseType()))
+            return client.send(buildRequest(request), new BodyHandler<>(request.getResponseType()))
                     .body()
                     .get();
 
@@ -211,6 +185,69 @@ public class JdkHttpClient implements RegistryHttpClient {
         }
     }
 
+    @Override
+    public <T> CompletableFuture<T> sendRequestAsync(Request<T> request) {
+        final HttpRequest httpRequest;
+        try {
+            httpRequest = buildRequest(request);
+        } catch (URISyntaxException | IOException | HttpResponseException e) {
+            return CompletableFuture.failedFuture(ErrorHandler.parseError(e));
+        }
+        // The body is buffered before the response completes, so reading it here never blocks the client's executor
+        return client.sendAsync(httpRequest, new BodyHandler<>(request.getResponseType(), true))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return response.body().get();
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw ErrorHandler.parseError(cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+                });
+    }
+
+    private HttpRequest buildRequest(Request<?> request) throws URISyntaxException, IOException, HttpResponseException {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(buildURI(endpoint + request.getRequestPath(), request.getQueryParams(), request.getPathParams()));
+
+        if (compressionEnabled) {
+            requestBuilder.header("Accept-Encoding", "gzip");
+        }
+
+        DEFAULT_HEADERS.forEach(requestBuilder::header);
+
+        //Add current request headers
+        requestHeaders.get().forEach(requestBuilder::header);
+        requestHeaders.remove();
+
+        Map<String, String> headers = request.getHeaders();
+        if (this.auth != null) {
+            //make headers mutable...
+            headers = new HashMap<>(headers);
+            this.auth.apply(headers);
+        }
+        headers.forEach(requestBuilder::header);
+
+        switch (request.getOperation()) {
+            case GET:
+                requestBuilder.GET();
+                break;
+            case PUT:
+                requestBuilder.PUT(HttpRequest.BodyPublishers.ofByteArray(request.getData().readAllBytes()));
+                break;
+            case POST:
+                requestBuilder.POST(HttpRequest.BodyPublishers.ofByteArray(request.getData().readAllBytes()));
+                break;
+            case DELETE:
+                requestBuilder.DELETE();
+                break;
+            default:
+                throw new IllegalStateException("Operation not allowed");
+        }
+        return requestBuilder.build();
+    }
+
     private static URI buildURI(String basePath, Map<String, List<String>> queryParams, List<String> pathParams) throws URISyntaxException {
         Object[] encodedPathParams = pathParams
                 .stream()
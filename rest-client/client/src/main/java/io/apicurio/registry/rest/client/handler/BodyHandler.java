@@ -21,28 +21,41 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.apicurio.registry.rest.client.impl.ErrorHandler;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
 import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 /**
+ * Reads the response body into the response type.  By default the body is streamed, and only read when the
+ * returned supplier is called.  A buffered handler reads the whole body before the response completes, so
+ * the supplier never blocks on the network (used for asynchronous requests).
+ *
  * @author Carles Arnal 'carnalca@redhat.com'
  */
 public class BodyHandler<W> implements HttpResponse.BodyHandler<Supplier<W>> {
 
     private final TypeReference<W> wClass;
+    private final boolean buffered;
     private static final ObjectMapper mapper = new ObjectMapper();
 
     public BodyHandler(TypeReference<W> wClass) {
+        this(wClass, false);
+    }
+
+    public BodyHandler(TypeReference<W> wClass, boolean buffered) {
         this.wClass = wClass;
+        this.buffered = buffered;
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
     @Override
     public HttpResponse.BodySubscriber<Supplier<W>> apply(HttpResponse.ResponseInfo responseInfo) {
-        return asJSON(wClass, responseInfo);
+        return buffered ? asBufferedJSON(wClass, responseInfo) : asJSON(wClass, responseInfo);
     }
 
     public static <W> HttpResponse.BodySubscriber<Supplier<W>> asJSON(TypeReference<W> targetType, HttpResponse.ResponseInfo responseInfo) {
@@ -52,22 +65,29 @@ public class BodyHandler<W> implements HttpResponse.BodyHandler<Supplier<W>> {
                 inputStream -> toSupplierOfType(inputStream, targetType, responseInfo));
     }
 
+    public static <W> HttpResponse.BodySubscriber<Supplier<W>> asBufferedJSON(TypeReference<W> targetType, HttpResponse.ResponseInfo responseInfo) {
+        HttpResponse.BodySubscriber<byte[]> upstream = HttpResponse.BodySubscribers.ofByteArray();
+        return HttpResponse.BodySubscribers.mapping(
+                upstream,
+                bytes -> toSupplierOfType(new ByteArrayInputStream(bytes), targetType, responseInfo));
+    }
+
     @SuppressWarnings("unchecked")
     public static <W> Supplier<W> toSupplierOfType(InputStream body, TypeReference<W> targetType, HttpResponse.ResponseInfo responseInfo) {
         return () -> {
             try {
                 if (isFailure(responseInfo)) {
-                    throw ErrorHandler.handleErrorResponse(body, responseInfo.statusCode());
+                    throw ErrorHandler.handleErrorResponse(decode(body, responseInfo), responseInfo.statusCode());
                 } else {
                     //TODO think of a better solution to this
                     final String typeName = targetType.getType().getTypeName();
                     if (typeName.contains("InputStream")) {
-                        return (W) body;
+                        return (W) decode(body, responseInfo);
                     } else if (typeName.contains("Void")) {
                         //Intended null return
                         return null;
                     } else {
-                        return mapper.readValue(body, targetType);
+                        return mapper.readValue(decode(body, responseInfo), targetType);
                     }
                 }
             } catch (IOException e) {
@@ -76,6 +96,26 @@ public class BodyHandler<W> implements HttpResponse.BodyHandler<Supplier<W>> {
         };
     }
 
+    /**
+     * Decompresses the body if the server gzip'ed it (see the Accept-Encoding request header).
+     */
+    private static InputStream decode(InputStream body, HttpResponse.ResponseInfo responseInfo) throws IOException {
+        boolean gzip = responseInfo.headers().firstValue("Content-Encoding")
+                .map("gzip"::equalsIgnoreCase)
+                .orElse(false);
+        if (!gzip) {
+            return body;
+        }
+        PushbackInputStream pushbackBody = new PushbackInputStream(body);
+        int first = pushbackBody.read();
+        if (first == -1) {
+            //empty body, nothing to decompress
+            return pushbackBody;
+        }
+        pushbackBody.unread(first);
+        return new GZIPInputStream(pushbackBody);
+    }
+
     private static boolean isFailure(HttpResponse.ResponseInfo responseInfo) {
         return responseInfo.statusCode() / 100 != 2;
     }
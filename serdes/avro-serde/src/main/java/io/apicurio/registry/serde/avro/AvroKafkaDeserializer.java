@@ -26,6 +26,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.kafka.common.header.Headers;
@@ -43,6 +44,8 @@ import io.apicurio.registry.serde.utils.Utils;
 public class AvroKafkaDeserializer<U> extends AbstractKafkaDeserializer<Schema, U> {
 
     private final DecoderFactory decoderFactory = DecoderFactory.get();
+    // A deserializer may be shared by many consumer threads, so the (reusable) binary decoders are per thread.
+    private final ThreadLocal<BinaryDecoder> binaryDecoders = new ThreadLocal<>();
     private AvroSchemaParser parser = new AvroSchemaParser();
     private AvroDatumProvider<U> avroDatumProvider;
     private AvroEncoding configEncoding;
@@ -110,7 +113,9 @@ public class AvroKafkaDeserializer<U> extends AbstractKafkaDeserializer<Schema,
                 System.arraycopy(buffer.array(), start, msgData, 0, length);
                 return reader.read(null, decoderFactory.jsonDecoder(schema.getParsedSchema(), new ByteArrayInputStream(msgData)));
             } else {
-                return reader.read(null, decoderFactory.binaryDecoder(buffer.array(), start, length, null));
+                BinaryDecoder decoder = decoderFactory.binaryDecoder(buffer.array(), start, length, binaryDecoders.get());
+                binaryDecoders.set(decoder);
+                return reader.read(null, decoder);
             }
 
         } catch (IOException e) {
@@ -24,6 +24,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
@@ -46,6 +47,8 @@ import io.apicurio.registry.utils.IoUtil;
 public class AvroKafkaSerializer<U> extends AbstractKafkaSerializer<Schema, U> {
 
     private final EncoderFactory encoderFactory = EncoderFactory.get();
+    // A serializer may be shared by many producer threads, so the (reusable) binary encoders are per thread.
+    private final ThreadLocal<BinaryEncoder> binaryEncoders = new ThreadLocal<>();
     private AvroSchemaParser parser = new AvroSchemaParser();
     private AvroDatumProvider<U> avroDatumProvider;
     private AvroEncoding encoding;
@@ -142,7 +145,9 @@ public class AvroKafkaSerializer<U> extends AbstractKafkaSerializer<Schema, U> {
         if(encoding == AvroEncoding.JSON) {
             return encoderFactory.jsonEncoder(schema, os);
         } else {
-            return encoderFactory.directBinaryEncoder(os, null);
+            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(os, binaryEncoders.get());
+            binaryEncoders.set(encoder);
+            return encoder;
         }
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde.avro;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.avro.Schema;
+
+/**
+ * A small per-thread cache of the datum writers (or readers) created for each schema.
+ *
+ * Schemas are compared by identity, rather than with their (deep) equals and hashCode: the serdes get them
+ * from the schema resolver's cache or from the record classes, so a schema is used again as the same instance.
+ * Each thread keeps at most {@link #MAX_ENTRIES} schemas, evicting the least recently used one, so that an
+ * application creating new schema instances does not fill the cache.
+ *
+ * @author Ales Justin
+ */
+class DatumCache<V> {
+
+    static final int MAX_ENTRIES = 32;
+
+    private final Function<Schema, V> factory;
+    private final ThreadLocal<Entries<V>> entries = ThreadLocal.withInitial(Entries::new);
+
+    DatumCache(Function<Schema, V> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the writer (or reader) for the given schema, creating it if needed.
+     * @param schema
+     */
+    V get(Schema schema) {
+        Entries<V> cached = entries.get();
+        // Most threads use the same schema over and over again
+        if (cached.lastSchema != schema) {
+            cached.lastValue = cached.computeIfAbsent(new SchemaKey(schema), key -> factory.apply(schema));
+            cached.lastSchema = schema;
+        }
+        return cached.lastValue;
+    }
+
+    private static class Entries<V> extends LinkedHashMap<SchemaKey, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private Schema lastSchema;
+        private V lastValue;
+
+        Entries() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SchemaKey, V> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+
+    private static class SchemaKey {
+
+        private final Schema schema;
+
+        SchemaKey(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(schema);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SchemaKey && ((SchemaKey) obj).schema == schema;
+        }
+    }
+
+}
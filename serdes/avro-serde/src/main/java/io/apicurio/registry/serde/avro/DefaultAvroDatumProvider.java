@@ -30,11 +30,18 @@ import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 
 /**
+ * Creates generic or specific datum writers and readers.  Writers and readers are expensive to create (they
+ * resolve the schema on first use), so they are cached per schema.  They are not thread-safe (readers keep
+ * caches of their own while reading), so the caches are per thread (see {@link DatumCache}).
+ *
  * @author Ales Justin
  */
 public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
     private Boolean useSpecificAvroReader;
     private Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private final DatumCache<DatumWriter<T>> specificWriters = new DatumCache<>(SpecificDatumWriter::new);
+    private final DatumCache<DatumWriter<T>> genericWriters = new DatumCache<>(GenericDatumWriter::new);
+    private volatile DatumCache<DatumReader<T>> readers = new DatumCache<>(this::newDatumReader);
 
     public DefaultAvroDatumProvider() {
     }
@@ -45,6 +52,7 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     public DefaultAvroDatumProvider<T> setUseSpecificAvroReader(boolean useSpecificAvroReader) {
         this.useSpecificAvroReader = useSpecificAvroReader;
+        readers = new DatumCache<>(this::newDatumReader);
         return this;
     }
 
@@ -52,6 +60,7 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
     public void configure(AvroKafkaSerdeConfig config) {
         if (useSpecificAvroReader == null) {
             useSpecificAvroReader = config.useSpecificAvroReader();
+            readers = new DatumCache<>(this::newDatumReader);
         }
     }
 
@@ -80,14 +89,18 @@ public class DefaultAvroDatumProvider<T> implements AvroDatumProvider<T> {
     @Override
     public DatumWriter<T> createDatumWriter(T data, Schema schema) {
         if (data instanceof SpecificRecord) {
-            return new SpecificDatumWriter<>(schema);
+            return specificWriters.get(schema);
         } else {
-            return new GenericDatumWriter<>(schema);
+            return genericWriters.get(schema);
         }
     }
 
     @Override
     public DatumReader<T> createDatumReader(Schema schema) {
+        return readers.get(schema);
+    }
+
+    private DatumReader<T> newDatumReader(Schema schema) {
         // do not use SpecificDatumReader if schema is a primitive
         if (useSpecificAvroReader != null && useSpecificAvroReader) {
             if (AvroSchemaUtils.isPrimitive(schema) == false) {
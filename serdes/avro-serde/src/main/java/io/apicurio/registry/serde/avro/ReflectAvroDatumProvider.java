@@ -23,11 +23,16 @@ import org.apache.avro.reflect.ReflectDatumReader;
 import org.apache.avro.reflect.ReflectDatumWriter;
 
 /**
+ * Creates reflection based datum writers and readers, cached per (writer) schema and per thread like in the
+ * {@link DefaultAvroDatumProvider}.
+ *
  * @author Ales Justin
  */
 public class ReflectAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     private Schema readerSchema;
+    private final DatumCache<DatumWriter<T>> writers = new DatumCache<>(ReflectDatumWriter::new);
+    private final DatumCache<DatumReader<T>> readers = new DatumCache<>(this::newDatumReader);
 
     public ReflectAvroDatumProvider() {
     }
@@ -38,11 +43,15 @@ public class ReflectAvroDatumProvider<T> implements AvroDatumProvider<T> {
 
     @Override
     public DatumWriter<T> createDatumWriter(T data, Schema schema) {
-        return new ReflectDatumWriter<>(schema);
+        return writers.get(schema);
     }
 
     @Override
     public DatumReader<T> createDatumReader(Schema schema) {
+        return readers.get(schema);
+    }
+
+    private DatumReader<T> newDatumReader(Schema schema) {
         if (readerSchema == null) {
             return new ReflectDatumReader<>(schema);
         } else {
@@ -19,8 +19,11 @@ package io.apicurio.registry.serde.jsonschema;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -28,6 +31,7 @@ import org.apache.kafka.common.serialization.Deserializer;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.worldturner.medeia.api.StreamSchemaSource;
 import com.worldturner.medeia.api.jackson.MedeiaJacksonApi;
 import com.worldturner.medeia.schema.validation.SchemaValidator;
@@ -51,14 +55,24 @@ public class JsonSchemaKafkaDeserializer<T> extends AbstractKafkaDeserializer<Sc
 
     protected static MedeiaJacksonApi api = new MedeiaJacksonApi();
     protected static ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectReader jsonNodeReader = mapper.readerFor(JsonNode.class);
 
     private Boolean validationEnabled;
     /**
      * Optional, the full class name of the java class to deserialize
      */
     private Class<T> specificReturnClass;
+    private ObjectReader specificReturnReader;
     private MessageTypeSerdeHeaders serdeHeaders;
 
+    /**
+     * The reader for the "javaType" of each schema, keyed by the (identity of the) raw schema of the cached
+     * schema lookup result, so that the schema is not parsed again for every record.  Weak keys, so that an
+     * entry goes away with the lookup result.
+     */
+    private final Map<byte[], ObjectReader> readersBySchema = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, ObjectReader> readersByType = new ConcurrentHashMap<>();
+
     public JsonSchemaKafkaDeserializer() {
         super();
     }
@@ -95,6 +109,7 @@ public class JsonSchemaKafkaDeserializer<T> extends AbstractKafkaDeserializer<Sc
         }
 
         this.specificReturnClass = (Class<T>) config.getSpecificReturnClass();
+        this.specificReturnReader = specificReturnClass == null ? null : mapper.readerFor(specificReturnClass);
 
         this.serdeHeaders = new MessageTypeSerdeHeaders(new HashMap<>(configs), isKey);
 
@@ -144,46 +159,56 @@ public class JsonSchemaKafkaDeserializer<T> extends AbstractKafkaDeserializer<Sc
         return internalReadData(headers, schema, buffer, start, length);
     }
 
+    /**
+     * Parses the record exactly once: straight from the (Kafka) buffer, through the validating parser if
+     * validation is enabled, and into the (cached) reader of the message type.
+     */
     private T internalReadData(Headers headers, ParsedSchema<SchemaValidator> schema, ByteBuffer buffer, int start, int length) {
-        byte[] data = new byte[length];
-        System.arraycopy(buffer.array(), start, data, 0, length);
-
         try {
-            JsonParser parser = mapper.getFactory().createParser(data);
+            JsonParser parser = mapper.getFactory().createParser(buffer.array(), start, length);
 
             if (isValidationEnabled()) {
                 parser = api.decorateJsonParser(schema.getParsedSchema(), parser);
             }
 
-            Class<T> messageType = null;
-
-            if (this.specificReturnClass != null) {
-                messageType = this.specificReturnClass;
+            ObjectReader reader;
+            if (this.specificReturnReader != null) {
+                reader = this.specificReturnReader;
             } else if (headers == null) {
-                JsonNode jsonSchema = mapper.readTree(schema.getRawSchema());
-
-                String javaType = null;
-                JsonNode javaTypeNode = jsonSchema.get("javaType");
-                if (javaTypeNode != null && !javaTypeNode.isNull()) {
-                    javaType = javaTypeNode.textValue();
-                }
-                //TODO if javaType is null, maybe warn something like this?
-                //You can try configure the property \"apicurio.registry.serde.json-schema.java-type\" with the full class name to use for deserialization
-                messageType = javaType == null ? null : Utils.loadClass(javaType);
+                reader = readersBySchema.computeIfAbsent(schema.getRawSchema(), this::readerForSchema);
             } else {
-                String javaType = serdeHeaders.getMessageType(headers);
-                messageType = javaType == null ? null : Utils.loadClass(javaType);
+                reader = readerForType(serdeHeaders.getMessageType(headers));
             }
 
-            if (messageType == null) {
-                //TODO maybe warn there is no message type and the deserializer will return a JsonNode
-                return mapper.readTree(parser);
-            } else {
-                return mapper.readValue(parser, messageType);
+            //TODO if there is no message type, maybe warn that the deserializer will return a JsonNode
+            return reader.readValue(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectReader readerForSchema(byte[] rawSchema) {
+        try {
+            JsonNode jsonSchema = mapper.readTree(rawSchema);
+
+            String javaType = null;
+            JsonNode javaTypeNode = jsonSchema.get("javaType");
+            if (javaTypeNode != null && !javaTypeNode.isNull()) {
+                javaType = javaTypeNode.textValue();
             }
+            //TODO if javaType is null, maybe warn something like this?
+            //You can try configure the property \"apicurio.registry.serde.json-schema.java-type\" with the full class name to use for deserialization
+            return readerForType(javaType);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private ObjectReader readerForType(String javaType) {
+        if (javaType == null) {
+            return jsonNodeReader;
+        }
+        return readersByType.computeIfAbsent(javaType, type -> mapper.readerFor(Utils.loadClass(type)));
+    }
+
 }
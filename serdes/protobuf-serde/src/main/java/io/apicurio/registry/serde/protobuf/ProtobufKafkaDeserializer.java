@@ -20,11 +20,15 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.common.config.ConfigException;
@@ -53,14 +57,21 @@ import io.apicurio.registry.serde.utils.Utils;
 public class ProtobufKafkaDeserializer<U extends Message> extends AbstractKafkaDeserializer<ProtobufSchema, U> {
 
     private static final String PROTOBUF_PARSE_METHOD = "parseFrom";
+    private static final MethodType PROTOBUF_PARSE_METHOD_TYPE = MethodType.methodType(Message.class, InputStream.class);
 
     private ProtobufSchemaParser parser = new ProtobufSchemaParser();
 
     private Class<?> specificReturnClass;
-    private Method specificReturnClassParseMethod;
+    private MethodHandle specificReturnClassParseMethod;
     private boolean deriveClass;
 
-    private Map<String, Method> parseMethodsCache = new ConcurrentHashMap<>();
+    private Map<String, MethodHandle> parseMethodsCache = new ConcurrentHashMap<>();
+
+    /**
+     * The descriptors (and derived parse methods) resolved for each schema, keyed by the (identity of the) parsed
+     * schema of the cached schema lookup result.  Weak keys, so that an entry goes away with the lookup result.
+     */
+    private final Map<ProtobufSchema, SchemaDescriptors> schemaDescriptors = Collections.synchronizedMap(new WeakHashMap<>());
 
     private ProtobufSerdeHeaders serdeHeaders;
 
@@ -91,9 +102,10 @@ public class ProtobufKafkaDeserializer<U extends Message> extends AbstractKafkaD
         try {
             if (specificReturnClass != null) {
                 if (specificReturnClass.equals(DynamicMessage.class)) {
-                    this.specificReturnClassParseMethod = specificReturnClass.getDeclaredMethod(PROTOBUF_PARSE_METHOD, Descriptor.class, InputStream.class);
+                    // DynamicMessage.parseFrom(Descriptor, InputStream) is called directly
+                    this.specificReturnClassParseMethod = null;
                 } else if (!specificReturnClass.equals(Object.class)) {
-                    this.specificReturnClassParseMethod = specificReturnClass.getDeclaredMethod(PROTOBUF_PARSE_METHOD, InputStream.class);
+                    this.specificReturnClassParseMethod = findParseMethod(specificReturnClass);
                 } else {
                     throw new ConfigException("Class " + specificReturnClass.getCanonicalName() + " is not a valid protobuf message class");
                 }
@@ -134,47 +146,45 @@ public class ProtobufKafkaDeserializer<U extends Message> extends AbstractKafkaD
     @SuppressWarnings("unchecked")
     protected U internalReadData(Headers headers, ParsedSchema<ProtobufSchema> schema, ByteBuffer buff, int start, int length) {
         try {
-            byte[] bytes = new byte[length];
-            System.arraycopy(buff.array(), start, bytes, 0, length);
-
-            ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+            ByteArrayInputStream is = new ByteArrayInputStream(buff.array(), start, length);
+            SchemaDescriptors descriptors = schemaDescriptors.computeIfAbsent(schema.getParsedSchema(), SchemaDescriptors::new);
 
             Descriptor descriptor = null;
             if (headers != null) {
                 String messageTypeName = serdeHeaders.getProtobufTypeName(headers);
                 if (messageTypeName != null) {
-                    descriptor = schema.getParsedSchema().getFileDescriptor().findMessageTypeByName(messageTypeName);
+                    descriptor = descriptors.findMessageTypeByName(messageTypeName);
                 }
             }
             if (descriptor == null){
                 try {
                     Ref ref = Ref.parseDelimitedFrom(is);
-                    descriptor = schema.getParsedSchema().getFileDescriptor().findMessageTypeByName(ref.getName());
+                    descriptor = descriptors.findMessageTypeByName(ref.getName());
                 } catch (IOException e) {
-                    is = new ByteArrayInputStream(bytes);
+                    is = new ByteArrayInputStream(buff.array(), start, length);
                     //use the first message type found
                     descriptor = schema.getParsedSchema().getFileDescriptor().getMessageTypes().get(0);
                 }
             }
 
-            if (specificReturnClassParseMethod != null) {
+            if (specificReturnClass != null) {
+                if (specificReturnClass.equals(DynamicMessage.class)) {
+                    return (U) DynamicMessage.parseFrom(descriptor, is);
+                }
                 try {
-                    if (specificReturnClass.equals(DynamicMessage.class)) {
-                        return (U) specificReturnClassParseMethod.invoke(null, descriptor, is);
-                    }
-                    return (U) specificReturnClassParseMethod.invoke(null, is);
-                } catch (Exception e) {
-                    throw new ConfigException("Not a valid protobuf builder", e);
+                    return invokeParseMethod(specificReturnClassParseMethod, is);
+                } catch (SerializationException e) {
+                    throw new ConfigException("Not a valid protobuf builder", e.getCause());
                 }
             } else if (deriveClass) {
-                String className = deriveClassFromDescriptor(descriptor);
-                if (className != null) {
-                    return invokeParseMethod(is, className);
+                Optional<MethodHandle> parseMethod = descriptors.derivedParseMethod(descriptor);
+                if (parseMethod.isPresent()) {
+                    return invokeParseMethod(parseMethod.get(), is);
                 }
             } else if (headers != null) {
                 String messageTypeHeader = serdeHeaders.getMessageType(headers);
                 if (messageTypeHeader != null) {
-                    return invokeParseMethod(is, messageTypeHeader);
+                    return invokeParseMethod(parseMethod(messageTypeHeader), is);
                 }
             }
 
@@ -186,23 +196,59 @@ public class ProtobufKafkaDeserializer<U extends Message> extends AbstractKafkaD
     }
 
     @SuppressWarnings("unchecked")
-    private U invokeParseMethod(InputStream buffer, String className) {
+    private U invokeParseMethod(MethodHandle parseMethod, InputStream buffer) {
         try {
-            Method parseMethod = parseMethodsCache.computeIfAbsent(className, k -> {
-                Class<?> protobufClass = Utils.loadClass(className);
-                try {
-                    return protobufClass.getDeclaredMethod(PROTOBUF_PARSE_METHOD, InputStream.class);
-                } catch (NoSuchMethodException | SecurityException e) {
-                    throw new SerializationException("Class " + className + " is not a valid protobuf message class", e);
-                }
-            });
-            return (U) parseMethod.invoke(null, buffer);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            parseMethodsCache.remove(className);
+            return (U) (Message) parseMethod.invokeExact(buffer);
+        } catch (Throwable e) {
             throw new SerializationException("Not a valid protobuf builder", e);
         }
     }
 
+    private MethodHandle parseMethod(String className) {
+        return parseMethodsCache.computeIfAbsent(className, k -> findParseMethod(Utils.loadClass(className)));
+    }
+
+    /**
+     * Finds the static "parseFrom(InputStream)" method of a generated protobuf message class, as a method handle
+     * of type (InputStream)Message.
+     * @param protobufClass
+     */
+    private static MethodHandle findParseMethod(Class<?> protobufClass) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findStatic(protobufClass, PROTOBUF_PARSE_METHOD, MethodType.methodType(protobufClass, InputStream.class))
+                    .asType(PROTOBUF_PARSE_METHOD_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | ClassCastException | IllegalArgumentException e) {
+            throw new SerializationException("Class " + protobufClass.getName() + " is not a valid protobuf message class", e);
+        }
+    }
+
+    /**
+     * The message types of a schema, by name, along with the parse methods of the classes derived from them
+     * (see {@link ProtobufKafkaDeserializer#deriveClassFromDescriptor(Descriptor)}).
+     */
+    private class SchemaDescriptors {
+
+        private final FileDescriptor fileDescriptor;
+        private final Map<String, Descriptor> descriptorsByName = new ConcurrentHashMap<>();
+        private final Map<Descriptor, Optional<MethodHandle>> derivedParseMethods = new ConcurrentHashMap<>();
+
+        SchemaDescriptors(ProtobufSchema schema) {
+            this.fileDescriptor = schema.getFileDescriptor();
+        }
+
+        Descriptor findMessageTypeByName(String name) {
+            return descriptorsByName.computeIfAbsent(name, fileDescriptor::findMessageTypeByName);
+        }
+
+        Optional<MethodHandle> derivedParseMethod(Descriptor descriptor) {
+            return derivedParseMethods.computeIfAbsent(descriptor, d -> {
+                String className = deriveClassFromDescriptor(d);
+                return className == null ? Optional.empty() : Optional.of(parseMethod(className));
+            });
+        }
+    }
+
     //TODO refactor
     public String deriveClassFromDescriptor(Descriptor des) {
         Descriptor descriptor = des;
@@ -18,14 +18,19 @@ package io.apicurio.registry.serde.protobuf;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.header.Headers;
 
 import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Message;
 
 import io.apicurio.registry.protobuf.ProtobufDifference;
@@ -54,6 +59,13 @@ public class ProtobufKafkaSerializer<U extends Message> extends AbstractKafkaSer
     private ProtobufSerdeHeaders serdeHeaders;
     private ProtobufSchemaParser parser = new ProtobufSchemaParser();
 
+    /**
+     * The validation verdict (the error, if any) for each (schema, message type) pair, keyed by the (identity of
+     * the) parsed schema of the cached schema lookup result and the descriptor of the (generated) message class.
+     * Weak keys, so that an entry goes away with the lookup result.
+     */
+    private final Map<ProtobufSchema, Map<Descriptor, Optional<String>>> validationErrors = Collections.synchronizedMap(new WeakHashMap<>());
+
     public ProtobufKafkaSerializer() {
         super();
     }
@@ -118,17 +130,13 @@ public class ProtobufKafkaSerializer<U extends Message> extends AbstractKafkaSer
      */
     @Override
     protected void serializeData(Headers headers, ParsedSchema<ProtobufSchema> schema, U data, OutputStream out) throws IOException {
-        if (validationEnabled) {
-
-            if (schema.getParsedSchema() != null && schema.getParsedSchema().getFileDescriptor().findMessageTypeByName(data.getDescriptorForType().getName()) == null) {
-                throw new SerializationException("Missing message type " + data.getDescriptorForType().getName() + " in the protobuf schema");
-            }
-
-            List<ProtobufDifference> diffs = validate(schema, data);
-            if (!diffs.isEmpty()) {
-                throw new SerializationException("The data to send is not compatible with the schema. " + diffs);
+        if (validationEnabled && schema.getParsedSchema() != null) {
+            Optional<String> error = validationErrors
+                    .computeIfAbsent(schema.getParsedSchema(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(data.getDescriptorForType(), descriptor -> validate(schema, descriptor));
+            if (error.isPresent()) {
+                throw new SerializationException(error.get());
             }
-
         }
 
         if (headers != null) {
@@ -144,11 +152,23 @@ public class ProtobufKafkaSerializer<U extends Message> extends AbstractKafkaSer
         data.writeTo(out);
     }
 
-    private List<ProtobufDifference> validate(ParsedSchema<ProtobufSchema> schemaFromRegistry, U data) {
+    /**
+     * Validates the message type against the schema, and returns the error (if the message type is not
+     * compatible).  The result only depends on the schema and the message type, so it is computed once.
+     */
+    private Optional<String> validate(ParsedSchema<ProtobufSchema> schemaFromRegistry, Descriptor descriptor) {
+        if (schemaFromRegistry.getParsedSchema().getFileDescriptor().findMessageTypeByName(descriptor.getName()) == null) {
+            return Optional.of("Missing message type " + descriptor.getName() + " in the protobuf schema");
+        }
+
         ProtobufFile fileBefore = schemaFromRegistry.getParsedSchema().getProtobufFile();
-        ProtobufFile fileAfter = new ProtobufFile(parser.toProtoFileElement(data.getDescriptorForType().getFile()));
+        ProtobufFile fileAfter = new ProtobufFile(parser.toProtoFileElement(descriptor.getFile()));
         ProtobufCompatibilityCheckerLibrary checker = new ProtobufCompatibilityCheckerLibrary(fileBefore, fileAfter);
-        return checker.findDifferences();
+        List<ProtobufDifference> diffs = checker.findDifferences();
+        if (!diffs.isEmpty()) {
+            return Optional.of("The data to send is not compatible with the schema. " + diffs);
+        }
+        return Optional.empty();
     }
 
 }
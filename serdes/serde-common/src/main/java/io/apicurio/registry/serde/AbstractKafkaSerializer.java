@@ -22,7 +22,9 @@ import org.apache.kafka.common.serialization.Serializer;
 
 import io.apicurio.registry.rest.client.RegistryClient;
 import io.apicurio.registry.serde.config.BaseKafkaSerDeConfig;
+import io.apicurio.registry.serde.config.BaseKafkaSerializerConfig;
 import io.apicurio.registry.serde.strategy.ArtifactResolverStrategy;
+import io.apicurio.registry.serde.utils.ReusableByteArrayOutputStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -36,6 +38,11 @@ import java.util.Optional;
  */
 public abstract class AbstractKafkaSerializer<T, U> extends AbstractKafkaSerDe<T, U> implements Serializer<U> {
 
+    // A serializer may be shared by many producer threads, so the reusable buffers are per thread.
+    private final ThreadLocal<ReusableByteArrayOutputStream> buffers = ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+    private boolean reuseBuffer = SerdeConfig.SERIALIZER_REUSE_BUFFER_DEFAULT;
+    private int reuseBufferMaxSize = SerdeConfig.SERIALIZER_REUSE_BUFFER_MAX_SIZE_DEFAULT;
+
     public AbstractKafkaSerializer() {
         super();
     }
@@ -58,6 +65,18 @@ public abstract class AbstractKafkaSerializer<T, U> extends AbstractKafkaSerDe<T
         super.configure(new BaseKafkaSerDeConfig(configs), isKey);
     }
 
+    /**
+     * @see io.apicurio.registry.serde.AbstractKafkaSerDe#configure(io.apicurio.registry.serde.config.BaseKafkaSerDeConfig, boolean)
+     */
+    @Override
+    protected void configure(BaseKafkaSerDeConfig config, boolean isKey) {
+        super.configure(config, isKey);
+
+        BaseKafkaSerializerConfig serializerConfig = new BaseKafkaSerializerConfig(config.originals());
+        reuseBuffer = serializerConfig.reuseBuffer();
+        reuseBufferMaxSize = serializerConfig.reuseBufferMaxSize();
+    }
+
     /**
      * This method is useful in serdes such as AVRO, where the schema can be extracted from the data of the kafka record.
      * The result of this method is passed to the SchemaResolver, which then can use this schema to resolve the exact
@@ -95,19 +114,38 @@ public abstract class AbstractKafkaSerializer<T, U> extends AbstractKafkaSerDe<T
                     .setRawSchema(schema.getRawSchema())
                     .setParsedSchema(schema.getSchema());
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            if (headersHandler != null && headers != null) {
-                headersHandler.writeHeaders(headers, schema.toArtifactReference());
-                serializeData(headers, parsedSchema, data, out);
-            } else {
-                out.write(MAGIC_BYTE);
-                getIdHandler().writeId(schema.toArtifactReference(), out);
-                serializeData(parsedSchema, data, out);
+            ByteArrayOutputStream out = reuseBuffer ? buffers.get() : new ByteArrayOutputStream();
+            try {
+                if (headersHandler != null && headers != null) {
+                    headersHandler.writeHeaders(headers, schema.toArtifactReference());
+                    serializeData(headers, parsedSchema, data, out);
+                } else {
+                    out.write(MAGIC_BYTE);
+                    getIdHandler().writeId(schema.toArtifactReference(), out);
+                    serializeData(parsedSchema, data, out);
+                }
+                // The only copy of the record: an exact-size array.
+                return out.toByteArray();
+            } finally {
+                if (reuseBuffer) {
+                    release((ReusableByteArrayOutputStream) out);
+                }
             }
-            return out.toByteArray();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Resets the thread's reusable buffer for the next record, or drops it if it grew too large to be kept.
+     * @param buffer
+     */
+    private void release(ReusableByteArrayOutputStream buffer) {
+        if (buffer.capacity() > reuseBufferMaxSize) {
+            buffers.remove();
+        } else {
+            buffer.reset();
+        }
+    }
+
 }
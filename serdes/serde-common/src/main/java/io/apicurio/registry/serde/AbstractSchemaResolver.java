@@ -17,9 +17,16 @@
 package io.apicurio.registry.serde;
 
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import org.apache.kafka.common.header.Headers;
 
@@ -28,6 +35,7 @@ import io.apicurio.registry.auth.BasicAuth;
 import io.apicurio.registry.auth.KeycloakAuth;
 import io.apicurio.registry.rest.client.RegistryClient;
 import io.apicurio.registry.rest.client.RegistryClientFactory;
+import io.apicurio.registry.rest.client.config.ClientConfig;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
 import io.apicurio.registry.rest.v2.beans.VersionMetaData;
 import io.apicurio.registry.serde.config.DefaultSchemaResolverConfig;
@@ -44,10 +52,33 @@ import io.apicurio.registry.utils.IoUtil;
  */
 public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S, T>{
 
+    /**
+     * Runs the lookups on the calling thread.
+     */
+    protected static final Executor CALLER_EXECUTOR = Runnable::run;
+
+    /**
+     * Runs the asynchronous lookups and background refreshes, shared by all the resolvers (idle threads go away).
+     */
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "apicurio-registry-schema-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     protected final Map<Long, SchemaLookupResult<S>> schemaCacheByGlobalId = new ConcurrentHashMap<>();
     protected final Map<String, Long> globalIdCacheByContent = new ConcurrentHashMap<>();
     protected CheckPeriodCache<ArtifactReference, Long> globalIdCacheByArtifactReference = new CheckPeriodCache<>(0);
 
+    /**
+     * The registry lookups currently running, so that concurrent identical lookups share a single request.
+     */
+    protected final Map<Object, CompletableFuture<SchemaLookupResult<S>>> lookupsInFlight = new ConcurrentHashMap<>();
+    protected Executor asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
+    protected boolean serveStale;
+
+    protected PersistentSchemaCache persistentSchemaCache;
+
     protected SchemaParser<S> schemaParser;
     protected RegistryClient client;
     protected boolean isKey;
@@ -112,6 +143,14 @@ public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S,
             checkPeriod = checkPeriodParam;
         }
         globalIdCacheByArtifactReference = new CheckPeriodCache<>(checkPeriod);
+        serveStale = checkPeriod > 0 && config.serveStale();
+
+        String schemaCacheDirectory = config.getSchemaCacheDirectory();
+        if (schemaCacheDirectory != null) {
+            Object tenantId = config.originals().get(ClientConfig.REGISTRY_REQUEST_HEADERS_PREFIX + io.apicurio.registry.rest.Headers.TENANT_ID);
+            persistentSchemaCache = new PersistentSchemaCache(Paths.get(schemaCacheDirectory), config.getRegistryUrl(),
+                    tenantId == null ? null : tenantId.toString());
+        }
 
         String groupIdOverride = config.getExplicitArtifactGroupId();
         if (groupIdOverride != null) {
@@ -144,6 +183,13 @@ public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S,
         this.artifactResolverStrategy = artifactResolverStrategy;
     }
 
+    /**
+     * @param asyncExecutor the executor for the asynchronous lookups and background refreshes
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     /**
      * @param isKey the isKey to set
      */
@@ -177,18 +223,24 @@ public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S,
     }
 
     protected SchemaLookupResult<S> resolveSchemaByGlobalId(long globalId) {
-        return schemaCacheByGlobalId.computeIfAbsent(globalId, k -> {
+        return join(lookupSchemaByGlobalId(globalId, CALLER_EXECUTOR));
+    }
+
+    protected CompletableFuture<SchemaLookupResult<S>> lookupSchemaByGlobalId(long globalId, Executor executor) {
+        SchemaLookupResult<S> cached = schemaCacheByGlobalId.get(globalId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return singleFlight(ArtifactReference.fromGlobalId(globalId), executor, () -> {
             //TODO getContentByGlobalId have to return some minumum metadata (groupId, artifactId and version)
             //TODO or at least add some method to the api to return the version metadata by globalId
 //            ArtifactMetaData artifactMetadata = client.getArtifactMetaData("TODO", artifactId);
-            InputStream rawSchema = client.getContentByGlobalId(globalId);
-
-            byte[] schema = IoUtil.toBytes(rawSchema);
+            byte[] schema = loadContentByGlobalId(globalId);
             S parsed = schemaParser.parseSchema(schema);
 
             SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
 
-            return result
+            SchemaLookupResult<S> lookupResult = result
               //FIXME it's impossible to retrieve this info with only the globalId
 //                  .groupId(null)
 //                  .artifactId(null)
@@ -197,9 +249,91 @@ public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S,
                   .rawSchema(schema)
                   .schema(parsed)
                   .build();
+            schemaCacheByGlobalId.put(globalId, lookupResult);
+            return lookupResult;
         });
     }
 
+    /**
+     * Returns the content with the given globalId, from the on-disk cache if enabled, otherwise from the registry.
+     */
+    protected byte[] loadContentByGlobalId(long globalId) {
+        byte[] schema = persistentSchemaCache == null ? null : persistentSchemaCache.getByGlobalId(globalId);
+        if (schema == null) {
+            InputStream rawSchema = client.getContentByGlobalId(globalId);
+            schema = IoUtil.toBytes(rawSchema);
+            if (persistentSchemaCache != null) {
+                persistentSchemaCache.putByGlobalId(globalId, schema);
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Returns the content with the given contentId, from the on-disk cache if enabled, otherwise from the registry.
+     */
+    protected byte[] loadContentByContentId(long contentId) {
+        byte[] schema = persistentSchemaCache == null ? null : persistentSchemaCache.getByContentId(contentId);
+        if (schema == null) {
+            InputStream rawSchema = client.getContentById(contentId);
+            schema = IoUtil.toBytes(rawSchema);
+            if (persistentSchemaCache != null) {
+                persistentSchemaCache.putByContentId(contentId, schema);
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Runs the given registry lookup on the given executor, unless the same lookup is already running, in which
+     * case the caller shares its result.  The lookup is expected to store its result in the caches, no map lock is
+     * held while it runs.
+     * @param reference identifies the lookup (an {@link ArtifactReference}, or the raw schema for the lookups by content)
+     * @param executor
+     * @param lookup
+     */
+    protected CompletableFuture<SchemaLookupResult<S>> singleFlight(Object reference, Executor executor,
+            Supplier<SchemaLookupResult<S>> lookup) {
+        CompletableFuture<SchemaLookupResult<S>> result = new CompletableFuture<>();
+        CompletableFuture<SchemaLookupResult<S>> inFlight = lookupsInFlight.putIfAbsent(reference, result);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    SchemaLookupResult<S> value = lookup.get();
+                    lookupsInFlight.remove(reference, result);
+                    result.complete(value);
+                } catch (Throwable t) {
+                    lookupsInFlight.remove(reference, result);
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lookupsInFlight.remove(reference, result);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the given lookup, rethrowing its failure as is.
+     */
+    protected static <R> R join(CompletableFuture<R> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     /**
      * @see io.apicurio.registry.serde.SchemaResolver#reset()
      */
@@ -208,6 +342,7 @@ public abstract class AbstractSchemaResolver<S, T> implements SchemaResolver<S,
         this.schemaCacheByGlobalId.clear();
         this.globalIdCacheByContent.clear();
         this.globalIdCacheByArtifactReference.clear();
+        this.lookupsInFlight.clear();
     }
 
     private RegistryClient configureClientWithBearerAuthentication(DefaultSchemaResolverConfig config, String registryUrl, String authServerUrl) {
@@ -16,13 +16,19 @@
 
 package io.apicurio.registry.serde;
 
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
 import org.apache.kafka.common.header.Headers;
 
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResult;
+import io.apicurio.registry.rest.v2.beans.ContentLookupResults;
 import io.apicurio.registry.rest.v2.beans.IfExists;
 import io.apicurio.registry.rest.v2.beans.VersionMetaData;
 import io.apicurio.registry.serde.config.DefaultSchemaResolverConfig;
@@ -36,6 +42,11 @@ import io.apicurio.registry.utils.IoUtil;
  */
 public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
 
+    /**
+     * The maximum number of ids looked up in a single request when prefetching.
+     */
+    private static final int PREFETCH_BATCH_SIZE = 500;
+
     protected final Map<Long, SchemaLookupResult<S>> schemaCacheByContentId = new ConcurrentHashMap<>();
 
     private boolean autoCreateArtifact;
@@ -106,72 +117,213 @@ public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
      */
     @Override
     public SchemaLookupResult<S> resolveSchemaByArtifactReference(ArtifactReference reference) {
+        return join(lookupSchemaByArtifactReference(reference, CALLER_EXECUTOR));
+    }
+
+    /**
+     * @see io.apicurio.registry.serde.SchemaResolver#resolveSchemaByArtifactReferenceAsync(io.apicurio.registry.serde.strategy.ArtifactReference)
+     */
+    @Override
+    public CompletableFuture<SchemaLookupResult<S>> resolveSchemaByArtifactReferenceAsync(ArtifactReference reference) {
+        try {
+            return lookupSchemaByArtifactReference(reference, asyncExecutor);
+        } catch (RuntimeException e) {
+            CompletableFuture<SchemaLookupResult<S>> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    /**
+     * Loads the schemas referenced by globalId or contentId (and not cached yet) with as few registry requests
+     * as possible, see {@link io.apicurio.registry.rest.client.RegistryClient#lookupContent(List, List)}.  The
+     * schemas the batch lookup didn't return (or all of them, if it failed, for example against an older
+     * registry) and the ones referenced by coordinates are looked up one by one.
+     * @see io.apicurio.registry.serde.SchemaResolver#prefetch(java.util.List)
+     */
+    @Override
+    public CompletableFuture<Void> prefetch(List<ArtifactReference> references) {
+        List<Long> globalIds = new ArrayList<>();
+        List<Long> contentIds = new ArrayList<>();
+        List<ArtifactReference> others = new ArrayList<>();
+        for (ArtifactReference reference : references) {
+            if (reference.getContentId() != null) {
+                if (!schemaCacheByContentId.containsKey(reference.getContentId())
+                        && (persistentSchemaCache == null || persistentSchemaCache.getByContentId(reference.getContentId()) == null)) {
+                    contentIds.add(reference.getContentId());
+                    continue;
+                }
+            } else if (reference.getGlobalId() != null) {
+                if (!schemaCacheByGlobalId.containsKey(reference.getGlobalId())
+                        && (persistentSchemaCache == null || persistentSchemaCache.getByGlobalId(reference.getGlobalId()) == null)) {
+                    globalIds.add(reference.getGlobalId());
+                    continue;
+                }
+            }
+            others.add(reference);
+        }
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        for (int from = 0; from < globalIds.size() + contentIds.size(); from += PREFETCH_BATCH_SIZE) {
+            int to = from + PREFETCH_BATCH_SIZE;
+            List<Long> batchGlobalIds = globalIds.subList(Math.min(from, globalIds.size()), Math.min(to, globalIds.size()));
+            List<Long> batchContentIds = contentIds.subList(Math.min(Math.max(from - globalIds.size(), 0), contentIds.size()),
+                    Math.min(Math.max(to - globalIds.size(), 0), contentIds.size()));
+            lookups.add(CompletableFuture
+                    .runAsync(() -> loadSchemasByIds(batchGlobalIds, batchContentIds), asyncExecutor)
+                    .handle((ignored, e) -> null)
+                    .thenCompose(ignored -> {
+                        List<ArtifactReference> missing = new ArrayList<>();
+                        batchGlobalIds.stream()
+                                .filter(globalId -> !schemaCacheByGlobalId.containsKey(globalId))
+                                .forEach(globalId -> missing.add(ArtifactReference.fromGlobalId(globalId)));
+                        batchContentIds.stream()
+                                .filter(contentId -> !schemaCacheByContentId.containsKey(contentId))
+                                .forEach(contentId -> missing.add(ArtifactReference.builder().contentId(contentId).build()));
+                        return super.prefetch(missing);
+                    }));
+        }
+        lookups.add(super.prefetch(others));
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]));
+    }
+
+    private void loadSchemasByIds(List<Long> globalIds, List<Long> contentIds) {
+        ContentLookupResults results = client.lookupContent(globalIds, contentIds);
+        for (ContentLookupResult found : results.getResults()) {
+            byte[] schema = IoUtil.toBytes(found.getContent());
+            SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
+            result
+                .contentId(found.getContentId())
+                .rawSchema(schema)
+                .schema(schemaParser.parseSchema(schema));
+            if (found.getGlobalId() != null) {
+                SchemaLookupResult<S> lookupResult = result
+                        .globalId(found.getGlobalId())
+                        .groupId(found.getGroupId())
+                        .artifactId(found.getArtifactId())
+                        .version(found.getVersion())
+                        .build();
+                schemaCacheByGlobalId.putIfAbsent(found.getGlobalId(), lookupResult);
+                if (persistentSchemaCache != null) {
+                    persistentSchemaCache.putByGlobalId(found.getGlobalId(), schema);
+                }
+            } else if (found.getContentId() != null) {
+                schemaCacheByContentId.putIfAbsent(found.getContentId(), result.build());
+                if (persistentSchemaCache != null) {
+                    persistentSchemaCache.putByContentId(found.getContentId(), schema);
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<SchemaLookupResult<S>> lookupSchemaByArtifactReference(ArtifactReference reference, Executor executor) {
         //TODO add here more conditions whenever we support referencing by contentHash or some other thing
         if (reference.getContentId() != null) {
-            return resolveSchemaByContentId(reference.getContentId());
+            return lookupSchemaByContentId(reference.getContentId(), executor);
         }
         if (reference.getGlobalId() == null) {
-            return resolveSchemaByCoordinates(reference.getGroupId(), reference.getArtifactId(), reference.getVersion());
+            return lookupSchemaByCoordinates(reference.getGroupId(), reference.getArtifactId(), reference.getVersion(), executor);
         } else {
-            return resolveSchemaByGlobalId(reference.getGlobalId());
+            return lookupSchemaByGlobalId(reference.getGlobalId(), executor);
         }
     }
 
     private SchemaLookupResult<S> resolveSchemaByCoordinates(String groupId, String artifactId, String version) {
+        return join(lookupSchemaByCoordinates(groupId, artifactId, version, CALLER_EXECUTOR));
+    }
+
+    /**
+     * Returns the cached schema of the given artifact (version) while its check period lasts.  After that, the
+     * schema is looked up again, and meanwhile the expired schema keeps being served when configured to
+     * ({@link SerdeConfig#CHECK_PERIOD_SERVE_STALE}).
+     */
+    private CompletableFuture<SchemaLookupResult<S>> lookupSchemaByCoordinates(String groupId, String artifactId, String version,
+            Executor executor) {
         if (artifactId == null) {
             throw new IllegalStateException("artifactId cannot be null");
         }
 
         ArtifactReference reference = ArtifactReference.builder().groupId(groupId).artifactId(artifactId).version(version).build();
 
-        Long globalId = globalIdCacheByArtifactReference.compute(reference,
-                artifactReference -> {
-                    SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
-                    //TODO if getArtifactVersion returns the artifact version and globalid in the headers we can reduce this to only one http call
-                    Long gid;
-                    if (version == null) {
-                        ArtifactMetaData metadata = client.getArtifactMetaData(groupId, artifactId);
-                        loadFromArtifactMetaData(metadata, result);
-                        gid = metadata.getGlobalId();
-                    } else {
-                        VersionMetaData metadata = client.getArtifactVersionMetaData(groupId, artifactId, version);
-                        loadFromArtifactMetaData(metadata, result);
-                        gid = metadata.getGlobalId();
-                    }
+        Long globalId = globalIdCacheByArtifactReference.get(reference);
+        if (globalId != null) {
+            SchemaLookupResult<S> cached = schemaCacheByGlobalId.get(globalId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
 
-                    InputStream rawSchema = client.getContentByGlobalId(gid);
+        if (serveStale) {
+            Long staleGlobalId = globalIdCacheByArtifactReference.getStale(reference);
+            SchemaLookupResult<S> stale = staleGlobalId == null ? null : schemaCacheByGlobalId.get(staleGlobalId);
+            if (stale != null) {
+                singleFlight(reference, asyncExecutor, () -> loadSchemaByCoordinates(reference));
+                return CompletableFuture.completedFuture(stale);
+            }
+        }
+
+        return singleFlight(reference, executor, () -> loadSchemaByCoordinates(reference));
+    }
 
-                    byte[] schema = IoUtil.toBytes(rawSchema);
-                    S parsed = schemaParser.parseSchema(schema);
+    private SchemaLookupResult<S> loadSchemaByCoordinates(ArtifactReference reference) {
+        String groupId = reference.getGroupId();
+        String artifactId = reference.getArtifactId();
+        String version = reference.getVersion();
+
+        SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
+        //TODO if getArtifactVersion returns the artifact version and globalid in the headers we can reduce this to only one http call
+        Long gid;
+        if (version == null) {
+            ArtifactMetaData metadata = client.getArtifactMetaData(groupId, artifactId);
+            loadFromArtifactMetaData(metadata, result);
+            gid = metadata.getGlobalId();
+        } else {
+            VersionMetaData metadata = client.getArtifactVersionMetaData(groupId, artifactId, version);
+            loadFromArtifactMetaData(metadata, result);
+            gid = metadata.getGlobalId();
+        }
 
-                    result
-                        .rawSchema(schema)
-                        .schema(parsed);
+        SchemaLookupResult<S> lookupResult = schemaCacheByGlobalId.get(gid);
+        if (lookupResult == null) {
+            byte[] schema = loadContentByGlobalId(gid);
+            S parsed = schemaParser.parseSchema(schema);
 
-                    schemaCacheByGlobalId.put(gid, result.build());
-                    globalIdCacheByContent.put(IoUtil.toString(schema), gid);
-                    return gid;
-                });
+            result
+                .rawSchema(schema)
+                .schema(parsed);
 
-        return schemaCacheByGlobalId.get(globalId);
+            lookupResult = result.build();
+            schemaCacheByGlobalId.put(gid, lookupResult);
+            globalIdCacheByContent.put(IoUtil.toString(schema), gid);
+        }
+        globalIdCacheByArtifactReference.put(reference, gid);
+        return lookupResult;
     }
 
     protected SchemaLookupResult<S> resolveSchemaByContentId(long contentId) {
-        return schemaCacheByContentId.computeIfAbsent(contentId, k -> {
+        return join(lookupSchemaByContentId(contentId, CALLER_EXECUTOR));
+    }
 
-            // it's impossible to retrieve more info about the artifact with only the contentId, and that's ok for this case
-            InputStream rawSchema = client.getContentById(contentId);
+    private CompletableFuture<SchemaLookupResult<S>> lookupSchemaByContentId(long contentId, Executor executor) {
+        SchemaLookupResult<S> cached = schemaCacheByContentId.get(contentId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return singleFlight(ArtifactReference.builder().contentId(contentId).build(), executor, () -> {
 
-            byte[] schema = IoUtil.toBytes(rawSchema);
+            // it's impossible to retrieve more info about the artifact with only the contentId, and that's ok for this case
+            byte[] schema = loadContentByContentId(contentId);
             S parsed = schemaParser.parseSchema(schema);
 
             SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
 
-            return result
+            SchemaLookupResult<S> lookupResult = result
                     .contentId(contentId)
                     .rawSchema(schema)
                     .schema(parsed)
                     .build();
+            schemaCacheByContentId.put(contentId, lookupResult);
+            return lookupResult;
         });
     }
 
@@ -185,7 +337,11 @@ public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
         byte[] rawSchema = parsedSchema.getRawSchema();
         String rawSchemaString = IoUtil.toString(rawSchema);
 
-        Long globalId = globalIdCacheByContent.computeIfAbsent(rawSchemaString, key -> {
+        SchemaLookupResult<S> cached = getCachedByContent(rawSchemaString);
+        if (cached != null) {
+            return cached;
+        }
+        return join(singleFlight(rawSchemaString, CALLER_EXECUTOR, () -> {
             VersionMetaData artifactMetadata = client.getArtifactVersionMetaDataByContent(artifactReference.getGroupId(), artifactReference.getArtifactId(), true, IoUtil.toStream(rawSchema));
 
             SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
@@ -196,13 +352,8 @@ public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
             result.rawSchema(rawSchema);
             result.schema(schema);
 
-            Long artifactGlobalId = artifactMetadata.getGlobalId();
-            schemaCacheByGlobalId.put(artifactGlobalId, result.build());
-            globalIdCacheByArtifactReference.put(artifactReference, artifactGlobalId);
-            return artifactGlobalId;
-        });
-
-        return schemaCacheByGlobalId.get(globalId);
+            return cacheByContent(rawSchemaString, artifactReference, artifactMetadata.getGlobalId(), result.build());
+        }));
     }
 
     private SchemaLookupResult<S> handleAutoCreateArtifact(ParsedSchema<S> parsedSchema,
@@ -210,7 +361,11 @@ public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
         byte[] rawSchema = parsedSchema.getRawSchema();
         String rawSchemaString = IoUtil.toString(rawSchema);
 
-        Long globalId = globalIdCacheByContent.computeIfAbsent(rawSchemaString, key -> {
+        SchemaLookupResult<S> cached = getCachedByContent(rawSchemaString);
+        if (cached != null) {
+            return cached;
+        }
+        return join(singleFlight(rawSchemaString, CALLER_EXECUTOR, () -> {
             ArtifactMetaData artifactMetadata = client.createArtifact(artifactReference.getGroupId(), artifactReference.getArtifactId(), artifactReference.getVersion(), schemaParser.artifactType(), this.autoCreateBehavior, false, IoUtil.toStream(rawSchema));
 
             SchemaLookupResult.SchemaLookupResultBuilder<S> result = SchemaLookupResult.builder();
@@ -221,13 +376,21 @@ public class DefaultSchemaResolver<S, T> extends AbstractSchemaResolver<S, T>{
             result.rawSchema(rawSchema);
             result.schema(schema);
 
-            Long newGlobalId = artifactMetadata.getGlobalId();
-            schemaCacheByGlobalId.put(newGlobalId, result.build());
-            globalIdCacheByArtifactReference.put(artifactReference, newGlobalId);
-            return newGlobalId;
-        });
+            return cacheByContent(rawSchemaString, artifactReference, artifactMetadata.getGlobalId(), result.build());
+        }));
+    }
+
+    private SchemaLookupResult<S> getCachedByContent(String rawSchema) {
+        Long globalId = globalIdCacheByContent.get(rawSchema);
+        return globalId == null ? null : schemaCacheByGlobalId.get(globalId);
+    }
 
-        return schemaCacheByGlobalId.get(globalId);
+    private SchemaLookupResult<S> cacheByContent(String rawSchema, ArtifactReference artifactReference, Long globalId,
+            SchemaLookupResult<S> lookupResult) {
+        schemaCacheByGlobalId.put(globalId, lookupResult);
+        globalIdCacheByArtifactReference.put(artifactReference, globalId);
+        globalIdCacheByContent.put(rawSchema, globalId);
+        return lookupResult;
     }
 
 }
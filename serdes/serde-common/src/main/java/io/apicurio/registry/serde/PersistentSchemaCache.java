@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache of schema content, by globalId and by contentId, so that the schemas survive restarts and
+ * registry outages.  Both ids identify immutable content, so entries are never updated.
+ * <p>
+ * The content is stored once per SHA-256 hash (content/&lt;hash&gt;), and the ids point to the hash
+ * (global-ids/&lt;globalId&gt;, content-ids/&lt;contentId&gt;).  Files are written to a temporary file and then
+ * atomically moved into place, content first, so several processes can share the directory: readers see a
+ * complete entry or none.  Reads are memory-mapped and checked against the hash.
+ * <p>
+ * The ids are only unique within a registry (and tenant), so the entries live in a subdirectory named after a hash of
+ * the registry url and tenant id.  The tenant is usually part of the url, but may also be sent in a header.  A
+ * registry that is reset (or re-imported) under the same url may reuse the ids, so the directory must be cleared then.
+ * <p>
+ * Failures are logged and treated as a cache miss, the cache never fails a lookup.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class PersistentSchemaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentSchemaCache.class);
+
+    private final Path contentDirectory;
+    private final Path globalIdsDirectory;
+    private final Path contentIdsDirectory;
+
+    /**
+     * Constructor.
+     * @param directory created if missing
+     * @param registryUrl
+     * @param tenantId null unless sent in a header
+     */
+    public PersistentSchemaCache(Path directory, String registryUrl, String tenantId) {
+        String registry = registryUrl == null ? "" : registryUrl.replaceAll("/+$", "");
+        directory = directory.resolve(hash((registry + "\n" + (tenantId == null ? "" : tenantId)).getBytes(StandardCharsets.UTF_8)));
+        this.contentDirectory = directory.resolve("content");
+        this.globalIdsDirectory = directory.resolve("global-ids");
+        this.contentIdsDirectory = directory.resolve("content-ids");
+        try {
+            Files.createDirectories(contentDirectory);
+            Files.createDirectories(globalIdsDirectory);
+            Files.createDirectories(contentIdsDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create the schema cache directory " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the content with the given globalId, or null if it's not cached.
+     */
+    public byte[] getByGlobalId(long globalId) {
+        return get(globalIdsDirectory.resolve(String.valueOf(globalId)));
+    }
+
+    /**
+     * Returns the content with the given contentId, or null if it's not cached.
+     */
+    public byte[] getByContentId(long contentId) {
+        return get(contentIdsDirectory.resolve(String.valueOf(contentId)));
+    }
+
+    public void putByGlobalId(long globalId, byte[] content) {
+        put(globalIdsDirectory.resolve(String.valueOf(globalId)), content);
+    }
+
+    public void putByContentId(long contentId, byte[] content) {
+        put(contentIdsDirectory.resolve(String.valueOf(contentId)), content);
+    }
+
+    private byte[] get(Path idFile) {
+        try {
+            String hash = new String(read(idFile), StandardCharsets.US_ASCII);
+            byte[] content = read(contentDirectory.resolve(hash));
+            if (!hash.equals(hash(content))) {
+                log.warn("Ignoring corrupted schema cache entry {}", idFile);
+                return null;
+            }
+            return content;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read schema cache entry " + idFile, e);
+            return null;
+        }
+    }
+
+    private void put(Path idFile, byte[] content) {
+        try {
+            if (Files.exists(idFile)) {
+                return;
+            }
+            String hash = hash(content);
+            Path contentFile = contentDirectory.resolve(hash);
+            if (!Files.exists(contentFile)) {
+                write(contentFile, content);
+            }
+            write(idFile, hash.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write schema cache entry " + idFile, e);
+        }
+    }
+
+    private static byte[] read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Writes the file under a temporary name, then moves it into place.  Another process may have written the
+     * same (immutable) entry meanwhile, which is fine.
+     */
+    private static void write(Path file, byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), ".tmp-", null);
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // written by another process
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -16,7 +16,10 @@
 
 package io.apicurio.registry.serde;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.kafka.common.header.Headers;
 
 import io.apicurio.registry.rest.client.RegistryClient;
@@ -59,6 +62,34 @@ public interface SchemaResolver<SCHEMA, DATA> {
      */
     public SchemaLookupResult<SCHEMA> resolveSchemaByArtifactReference(ArtifactReference reference);
 
+    /**
+     * Non-blocking variant of {@link #resolveSchemaByArtifactReference(ArtifactReference)}.  By default the lookup
+     * runs on the calling thread.
+     * @param reference
+     * @return the future SchemaLookupResult
+     */
+    public default CompletableFuture<SchemaLookupResult<SCHEMA>> resolveSchemaByArtifactReferenceAsync(ArtifactReference reference) {
+        CompletableFuture<SchemaLookupResult<SCHEMA>> result = new CompletableFuture<>();
+        try {
+            result.complete(resolveSchemaByArtifactReference(reference));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the schemas of the given artifacts into the cache (if supported), for example when a serializer starts,
+     * so that the first records don't wait for the registry.
+     * @param references
+     * @return a future completed once all the schemas are loaded
+     */
+    public default CompletableFuture<Void> prefetch(List<ArtifactReference> references) {
+        return CompletableFuture.allOf(references.stream()
+                .map(this::resolveSchemaByArtifactReferenceAsync)
+                .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Hard reset cache
      */
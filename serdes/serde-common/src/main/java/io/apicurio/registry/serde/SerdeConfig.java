@@ -163,6 +163,20 @@ public class SerdeConfig {
      */
     public static final String CHECK_PERIOD_MS = "apicurio.registry.check-period-ms";
 
+    /**
+     * Once the check period of a cached artifact has passed, keep serving it while it is refreshed in the background,
+     * rather than blocking on the registry.  Only used when {@link SerdeConfig#CHECK_PERIOD_MS} is set.
+     */
+    public static final String CHECK_PERIOD_SERVE_STALE = "apicurio.registry.check-period.serve-stale";
+    public static final boolean CHECK_PERIOD_SERVE_STALE_DEFAULT = true;
+
+    /**
+     * Directory of an on-disk cache of the schemas (by globalId and contentId), consulted before the registry so that
+     * the schemas survive restarts and registry outages.  May be shared by several processes (the entries are kept apart
+     * per registry url and tenant).  Disabled if not set.
+     */
+    public static final String SCHEMA_CACHE_DIRECTORY = "apicurio.registry.schema-cache.directory";
+
     /**
      * Configures the serdes to use the specified {@link IdOption} as the identifier for the artifacts.
      * Instructs the serializer to write the specified id into the kafka records and
@@ -241,6 +255,22 @@ public class SerdeConfig {
     public static final String FALLBACK_ARTIFACT_PROVIDER = "apicurio.registry.fallback.provider";
     public static final String FALLBACK_ARTIFACT_PROVIDER_DEFAULT = DefaultFallbackArtifactProvider.class.getName();
 
+    /**
+     * Only applicable for serializers
+     * Boolean to indicate whether the serializer should write each record into a reusable (per thread) buffer, and
+     * return an exact-size copy of it, instead of writing into a new buffer for every record.
+     */
+    public static final String SERIALIZER_REUSE_BUFFER = "apicurio.registry.serializer.reuse-buffer";
+    public static final boolean SERIALIZER_REUSE_BUFFER_DEFAULT = true;
+
+    /**
+     * Only applicable for serializers
+     * The largest reusable buffer (in bytes) that is kept per thread when {@link SerdeConfig#SERIALIZER_REUSE_BUFFER}
+     * is enabled.  A buffer that grew larger (for a large record) is dropped after use.
+     */
+    public static final String SERIALIZER_REUSE_BUFFER_MAX_SIZE = "apicurio.registry.serializer.reuse-buffer.max-size";
+    public static final int SERIALIZER_REUSE_BUFFER_MAX_SIZE_DEFAULT = 1024 * 1024;
+
 
     /**
      * Fully qualified Java classname of a class that will be used as the return type for the deserializer. Aplicable for keys deserialization.
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde.config;
+
+import static io.apicurio.registry.serde.SerdeConfig.SERIALIZER_REUSE_BUFFER;
+import static io.apicurio.registry.serde.SerdeConfig.SERIALIZER_REUSE_BUFFER_DEFAULT;
+import static io.apicurio.registry.serde.SerdeConfig.SERIALIZER_REUSE_BUFFER_MAX_SIZE;
+import static io.apicurio.registry.serde.SerdeConfig.SERIALIZER_REUSE_BUFFER_MAX_SIZE_DEFAULT;
+import java.util.Map;
+
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigDef.Importance;
+import org.apache.kafka.common.config.ConfigDef.Type;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+public class BaseKafkaSerializerConfig extends BaseKafkaSerDeConfig {
+
+    public static ConfigDef configDef() {
+        ConfigDef configDef = new ConfigDef()
+                .define(SERIALIZER_REUSE_BUFFER, Type.BOOLEAN, SERIALIZER_REUSE_BUFFER_DEFAULT, Importance.LOW, "TODO docs")
+                .define(SERIALIZER_REUSE_BUFFER_MAX_SIZE, Type.INT, SERIALIZER_REUSE_BUFFER_MAX_SIZE_DEFAULT, Importance.LOW, "TODO docs");
+
+        return configDef;
+    }
+
+    public BaseKafkaSerializerConfig(Map<?, ?> originals) {
+        super(configDef(), originals);
+    }
+
+    public boolean reuseBuffer() {
+        return this.getBoolean(SERIALIZER_REUSE_BUFFER);
+    }
+
+    public int reuseBufferMaxSize() {
+        return this.getInt(SERIALIZER_REUSE_BUFFER_MAX_SIZE);
+    }
+
+}
@@ -47,6 +47,8 @@ public class DefaultSchemaResolverConfig extends BaseKafkaSerDeConfig {
                 .define(FIND_LATEST_ARTIFACT, Type.BOOLEAN, FIND_LATEST_ARTIFACT_DEFAULT, Importance.HIGH, "TODO docs")
 
                 .define(CHECK_PERIOD_MS, Type.LONG, null, Importance.MEDIUM, "TODO docs")
+                .define(CHECK_PERIOD_SERVE_STALE, Type.BOOLEAN, CHECK_PERIOD_SERVE_STALE_DEFAULT, Importance.LOW, "TODO docs")
+                .define(SCHEMA_CACHE_DIRECTORY, Type.STRING, null, Importance.LOW, "TODO docs")
 
                 .define(EXPLICIT_ARTIFACT_GROUP_ID, Type.STRING, null, Importance.MEDIUM, "TODO docs")
                 .define(EXPLICIT_ARTIFACT_ID, Type.STRING, null, Importance.MEDIUM, "TODO docs");
@@ -106,6 +108,14 @@ public class DefaultSchemaResolverConfig extends BaseKafkaSerDeConfig {
         return this.get(CHECK_PERIOD_MS);
     }
 
+    public boolean serveStale() {
+        return this.getBoolean(CHECK_PERIOD_SERVE_STALE);
+    }
+
+    public String getSchemaCacheDirectory() {
+        return this.getString(SCHEMA_CACHE_DIRECTORY);
+    }
+
     public String getExplicitArtifactGroupId() {
         return this.getString(EXPLICIT_ARTIFACT_GROUP_ID);
     }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.serde.utils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A {@link ByteArrayOutputStream} that is reset and reused for many records, so that its buffer only has to
+ * grow once (rather than for every record).  Not thread safe - each thread must use its own instance.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final int INITIAL_SIZE = 1024;
+
+    public ReusableByteArrayOutputStream() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * Returns the current size of the buffer (not of the content).
+     */
+    public int capacity() {
+        return buf.length;
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlSink;
+import io.apicurio.registry.storage.impl.kafkasql.values.AbstractMessageValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.RegistryException;
+
+/**
+ * Applies the journal records consumed by the KSQL Kafka consumer thread to the {@link KafkaSqlSink}.
+ *
+ * With a single apply thread (the default) records are applied inline on the consumer thread.  When more
+ * threads are configured (<code>registry.kafkasql.consumer.apply.threads</code>), each record is handed to
+ * one of a fixed set of single-threaded lanes chosen by hashing {@link MessageKey#getPartitionKey()}.  All
+ * records for the same artifact (or tenant-wide sequence, global rules, etc.) therefore always land on the
+ * same lane and are applied in journal order, while records for unrelated artifacts, groups and tenants
+ * are applied in parallel.
+ *
+ * Some records depend on state written under a different partition key (e.g. a new artifact version needs
+ * its content, deleting a group deletes all of its artifacts, resetting the id sequences needs all imported
+ * versions).  Those records act as a barrier: all lanes are drained before the record is applied on the
+ * consumer thread.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class KafkaSqlApplier {
+
+    @Inject
+    Logger log;
+
+    @Inject
+    KafkaSqlConfiguration configuration;
+
+    @Inject
+    KafkaSqlSink sink;
+
+    private ExecutorService[] lanes;
+    private Semaphore capacity;
+
+    @PostConstruct
+    void init() {
+        int threads = configuration.applyThreads();
+        if (threads > 1) {
+            log.info("Applying KafkaSQL journal records using {} threads.", threads);
+            lanes = new ExecutorService[threads];
+            for (int idx = 0; idx < threads; idx++) {
+                final String name = "KSQL Apply Thread " + idx;
+                lanes[idx] = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    thread.setName(name);
+                    return thread;
+                });
+            }
+            capacity = new Semaphore(configuration.applyQueueCapacity());
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (lanes != null) {
+            for (ExecutorService lane : lanes) {
+                lane.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Applies the given record, either inline or on the lane owning its partition key.  Blocks the caller
+     * when too many records are already waiting to be applied.
+     * @param record
+     */
+    public void apply(ConsumerRecord<MessageKey, MessageValue> record) {
+        if (lanes == null) {
+            sink.processMessage(record);
+            return;
+        }
+
+        if (isBarrier(record)) {
+            drain();
+            sink.processMessage(record);
+            return;
+        }
+
+        acquire();
+        ExecutorService lane = lanes[Utils.toPositive(Utils.murmur2(record.key().getPartitionKey().getBytes())) % lanes.length];
+        try {
+            lane.execute(() -> {
+                try {
+                    sink.processMessage(record);
+                } finally {
+                    capacity.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every record handed to {@link #apply(ConsumerRecord)} so far has been applied.
+     */
+    public void drain() {
+        if (lanes == null) {
+            return;
+        }
+        CompletableFuture<?>[] markers = new CompletableFuture<?>[lanes.length];
+        for (int idx = 0; idx < lanes.length; idx++) {
+            markers[idx] = CompletableFuture.runAsync(() -> {}, lanes[idx]);
+        }
+        try {
+            CompletableFuture.allOf(markers).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryException("[KafkaSqlApplier] Thread interrupted waiting for journal records to be applied.", e);
+        } catch (Exception e) {
+            throw new RegistryException(e);
+        }
+    }
+
+    /**
+     * Returns true if the record may depend on (or affect) state owned by other partition keys.
+     * @param record
+     */
+    private boolean isBarrier(ConsumerRecord<MessageKey, MessageValue> record) {
+        switch (record.key().getType()) {
+            case Content:
+            case Group:
+                return true;
+            case GlobalId:
+            case ContentId:
+                return record.value() instanceof AbstractMessageValue
+                        && ((AbstractMessageValue) record.value()).getAction() == ActionType.Reset;
+            default:
+                return false;
+        }
+    }
+
+    private void acquire() {
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryException("[KafkaSqlApplier] Thread interrupted waiting to apply a journal record.", e);
+        }
+    }
+
+}
@@ -29,7 +29,18 @@ public interface KafkaSqlConfiguration {
     public boolean isTopicAutoCreate();
     public Integer startupLag();
     public Integer pollTimeout();
+    public Integer applyThreads();
+    public Integer applyQueueCapacity();
+    public boolean isSnapshotEnabled();
+    public String snapshotLocation();
+    public Integer snapshotInterval();
+    public Integer snapshotMaxPause();
     public Integer responseTimeout();
+    public boolean isSubmitterBatchingEnabled();
+    public Integer submitterBatchSize();
+    public Integer submitterQueueCapacity();
+    public Integer submitterMaxInFlightBatches();
+    public boolean isBinarySerdeEnabled();
     public Properties producerProperties();
     public Properties consumerProperties();
     public Properties adminProperties();
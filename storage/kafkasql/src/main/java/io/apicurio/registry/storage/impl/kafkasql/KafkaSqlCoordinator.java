@@ -16,97 +16,250 @@
 
 package io.apicurio.registry.storage.impl.kafkasql;
 
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_INFLIGHT;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_INFLIGHT_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_TIMEOUTS;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_TIMEOUTS_DESCRIPTION;
+
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
 import io.apicurio.registry.types.RegistryException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 
 /**
  * Coordinates "write" responses across threads in the Kafka-SQL artifactStore implementation.  Basically this is used
  * to communicate between the Kafka consumer thread and the waiting HTTP/API thread, where the HTTP thread is
  * waiting for an operation to be completed by the Kafka consumer thread.
  *
+ * Every operation that a caller waits for gets a request id from a monotonic sequence and a single future in the
+ * pending responses map.  The id is sent along with the journal message (in the "req" header, together with an
+ * id unique to this registry instance so that responses to operations submitted by other nodes are ignored
+ * cheaply).  Messages nobody waits for (tombstones, imports, ...) are sent without a request id, so they never
+ * show up in the map.  A response is removed from the map once its caller has it, and operations that don't get
+ * a response within the configured timeout are failed and evicted by a timer wheel, so nothing is left behind
+ * in the map when the Kafka consumer falls behind.
+ *
  * @author eric.wittmann@gmail.com
  */
 @ApplicationScoped
 public class KafkaSqlCoordinator {
 
+    public static final String REQUEST_HEADER = "req";
+
+    private static final int REQUEST_HEADER_LENGTH = 16;
+
     @Inject
     KafkaSqlConfiguration configuration;
 
-    private static final Object NULL = new Object();
-    private Map<UUID, CountDownLatch> latches = new ConcurrentHashMap<>();
-    private Map<UUID, Object> returnValues = new ConcurrentHashMap<>();
+    @Inject
+    MeterRegistry registry;
+
+    private final long instanceId = UUID.randomUUID().getMostSignificantBits();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Map<Long, PendingResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder timeouts = new LongAdder();
+    private HashedWheelTimer timer;
+
+    @PostConstruct
+    void init() {
+        timer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            thread.setName("KSQL Coordinator Timeout Thread");
+            return thread;
+        }, 10, TimeUnit.MILLISECONDS);
+
+        Gauge.builder(KAFKASQL_REQUESTS_INFLIGHT, inflight, AtomicInteger::get)
+            .description(KAFKASQL_REQUESTS_INFLIGHT_DESCRIPTION)
+            .register(registry);
+        FunctionCounter.builder(KAFKASQL_REQUESTS_TIMEOUTS, timeouts, LongAdder::sum)
+            .description(KAFKASQL_REQUESTS_TIMEOUTS_DESCRIPTION)
+            .register(registry);
+    }
+
+    @PreDestroy
+    void destroy() {
+        timer.stop();
+    }
 
     /**
-     * Creates a UUID for a single operation.
+     * Creates a request id for a single operation, and starts the clock on its response timeout.  Only
+     * create one for operations that the caller will wait for (see {@link #waitForResponse(long)}).
      */
-    public UUID createUUID() {
-        UUID uuid = UUID.randomUUID();
-        latches.put(uuid, new CountDownLatch(1));
-        return uuid;
+    public long createRequestId() {
+        final long requestId = requestIds.incrementAndGet();
+        PendingResponse response = new PendingResponse();
+        responses.put(requestId, response);
+        inflight.incrementAndGet();
+        response.timeout = timer.newTimeout(t -> expire(requestId), configuration.responseTimeout(), TimeUnit.MILLISECONDS);
+        return requestId;
     }
 
     /**
-     * Waits for a response to the operation with the given UUID. There is a countdown latch for each operation.  The
-     * caller waiting for the response will wait for the countdown to happen and then proceed.  We also remove
-     * the latch from the Map here since it's not needed anymore.
+     * Creates the Kafka message header used to send the given request id along with the journal message.
+     * @param requestId
+     */
+    public Header createRequestHeader(long requestId) {
+        byte[] value = ByteBuffer.allocate(REQUEST_HEADER_LENGTH).putLong(instanceId).putLong(requestId).array();
+        return new RecordHeader(REQUEST_HEADER, value);
+    }
+
+    /**
+     * Extracts the request id from the given Kafka message headers.  Returns null if the message was not
+     * submitted by this registry instance (or was written by an older version of the registry), in which
+     * case nobody can be waiting for its response.
+     * @param headers
+     */
+    public Long extractRequestId(Headers headers) {
+        Header header = headers.lastHeader(REQUEST_HEADER);
+        if (header == null || header.value() == null || header.value().length != REQUEST_HEADER_LENGTH) {
+            return null;
+        }
+        ByteBuffer value = ByteBuffer.wrap(header.value());
+        if (value.getLong() != instanceId) {
+            return null;
+        }
+        return value.getLong();
+    }
+
+    /**
+     * Waits for a response to the operation with the given request id.  The caller waiting for the response
+     * will wait for the operation's future to complete (or to be timed out by the timer wheel) and then
+     * proceed.  We also remove the future from the Map here since it's not needed anymore (unless the response
+     * already removed it).
      *
-     * @param uuid
-     * @throws InterruptedException
+     * @param requestId
      */
-    public Object waitForResponse(UUID uuid) {
+    public Object waitForResponse(long requestId) {
+        PendingResponse response = responses.get(requestId);
+        if (response == null) {
+            throw new RegistryException("[KafkaSqlCoordinator] No pending operation found for request: " + requestId);
+        }
+        response.waiting = true;
         try {
-            latches.get(uuid).await(configuration.responseTimeout(), TimeUnit.MILLISECONDS);
-
-            Object rval = returnValues.remove(uuid);
-            if (rval == NULL) {
-                return null;
-            } else if (rval instanceof RegistryException) {
-                throw (RegistryException) rval;
-            }
-            return rval;
+            return response.get();
         } catch (InterruptedException e) {
-          throw new RegistryException("[KafkaSqlCoordinator] Thread interrupted waiting for a Kafka Sql response.", e);
+            Thread.currentThread().interrupt();
+            throw new RegistryException("[KafkaSqlCoordinator] Thread interrupted waiting for a Kafka Sql response.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RegistryException) {
+                throw (RegistryException) cause;
+            }
+            throw new RegistryException(cause);
         } finally {
-            latches.remove(uuid);
+            responses.remove(requestId, response);
+            response.timeout.cancel();
         }
     }
 
     /**
-     * Countdown the latch for the given UUID.  This will wake up the thread waiting for the response
+     * Completes the future for the given request id.  This will wake up the thread waiting for the response
      * so that it can proceed.
-     * @param uuid
+     * @param requestId
      * @param returnValue
      */
-    public void notifyResponse(UUID uuid, Object returnValue) {
+    public void notifyResponse(Long requestId, Object returnValue) {
         //we are re-using the topic from a streams based registry instance
-        if (uuid == null) {
+        if (requestId == null) {
             return;
         }
 
-        // If there is no countdown latch, then there is no HTTP thread waiting for
+        // If there is no future, then there is no HTTP thread waiting for
         // a response.  This means one of two possible things:
-        //  1) We're in a cluster and the HTTP thread is on another node
-        //  2) We're starting up and consuming all the old journal entries
-        if (!latches.containsKey(uuid)) {
+        //  1) We're starting up and consuming all the old journal entries
+        //  2) The operation already timed out
+        PendingResponse response = responses.get(requestId);
+        if (response == null) {
+            return;
+        }
+
+        // Otherwise, complete the future.  This will notify the HTTP thread that the operation
+        // is complete and there is a return value waiting for it.
+        if (returnValue instanceof RegistryException) {
+            completed(requestId, response, response.completeExceptionally((RegistryException) returnValue));
+        } else {
+            completed(requestId, response, response.complete(returnValue));
+        }
+    }
+
+    /**
+     * Fails the operation with the given request id.  Used when the journal message could not be written
+     * to the Kafka topic, in which case the consumer thread will never produce a response.
+     * @param requestId
+     * @param error
+     */
+    public void notifyFailure(long requestId, Throwable error) {
+        PendingResponse response = responses.get(requestId);
+        if (response != null) {
+            completed(requestId, response,
+                    response.completeExceptionally(error instanceof RegistryException ? error : new RegistryException(error)));
+        }
+    }
+
+    /**
+     * Stops the clock on a response that was just completed.  If its caller is already waiting, it holds the
+     * future and the entry can go right away - otherwise the caller removes it once it gets there.
+     * @param requestId
+     * @param response
+     * @param completed whether this call completed the response (and not an earlier one)
+     */
+    private void completed(long requestId, PendingResponse response, boolean completed) {
+        if (!completed) {
             return;
         }
+        inflight.decrementAndGet();
+        response.timeout.cancel();
+        if (response.waiting) {
+            responses.remove(requestId, response);
+        }
+    }
 
-        // Otherwise, put the return value in the Map and countdown the latch.  The latch
-        // countdown will notify the HTTP thread that the operation is complete and there is
-        // a return value waiting for it.
-        if (returnValue == null) {
-            returnValue = NULL;
+    /**
+     * Called by the timer wheel when an operation did not get a response in time.  Note that the journal
+     * message may still be applied later on - the caller just stops waiting for it.
+     * @param requestId
+     */
+    private void expire(long requestId) {
+        PendingResponse response = responses.remove(requestId);
+        if (response != null && response.completeExceptionally(new RegistryException(
+                "[KafkaSqlCoordinator] Timed out waiting for a Kafka Sql response for request: " + requestId))) {
+            inflight.decrementAndGet();
+            timeouts.increment();
         }
-        returnValues.put(uuid, returnValue);
-        latches.get(uuid).countDown();
+    }
+
+    /**
+     * The future for a single pending operation, along with its scheduled timeout.
+     */
+    private static class PendingResponse extends CompletableFuture<Object> {
+
+        private volatile Timeout timeout;
+        private volatile boolean waiting;
+
     }
 
 }
@@ -16,6 +16,8 @@
 
 package io.apicurio.registry.storage.impl.kafkasql;
 
+import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -69,10 +71,54 @@ public class KafkaSqlFactory {
     @ConfigProperty(name = "registry.kafkasql.consumer.poll.timeout", defaultValue = "1000")
     Integer pollTimeout;
 
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.consumer.apply.threads", defaultValue = "1")
+    Integer applyThreads;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.consumer.apply.queue-capacity", defaultValue = "10000")
+    Integer applyQueueCapacity;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.enabled", defaultValue = "false")
+    Boolean snapshotEnabled;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.location")
+    Optional<String> snapshotLocation;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.interval", defaultValue = "600000")
+    Integer snapshotInterval;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.snapshot.max-pause", defaultValue = "5000")
+    Integer snapshotMaxPause;
+
     @Inject
     @ConfigProperty(name = "registry.kafkasql.coordinator.response-timeout", defaultValue = "30000")
     Integer responseTimeout;
 
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.submitter.batching.enabled", defaultValue = "false")
+    Boolean submitterBatchingEnabled;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.submitter.batching.batch-size", defaultValue = "500")
+    Integer submitterBatchSize;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.submitter.batching.queue-capacity", defaultValue = "10000")
+    Integer submitterQueueCapacity;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.submitter.batching.max-in-flight", defaultValue = "5")
+    Integer submitterMaxInFlightBatches;
+
+    @Inject
+    @ConfigProperty(name = "registry.kafkasql.serde.binary.enabled", defaultValue = "false")
+    Boolean binarySerdeEnabled;
+
     @Inject
     @RegistryProperties(
             value = {"registry.kafka.common", "registry.kafkasql.producer"},
@@ -123,10 +169,54 @@ public class KafkaSqlFactory {
                 return pollTimeout;
             }
             @Override
+            public Integer applyThreads() {
+                return applyThreads;
+            }
+            @Override
+            public Integer applyQueueCapacity() {
+                return applyQueueCapacity;
+            }
+            @Override
+            public boolean isSnapshotEnabled() {
+                return snapshotEnabled;
+            }
+            @Override
+            public String snapshotLocation() {
+                return snapshotLocation.orElse(Paths.get(System.getProperty("java.io.tmpdir"), "kafkasql-snapshot").toString());
+            }
+            @Override
+            public Integer snapshotInterval() {
+                return snapshotInterval;
+            }
+            @Override
+            public Integer snapshotMaxPause() {
+                return snapshotMaxPause;
+            }
+            @Override
             public Integer responseTimeout() {
                 return responseTimeout;
             }
             @Override
+            public boolean isSubmitterBatchingEnabled() {
+                return submitterBatchingEnabled;
+            }
+            @Override
+            public Integer submitterBatchSize() {
+                return submitterBatchSize;
+            }
+            @Override
+            public Integer submitterQueueCapacity() {
+                return submitterQueueCapacity;
+            }
+            @Override
+            public Integer submitterMaxInFlightBatches() {
+                return submitterMaxInFlightBatches;
+            }
+            @Override
+            public boolean isBinarySerdeEnabled() {
+                return binarySerdeEnabled;
+            }
+            @Override
             public Properties producerProperties() {
                 return producerProperties;
             }
@@ -159,8 +249,10 @@ public class KafkaSqlFactory {
         props.putIfAbsent(ProducerConfig.PARTITIONER_CLASS_CONFIG, KafkaSqlPartitioner.class);
 
         // Create the Kafka producer
-        KafkaSqlKeySerializer keySerializer = new KafkaSqlKeySerializer();
-        KafkaSqlValueSerializer valueSerializer = new KafkaSqlValueSerializer();
+        // Records written using the binary encoding can only be read by registry versions that support it,
+        // so it must only be enabled once every node in the cluster has been upgraded.
+        KafkaSqlKeySerializer keySerializer = new KafkaSqlKeySerializer(binarySerdeEnabled);
+        KafkaSqlValueSerializer valueSerializer = new KafkaSqlValueSerializer(binarySerdeEnabled);
         return new AsyncProducer<MessageKey, MessageValue>(props, keySerializer, valueSerializer);
     }
 
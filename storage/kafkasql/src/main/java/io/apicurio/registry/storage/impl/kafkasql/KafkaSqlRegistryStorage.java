@@ -36,6 +36,9 @@ import io.apicurio.registry.storage.RegistryStorageException;
 import io.apicurio.registry.storage.RuleAlreadyExistsException;
 import io.apicurio.registry.storage.RuleNotFoundException;
 import io.apicurio.registry.storage.VersionNotFoundException;
+import io.apicurio.registry.storage.dto.ArtifactAndGlobalRulesDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchItemDto;
+import io.apicurio.registry.storage.dto.ArtifactBatchResultDto;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.ArtifactSearchResultsDto;
 import io.apicurio.registry.storage.dto.ArtifactVersionMetaDataDto;
@@ -44,6 +47,7 @@ import io.apicurio.registry.storage.dto.GroupMetaDataDto;
 import io.apicurio.registry.storage.dto.LogConfigurationDto;
 import io.apicurio.registry.storage.dto.OrderBy;
 import io.apicurio.registry.storage.dto.OrderDirection;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
 import io.apicurio.registry.storage.dto.RuleConfigurationDto;
 import io.apicurio.registry.storage.dto.SearchFilter;
 import io.apicurio.registry.storage.dto.StoredArtifactDto;
@@ -52,12 +56,12 @@ import io.apicurio.registry.storage.impexp.EntityInputStream;
 import io.apicurio.registry.storage.impl.AbstractRegistryStorage;
 import io.apicurio.registry.storage.impl.kafkasql.keys.BootstrapKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
-import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlSink;
 import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlStore;
 import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
 import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
 import io.apicurio.registry.types.ArtifactState;
 import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RegistryException;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProvider;
 import io.apicurio.registry.types.provider.ArtifactTypeUtilProviderFactory;
@@ -74,8 +78,10 @@ import io.quarkus.runtime.StartupEvent;
 import io.quarkus.security.identity.SecurityIdentity;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.errors.TopicExistsException;
 import org.slf4j.Logger;
@@ -86,11 +92,14 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +108,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * An implementation of a registry artifactStore that extends the basic SQL artifactStore but federates 'write' operations
@@ -125,7 +136,10 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     KafkaSqlCoordinator coordinator;
 
     @Inject
-    KafkaSqlSink kafkaSqlSink;
+    KafkaSqlApplier applier;
+
+    @Inject
+    KafkaSqlSnapshotManager snapshots;
 
     @Inject
     KafkaSqlStore sqlStore;
@@ -222,7 +236,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     /**
      * Start the KSQL Kafka consumer thread which is responsible for subscribing to the kafka topic,
      * consuming JournalRecord entries found on that topic, and applying those journal entries to
-     * the internal data model.
+     * the internal data model (via the {@link KafkaSqlApplier}).
      * @param consumer
      */
     private void startConsumerThread(final KafkaConsumer<MessageKey, MessageValue> consumer) {
@@ -242,9 +256,21 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
 
                 log.info("Subscribing to {}", configuration.topic());
 
+                // Restore the latest snapshot (if any) so that only the tail of the journal is replayed
+                final Map<TopicPartition, Long> snapshotOffsets = snapshots.restore(consumer);
+
                 // Subscribe to the journal topic
                 Collection<String> topics = Collections.singleton(configuration.topic());
-                consumer.subscribe(topics);
+                consumer.subscribe(topics, new ConsumerRebalanceListener() {
+                    @Override
+                    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    }
+                    @Override
+                    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                        partitions.stream().filter(snapshotOffsets::containsKey)
+                            .forEach(tp -> consumer.seek(tp, snapshotOffsets.get(tp)));
+                    }
+                });
 
                 // Main consumer loop
                 while (!stopped) {
@@ -263,8 +289,11 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
                             if (record.key().getType() == MessageType.Bootstrap) {
                                 BootstrapKey bkey = (BootstrapKey) record.key();
                                 if (bkey.getBootstrapId().equals(bootstrapId)) {
+                                    applier.drain();
                                     this.bootstrapped = true;
-                                    log.info("KafkaSQL storage bootstrapped in " + (System.currentTimeMillis() - bootstrapStart) + "ms.");
+                                    long bootstrapTime = System.currentTimeMillis() - bootstrapStart;
+                                    snapshots.recordTimeToReady(bootstrapTime);
+                                    log.info("KafkaSQL storage bootstrapped in " + bootstrapTime + "ms.");
                                 }
                                 return;
                             }
@@ -276,10 +305,15 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
                                 return;
                             }
 
-                            // TODO instead of processing the journal record directly on the consumer thread, instead queue them and have *another* thread process the queue
-                            kafkaSqlSink.processMessage(record);
+                            applier.apply(record);
+                            snapshots.markDirty();
                         });
                     }
+
+                    // Periodically snapshot the local store (only once fully caught up with the journal)
+                    if (bootstrapped) {
+                        snapshots.maybeSnapshot(consumer, applier);
+                    }
                 }
             } finally {
                 consumer.close();
@@ -300,8 +334,8 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      *      due to a desire to avoid premature optimization.
      */
     private long nextClusterGlobalId() {
-        UUID uuid = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Create));
-        return (long) coordinator.waitForResponse(uuid);
+        long reqId = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Create));
+        return (long) coordinator.waitForResponse(reqId);
     }
 
     /**
@@ -312,8 +346,28 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      *      due to a desire to avoid premature optimization.
      */
     private long nextClusterContentId() {
-        UUID uuid = ConcurrentUtil.get(submitter.submitContentId(ActionType.Create));
-        return (long) coordinator.waitForResponse(uuid);
+        long reqId = ConcurrentUtil.get(submitter.submitContentId(ActionType.Create));
+        return (long) coordinator.waitForResponse(reqId);
+    }
+
+    /**
+     * Generates several globalIds or contentIds, sending all of the messages before waiting for the responses.
+     */
+    private List<Long> nextClusterIds(int count, Supplier<CompletableFuture<Long>> submit) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(count);
+        for (int idx = 0; idx < count; idx++) {
+            futures.add(submit.get());
+        }
+        return awaitSubmitted(futures).stream()
+                .map(reqId -> (long) coordinator.waitForResponse(reqId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Waits for the given messages to be sent, and returns their request ids.
+     */
+    private static List<Long> awaitSubmitted(List<CompletableFuture<Long>> futures) {
+        return futures.stream().map(ConcurrentUtil::get).collect(Collectors.toList());
     }
 
     /**
@@ -337,14 +391,40 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             byte[] canonicalContentBytes = canonicalContent.bytes();
             String canonicalContentHash = DigestUtils.sha256Hex(canonicalContentBytes);
 
-            CompletableFuture<UUID> future = submitter.submitContent(contentId, contentHash, ActionType.Create, canonicalContentHash, content);
-            UUID uuid = ConcurrentUtil.get(future);
-            coordinator.waitForResponse(uuid);
+            CompletableFuture<Long> future = submitter.submitContent(contentId, contentHash, ActionType.Create, canonicalContentHash, content);
+            long reqId = ConcurrentUtil.get(future);
+            coordinator.waitForResponse(reqId);
         }
 
         return contentHash;
     }
 
+    /**
+     * Journals the given new artifact version, and waits for it to be applied.  The content reaper may delete the
+     * content (journaled as orphaned before this version referenced it) between {@link #ensureContent} and the
+     * version message being applied.  The version then fails with a {@link ContentNotFoundException}, so the
+     * content is journaled again, and the version re-sent.
+     */
+    private ArtifactMetaDataDto submitArtifactVersion(String groupId, String artifactId, String version, ActionType action,
+            ArtifactType artifactType, ContentHandle content, String contentHash, String createdBy, Date createdOn,
+            EditableArtifactMetaDataDto metaData) {
+        long globalId = nextClusterGlobalId();
+        try {
+            long reqId = ConcurrentUtil.get(
+                    submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, version, action,
+                            globalId, artifactType, contentHash, createdBy, createdOn, metaData));
+            return (ArtifactMetaDataDto) coordinator.waitForResponse(reqId);
+        } catch (ContentNotFoundException e) {
+            log.debug("Content {} was deleted as orphaned before the new version of {}/{} was applied, re-creating it.",
+                    contentHash, groupId, artifactId);
+            ensureContent(content, groupId, artifactId, artifactType);
+            long reqId = ConcurrentUtil.get(
+                    submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, version, action,
+                            globalId, artifactType, contentHash, createdBy, createdOn, metaData));
+            return (ArtifactMetaDataDto) coordinator.waitForResponse(reqId);
+        }
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#createArtifact(java.lang.String, java.lang.String, java.lang.String, io.apicurio.registry.types.ArtifactType, io.apicurio.registry.content.ContentHandle)
      */
@@ -372,12 +452,99 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             metaData = extractMetaData(artifactType, content);
         }
 
-        long globalId = nextClusterGlobalId();
+        return submitArtifactVersion(groupId, artifactId, version, ActionType.Create, artifactType, content, contentHash,
+                createdBy, createdOn, metaData);
+    }
+
+    /**
+     * Journals the batch in a few round trips, rather than several per item: the new content first (as the artifact
+     * messages may be consumed from another partition), then the artifacts.  Each step sends all of its messages
+     * before waiting for the responses.
+     * @see io.apicurio.registry.storage.RegistryStorage#createArtifacts(java.util.List)
+     */
+    @Override
+    public List<ArtifactBatchResultDto> createArtifacts(List<ArtifactBatchItemDto> items) throws RegistryStorageException {
+        String createdBy = securityIdentity.getPrincipal().getName();
+        Date createdOn = new Date();
+
+        ArtifactBatchResultDto[] results = new ArtifactBatchResultDto[items.size()];
+        String[] contentHashes = new String[items.size()];
+        List<Integer> pending = new ArrayList<>();
+        Map<String, ArtifactBatchItemDto> newContent = new LinkedHashMap<>();
+        for (int idx = 0; idx < items.size(); idx++) {
+            ArtifactBatchItemDto item = items.get(idx);
+            boolean exists = sqlStore.isArtifactExists(item.getGroupId(), item.getArtifactId());
+            if (exists && !item.isUpdate()) {
+                results[idx] = ArtifactBatchResultDto.builder().error(new ArtifactAlreadyExistsException(item.getGroupId(), item.getArtifactId())).build();
+                continue;
+            }
+            if (!exists && item.isUpdate()) {
+                results[idx] = ArtifactBatchResultDto.builder().error(new ArtifactNotFoundException(item.getGroupId(), item.getArtifactId())).build();
+                continue;
+            }
+            String contentHash = item.getContentHash();
+            if (contentHash == null) {
+                contentHash = DigestUtils.sha256Hex(item.getContent().bytes());
+            }
+            if (!newContent.containsKey(contentHash) && !sqlStore.isContentExists(contentHash)) {
+                newContent.put(contentHash, item);
+            }
+            contentHashes[idx] = contentHash;
+            pending.add(idx);
+        }
 
-        UUID uuid = ConcurrentUtil.get(
-                submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Create,
-                        globalId, artifactType, contentHash, createdBy, createdOn, metaData));
-        return (ArtifactMetaDataDto) coordinator.waitForResponse(uuid);
+        List<Long> contentIds = nextClusterIds(newContent.size(), () -> submitter.submitContentId(ActionType.Create));
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (Map.Entry<String, ArtifactBatchItemDto> entry : newContent.entrySet()) {
+            ArtifactBatchItemDto item = entry.getValue();
+            String canonicalHash = item.getCanonicalHash();
+            if (canonicalHash == null) {
+                canonicalHash = DigestUtils.sha256Hex(canonicalizeContent(item.getArtifactType(), item.getContent()).bytes());
+            }
+            futures.add(submitter.submitContent(contentIds.get(futures.size()), entry.getKey(), ActionType.Create, canonicalHash, item.getContent()));
+        }
+        awaitSubmitted(futures).forEach(coordinator::waitForResponse);
+
+        List<Long> globalIds = nextClusterIds(pending.size(), () -> submitter.submitGlobalId(ActionType.Create));
+        futures = new ArrayList<>();
+        for (int idx : pending) {
+            ArtifactBatchItemDto item = items.get(idx);
+            futures.add(submitter.submitArtifact(tenantContext.tenantId(), item.getGroupId(), item.getArtifactId(), item.getVersion(),
+                    item.isUpdate() ? ActionType.Update : ActionType.Create, globalIds.get(futures.size()), item.getArtifactType(),
+                    contentHashes[idx], createdBy, createdOn, batchItemMetaData(item)));
+        }
+        List<Long> reqIds = awaitSubmitted(futures);
+        for (int i = 0; i < pending.size(); i++) {
+            int idx = pending.get(i);
+            try {
+                ArtifactMetaDataDto dto;
+                try {
+                    dto = (ArtifactMetaDataDto) coordinator.waitForResponse(reqIds.get(i));
+                } catch (ContentNotFoundException e) {
+                    // Deleted as orphaned after it was checked above, see submitArtifactVersion()
+                    ArtifactBatchItemDto item = items.get(idx);
+                    dto = submitArtifactVersion(item.getGroupId(), item.getArtifactId(), item.getVersion(),
+                            item.isUpdate() ? ActionType.Update : ActionType.Create, item.getArtifactType(), item.getContent(),
+                            contentHashes[idx], createdBy, createdOn, batchItemMetaData(item));
+                }
+                results[idx] = ArtifactBatchResultDto.builder().metaData(dto).build();
+            } catch (RegistryException e) {
+                // Only fails this item, the other artifacts of the batch were created (or updated) independently
+                results[idx] = ArtifactBatchResultDto.builder().error(e).build();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Returns the meta-data given for the batch item, or else the meta-data extracted from its content.
+     */
+    private EditableArtifactMetaDataDto batchItemMetaData(ArtifactBatchItemDto item) {
+        EditableArtifactMetaDataDto metaData = item.getMetaData();
+        if (metaData == null) {
+            metaData = extractMetaData(item.getArtifactType(), item.getContent());
+        }
+        return metaData;
     }
 
     /**
@@ -389,7 +556,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new ArtifactNotFoundException(groupId, artifactId);
         }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, ActionType.Delete));
+        long reqId = ConcurrentUtil.get(submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, ActionType.Delete));
         List<String> versionIds = (List<String>) coordinator.waitForResponse(reqId);
 
         // Add tombstone messages for all version metda-data updates
@@ -411,7 +578,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void deleteArtifacts(String groupId) throws RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), groupId, ActionType.Delete, true));
+        long reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), groupId, ActionType.Delete, true));
         coordinator.waitForResponse(reqId);
 
         // TODO could possibly add tombstone messages for *all* artifacts that were deleted (version meta-data and artifact rules)
@@ -468,12 +635,8 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             metaData = extractMetaData(artifactType, content);
         }
 
-        long globalId = nextClusterGlobalId();
-
-        UUID reqId = ConcurrentUtil.get(
-                submitter.submitArtifact(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Update,
-                        globalId, artifactType, contentHash, createdBy, createdOn, metaData));
-        return (ArtifactMetaDataDto) coordinator.waitForResponse(reqId);
+        return submitArtifactVersion(groupId, artifactId, version, ActionType.Update, artifactType, content, contentHash,
+                createdBy, createdOn, metaData);
     }
 
     /**
@@ -526,7 +689,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         // Note: the next line will throw ArtifactNotFoundException if the artifact does not exist, so there is no need for an extra check.
         ArtifactMetaDataDto metaDataDto = sqlStore.getArtifactMetaData(groupId, artifactId);
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId, metaDataDto.getVersion(),
+        long reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId, metaDataDto.getVersion(),
                 ActionType.Update, metaDataDto.getState(), metaData));
         coordinator.waitForResponse(reqId);
     }
@@ -539,6 +702,14 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         return sqlStore.getArtifactRules(groupId, artifactId);
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactAndGlobalRules(java.lang.String, java.lang.String)
+     */
+    @Override
+    public ArtifactAndGlobalRulesDto getArtifactAndGlobalRules(String groupId, String artifactId) throws RegistryStorageException {
+        return sqlStore.getArtifactAndGlobalRules(groupId, artifactId);
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#createArtifactRule(java.lang.String, java.lang.String, io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
      */
@@ -549,7 +720,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new RuleAlreadyExistsException(rule);
         }
 
-        UUID reqId = ConcurrentUtil.get(
+        long reqId = ConcurrentUtil.get(
                 submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, rule, ActionType.Create, config));
         coordinator.waitForResponse(reqId);
     }
@@ -563,14 +734,10 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new ArtifactNotFoundException(groupId, artifactId);
         }
 
-        submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, RuleType.COMPATIBILITY, ActionType.Delete);
-
-        UUID reqId = ConcurrentUtil.get(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, RuleType.VALIDITY, ActionType.Delete));
-        try {
-            coordinator.waitForResponse(reqId);
-        } catch (RuleNotFoundException e) {
-            // Eat this exception - we don't care if the rule didn't exist.
-        }
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        futures.add(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, RuleType.COMPATIBILITY, ActionType.Delete));
+        futures.add(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, RuleType.VALIDITY, ActionType.Delete));
+        waitForRuleDeletes(awaitSubmitted(futures));
     }
 
     /**
@@ -592,7 +759,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new RuleNotFoundException(rule);
         }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, rule, ActionType.Update, config));
+        long reqId = ConcurrentUtil.get(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, rule, ActionType.Update, config));
         coordinator.waitForResponse(reqId);
     }
 
@@ -606,7 +773,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new RuleNotFoundException(rule);
         }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, rule, ActionType.Delete));
+        long reqId = ConcurrentUtil.get(submitter.submitArtifactRule(tenantContext.tenantId(), groupId, artifactId, rule, ActionType.Delete));
         coordinator.waitForResponse(reqId);
     }
 
@@ -618,6 +785,14 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         return sqlStore.getArtifactVersions(groupId, artifactId);
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getArtifactVersionContentHashes(java.lang.String, java.lang.String)
+     */
+    @Override
+    public Map<String, String> getArtifactVersionContentHashes(String groupId, String artifactId) throws ArtifactNotFoundException, RegistryStorageException {
+        return sqlStore.getArtifactVersionContentHashes(groupId, artifactId);
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#searchVersions(java.lang.String, java.lang.String, int, int)
      */
@@ -660,7 +835,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     public void deleteArtifactVersion(String groupId, String artifactId, String version) throws ArtifactNotFoundException,
             VersionNotFoundException, RegistryStorageException {
         handleVersion(groupId, artifactId, version, null, value -> {
-            UUID reqId = ConcurrentUtil.get(submitter.submitVersion(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Delete));
+            long reqId = ConcurrentUtil.get(submitter.submitVersion(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Delete));
             coordinator.waitForResponse(reqId);
 
             // Add a tombstone message for this version's metadata
@@ -677,7 +852,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     public void updateArtifactVersionMetaData(String groupId, String artifactId, String version, EditableArtifactMetaDataDto metaData)
             throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
         handleVersion(groupId, artifactId, version, ArtifactStateExt.ACTIVE_STATES, value -> {
-            UUID reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId,
+            long reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId,
                     version, ActionType.Update, value.getState(), metaData));
             return coordinator.waitForResponse(reqId);
         });
@@ -690,7 +865,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     public void deleteArtifactVersionMetaData(String groupId, String artifactId, String version)
             throws ArtifactNotFoundException, VersionNotFoundException, RegistryStorageException {
         handleVersion(groupId, artifactId, version, null, value -> {
-            UUID reqId = ConcurrentUtil.get(submitter.submitVersion(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Clear));
+            long reqId = ConcurrentUtil.get(submitter.submitVersion(tenantContext.tenantId(), groupId, artifactId, version, ActionType.Clear));
             return coordinator.waitForResponse(reqId);
         });
     }
@@ -724,12 +899,20 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         return sqlStore.getGlobalRules();
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getGlobalRuleConfigurations()
+     */
+    @Override
+    public Map<RuleType, RuleConfigurationDto> getGlobalRuleConfigurations() throws RegistryStorageException {
+        return sqlStore.getGlobalRuleConfigurations();
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#createGlobalRule(io.apicurio.registry.types.RuleType, io.apicurio.registry.storage.dto.RuleConfigurationDto)
      */
     @Override
     public void createGlobalRule(RuleType rule, RuleConfigurationDto config) throws RuleAlreadyExistsException, RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Create, config));
+        long reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Create, config));
         coordinator.waitForResponse(reqId);
     }
 
@@ -738,13 +921,23 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void deleteGlobalRules() throws RegistryStorageException {
-        submitter.submitGlobalRule(tenantContext.tenantId(), RuleType.COMPATIBILITY, ActionType.Delete);
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        futures.add(submitter.submitGlobalRule(tenantContext.tenantId(), RuleType.COMPATIBILITY, ActionType.Delete));
+        futures.add(submitter.submitGlobalRule(tenantContext.tenantId(), RuleType.VALIDITY, ActionType.Delete));
+        waitForRuleDeletes(awaitSubmitted(futures));
+    }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), RuleType.VALIDITY, ActionType.Delete));
-        try {
-            coordinator.waitForResponse(reqId);
-        } catch (RuleNotFoundException e) {
-            // Eat this exception - we don't care if the rule didn't exist.
+    /**
+     * Waits for the responses to the given rule deletes (sent all at once).
+     * @param reqIds
+     */
+    private void waitForRuleDeletes(List<Long> reqIds) {
+        for (Long reqId : reqIds) {
+            try {
+                coordinator.waitForResponse(reqId);
+            } catch (RuleNotFoundException e) {
+                // Eat this exception - we don't care if the rule didn't exist.
+            }
         }
     }
 
@@ -765,7 +958,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new RuleNotFoundException(rule);
         }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Update, config));
+        long reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Update, config));
         coordinator.waitForResponse(reqId);
     }
 
@@ -778,14 +971,14 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
             throw new RuleNotFoundException(rule);
         }
 
-        UUID reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Delete));
+        long reqId = ConcurrentUtil.get(submitter.submitGlobalRule(tenantContext.tenantId(), rule, ActionType.Delete));
         coordinator.waitForResponse(reqId);
     }
 
     private void updateArtifactState(ArtifactState currentState, String groupId, String artifactId, String version, ArtifactState newState, EditableArtifactMetaDataDto metaData) {
         artifactStateEx.applyState(
             s ->  {
-                UUID reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId,
+                long reqId = ConcurrentUtil.get(submitter.submitArtifactVersion(tenantContext.tenantId(), groupId, artifactId,
                         version, ActionType.Update, newState, metaData));
                 coordinator.waitForResponse(reqId);
             },
@@ -846,7 +1039,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
     public void removeLogConfiguration(String logger) throws RegistryStorageException, LogConfigurationNotFoundException {
         LogConfigurationDto dto = new LogConfigurationDto();
         dto.setLogger(logger);
-        UUID reqId = ConcurrentUtil.get(submitter.submitLogConfig(tenantContext.tenantId(), ActionType.Delete, dto));
+        long reqId = ConcurrentUtil.get(submitter.submitLogConfig(tenantContext.tenantId(), ActionType.Delete, dto));
         coordinator.waitForResponse(reqId);
     }
 
@@ -855,7 +1048,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void setLogConfiguration(LogConfigurationDto logConfiguration) throws RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitLogConfig(tenantContext.tenantId(), ActionType.Update, logConfiguration));
+        long reqId = ConcurrentUtil.get(submitter.submitLogConfig(tenantContext.tenantId(), ActionType.Update, logConfiguration));
         coordinator.waitForResponse(reqId);
     }
 
@@ -877,7 +1070,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void createGroup(GroupMetaDataDto group) throws GroupAlreadyExistsException, RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), ActionType.Create, group));
+        long reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), ActionType.Create, group));
         coordinator.waitForResponse(reqId);
     }
 
@@ -886,7 +1079,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void updateGroupMetaData(GroupMetaDataDto group) throws GroupNotFoundException, RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), ActionType.Update, group));
+        long reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), ActionType.Update, group));
         coordinator.waitForResponse(reqId);
     }
 
@@ -895,7 +1088,7 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
      */
     @Override
     public void deleteGroup(String groupId) throws GroupNotFoundException, RegistryStorageException {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), groupId, ActionType.Delete, false));
+        long reqId = ConcurrentUtil.get(submitter.submitGroup(tenantContext.tenantId(), groupId, ActionType.Delete, false));
         coordinator.waitForResponse(reqId);
     }
 
@@ -931,6 +1124,40 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         sqlStore.exportData(handler);
     }
 
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#exportData(long, java.util.function.Function)
+     */
+    @Override
+    public void exportData(long sinceGlobalId, Function<Entity, Void> handler) throws RegistryStorageException {
+        sqlStore.exportData(sinceGlobalId, handler);
+    }
+
+    /**
+     * @see io.apicurio.registry.storage.RegistryStorage#getOrphanedContent(long, int)
+     */
+    @Override
+    public List<OrphanedContentDto> getOrphanedContent(long afterContentId, int limit) throws RegistryStorageException {
+        return sqlStore.getOrphanedContent(afterContentId, limit);
+    }
+
+    /**
+     * The content is deleted (on every node) by journaling a Delete message, which is only applied if no version
+     * references the content by then.  A version journaled after the content was found to exist, but applied after
+     * the Delete, fails and is re-sent with the content journaled again (under a new contentId), see
+     * {@link #submitArtifactVersion}.  Once deleted, a tombstone is journaled for the content key, so that the
+     * (compacted) topic drops the content too.
+     * @see io.apicurio.registry.storage.RegistryStorage#deleteOrphanedContent(io.apicurio.registry.storage.dto.OrphanedContentDto)
+     */
+    @Override
+    public boolean deleteOrphanedContent(OrphanedContentDto content) throws RegistryStorageException {
+        long reqId = ConcurrentUtil.get(submitter.submitContent(content.getContentId(), content.getContentHash(), ActionType.Delete, null, null));
+        boolean deleted = (boolean) coordinator.waitForResponse(reqId);
+        if (deleted) {
+            submitter.submitContentTombstone(content.getContentId(), content.getContentHash());
+        }
+        return deleted;
+    }
+
     /**
      * @see io.apicurio.registry.storage.RegistryStorage#importData(io.apicurio.registry.storage.impexp.EntityInputStream)
      */
@@ -1051,11 +1278,11 @@ public class KafkaSqlRegistryStorage extends AbstractRegistryStorage {
         submitter.submitGroup(tenantContext.tenantId(), ActionType.Import, group);
     }
     private void resetContentId() {
-        UUID reqId = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Reset));
+        long reqId = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Reset));
         coordinator.waitForResponse(reqId);
     }
     private void resetGlobalId() {
-        UUID reqId = ConcurrentUtil.get(submitter.submitContentId(ActionType.Reset));
+        long reqId = ConcurrentUtil.get(submitter.submitContentId(ActionType.Reset));
         coordinator.waitForResponse(reqId);
     }
 
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_BOOTSTRAP;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_BOOTSTRAP_DESCRIPTION;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_BOOTSTRAP_TAG_SNAPSHOT;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_SNAPSHOT;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_SNAPSHOT_DESCRIPTION;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.sql.KafkaSqlStore;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.utils.IoUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Periodically writes a snapshot of the local {@link KafkaSqlStore} to disk, along with the journal topic
+ * offsets it covers.  On startup the most recent snapshot is restored and the consumer resumes from those
+ * offsets, so that only the tail of the journal topic needs to be replayed before the storage is ready.
+ *
+ * Snapshots are always taken on the KSQL consumer thread after all consumed records have been applied,
+ * which guarantees that the snapshot content matches the recorded offsets exactly (H2 has no snapshot
+ * isolation, so the store can't be read consistently while records are being applied).  Nothing is applied
+ * in the meantime, so the consumer thread only dumps the store to an uncompressed script, and gives up if
+ * that takes longer than <code>registry.kafkasql.snapshot.max-pause</code> (pending writes would otherwise
+ * time out).  The script is then compressed and moved into place on a separate thread.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+@ApplicationScoped
+public class KafkaSqlSnapshotManager {
+
+    private static final String SNAPSHOT_FILE = "kafkasql-snapshot.sql.gz";
+    private static final String DUMP_FILE = "kafkasql-snapshot.sql.dump";
+    private static final String OFFSETS_FILE = "kafkasql-snapshot.properties";
+    private static final String TOPIC_PROPERTY = "topic";
+    private static final String PARTITION_PREFIX = "partition.";
+
+    @Inject
+    Logger log;
+
+    @Inject
+    KafkaSqlConfiguration configuration;
+
+    @Inject
+    KafkaSqlStore sqlStore;
+
+    @Inject
+    MeterRegistry registry;
+
+    private boolean restored;
+    private long lastSnapshot;
+    private boolean dirty;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        thread.setName("KSQL Snapshot Writer Thread");
+        return thread;
+    });
+    private Future<?> pendingWrite;
+
+    @PreDestroy
+    void destroy() {
+        writer.shutdown();
+    }
+
+    /**
+     * Returns true if snapshots are enabled and supported by the local store.
+     */
+    public boolean isEnabled() {
+        return configuration.isSnapshotEnabled() && sqlStore.isSnapshotSupported();
+    }
+
+    /**
+     * Restores the most recent snapshot (if any) into the local store.  Returns the journal offsets the
+     * consumer must resume from, or an empty map if no usable snapshot was found (in which case the whole
+     * journal is replayed as usual).
+     * @param consumer
+     */
+    public Map<TopicPartition, Long> restore(KafkaConsumer<MessageKey, MessageValue> consumer) {
+        lastSnapshot = System.currentTimeMillis();
+        if (!isEnabled()) {
+            return Collections.emptyMap();
+        }
+
+        Path snapshotFile = snapshotDir().resolve(SNAPSHOT_FILE);
+        Path offsetsFile = snapshotDir().resolve(OFFSETS_FILE);
+        if (!Files.isRegularFile(snapshotFile) || !Files.isRegularFile(offsetsFile)) {
+            log.info("No KafkaSQL snapshot found in {}, replaying the full journal.", snapshotDir());
+            return Collections.emptyMap();
+        }
+
+        try {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(offsetsFile)) {
+                props.load(in);
+            }
+            if (!configuration.topic().equals(props.getProperty(TOPIC_PROPERTY))) {
+                log.warn("KafkaSQL snapshot was taken from a different topic ({}), ignoring it.", props.getProperty(TOPIC_PROPERTY));
+                return Collections.emptyMap();
+            }
+
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            for (String name : props.stringPropertyNames()) {
+                if (name.startsWith(PARTITION_PREFIX)) {
+                    int partition = Integer.parseInt(name.substring(PARTITION_PREFIX.length()));
+                    offsets.put(new TopicPartition(configuration.topic(), partition), Long.valueOf(props.getProperty(name)));
+                }
+            }
+
+            // A snapshot that is ahead of the topic means the topic was re-created - it can't be used.
+            List<PartitionInfo> partitions = consumer.partitionsFor(configuration.topic());
+            Set<TopicPartition> topicPartitions = partitions.stream()
+                    .map(pi -> new TopicPartition(pi.topic(), pi.partition()))
+                    .collect(Collectors.toSet());
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(topicPartitions);
+            for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+                Long endOffset = endOffsets.get(entry.getKey());
+                if (endOffset == null || endOffset < entry.getValue()) {
+                    log.warn("KafkaSQL snapshot offset for {} is beyond the end of the topic, ignoring the snapshot.", entry.getKey());
+                    return Collections.emptyMap();
+                }
+            }
+
+            long start = System.currentTimeMillis();
+            sqlStore.restoreSnapshot(snapshotFile.toAbsolutePath().toString());
+            log.info("KafkaSQL snapshot restored from {} in {}ms, resuming journal at {}", snapshotFile,
+                    System.currentTimeMillis() - start, offsets);
+            restored = true;
+            return offsets;
+        } catch (Exception e) {
+            log.error("Failed to restore the KafkaSQL snapshot, replaying the full journal.", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Notes that journal records have been applied since the last snapshot.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Takes a new snapshot if the configured interval has elapsed and there is anything new to snapshot.
+     * Must be called from the KSQL consumer thread, in between polls.
+     * @param consumer
+     * @param applier
+     */
+    public void maybeSnapshot(KafkaConsumer<MessageKey, MessageValue> consumer, KafkaSqlApplier applier) {
+        if (!isEnabled() || !dirty || System.currentTimeMillis() - lastSnapshot < configuration.snapshotInterval()) {
+            return;
+        }
+        // The previous snapshot is still being written.
+        if (pendingWrite != null && !pendingWrite.isDone()) {
+            return;
+        }
+
+        // Make sure every consumed record has been applied before recording the offsets.
+        applier.drain();
+
+        Timer.Sample sample = Timer.start(registry);
+        Path dir = snapshotDir();
+        Path dump = dir.resolve(DUMP_FILE);
+        try {
+            Properties props = new Properties();
+            props.setProperty(TOPIC_PROPERTY, configuration.topic());
+            for (TopicPartition tp : consumer.assignment()) {
+                props.setProperty(PARTITION_PREFIX + tp.partition(), String.valueOf(consumer.position(tp)));
+            }
+
+            Files.createDirectories(dir);
+            sqlStore.exportSnapshot(dump.toAbsolutePath().toString(), configuration.snapshotMaxPause());
+            dirty = false;
+            pendingWrite = writer.submit(() -> writeSnapshot(dir, dump, props));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to snapshot the KafkaSQL store (it may not fit in registry.kafkasql.snapshot.max-pause of "
+                    + configuration.snapshotMaxPause() + "ms).", e);
+            deleteQuietly(dump);
+        } finally {
+            lastSnapshot = System.currentTimeMillis();
+            sample.stop(Timer.builder(KAFKASQL_SNAPSHOT)
+                    .description(KAFKASQL_SNAPSHOT_DESCRIPTION)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Compresses the dump of the store into the snapshot file, and then writes the matching offsets.
+     * @param dir
+     * @param dump
+     * @param props
+     */
+    private void writeSnapshot(Path dir, Path dump, Properties props) {
+        Path tmpSnapshot = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        Path tmpOffsets = dir.resolve(OFFSETS_FILE + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(dump); OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmpSnapshot))) {
+                IoUtil.copy(in, out);
+            }
+            try (OutputStream out = Files.newOutputStream(tmpOffsets)) {
+                props.store(out, "Journal offsets covered by " + SNAPSHOT_FILE);
+            }
+            // The offsets file is moved last - a snapshot without matching offsets is never used.
+            Files.deleteIfExists(dir.resolve(OFFSETS_FILE));
+            Files.move(tmpSnapshot, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(tmpOffsets, dir.resolve(OFFSETS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("KafkaSQL snapshot written to {} covering {}", dir, props);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write the KafkaSQL snapshot.", e);
+        } finally {
+            deleteQuietly(dump);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete " + file, e);
+        }
+    }
+
+    /**
+     * Records the time it took for the storage to become ready, tagged with whether a snapshot was used.
+     * @param millis
+     */
+    public void recordTimeToReady(long millis) {
+        Timer.builder(KAFKASQL_BOOTSTRAP)
+            .description(KAFKASQL_BOOTSTRAP_DESCRIPTION)
+            .tag(KAFKASQL_BOOTSTRAP_TAG_SNAPSHOT, String.valueOf(restored))
+            .register(registry)
+            .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private Path snapshotDir() {
+        return Paths.get(configuration.snapshotLocation());
+    }
+
+}
@@ -16,16 +16,25 @@
 
 package io.apicurio.registry.storage.impl.kafkasql;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
 
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.logging.Logged;
@@ -44,6 +53,7 @@ import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.GroupKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.LogConfigKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.AbstractMessageValue;
 import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
 import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
 import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
@@ -57,16 +67,36 @@ import io.apicurio.registry.storage.impl.kafkasql.values.LogConfigValue;
 import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
 import io.apicurio.registry.types.ArtifactState;
 import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.RegistryException;
 import io.apicurio.registry.types.RuleType;
 import io.apicurio.registry.utils.kafka.ProducerActions;
 
 /**
+ * Submits journal messages to the Kafka topic.  By default every message is handed to the Kafka
+ * producer directly on the calling thread, and the returned future completes once the message has
+ * been acknowledged by Kafka.
+ *
+ * When batching is enabled (<code>registry.kafkasql.submitter.batching.enabled</code>), messages are
+ * instead queued and a single sender thread coalesces all concurrently submitted messages into one
+ * producer batch (group commit).  Up to <code>registry.kafkasql.submitter.batching.max-in-flight</code>
+ * batches may be waiting to be acknowledged at a time, so that the next batch is already being sent while
+ * the previous one is being written.  In that mode the returned future completes immediately, so the
+ * caller can go straight to waiting for the consumer's response via the {@link KafkaSqlCoordinator}.  A
+ * failure to write the message is reported to the caller through the coordinator.  Messages still queued
+ * when the submitter is shut down are failed the same way.
+ *
+ * Only messages that a caller waits for get a request id (see {@link KafkaSqlCoordinator}).  Tombstones and
+ * imported entities are sent without one, and their futures complete with a null request id.
+ *
  * @author eric.wittmann@gmail.com
  */
 @ApplicationScoped
 @Logged
 public class KafkaSqlSubmitter {
 
+    @Inject
+    Logger log;
+
     @Inject
     KafkaSqlConfiguration configuration;
 
@@ -76,29 +106,201 @@ public class KafkaSqlSubmitter {
     @Inject
     ProducerActions<MessageKey, MessageValue> producer;
 
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Semaphore inFlightBatches;
+    private Thread senderThread;
+    private volatile boolean stopped = true;
+
     /**
      * Constructor.
      */
     public KafkaSqlSubmitter() {
     }
 
+    @PostConstruct
+    void init() {
+        if (configuration.isSubmitterBatchingEnabled()) {
+            startSenderThread();
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        stopped = true;
+        if (senderThread != null) {
+            try {
+                senderThread.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Sends a message to the Kafka topic.
      * @param key
      * @param value
      */
-    public CompletableFuture<UUID> send(MessageKey key, MessageValue value) {
-        UUID requestId = coordinator.createUUID();
-        RecordHeader header = new RecordHeader("req", requestId.toString().getBytes());
-        ProducerRecord<MessageKey, MessageValue> record = new ProducerRecord<>(configuration.topic(), 0, key, value, Collections.singletonList(header));
-        return producer.apply(record).thenApply(rm -> requestId);
+    public CompletableFuture<Long> send(MessageKey key, MessageValue value) {
+        Long requestId = null;
+        List<Header> headers = Collections.emptyList();
+        if (isAwaited(value)) {
+            requestId = coordinator.createRequestId();
+            headers = Collections.singletonList(coordinator.createRequestHeader(requestId));
+        }
+        ProducerRecord<MessageKey, MessageValue> record = new ProducerRecord<>(configuration.topic(), 0, key, value, headers);
+        if (queue != null) {
+            enqueue(new PendingMessage(requestId, record));
+            return CompletableFuture.completedFuture(requestId);
+        }
+        final Long reqId = requestId;
+        return producer.apply(record).whenComplete((rm, error) -> {
+            if (error != null && reqId != null) {
+                coordinator.notifyFailure(reqId, error);
+            }
+        }).thenApply(rm -> reqId);
+    }
+
+    /**
+     * Nobody waits for the response to a tombstone, or to an imported entity (the import is fire and forget,
+     * followed by a reset of the id sequences which is waited for).
+     * @param value
+     */
+    private static boolean isAwaited(MessageValue value) {
+        return value != null
+                && !(value instanceof AbstractMessageValue && ((AbstractMessageValue) value).getAction() == ActionType.Import);
+    }
+
+    /**
+     * Adds a message to the batching queue, blocking if the queue is full so that callers (e.g. a large
+     * import) cannot outrun the producer.  A message submitted while the submitter is shutting down is failed.
+     * @param message
+     */
+    private void enqueue(PendingMessage message) {
+        try {
+            while (!queue.offer(message, 100, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    fail(message);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryException("[KafkaSqlSubmitter] Thread interrupted while queueing a Kafka Sql message.", e);
+        }
+        // The sender thread may have already failed the rest of the queue.
+        if (stopped && queue.remove(message)) {
+            fail(message);
+        }
+    }
+
+    /**
+     * Fails a message that will never be sent, because the submitter is shut down.
+     * @param message
+     */
+    private void fail(PendingMessage message) {
+        if (message.requestId != null) {
+            coordinator.notifyFailure(message.requestId,
+                    new RegistryException("[KafkaSqlSubmitter] Shut down before the Kafka Sql message could be sent."));
+        } else {
+            log.warn("Kafka Sql submitter shut down, dropped an unsent message: {}", message.record.key());
+        }
+    }
+
+    /**
+     * Start the thread responsible for draining the batching queue and sending its messages to Kafka.
+     */
+    private void startSenderThread() {
+        final int batchSize = configuration.submitterBatchSize();
+        queue = new ArrayBlockingQueue<>(configuration.submitterQueueCapacity());
+        inFlightBatches = new Semaphore(configuration.submitterMaxInFlightBatches());
+        stopped = false;
+
+        Runnable runner = () -> {
+            List<PendingMessage> batch = new ArrayList<>(batchSize);
+            while (!stopped) {
+                boolean acquired = false;
+                boolean sent = false;
+                try {
+                    // Bounds the number of batches waiting to be acknowledged, meanwhile the queue fills up.
+                    acquired = inFlightBatches.tryAcquire(100, TimeUnit.MILLISECONDS);
+                    if (!acquired) {
+                        continue;
+                    }
+                    PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    sendBatch(batch);
+                    sent = true;
+                } catch (InterruptedException e) {
+                    stopped = true;
+                } catch (Throwable t) {
+                    log.error("Unexpected error sending a batch of Kafka Sql messages.", t);
+                } finally {
+                    if (acquired && !sent) {
+                        inFlightBatches.release();
+                    }
+                    batch.clear();
+                }
+            }
+            List<PendingMessage> unsent = new ArrayList<>();
+            queue.drainTo(unsent);
+            if (!unsent.isEmpty()) {
+                log.warn("Kafka Sql submitter shut down with {} unsent messages.", unsent.size());
+                unsent.forEach(this::fail);
+            }
+        };
+        senderThread = new Thread(runner);
+        senderThread.setDaemon(true);
+        senderThread.setName("KSQL Kafka Submitter Thread");
+        senderThread.start();
+    }
+
+    /**
+     * Sends all messages in the batch to the producer back-to-back (so that they end up in the same producer
+     * batch), holding one of the in-flight permits until the whole batch is acknowledged.  Any message that
+     * could not be written fails the matching operation in the coordinator.
+     * @param batch
+     */
+    private void sendBatch(List<PendingMessage> batch) {
+        log.debug("Sending batch of {} Kafka Sql messages.", batch.size());
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[batch.size()];
+        for (int idx = 0; idx < acks.length; idx++) {
+            PendingMessage message = batch.get(idx);
+            CompletableFuture<RecordMetadata> ack;
+            try {
+                ack = producer.apply(message.record);
+            } catch (Exception e) {
+                ack = new CompletableFuture<>();
+                ack.completeExceptionally(e);
+            }
+            acks[idx] = ack.whenComplete((rm, error) -> {
+                if (error != null && message.requestId != null) {
+                    coordinator.notifyFailure(message.requestId, error);
+                } else if (error != null) {
+                    log.error("Failed to send a Kafka Sql message.", error);
+                }
+            });
+        }
+        CompletableFuture.allOf(acks).whenComplete((v, error) -> {
+            inFlightBatches.release();
+            if (error != null) {
+                // Already reported to the individual callers.
+                log.debug("Kafka Sql message batch completed with errors: {}", error.getMessage());
+            }
+        });
     }
 
 
     /* ******************************************************************************************
      * Content
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitContent(long contentId, String contentHash, ActionType action, String canonicalHash, ContentHandle content) {
+    public CompletableFuture<Long> submitContent(long contentId, String contentHash, ActionType action, String canonicalHash, ContentHandle content) {
         ContentKey key = ContentKey.create(contentId, contentHash);
         ContentValue value = ContentValue.create(action, canonicalHash, content);
         return send(key, value);
@@ -108,12 +310,12 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Group
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitGroup(String tenantId, ActionType action, GroupMetaDataDto meta) {
+    public CompletableFuture<Long> submitGroup(String tenantId, ActionType action, GroupMetaDataDto meta) {
         GroupKey key = GroupKey.create(tenantId, meta.getGroupId());
         GroupValue value = GroupValue.create(action, meta);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitGroup(String tenantId, String groupId, ActionType action, boolean onlyArtifacts) {
+    public CompletableFuture<Long> submitGroup(String tenantId, String groupId, ActionType action, boolean onlyArtifacts) {
         GroupKey key = GroupKey.create(tenantId, groupId);
         GroupValue value = GroupValue.create(action, onlyArtifacts);
         return send(key, value);
@@ -123,7 +325,7 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Artifact
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitArtifact(String tenantId, String groupId, String artifactId, String version, ActionType action,
+    public CompletableFuture<Long> submitArtifact(String tenantId, String groupId, String artifactId, String version, ActionType action,
             Long globalId, ArtifactType artifactType, String contentHash, String createdBy, Date createdOn,
             EditableArtifactMetaDataDto metaData, Integer versionId, ArtifactState state, Long contentId, Boolean latest) {
         ArtifactKey key = ArtifactKey.create(tenantId, groupId, artifactId);
@@ -131,13 +333,13 @@ public class KafkaSqlSubmitter {
                 versionId, state, contentId, latest);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitArtifact(String tenantId, String groupId, String artifactId, String version, ActionType action,
+    public CompletableFuture<Long> submitArtifact(String tenantId, String groupId, String artifactId, String version, ActionType action,
             Long globalId, ArtifactType artifactType, String contentHash, String createdBy, Date createdOn,
             EditableArtifactMetaDataDto metaData) {
         return submitArtifact(tenantId, groupId, artifactId, version, action, globalId, artifactType, contentHash, createdBy, createdOn,
                 metaData, null, null, null, null);
     }
-    public CompletableFuture<UUID> submitArtifact(String tenantId, String groupId, String artifactId, ActionType action) {
+    public CompletableFuture<Long> submitArtifact(String tenantId, String groupId, String artifactId, ActionType action) {
         return this.submitArtifact(tenantId, groupId, artifactId, null, action, null, null, null, null, null, null);
     }
 
@@ -145,13 +347,13 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Version
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitArtifactVersion(String tenantId, String groupId, String artifactId, String version, ActionType action, ArtifactState state,
+    public CompletableFuture<Long> submitArtifactVersion(String tenantId, String groupId, String artifactId, String version, ActionType action, ArtifactState state,
             EditableArtifactMetaDataDto metaData) {
         ArtifactVersionKey key = ArtifactVersionKey.create(tenantId, groupId, artifactId, version);
         ArtifactVersionValue value = ArtifactVersionValue.create(action, state, metaData);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitVersion(String tenantId, String groupId, String artifactId, String version, ActionType action) {
+    public CompletableFuture<Long> submitVersion(String tenantId, String groupId, String artifactId, String version, ActionType action) {
         return submitArtifactVersion(tenantId, groupId, artifactId, version, action, null, null);
     }
 
@@ -159,13 +361,13 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Artifact Rule
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitArtifactRule(String tenantId, String groupId, String artifactId, RuleType rule, ActionType action,
+    public CompletableFuture<Long> submitArtifactRule(String tenantId, String groupId, String artifactId, RuleType rule, ActionType action,
             RuleConfigurationDto config) {
         ArtifactRuleKey key = ArtifactRuleKey.create(tenantId, groupId, artifactId, rule);
         ArtifactRuleValue value = ArtifactRuleValue.create(action, config);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitArtifactRule(String tenantId, String groupId, String artifactId, RuleType rule, ActionType action) {
+    public CompletableFuture<Long> submitArtifactRule(String tenantId, String groupId, String artifactId, RuleType rule, ActionType action) {
         return submitArtifactRule(tenantId, groupId, artifactId, rule, action, null);
     }
 
@@ -173,12 +375,12 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Global Rule
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitGlobalRule(String tenantId, RuleType rule, ActionType action, RuleConfigurationDto config) {
+    public CompletableFuture<Long> submitGlobalRule(String tenantId, RuleType rule, ActionType action, RuleConfigurationDto config) {
         GlobalRuleKey key = GlobalRuleKey.create(tenantId, rule);
         GlobalRuleValue value = GlobalRuleValue.create(action, config);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitGlobalRule(String tenantId, RuleType rule, ActionType action) {
+    public CompletableFuture<Long> submitGlobalRule(String tenantId, RuleType rule, ActionType action) {
         return submitGlobalRule(tenantId, rule, action, null);
     }
 
@@ -186,12 +388,12 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Log Configuration
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitLogConfig(String tenantId, ActionType action, LogConfigurationDto config) {
+    public CompletableFuture<Long> submitLogConfig(String tenantId, ActionType action, LogConfigurationDto config) {
         LogConfigKey key = LogConfigKey.create(tenantId);
         LogConfigValue value = LogConfigValue.create(action, config);
         return send(key, value);
     }
-    public CompletableFuture<UUID> submitLogConfig(String tenantId, ActionType action) {
+    public CompletableFuture<Long> submitLogConfig(String tenantId, ActionType action) {
         return submitLogConfig(tenantId, action, null);
     }
 
@@ -199,7 +401,7 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Global ID
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitGlobalId(ActionType action) {
+    public CompletableFuture<Long> submitGlobalId(ActionType action) {
         GlobalIdKey key = GlobalIdKey.create();
         GlobalIdValue value = GlobalIdValue.create(action);
         return send(key, value);
@@ -209,7 +411,7 @@ public class KafkaSqlSubmitter {
     /* ******************************************************************************************
      * Content ID
      * ****************************************************************************************** */
-    public CompletableFuture<UUID> submitContentId(ActionType action) {
+    public CompletableFuture<Long> submitContentId(ActionType action) {
         ContentIdKey key = ContentIdKey.create();
         ContentIdValue value = ContentIdValue.create(action);
         return send(key, value);
@@ -228,9 +430,23 @@ public class KafkaSqlSubmitter {
         ArtifactRuleKey key = ArtifactRuleKey.create(tenantId, groupId, artifactId, rule);
         send(key, null);
     }
+    public void submitContentTombstone(long contentId, String contentHash) {
+        ContentKey key = ContentKey.create(contentId, contentHash);
+        send(key, null);
+    }
     public void submitBootstrap(String bootstrapId) {
         BootstrapKey key = BootstrapKey.create(bootstrapId);
         send(key, null);
     }
 
+    private static class PendingMessage {
+        private final Long requestId;
+        private final ProducerRecord<MessageKey, MessageValue> record;
+
+        PendingMessage(Long requestId, ProducerRecord<MessageKey, MessageValue> record) {
+            this.requestId = requestId;
+            this.record = record;
+        }
+    }
+
 }
@@ -0,0 +1,498 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql.serde;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.kafka.common.utils.ByteUtils;
+
+import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.dto.LogConfigurationDto;
+import io.apicurio.registry.storage.dto.RuleConfigurationDto;
+import io.apicurio.registry.storage.impl.kafkasql.MessageType;
+import io.apicurio.registry.storage.impl.kafkasql.keys.AbstractMessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactVersionKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.BootstrapKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentIdKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalIdKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GroupKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.LogConfigKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.AbstractMessageValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactVersionValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ContentIdValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GlobalIdValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GlobalRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GroupValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.LogConfigValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.LogLevel;
+import io.apicurio.registry.types.RuleType;
+
+/**
+ * Compact binary encoding of the KSQL message keys and values (other than {@link MessageType#Content} values,
+ * which already have their own binary layout).  An encoded message looks like this:
+ *
+ * <pre>
+ * [type ord][BINARY_MARKER][FORMAT_VERSION][fields...]
+ * </pre>
+ *
+ * The JSON encoding always has a '{' right after the type ord, so the marker byte is enough to tell the two
+ * encodings apart when reading - records written by older versions of the registry remain readable.
+ *
+ * Fields are written in a fixed order per message type.  Lengths and ints are zig-zag varints, strings are
+ * UTF-8 (a length of -1 means null), nullable numbers and objects are prefixed with a presence byte, and
+ * enums are written either using their stable ord (message/action/artifact types) or their name.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public final class KafkaSqlBinaryCodec {
+
+    public static final byte BINARY_MARKER = (byte) 0xB1;
+    public static final byte FORMAT_VERSION = 1;
+
+    private KafkaSqlBinaryCodec() {
+    }
+
+    /**
+     * Returns true if the given serialized key or value uses the binary encoding.
+     * @param data
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length >= 2 && data[1] == BINARY_MARKER;
+    }
+
+    /**
+     * Encodes the given message key.
+     * @param key
+     */
+    public static byte[] encodeKey(MessageKey key) throws IOException {
+        UnsynchronizedByteArrayOutputStream bytes = new UnsynchronizedByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out, key.getType());
+        if (key instanceof AbstractMessageKey) {
+            writeString(out, key.getTenantId());
+        }
+        switch (key.getType()) {
+            case Bootstrap:
+                writeString(out, ((BootstrapKey) key).getBootstrapId());
+                break;
+            case Artifact: {
+                ArtifactKey k = (ArtifactKey) key;
+                writeString(out, k.getGroupId());
+                writeString(out, k.getArtifactId());
+                writeString(out, k.getUuid());
+                break;
+            }
+            case ArtifactRule: {
+                ArtifactRuleKey k = (ArtifactRuleKey) key;
+                writeString(out, k.getGroupId());
+                writeString(out, k.getArtifactId());
+                writeEnum(out, k.getRuleType());
+                break;
+            }
+            case ArtifactVersion: {
+                ArtifactVersionKey k = (ArtifactVersionKey) key;
+                writeString(out, k.getGroupId());
+                writeString(out, k.getArtifactId());
+                writeString(out, k.getVersion());
+                break;
+            }
+            case Content: {
+                ContentKey k = (ContentKey) key;
+                writeString(out, k.getContentHash());
+                out.writeLong(k.getContentId());
+                break;
+            }
+            case GlobalRule:
+                writeEnum(out, ((GlobalRuleKey) key).getRuleType());
+                break;
+            case Group:
+                writeString(out, ((GroupKey) key).getGroupId());
+                break;
+            case ContentId:
+            case GlobalId:
+            case LogConfig:
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported message key type: " + key.getType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a message key previously encoded by {@link #encodeKey(MessageKey)}.
+     * @param data
+     */
+    public static MessageKey decodeKey(byte[] data) {
+        ByteBuffer in = readHeader(data);
+        MessageType type = MessageType.fromOrd(data[0]);
+        String tenantId = type == MessageType.Bootstrap ? null : readString(in);
+        AbstractMessageKey key;
+        switch (type) {
+            case Bootstrap:
+                return BootstrapKey.create(readString(in));
+            case Artifact:
+                // The uuid only exists to keep artifact records from being compacted away - it is never read.
+                key = ArtifactKey.create(tenantId, readString(in), readString(in));
+                readString(in);
+                break;
+            case ArtifactRule:
+                key = ArtifactRuleKey.create(tenantId, readString(in), readString(in), readEnum(in, RuleType.class));
+                break;
+            case ArtifactVersion:
+                key = ArtifactVersionKey.create(tenantId, readString(in), readString(in), readString(in));
+                break;
+            case Content: {
+                String contentHash = readString(in);
+                key = ContentKey.create(in.getLong(), contentHash);
+                break;
+            }
+            case GlobalRule:
+                key = GlobalRuleKey.create(tenantId, readEnum(in, RuleType.class));
+                break;
+            case Group:
+                key = GroupKey.create(tenantId, readString(in));
+                break;
+            case ContentId:
+                key = ContentIdKey.create();
+                break;
+            case GlobalId:
+                key = GlobalIdKey.create();
+                break;
+            case LogConfig:
+                key = LogConfigKey.create(tenantId);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported message key type: " + type);
+        }
+        key.setTenantId(tenantId);
+        return key;
+    }
+
+    /**
+     * Encodes the given message value.
+     * @param value
+     */
+    public static byte[] encodeValue(MessageValue value) throws IOException {
+        UnsynchronizedByteArrayOutputStream bytes = new UnsynchronizedByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out, value.getType());
+        ActionType action = ((AbstractMessageValue) value).getAction();
+        out.writeByte(action == null ? 0 : action.getOrd());
+        switch (value.getType()) {
+            case Artifact: {
+                ArtifactValue v = (ArtifactValue) value;
+                writeArtifactVersion(out, v);
+                writeLong(out, v.getGlobalId());
+                writeString(out, v.getVersion());
+                out.writeByte(ArtifactTypeOrdUtil.artifactTypeToOrd(v.getArtifactType()));
+                writeString(out, v.getContentHash());
+                writeString(out, v.getCreatedBy());
+                writeLong(out, v.getCreatedOn() == null ? null : v.getCreatedOn().getTime());
+                writeInt(out, v.getVersionId());
+                writeLong(out, v.getContentId());
+                writeBoolean(out, v.getLatest());
+                break;
+            }
+            case ArtifactVersion:
+                writeArtifactVersion(out, (ArtifactVersionValue) value);
+                break;
+            case ArtifactRule:
+                writeRuleConfig(out, ((ArtifactRuleValue) value).getConfig());
+                break;
+            case GlobalRule:
+                writeRuleConfig(out, ((GlobalRuleValue) value).getConfig());
+                break;
+            case Group: {
+                GroupValue v = (GroupValue) value;
+                writeString(out, v.getDescription());
+                out.writeByte(ArtifactTypeOrdUtil.artifactTypeToOrd(v.getArtifactsType()));
+                writeString(out, v.getCreatedBy());
+                out.writeLong(v.getCreatedOn());
+                writeString(out, v.getModifiedBy());
+                out.writeLong(v.getModifiedOn());
+                writeMap(out, v.getProperties());
+                out.writeBoolean(v.isOnlyArtifacts());
+                break;
+            }
+            case LogConfig: {
+                LogConfigurationDto config = ((LogConfigValue) value).getConfig();
+                out.writeBoolean(config != null);
+                if (config != null) {
+                    writeString(out, config.getLogger());
+                    writeEnum(out, config.getLogLevel());
+                }
+                break;
+            }
+            case ContentId:
+            case GlobalId:
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported message value type: " + value.getType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a message value previously encoded by {@link #encodeValue(MessageValue)}.
+     * @param data
+     */
+    public static MessageValue decodeValue(byte[] data) {
+        ByteBuffer in = readHeader(data);
+        MessageType type = MessageType.fromOrd(data[0]);
+        byte actionOrd = in.get();
+        ActionType action = actionOrd == 0 ? null : ActionType.fromOrd(actionOrd);
+        switch (type) {
+            case Artifact: {
+                ArtifactValue value = new ArtifactValue();
+                value.setAction(action);
+                readArtifactVersion(in, value);
+                value.setGlobalId(readLong(in));
+                value.setVersion(readString(in));
+                value.setArtifactType(ArtifactTypeOrdUtil.ordToArtifactType(in.get()));
+                value.setContentHash(readString(in));
+                value.setCreatedBy(readString(in));
+                Long createdOn = readLong(in);
+                value.setCreatedOn(createdOn == null ? null : new Date(createdOn));
+                value.setVersionId(readInt(in));
+                value.setContentId(readLong(in));
+                value.setLatest(readBoolean(in));
+                return value;
+            }
+            case ArtifactVersion: {
+                ArtifactVersionValue value = new ArtifactVersionValue();
+                value.setAction(action);
+                readArtifactVersion(in, value);
+                return value;
+            }
+            case ArtifactRule:
+                return ArtifactRuleValue.create(action, readRuleConfig(in));
+            case GlobalRule:
+                return GlobalRuleValue.create(action, readRuleConfig(in));
+            case Group: {
+                GroupValue value = new GroupValue();
+                value.setAction(action);
+                value.setDescription(readString(in));
+                value.setArtifactsType(ArtifactTypeOrdUtil.ordToArtifactType(in.get()));
+                value.setCreatedBy(readString(in));
+                value.setCreatedOn(in.getLong());
+                value.setModifiedBy(readString(in));
+                value.setModifiedOn(in.getLong());
+                value.setProperties(readMap(in));
+                value.setOnlyArtifacts(in.get() != 0);
+                return value;
+            }
+            case LogConfig: {
+                LogConfigurationDto config = null;
+                if (in.get() != 0) {
+                    config = new LogConfigurationDto(readString(in), readEnum(in, LogLevel.class));
+                }
+                return LogConfigValue.create(action, config);
+            }
+            case ContentId:
+                return ContentIdValue.create(action);
+            case GlobalId:
+                return GlobalIdValue.create(action);
+            default:
+                throw new IllegalArgumentException("Unsupported message value type: " + type);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, MessageType type) throws IOException {
+        out.writeByte(type.getOrd());
+        out.writeByte(BINARY_MARKER);
+        out.writeByte(FORMAT_VERSION);
+    }
+
+    private static ByteBuffer readHeader(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new IllegalArgumentException("Not a binary encoded KSQL message.");
+        }
+        if (data[2] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported KSQL binary message format version: " + data[2]);
+        }
+        return ByteBuffer.wrap(data, 3, data.length - 3);
+    }
+
+    private static void writeArtifactVersion(DataOutputStream out, ArtifactVersionValue value) throws IOException {
+        writeEnum(out, value.getState());
+        EditableArtifactMetaDataDto metaData = value.getMetaData();
+        out.writeBoolean(metaData != null);
+        if (metaData != null) {
+            writeString(out, metaData.getName());
+            writeString(out, metaData.getDescription());
+            writeList(out, metaData.getLabels());
+            writeMap(out, metaData.getProperties());
+        }
+    }
+
+    private static void readArtifactVersion(ByteBuffer in, ArtifactVersionValue value) {
+        value.setState(readEnum(in, ArtifactState.class));
+        if (in.get() != 0) {
+            EditableArtifactMetaDataDto metaData = new EditableArtifactMetaDataDto();
+            metaData.setName(readString(in));
+            metaData.setDescription(readString(in));
+            metaData.setLabels(readList(in));
+            metaData.setProperties(readMap(in));
+            value.setMetaData(metaData);
+        }
+    }
+
+    private static void writeRuleConfig(DataOutputStream out, RuleConfigurationDto config) throws IOException {
+        out.writeBoolean(config != null);
+        if (config != null) {
+            writeString(out, config.getConfiguration());
+        }
+    }
+
+    private static RuleConfigurationDto readRuleConfig(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        RuleConfigurationDto config = new RuleConfigurationDto();
+        config.setConfiguration(readString(in));
+        return config;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            ByteUtils.writeVarint(-1, out);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteUtils.writeVarint(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = ByteUtils.readVarint(in);
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            ByteUtils.writeVarlong(value, out);
+        }
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() == 0 ? null : ByteUtils.readVarlong(in);
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            ByteUtils.writeVarint(value, out);
+        }
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        return in.get() == 0 ? null : ByteUtils.readVarint(in);
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? 0 : (value ? 2 : 1));
+    }
+
+    private static Boolean readBoolean(ByteBuffer in) {
+        byte value = in.get();
+        return value == 0 ? null : value == 2;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value == null ? null : value.name());
+    }
+
+    private static <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> enumClass) {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(enumClass, name);
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            ByteUtils.writeVarint(-1, out);
+            return;
+        }
+        ByteUtils.writeVarint(values.size(), out);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readList(ByteBuffer in) {
+        int size = ByteUtils.readVarint(in);
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int idx = 0; idx < size; idx++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> values) throws IOException {
+        if (values == null) {
+            ByteUtils.writeVarint(-1, out);
+            return;
+        }
+        ByteUtils.writeVarint(values.size(), out);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(ByteBuffer in) {
+        int size = ByteUtils.readVarint(in);
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int idx = 0; idx < size; idx++) {
+            values.put(readString(in), readString(in));
+        }
+        return values;
+    }
+
+}
@@ -49,12 +49,15 @@ public class KafkaSqlKeyDeserializer implements Deserializer<MessageKey> {
     @Override
     public MessageKey deserialize(String topic, byte[] data) {
         try {
+            if (KafkaSqlBinaryCodec.isBinary(data)) {
+                return KafkaSqlBinaryCodec.decodeKey(data);
+            }
             byte msgTypeOrdinal = data[0];
             Class<? extends MessageKey> keyClass = MessageTypeToKeyClass.ordToKeyClass(msgTypeOrdinal);
             UnsynchronizedByteArrayInputStream in = new UnsynchronizedByteArrayInputStream(data, 1);
             MessageKey key = mapper.readValue(in, keyClass);
             return key;
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             log.error("Error deserializing a Kafka+SQL message (key).", e);
             return null;
         }
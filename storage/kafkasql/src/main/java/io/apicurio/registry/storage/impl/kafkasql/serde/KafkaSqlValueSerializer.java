@@ -42,6 +42,23 @@ public class KafkaSqlValueSerializer implements Serializer<MessageValue> {
         mapper.setSerializationInclusion(Include.NON_NULL);
     }
 
+    private final boolean binary;
+
+    /**
+     * Constructor.
+     */
+    public KafkaSqlValueSerializer() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     * @param binary whether to write values using the {@link KafkaSqlBinaryCodec} rather than JSON
+     */
+    public KafkaSqlValueSerializer(boolean binary) {
+        this.binary = binary;
+    }
+
     /**
      * @see org.apache.kafka.common.serialization.Serializer#serialize(java.lang.String, java.lang.Object)
      */
@@ -54,6 +71,13 @@ public class KafkaSqlValueSerializer implements Serializer<MessageValue> {
         if (messageValue.getType() == MessageType.Content) {
             return this.serializeContent(topic, (ContentValue) messageValue);
         }
+        if (binary) {
+            try {
+                return KafkaSqlBinaryCodec.encodeValue(messageValue);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         try (UnsynchronizedByteArrayOutputStream out = new UnsynchronizedByteArrayOutputStream()) {
             out.write(ByteBuffer.allocate(1).put(messageValue.getType().getOrd()).array());
             mapper.writeValue(out, messageValue);
@@ -1,14 +1,11 @@
 package io.apicurio.registry.storage.impl.kafkasql.sql;
 
-import java.util.Optional;
-import java.util.UUID;
 import java.util.function.Supplier;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 
 import io.apicurio.registry.logging.Logged;
@@ -17,7 +14,9 @@ import io.apicurio.registry.mt.TenantContext;
 import io.apicurio.registry.storage.ArtifactAlreadyExistsException;
 import io.apicurio.registry.storage.ArtifactNotFoundException;
 import io.apicurio.registry.storage.RegistryStorageException;
+import io.apicurio.registry.storage.cache.RegistryStorageCache;
 import io.apicurio.registry.storage.dto.GroupMetaDataDto;
+import io.apicurio.registry.storage.dto.OrphanedContentDto;
 import io.apicurio.registry.storage.impl.kafkasql.KafkaSqlConfiguration;
 import io.apicurio.registry.storage.impl.kafkasql.KafkaSqlCoordinator;
 import io.apicurio.registry.storage.impl.kafkasql.KafkaSqlRegistryStorage;
@@ -33,6 +32,8 @@ import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.GroupKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.LogConfigKey;
 import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.AbstractMessageValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
 import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
 import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
 import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactVersionValue;
@@ -76,48 +77,85 @@ public class KafkaSqlSink {
     @Inject
     TenantContext tenantContext;
 
+    @Inject
+    RegistryStorageCache cache;
+
     /**
      * Called by the {@link KafkaSqlRegistryStorage} main Kafka consumer loop to process a single
      * message in the topic.  Each message represents some attempt to modify the registry data.  So
      * each message much be consumed and applied to the in-memory SQL data store.
      *
-     * This method extracts the UUID from the message headers, delegates the message processing
+     * This method extracts the request id from the message headers, delegates the message processing
      * to <code>doProcessMessage()</code>, and handles any exceptions that might occur. Finally
      * it will report the result to any local threads that may be waiting (via the coordinator).
      *
      * @param record
      */
     public void processMessage(ConsumerRecord<MessageKey, MessageValue> record) {
-        UUID requestId = extractUuid(record);
-        log.debug("Processing Kafka message with UUID: {}", requestId.toString());
+        Long requestId = coordinator.extractRequestId(record.headers());
+        log.debug("Processing Kafka message with request id: {}", requestId);
 
+        Object response;
         try {
-            Object result = doProcessMessage(record);
+            response = doProcessMessage(record);
             log.debug("Kafka message successfully processed. Notifying listeners of response.");
-            coordinator.notifyResponse(requestId, result);
         } catch (RegistryException e) {
             log.debug("Registry exception detected: {}", e.getMessage());
-            coordinator.notifyResponse(requestId, e);
+            response = e;
         } catch (Throwable e) {
             log.debug("Unexpected exception detected: {}", e.getMessage());
-            coordinator.notifyResponse(requestId, new RegistryException(e));
+            response = new RegistryException(e);
         }
+        // Invalidate before notifying, so that the thread waiting for the response reads its own write.
+        invalidateCache(record);
+        coordinator.notifyResponse(requestId, response);
     }
 
     /**
-     * Extracts the UUID from the message.  The UUID should be found in a message header.
+     * Invalidates whatever the storage cache may hold for the data modified by the given message.  Every
+     * node applies every message, which keeps the caches of all nodes in the cluster coherent.
      * @param record
      */
-    private UUID extractUuid(ConsumerRecord<MessageKey, MessageValue> record) {
-        return Optional.ofNullable(record.headers().headers("req"))
-                .map(Iterable::iterator)
-                .map(it -> {
-                    return it.hasNext() ? it.next() : null;
-                })
-                .map(Header::value)
-                .map(String::new)
-                .map(UUID::fromString)
-                .orElse(null);
+    private void invalidateCache(ConsumerRecord<MessageKey, MessageValue> record) {
+        if (!cache.isEnabled() || record.key() == null || record.value() == null) {
+            return;
+        }
+        MessageKey key = record.key();
+        ActionType action = ((AbstractMessageValue) record.value()).getAction();
+        switch (key.getType()) {
+            case Artifact:
+                cache.invalidateArtifact(key.getTenantId(), ((ArtifactKey) key).getGroupId(), ((ArtifactKey) key).getArtifactId());
+                if (action == ActionType.Delete) {
+                    cache.invalidateVersions(key.getTenantId());
+                }
+                break;
+            case ArtifactVersion:
+                cache.invalidateArtifact(key.getTenantId(), ((ArtifactVersionKey) key).getGroupId(), ((ArtifactVersionKey) key).getArtifactId());
+                if (action == ActionType.Delete) {
+                    cache.invalidateVersions(key.getTenantId());
+                }
+                break;
+            case ArtifactRule:
+                cache.invalidateArtifact(key.getTenantId(), ((ArtifactRuleKey) key).getGroupId(), ((ArtifactRuleKey) key).getArtifactId());
+                break;
+            case GlobalRule:
+                cache.invalidateGlobalRules(key.getTenantId());
+                break;
+            case Group:
+                if (action == ActionType.Delete) {
+                    cache.invalidateTenant(key.getTenantId());
+                }
+                break;
+            case GlobalId:
+            case ContentId:
+                // The id sequences are not tenant scoped, and are only reset by an import.
+                if (action == ActionType.Reset) {
+                    cache.invalidateAll();
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -330,7 +368,7 @@ public class KafkaSqlSink {
 
     /**
      * Process a Kafka message of type "content".  This primarily means creating or updating a row in
-     * the content table.
+     * the content table, or deleting an orphaned one.
      * @param key
      * @param value
      */
@@ -351,6 +389,11 @@ public class KafkaSqlSink {
                     sqlStore.importContent(entity);
                 }
                 break;
+            case Delete:
+                return sqlStore.deleteOrphanedContent(OrphanedContentDto.builder()
+                        .contentId(key.getContentId())
+                        .contentHash(key.getContentHash())
+                        .build());
             default:
                 log.warn("Unsupported content message action: %s", key.getType().name());
                 throw new RegistryStorageException("Unsupported content message action: " + value.getAction());
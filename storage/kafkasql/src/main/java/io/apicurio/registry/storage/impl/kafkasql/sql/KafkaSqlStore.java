@@ -12,6 +12,7 @@ import javax.transaction.Transactional;
 import io.apicurio.registry.content.ContentHandle;
 import io.apicurio.registry.logging.Logged;
 import io.apicurio.registry.storage.ArtifactNotFoundException;
+import io.apicurio.registry.storage.ContentNotFoundException;
 import io.apicurio.registry.storage.RegistryStorageException;
 import io.apicurio.registry.storage.dto.ArtifactMetaDataDto;
 import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
@@ -153,7 +154,8 @@ public class KafkaSqlStore extends AbstractSqlRegistryStorage {
             return handle.createQuery(sql)
                     .bind(0, contentHash)
                     .mapTo(Long.class)
-                    .one();
+                    .findOne()
+                    .orElseThrow(() -> new ContentNotFoundException(contentHash));
         });
     }
 
@@ -213,4 +215,47 @@ public class KafkaSqlStore extends AbstractSqlRegistryStorage {
         });
     }
 
+    /**
+     * Returns true if the store can be snapshotted (currently only when backed by H2).
+     */
+    public boolean isSnapshotSupported() {
+        return "h2".equals(sqlStatements().dbType());
+    }
+
+    /**
+     * Writes an (uncompressed) SQL script containing the full content of the store (schema, data and
+     * sequences) to the given file.  The script is cancelled if it takes longer than the given timeout.
+     * @param file
+     * @param timeoutMillis
+     */
+    public void exportSnapshot(String file, int timeoutMillis) throws RegistryStorageException {
+        handles.withHandleNoException(handle -> {
+            handle.createUpdate("SET QUERY_TIMEOUT " + timeoutMillis).executeNoUpdate();
+            try {
+                handle.createUpdate("SCRIPT DROP TO " + quote(file)).executeNoUpdate();
+            } finally {
+                handle.createUpdate("SET QUERY_TIMEOUT 0").executeNoUpdate();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Replaces the full content of the store with the content of a (compressed) snapshot previously created
+     * by {@link #exportSnapshot(String, int)}.  The database is upgraded afterwards if the snapshot was
+     * taken by an older version of the registry.
+     * @param file
+     */
+    public void restoreSnapshot(String file) throws RegistryStorageException {
+        handles.withHandleNoException(handle -> {
+            handle.createUpdate("RUNSCRIPT FROM " + quote(file) + " COMPRESSION GZIP").executeNoUpdate();
+            return null;
+        });
+        initialize();
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
 }
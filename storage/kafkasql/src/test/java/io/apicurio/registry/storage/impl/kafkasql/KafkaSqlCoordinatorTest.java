@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_INFLIGHT;
+import static io.apicurio.registry.metrics.MetricsConstants.KAFKASQL_REQUESTS_TIMEOUTS;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.types.RegistryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+public class KafkaSqlCoordinatorTest {
+
+    private SimpleMeterRegistry registry;
+    private KafkaSqlCoordinator coordinator;
+
+    @BeforeEach
+    public void setUp() {
+        KafkaSqlTestConfiguration configuration = new KafkaSqlTestConfiguration();
+        configuration.responseTimeout = 200;
+        registry = new SimpleMeterRegistry();
+        coordinator = new KafkaSqlCoordinator();
+        coordinator.configuration = configuration;
+        coordinator.registry = registry;
+        coordinator.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        coordinator.destroy();
+    }
+
+    @Test
+    public void testResponse() {
+        long requestId = coordinator.createRequestId();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(coordinator.createRequestHeader(requestId));
+        Assertions.assertEquals(requestId, coordinator.extractRequestId(headers));
+        Assertions.assertEquals(1, inflight());
+
+        // Completed before the caller gets to wait for it.
+        coordinator.notifyResponse(requestId, "result");
+        Assertions.assertEquals(0, inflight());
+        Assertions.assertEquals("result", coordinator.waitForResponse(requestId));
+        Assertions.assertEquals(0, inflight());
+    }
+
+    @Test
+    public void testWaitingResponse() throws Exception {
+        long requestId = coordinator.createRequestId();
+        CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> coordinator.waitForResponse(requestId));
+        Thread.sleep(50);
+        coordinator.notifyResponse(requestId, "result");
+        Assertions.assertEquals("result", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, inflight());
+
+        // Nothing is left behind to time out.
+        Thread.sleep(500);
+        Assertions.assertEquals(0, registry.get(KAFKASQL_REQUESTS_TIMEOUTS).functionCounter().count());
+    }
+
+    @Test
+    public void testErrorResponse() {
+        long requestId = coordinator.createRequestId();
+        coordinator.notifyResponse(requestId, new RegistryException("failed"));
+        RegistryException error = Assertions.assertThrows(RegistryException.class, () -> coordinator.waitForResponse(requestId));
+        Assertions.assertEquals("failed", error.getMessage());
+        Assertions.assertEquals(0, inflight());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        long requestId = coordinator.createRequestId();
+        Assertions.assertThrows(RegistryException.class, () -> coordinator.waitForResponse(requestId));
+        Assertions.assertEquals(0, inflight());
+        Assertions.assertEquals(1, registry.get(KAFKASQL_REQUESTS_TIMEOUTS).functionCounter().count());
+
+        // Operations that are never waited for are evicted as well.
+        coordinator.createRequestId();
+        Assertions.assertEquals(1, inflight());
+        Thread.sleep(1000);
+        Assertions.assertEquals(0, inflight());
+        Assertions.assertEquals(2, registry.get(KAFKASQL_REQUESTS_TIMEOUTS).functionCounter().count());
+
+        // A late response is ignored.
+        coordinator.notifyResponse(requestId, "late");
+    }
+
+    @Test
+    public void testForeignRequests() {
+        RecordHeaders headers = new RecordHeaders();
+        Assertions.assertNull(coordinator.extractRequestId(headers));
+        // Header written by an older registry version.
+        headers.add(new RecordHeader(KafkaSqlCoordinator.REQUEST_HEADER, "0b6e5c47-1a6c-4b6f-9a3e-0f5c1d2e3f40".getBytes()));
+        Assertions.assertNull(coordinator.extractRequestId(headers));
+
+        // Header written by another registry instance.
+        KafkaSqlCoordinator other = new KafkaSqlCoordinator();
+        headers.add(other.createRequestHeader(1));
+        Assertions.assertNull(coordinator.extractRequestId(headers));
+    }
+
+    private double inflight() {
+        return registry.get(KAFKASQL_REQUESTS_INFLIGHT).gauge().value();
+    }
+
+}
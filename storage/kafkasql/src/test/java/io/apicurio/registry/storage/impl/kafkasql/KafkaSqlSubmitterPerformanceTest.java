@@ -0,0 +1,204 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.utils.ConcurrentUtil;
+import io.apicurio.registry.utils.kafka.ProducerActions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures write throughput of the {@link KafkaSqlSubmitter} with and without batching, using a
+ * local stand-in for the Kafka broker and the KSQL consumer thread.  Enable it by running with
+ * <code>-DKafkaSqlSubmitterPerformanceTest=enabled</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class KafkaSqlSubmitterPerformanceTest {
+
+    private static final int NUM_THREADS = 200;
+    private static final int NUM_WRITES_PER_THREAD = 50;
+    private static final long BROKER_LATENCY_MS = 2;
+
+    private boolean isTestEnabled() {
+        return "enabled".equals(System.getProperty(KafkaSqlSubmitterPerformanceTest.class.getSimpleName()));
+    }
+
+    @Test
+    public void testSubmitterPerformance() throws Exception {
+        if (!isTestEnabled()) {
+            return;
+        }
+
+        System.out.println("========================================================================");
+        System.out.println("= Running KafkaSQL submitter performance test.  Please wait...         =");
+        System.out.println("========================================================================");
+
+        long unbatched = runWrites(false);
+        long batched = runWrites(true);
+        int total = NUM_THREADS * NUM_WRITES_PER_THREAD;
+
+        System.out.println("========================================================================");
+        System.out.println("= KafkaSQL Submitter Performance Results                               =");
+        System.out.println("=----------------------------------------------------------------------=");
+        System.out.println("| Writes: " + total + " from " + NUM_THREADS + " threads");
+        System.out.println("| ");
+        System.out.println("| Unbatched: " + unbatched + "ms (" + (total * 1000L / Math.max(1, unbatched)) + " writes/sec)");
+        System.out.println("| Batched:   " + batched + "ms (" + (total * 1000L / Math.max(1, batched)) + " writes/sec)");
+        System.out.println("========================================================================");
+    }
+
+    private long runWrites(boolean batching) throws Exception {
+        KafkaSqlTestConfiguration configuration = new KafkaSqlTestConfiguration();
+        configuration.submitterBatchingEnabled = batching;
+        KafkaSqlCoordinator coordinator = new KafkaSqlCoordinator();
+        coordinator.configuration = configuration;
+        coordinator.registry = new SimpleMeterRegistry();
+        coordinator.init();
+        LocalJournal journal = new LocalJournal(coordinator);
+
+        KafkaSqlSubmitter submitter = new KafkaSqlSubmitter();
+        submitter.log = LoggerFactory.getLogger(KafkaSqlSubmitter.class);
+        submitter.configuration = configuration;
+        submitter.coordinator = coordinator;
+        submitter.producer = journal;
+        submitter.init();
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            long start = System.currentTimeMillis();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int idx = 0; idx < NUM_WRITES_PER_THREAD; idx++) {
+                        long reqId = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Create));
+                        Assertions.assertNotNull(coordinator.waitForResponse(reqId));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long end = System.currentTimeMillis();
+            Assertions.assertEquals(NUM_THREADS * NUM_WRITES_PER_THREAD, journal.applied.get());
+            return end - start;
+        } finally {
+            executor.shutdownNow();
+            submitter.destroy();
+            journal.close();
+            coordinator.destroy();
+        }
+    }
+
+    /**
+     * Stand-in for a Kafka broker plus the KSQL consumer thread.  Every "produce request" costs a fixed
+     * round trip, and all records that arrive while a request is in flight are acknowledged together
+     * by the next one (as the real producer would do with its record accumulator).  Acknowledged records
+     * are then applied in order by a single consumer thread.
+     */
+    private static class LocalJournal implements ProducerActions<MessageKey, MessageValue> {
+
+        private final KafkaSqlCoordinator coordinator;
+        private final LinkedBlockingQueue<Object[]> produced = new LinkedBlockingQueue<>();
+        private final LinkedBlockingQueue<ProducerRecord<MessageKey, MessageValue>> journal = new LinkedBlockingQueue<>();
+        private final AtomicInteger applied = new AtomicInteger();
+        private final ExecutorService threads = Executors.newFixedThreadPool(2);
+        private volatile boolean closed;
+
+        LocalJournal(KafkaSqlCoordinator coordinator) {
+            this.coordinator = coordinator;
+            threads.submit(this::runBroker);
+            threads.submit(this::runConsumer);
+        }
+
+        @Override
+        public CompletableFuture<RecordMetadata> apply(ProducerRecord<MessageKey, MessageValue> record) {
+            CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+            produced.add(new Object[] { record, ack });
+            return ack;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void runBroker() {
+            List<Object[]> request = new ArrayList<>();
+            long offset = 0;
+            while (!closed) {
+                try {
+                    Object[] first = produced.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    request.add(first);
+                    produced.drainTo(request);
+                    Thread.sleep(BROKER_LATENCY_MS);
+                    for (Object[] item : request) {
+                        ProducerRecord<MessageKey, MessageValue> record = (ProducerRecord<MessageKey, MessageValue>) item[0];
+                        journal.add(record);
+                        RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), offset++, 0, 0, 0L, 0, 0);
+                        ((CompletableFuture<RecordMetadata>) item[1]).complete(metadata);
+                    }
+                    request.clear();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void runConsumer() {
+            long globalId = 0;
+            while (!closed) {
+                try {
+                    ProducerRecord<MessageKey, MessageValue> record = journal.poll(100, TimeUnit.MILLISECONDS);
+                    if (record == null) {
+                        continue;
+                    }
+                    Long requestId = coordinator.extractRequestId(record.headers());
+                    applied.incrementAndGet();
+                    coordinator.notifyResponse(requestId, ++globalId);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            threads.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.RegistryException;
+import io.apicurio.registry.utils.ConcurrentUtil;
+import io.apicurio.registry.utils.kafka.ProducerActions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks the batching mode of the {@link KafkaSqlSubmitter}, against a producer whose acknowledgements are
+ * completed by the test.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class KafkaSqlSubmitterTest {
+
+    private KafkaSqlCoordinator coordinator;
+    private KafkaSqlSubmitter submitter;
+    private final LinkedBlockingQueue<CompletableFuture<RecordMetadata>> acks = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() {
+        KafkaSqlTestConfiguration configuration = new KafkaSqlTestConfiguration();
+        configuration.submitterBatchingEnabled = true;
+        configuration.submitterMaxInFlightBatches = 2;
+        coordinator = new KafkaSqlCoordinator();
+        coordinator.configuration = configuration;
+        coordinator.registry = new SimpleMeterRegistry();
+        coordinator.init();
+
+        submitter = new KafkaSqlSubmitter();
+        submitter.log = LoggerFactory.getLogger(KafkaSqlSubmitter.class);
+        submitter.configuration = configuration;
+        submitter.coordinator = coordinator;
+        submitter.producer = new ProducerActions<MessageKey, MessageValue>() {
+            @Override
+            public CompletableFuture<RecordMetadata> apply(ProducerRecord<MessageKey, MessageValue> record) {
+                CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+                acks.add(ack);
+                return ack;
+            }
+            @Override
+            public void close() {
+            }
+        };
+        submitter.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        submitter.destroy();
+        coordinator.destroy();
+    }
+
+    @Test
+    public void testPipelining() throws Exception {
+        // The second batch is sent before the first one is acknowledged.
+        submitter.submitGlobalId(ActionType.Create);
+        CompletableFuture<RecordMetadata> first = acks.poll(1, TimeUnit.SECONDS);
+        Assertions.assertNotNull(first);
+        submitter.submitGlobalId(ActionType.Create);
+        Assertions.assertNotNull(acks.poll(1, TimeUnit.SECONDS));
+
+        // But no more than two batches are waiting to be acknowledged.
+        submitter.submitGlobalId(ActionType.Create);
+        Assertions.assertNull(acks.poll(300, TimeUnit.MILLISECONDS));
+        first.complete(new RecordMetadata(new TopicPartition("kafkasql-journal", 0), 0, 0, 0, 0L, 0, 0));
+        Assertions.assertNotNull(acks.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        // Two batches waiting to be acknowledged.
+        submitter.submitGlobalId(ActionType.Create);
+        Assertions.assertNotNull(acks.poll(1, TimeUnit.SECONDS));
+        submitter.submitGlobalId(ActionType.Create);
+        Assertions.assertNotNull(acks.poll(1, TimeUnit.SECONDS));
+
+        // Queued behind the in-flight batches, and never sent.
+        long queued = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Create));
+        submitter.destroy();
+        RegistryException queuedError = Assertions.assertThrows(RegistryException.class, () -> coordinator.waitForResponse(queued));
+        Assertions.assertTrue(queuedError.getMessage().contains("Shut down"));
+
+        // Submitted after the shutdown.
+        long late = ConcurrentUtil.get(submitter.submitGlobalId(ActionType.Create));
+        RegistryException lateError = Assertions.assertThrows(RegistryException.class, () -> coordinator.waitForResponse(late));
+        Assertions.assertTrue(lateError.getMessage().contains("Shut down"));
+        Assertions.assertTrue(acks.isEmpty());
+    }
+
+}
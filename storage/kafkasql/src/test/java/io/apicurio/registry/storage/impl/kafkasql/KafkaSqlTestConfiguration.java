@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql;
+
+import java.util.Properties;
+
+/**
+ * A {@link KafkaSqlConfiguration} with sensible defaults, for unit tests that wire up the KafkaSQL
+ * components by hand.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class KafkaSqlTestConfiguration implements KafkaSqlConfiguration {
+
+    boolean submitterBatchingEnabled = false;
+    int submitterMaxInFlightBatches = 5;
+    int responseTimeout = 30000;
+
+    @Override
+    public String bootstrapServers() {
+        return "localhost:9092";
+    }
+    @Override
+    public String topic() {
+        return "kafkasql-journal";
+    }
+    @Override
+    public Properties topicProperties() {
+        return new Properties();
+    }
+    @Override
+    public boolean isTopicAutoCreate() {
+        return false;
+    }
+    @Override
+    public Integer startupLag() {
+        return 0;
+    }
+    @Override
+    public Integer pollTimeout() {
+        return 100;
+    }
+    @Override
+    public Integer applyThreads() {
+        return 1;
+    }
+    @Override
+    public Integer applyQueueCapacity() {
+        return 10000;
+    }
+    @Override
+    public boolean isSnapshotEnabled() {
+        return false;
+    }
+    @Override
+    public String snapshotLocation() {
+        return null;
+    }
+    @Override
+    public Integer snapshotInterval() {
+        return 600000;
+    }
+    @Override
+    public Integer snapshotMaxPause() {
+        return 5000;
+    }
+    @Override
+    public Integer responseTimeout() {
+        return responseTimeout;
+    }
+    @Override
+    public boolean isSubmitterBatchingEnabled() {
+        return submitterBatchingEnabled;
+    }
+    @Override
+    public Integer submitterBatchSize() {
+        return 500;
+    }
+    @Override
+    public Integer submitterQueueCapacity() {
+        return 10000;
+    }
+    @Override
+    public Integer submitterMaxInFlightBatches() {
+        return submitterMaxInFlightBatches;
+    }
+    @Override
+    public boolean isBinarySerdeEnabled() {
+        return false;
+    }
+    @Override
+    public Properties producerProperties() {
+        return new Properties();
+    }
+    @Override
+    public Properties consumerProperties() {
+        return new Properties();
+    }
+    @Override
+    public Properties adminProperties() {
+        return new Properties();
+    }
+}
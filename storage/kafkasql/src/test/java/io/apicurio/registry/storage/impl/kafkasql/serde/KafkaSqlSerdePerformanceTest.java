@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.storage.impl.kafkasql.serde;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.apicurio.registry.storage.dto.EditableArtifactMetaDataDto;
+import io.apicurio.registry.storage.dto.GroupMetaDataDto;
+import io.apicurio.registry.storage.dto.LogConfigurationDto;
+import io.apicurio.registry.storage.dto.RuleConfigurationDto;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ArtifactVersionKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.BootstrapKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.ContentKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalIdKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GlobalRuleKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.GroupKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.LogConfigKey;
+import io.apicurio.registry.storage.impl.kafkasql.keys.MessageKey;
+import io.apicurio.registry.storage.impl.kafkasql.values.ActionType;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactRuleValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.ArtifactVersionValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GlobalIdValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.GroupValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.LogConfigValue;
+import io.apicurio.registry.storage.impl.kafkasql.values.MessageValue;
+import io.apicurio.registry.types.ArtifactState;
+import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.types.LogLevel;
+import io.apicurio.registry.types.RuleType;
+
+/**
+ * Checks that the binary and JSON encodings of the KSQL journal messages are interchangeable, and compares
+ * their size and serialization cost.  The comparison is only run with
+ * <code>-DKafkaSqlSerdePerformanceTest=enabled</code>.
+ *
+ * @author eric.wittmann@gmail.com
+ */
+public class KafkaSqlSerdePerformanceTest {
+
+    private static final String TOPIC = "kafkasql-journal";
+    private static final int NUM_ITERATIONS = 200000;
+
+    private final KafkaSqlKeySerializer jsonKeySerializer = new KafkaSqlKeySerializer();
+    private final KafkaSqlKeySerializer binaryKeySerializer = new KafkaSqlKeySerializer(true);
+    private final KafkaSqlValueSerializer jsonValueSerializer = new KafkaSqlValueSerializer();
+    private final KafkaSqlValueSerializer binaryValueSerializer = new KafkaSqlValueSerializer(true);
+    private final KafkaSqlKeyDeserializer keyDeserializer = new KafkaSqlKeyDeserializer();
+    private final KafkaSqlValueDeserializer valueDeserializer = new KafkaSqlValueDeserializer();
+
+    private boolean isTestEnabled() {
+        return "enabled".equals(System.getProperty(KafkaSqlSerdePerformanceTest.class.getSimpleName()));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (MessageKey key : keys()) {
+            MessageKey fromJson = keyDeserializer.deserialize(TOPIC, jsonKeySerializer.serialize(TOPIC, key));
+            MessageKey fromBinary = keyDeserializer.deserialize(TOPIC, binaryKeySerializer.serialize(TOPIC, key));
+            Assertions.assertNotNull(fromBinary);
+            Assertions.assertEquals(key.getType(), fromBinary.getType());
+            Assertions.assertEquals(key.getTenantId(), fromBinary.getTenantId());
+            Assertions.assertEquals(key.getPartitionKey(), fromBinary.getPartitionKey());
+            if (key instanceof BootstrapKey) {
+                Assertions.assertEquals(((BootstrapKey) key).getBootstrapId(), ((BootstrapKey) fromBinary).getBootstrapId());
+            } else {
+                Assertions.assertEquals(fromJson.toString(), fromBinary.toString());
+            }
+        }
+        for (MessageValue value : values()) {
+            MessageValue fromJson = valueDeserializer.deserialize(TOPIC, jsonValueSerializer.serialize(TOPIC, value));
+            MessageValue fromBinary = valueDeserializer.deserialize(TOPIC, binaryValueSerializer.serialize(TOPIC, value));
+            Assertions.assertNotNull(fromBinary);
+            Assertions.assertEquals(value.getType(), fromBinary.getType());
+            // Compare by re-encoding both as JSON, which covers every field of the value.
+            Assertions.assertArrayEquals(jsonValueSerializer.serialize(TOPIC, fromJson),
+                    jsonValueSerializer.serialize(TOPIC, fromBinary));
+        }
+    }
+
+    @Test
+    public void testSerdePerformance() {
+        if (!isTestEnabled()) {
+            return;
+        }
+
+        MessageKey key = ArtifactVersionKey.create("tenant-1", "com.example.orders", "OrderPlaced", "3");
+        MessageValue value = values().get(1);
+
+        // Warm up both code paths before measuring.
+        measure(jsonKeySerializer, jsonValueSerializer, key, value, NUM_ITERATIONS);
+        measure(binaryKeySerializer, binaryValueSerializer, key, value, NUM_ITERATIONS);
+
+        long[] json = measure(jsonKeySerializer, jsonValueSerializer, key, value, NUM_ITERATIONS);
+        long[] binary = measure(binaryKeySerializer, binaryValueSerializer, key, value, NUM_ITERATIONS);
+
+        System.out.println("========================================================================");
+        System.out.println("= KafkaSQL Serde Performance Results                                   =");
+        System.out.println("=----------------------------------------------------------------------=");
+        System.out.println("| Iterations: " + NUM_ITERATIONS + " (ArtifactVersion key + Artifact value)");
+        System.out.println("| ");
+        System.out.println("| JSON:   " + json[0] + " bytes, serialize " + json[1] + " ns/op, deserialize " + json[2] + " ns/op");
+        System.out.println("| Binary: " + binary[0] + " bytes, serialize " + binary[1] + " ns/op, deserialize " + binary[2] + " ns/op");
+        System.out.println("========================================================================");
+    }
+
+    /**
+     * Returns the encoded size, and the average serialize and deserialize time in nanoseconds.
+     */
+    private long[] measure(KafkaSqlKeySerializer keySerializer, KafkaSqlValueSerializer valueSerializer,
+            MessageKey key, MessageValue value, int iterations) {
+        byte[] keyBytes = keySerializer.serialize(TOPIC, key);
+        byte[] valueBytes = valueSerializer.serialize(TOPIC, value);
+
+        long start = System.nanoTime();
+        for (int idx = 0; idx < iterations; idx++) {
+            keyBytes = keySerializer.serialize(TOPIC, key);
+            valueBytes = valueSerializer.serialize(TOPIC, value);
+        }
+        long serialize = (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        for (int idx = 0; idx < iterations; idx++) {
+            Assertions.assertNotNull(keyDeserializer.deserialize(TOPIC, keyBytes));
+            Assertions.assertNotNull(valueDeserializer.deserialize(TOPIC, valueBytes));
+        }
+        long deserialize = (System.nanoTime() - start) / iterations;
+
+        return new long[] { keyBytes.length + valueBytes.length, serialize, deserialize };
+    }
+
+    private static List<MessageKey> keys() {
+        return Arrays.asList(
+                BootstrapKey.create("bootstrap-1"),
+                ArtifactKey.create("tenant-1", "com.example", "OrderPlaced"),
+                ArtifactKey.create(null, null, "NoGroup"),
+                ArtifactRuleKey.create("tenant-1", "com.example", "OrderPlaced", RuleType.COMPATIBILITY),
+                ArtifactVersionKey.create("tenant-1", "com.example", "OrderPlaced", "1"),
+                ContentKey.create(42L, "abcdef0123456789"),
+                GlobalRuleKey.create("tenant-1", RuleType.VALIDITY),
+                GroupKey.create("tenant-1", "com.example"),
+                GlobalIdKey.create(),
+                LogConfigKey.create("tenant-1"));
+    }
+
+    private static List<MessageValue> values() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("owner", "team-orders");
+        properties.put("région", "eu-west");
+        EditableArtifactMetaDataDto metaData = new EditableArtifactMetaDataDto("Order Placed",
+                "Emitted when an order is placed.", Arrays.asList("orders", "events"), properties);
+        GroupMetaDataDto group = new GroupMetaDataDto("com.example", "Examples", ArtifactType.AVRO,
+                "alice", 1000L, "bob", 2000L, properties);
+        return Arrays.asList(
+                ArtifactValue.create(ActionType.Create, 17L, "1", ArtifactType.AVRO, "abcdef0123456789", "alice",
+                        new Date(1234567890L), null, 1, ArtifactState.ENABLED, 5L, null),
+                ArtifactValue.create(ActionType.Create, 17L, "3", ArtifactType.AVRO, "abcdef0123456789", "alice",
+                        new Date(1234567890L), metaData, 3, ArtifactState.ENABLED, 5L, Boolean.TRUE),
+                ArtifactVersionValue.create(ActionType.Update, ArtifactState.DEPRECATED, metaData),
+                ArtifactRuleValue.create(ActionType.Create, new RuleConfigurationDto("BACKWARD")),
+                ArtifactRuleValue.create(ActionType.Delete, null),
+                GroupValue.create(ActionType.Create, group),
+                GroupValue.create(ActionType.Delete, true),
+                LogConfigValue.create(ActionType.Update, new LogConfigurationDto("io.apicurio", LogLevel.DEBUG)),
+                GlobalIdValue.create(ActionType.Create));
+    }
+
+}
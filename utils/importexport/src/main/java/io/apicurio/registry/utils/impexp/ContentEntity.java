@@ -16,6 +16,8 @@
 
 package io.apicurio.registry.utils.impexp;
 
+import java.io.InputStream;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -31,6 +33,12 @@ public class ContentEntity extends Entity {
     public String contentHash;
     @JsonIgnore
     public byte[] contentBytes;
+    /**
+     * The content, when streamed from the storage instead of {@link #contentBytes}.  Only readable while the
+     * entity is being handled.
+     */
+    @JsonIgnore
+    public transient InputStream contentStream;
 
     /**
      * @see io.apicurio.registry.utils.impexp.Entity#getEntityType()
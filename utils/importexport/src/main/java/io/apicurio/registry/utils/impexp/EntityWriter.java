@@ -37,6 +37,7 @@ public class EntityWriter {
     }
 
     private final transient ZipOutputStream zip;
+    private final transient byte[] buffer = new byte[8192];
 
     /**
      * Constructor.
@@ -85,7 +86,14 @@ public class EntityWriter {
 
         // Write the content file.
         zip.putNextEntry(dataEntry);
-        zip.write(entity.contentBytes);
+        if (entity.contentBytes == null && entity.contentStream != null) {
+            int read;
+            while ((read = entity.contentStream.read(buffer)) != -1) {
+                zip.write(buffer, 0, read);
+            }
+        } else {
+            zip.write(entity.contentBytes);
+        }
         zip.closeEntry();
     }
 
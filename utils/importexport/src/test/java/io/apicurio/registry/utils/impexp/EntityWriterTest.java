@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Red Hat
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.apicurio.registry.utils.impexp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author eric.wittmann@gmail.com
+ */
+class EntityWriterTest {
+
+    /**
+     * Test method for {@link io.apicurio.registry.utils.impexp.EntityWriter#writeEntity(Entity)}, with streamed content.
+     */
+    @Test
+    void testWriteContentStream() throws Exception {
+        byte[] content = new byte[20000];
+        for (int idx = 0; idx < content.length; idx++) {
+            content[idx] = (byte) ('a' + idx % 26);
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(data, StandardCharsets.UTF_8)) {
+            EntityWriter writer = new EntityWriter(zip);
+            ContentEntity entity = new ContentEntity();
+            entity.contentId = 1;
+            entity.contentHash = "hash-1";
+            entity.canonicalHash = "canonical-hash-1";
+            entity.contentStream = new ByteArrayInputStream(content);
+            writer.writeEntity(entity);
+        }
+
+        ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(data.toByteArray()), StandardCharsets.UTF_8);
+        ContentEntity entity = (ContentEntity) new EntityReader(zip).readEntity();
+        Assertions.assertEquals(1, entity.contentId);
+        Assertions.assertEquals("hash-1", entity.contentHash);
+        Assertions.assertArrayEquals(content, entity.contentBytes);
+    }
+
+}
@@ -19,14 +19,20 @@ package io.apicurio.registry.maven;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import io.apicurio.registry.rest.client.exception.RestClientException;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchItem;
+import io.apicurio.registry.rest.v2.beans.ArtifactBatchResult;
 import io.apicurio.registry.rest.v2.beans.ArtifactMetaData;
-import io.apicurio.registry.rest.v2.beans.IfExists;
-import io.apicurio.registry.types.ArtifactType;
+import io.apicurio.registry.utils.IoUtil;
 
 /**
  * Register artifacts against registry.
@@ -42,6 +48,13 @@ public class RegisterRegistryMojo extends AbstractRegistryMojo {
     @Parameter(required = true)
     List<RegisterArtifact> artifacts;
 
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Cleared once the registry turns out not to support batch registration (e.g. an older registry).
+     */
+    private boolean batchSupported = true;
+
     /**
      * Validate the configuration.
      */
@@ -83,19 +96,13 @@ public class RegisterRegistryMojo extends AbstractRegistryMojo {
 
         int errorCount = 0;
         if (artifacts != null) {
-            for (RegisterArtifact artifact : artifacts) {
-                String groupId = artifact.getGroupId();
-                String artifactId = artifact.getArtifactId();
-                String version = artifact.getVersion();
-                ArtifactType type = artifact.getType();
-                IfExists ifExists = artifact.getIfExists();
-                Boolean canonicalize = artifact.getCanonicalize();
-                try (InputStream data = new FileInputStream(artifact.getFile())) {
-                    ArtifactMetaData amd = this.getClient().createArtifact(groupId, artifactId, version, type, ifExists, canonicalize, data);
-                    getLog().info(String.format("Successfully registered artifact [%s] / [%s].  GlobalId is [%d]", groupId, artifactId, amd.getGlobalId()));
-                } catch (Exception e) {
-                    errorCount++;
-                    getLog().error(String.format("Exception while registering artifact [%s] / [%s]", groupId, artifactId), e);
+            // A single request per group (and per BATCH_SIZE artifacts)
+            Map<String, List<RegisterArtifact>> groups = artifacts.stream()
+                    .collect(Collectors.groupingBy(RegisterArtifact::getGroupId, LinkedHashMap::new, Collectors.toList()));
+            for (Map.Entry<String, List<RegisterArtifact>> group : groups.entrySet()) {
+                List<RegisterArtifact> groupArtifacts = group.getValue();
+                for (int from = 0; from < groupArtifacts.size(); from += BATCH_SIZE) {
+                    errorCount += register(group.getKey(), groupArtifacts.subList(from, Math.min(from + BATCH_SIZE, groupArtifacts.size())));
                 }
             }
         }
@@ -104,4 +111,94 @@ public class RegisterRegistryMojo extends AbstractRegistryMojo {
             throw new MojoExecutionException("Errors while registering artifacts ...");
         }
     }
+
+    /**
+     * Registers the given artifacts of a group, in a single request if the registry supports it and one
+     * request per artifact otherwise.  Returns the number of errors.
+     */
+    private int register(String groupId, List<RegisterArtifact> batch) {
+        if (batchSupported) {
+            Integer errorCount = registerBatch(groupId, batch);
+            if (errorCount != null) {
+                return errorCount;
+            }
+            getLog().warn("The registry does not support batch registration, registering the artifacts one by one.");
+            batchSupported = false;
+        }
+        int errorCount = 0;
+        for (RegisterArtifact artifact : batch) {
+            if (!registerArtifact(artifact)) {
+                errorCount++;
+            }
+        }
+        return errorCount;
+    }
+
+    /**
+     * Registers the given artifacts of a group, in a single request.  Returns the number of errors, or null
+     * if the registry does not support batch registration.
+     */
+    private Integer registerBatch(String groupId, List<RegisterArtifact> batch) {
+        List<ArtifactBatchItem> items = new ArrayList<>();
+        List<InputStream> contents = new ArrayList<>();
+        try {
+            for (RegisterArtifact artifact : batch) {
+                ArtifactBatchItem item = new ArtifactBatchItem();
+                item.setArtifactId(artifact.getArtifactId());
+                item.setVersion(artifact.getVersion());
+                item.setType(artifact.getType());
+                item.setIfExists(artifact.getIfExists());
+                item.setCanonical(artifact.getCanonicalize());
+                items.add(item);
+                contents.add(new FileInputStream(artifact.getFile()));
+            }
+
+            int errorCount = 0;
+            for (ArtifactBatchResult result : this.getClient().createArtifacts(groupId, items, contents).getResults()) {
+                if (result.getError() == null) {
+                    getLog().info(String.format("Successfully registered artifact [%s] / [%s].  GlobalId is [%d]", groupId, result.getArtifactId(), result.getMetaData().getGlobalId()));
+                } else {
+                    errorCount++;
+                    getLog().error(String.format("Error while registering artifact [%s] / [%s]: %s", groupId, result.getArtifactId(), result.getError().getMessage()));
+                }
+            }
+            return errorCount;
+        } catch (RestClientException e) {
+            if (isNotSupported(e)) {
+                return null;
+            }
+            getLog().error(String.format("Exception while registering the artifacts of group [%s]", groupId), e);
+            return batch.size();
+        } catch (Exception e) {
+            getLog().error(String.format("Exception while registering the artifacts of group [%s]", groupId), e);
+            return batch.size();
+        } finally {
+            contents.forEach(IoUtil::closeIgnore);
+        }
+    }
+
+    /**
+     * A registry without the batch endpoint answers with a 404 (unknown path) or a 405 (unknown method).
+     */
+    private static boolean isNotSupported(RestClientException e) {
+        Integer code = e.getError() == null ? null : e.getError().getErrorCode();
+        return code != null && (code == 404 || code == 405);
+    }
+
+    /**
+     * Registers a single artifact.  Returns false if it could not be registered.
+     */
+    private boolean registerArtifact(RegisterArtifact artifact) {
+        String groupId = artifact.getGroupId();
+        String artifactId = artifact.getArtifactId();
+        try (InputStream data = new FileInputStream(artifact.getFile())) {
+            ArtifactMetaData amd = this.getClient().createArtifact(groupId, artifactId, artifact.getVersion(), artifact.getType(),
+                    artifact.getIfExists(), artifact.getCanonicalize(), data);
+            getLog().info(String.format("Successfully registered artifact [%s] / [%s].  GlobalId is [%d]", groupId, artifactId, amd.getGlobalId()));
+            return true;
+        } catch (Exception e) {
+            getLog().error(String.format("Exception while registering artifact [%s] / [%s]", groupId, artifactId), e);
+            return false;
+        }
+    }
 }